@@ -1,6 +1,14 @@
 package com.dfragar.accounts;
 
+import com.dfragar.accounts.audit.AuditTrailProperties;
+import com.dfragar.accounts.bulk.BulkImportProperties;
+import com.dfragar.accounts.coalescing.SingleFlightProperties;
 import com.dfragar.accounts.dto.AccountsContactInfoDto;
+import com.dfragar.accounts.jdbc.StatementAccountingProperties;
+import com.dfragar.accounts.membership.MobileNumberFilterProperties;
+import com.dfragar.accounts.profiling.JfrProperties;
+import com.dfragar.accounts.refresh.ConfigSnapshotProperties;
+import com.dfragar.accounts.service.client.LastKnownGoodProperties;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -15,7 +23,10 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @SpringBootApplication
 @EnableFeignClients
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {AccountsContactInfoDto.class})
+@EnableConfigurationProperties(value = {AccountsContactInfoDto.class, BulkImportProperties.class,
+        AuditTrailProperties.class, StatementAccountingProperties.class, ConfigSnapshotProperties.class,
+        JfrProperties.class, LastKnownGoodProperties.class, SingleFlightProperties.class,
+        MobileNumberFilterProperties.class})
 @OpenAPIDefinition(
         info = @Info(
                 title = "Accounts microservice REST API Documentation",
@@ -0,0 +1,114 @@
+package com.dfragar.accounts.audit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.time.Instant;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that captures a change record for every persisted, updated or removed entity.
+ * <p>
+ * The entity state is copied when the change is flushed, but the record only reaches the
+ * {@link AuditTrailPublisher} once the transaction commits, so rolled back changes never appear in the trail.
+ * Writes made through JPQL bulk statements or plain JDBC bypass the callbacks, so their callers capture them with
+ * {@link #captureWritten(Object, AuditRecord.Action)} or
+ * {@link #captureWritten(String, Object, AuditRecord.Action, Map)} from within the writing transaction.
+ */
+@Component
+public class AuditTrailListener {
+
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<>() {
+    };
+
+    private final AuditTrailPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final String service;
+
+    public AuditTrailListener(AuditTrailPublisher publisher, ObjectMapper objectMapper,
+            AuditorAware<String> auditorAware, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+            @Value("${spring.application.name}") String service) {
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.entityManagerFactory = entityManagerFactory;
+        this.service = service;
+    }
+
+    public boolean isEnabled() {
+        return publisher.isEnabled();
+    }
+
+    /**
+     * Captures an entity, as it is after a change written by a statement the JPA callbacks never see
+     */
+    public void captureWritten(Object entity, AuditRecord.Action action) {
+        capture(entity, action);
+    }
+
+    /**
+     * Captures a row written by a JDBC statement, without loading its entity
+     *
+     * @param entityType - Simple name of the entity the row belongs to
+     * @param entityId - Identifier of the entity
+     * @param state - Properties of the entity after the change, named as in the entity
+     */
+    public void captureWritten(String entityType, Object entityId, AuditRecord.Action action,
+            Map<String, Object> state) {
+        if (!publisher.isEnabled()) {
+            return;
+        }
+        publishAfterCommit(new AuditRecord(service, entityType, String.valueOf(entityId), action,
+                auditorAware.getCurrentAuditor().orElse(null), Instant.now(), state));
+    }
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        capture(entity, AuditRecord.Action.CREATE);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        capture(entity, AuditRecord.Action.UPDATE);
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        capture(entity, AuditRecord.Action.DELETE);
+    }
+
+    private void capture(Object entity, AuditRecord.Action action) {
+        if (!publisher.isEnabled()) {
+            return;
+        }
+        Object id = entityManagerFactory.getObject().getPersistenceUnitUtil().getIdentifier(entity);
+        publishAfterCommit(new AuditRecord(service, entity.getClass().getSimpleName(), String.valueOf(id),
+                action, auditorAware.getCurrentAuditor().orElse(null), Instant.now(),
+                objectMapper.convertValue(entity, STATE_TYPE)));
+    }
+
+    private void publishAfterCommit(AuditRecord auditRecord) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publisher.capture(auditRecord);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publisher.capture(auditRecord);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.dfragar.accounts.audit;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "accounts.audit")
+@Getter
+@Setter
+public class AuditTrailProperties {
+
+    private boolean enabled = true;
+    private int queueCapacity = 10_000;
+    private int batchSize = 500;
+    private Duration linger = Duration.ofMillis(200);
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,46 @@
+package com.dfragar.accounts.bulk;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Feeds the chunks of a {@link BulkImportReader} to an importer running on virtual threads.
+ * <p>
+ * The reader waits for a free permit before reading the next chunk, so at most concurrency chunks are in memory
+ * and a slow database throttles the upload instead of buffering it.
+ */
+public final class BulkImportRunner {
+
+    private BulkImportRunner() {
+        // restrict instantiation
+    }
+
+    public static void run(BulkImportReader reader, BulkImportProperties properties, BulkImportReport report,
+            Consumer<List<ImportRow>> chunkImporter) throws IOException {
+        Semaphore permits = new Semaphore(properties.getConcurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<ImportRow> chunk;
+            while (true) {
+                permits.acquireUninterruptibly();
+                chunk = reader.nextChunk(properties.getChunkSize());
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                report.read(chunk.size());
+                List<ImportRow> rows = chunk;
+                executor.submit(() -> {
+                    try {
+                        chunkImporter.accept(rows);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+}
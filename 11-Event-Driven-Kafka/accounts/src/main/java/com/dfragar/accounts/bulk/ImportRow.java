@@ -0,0 +1,25 @@
+package com.dfragar.accounts.bulk;
+
+import java.util.Map;
+
+/**
+ * @param line - Line of the row in the imported body, starting at 1
+ * @param fields - Values of the row by column or property name
+ * @param error - Reason the row could not be parsed, null when it was parsed
+ */
+public record ImportRow(
+        long line,
+        Map<String, String> fields,
+        String error
+) {
+
+    public static ImportRow invalid(long line, String error) {
+        return new ImportRow(line, Map.of(), error);
+    }
+
+    public String field(String name) {
+        String value = fields.get(name);
+        return value == null ? null : value.trim();
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.dfragar.accounts.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.BindResult;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the bulkhead limits changed in the config server to the bulkheads already created, which resilience4j only
+ * configures once. Called on {@code /actuator/refresh} and by
+ * {@link com.dfragar.accounts.refresh.TargetedConfigRefresher} for pushed changes.
+ * <p>
+ * The limits of every bulkhead are read from {@code resilience4j.bulkhead.instances.<name>}, then from
+ * {@code resilience4j.bulkhead.configs.default}, keeping the current value when neither sets it.
+ */
+@Component
+public class BulkheadLimits {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadLimits.class);
+
+    static final String PREFIX = "resilience4j.bulkhead.";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Environment environment;
+
+    public BulkheadLimits(BulkheadRegistry bulkheadRegistry, Environment environment) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.environment = environment;
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        apply(event.getKeys());
+    }
+
+    /**
+     * Reconfigures the bulkheads when any of the changed properties is a bulkhead one
+     *
+     * @param keys - names of the changed properties
+     */
+    public void apply(Collection<String> keys) {
+        if (keys.stream().noneMatch(key -> key.startsWith(PREFIX))) {
+            return;
+        }
+        Binder binder = Binder.get(environment);
+        for (Bulkhead bulkhead : bulkheadRegistry.getAllBulkheads()) {
+            BulkheadConfig current = bulkhead.getBulkheadConfig();
+            int maxConcurrentCalls = limit(binder, bulkhead.getName(), "max-concurrent-calls", Integer.class)
+                    .orElse(current.getMaxConcurrentCalls());
+            Duration maxWaitDuration = limit(binder, bulkhead.getName(), "max-wait-duration", Duration.class)
+                    .orElse(current.getMaxWaitDuration());
+            if (maxConcurrentCalls != current.getMaxConcurrentCalls()
+                    || !maxWaitDuration.equals(current.getMaxWaitDuration())) {
+                bulkhead.changeConfig(BulkheadConfig.from(current)
+                        .maxConcurrentCalls(maxConcurrentCalls)
+                        .maxWaitDuration(maxWaitDuration)
+                        .build());
+                logger.info("Bulkhead {} now allows {} concurrent calls waiting up to {}", bulkhead.getName(),
+                        maxConcurrentCalls, maxWaitDuration);
+            }
+        }
+    }
+
+    private static <T> Optional<T> limit(Binder binder, String name, String property, Class<T> type) {
+        BindResult<T> instance = binder.bind(PREFIX + "instances." + name + "." + property, type);
+        if (instance.isBound()) {
+            return Optional.of(instance.get());
+        }
+        BindResult<T> defaults = binder.bind(PREFIX + "configs.default." + property, type);
+        return defaults.isBound() ? Optional.of(defaults.get()) : Optional.empty();
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.dfragar.accounts.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the calls every bulkhead rejects as {@code accounts.bulkhead.rejected}, tagged with the bulkhead name.
+ * Together with {@code resilience4j.bulkhead.available.concurrent.calls} and
+ * {@code resilience4j.bulkhead.max.allowed.concurrent.calls} it shows how saturated each client and endpoint group
+ * is.
+ */
+@Component
+public class BulkheadMetrics implements RegistryEventConsumer<Bulkhead> {
+
+    private final MeterRegistry meterRegistry;
+
+    public BulkheadMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onEntryAddedEvent(EntryAddedEvent<Bulkhead> entryAddedEvent) {
+        countRejections(entryAddedEvent.getAddedEntry());
+    }
+
+    @Override
+    public void onEntryRemovedEvent(EntryRemovedEvent<Bulkhead> entryRemoveEvent) {
+    }
+
+    @Override
+    public void onEntryReplacedEvent(EntryReplacedEvent<Bulkhead> entryReplacedEvent) {
+        countRejections(entryReplacedEvent.getNewEntry());
+    }
+
+    private void countRejections(Bulkhead bulkhead) {
+        Counter rejected = Counter.builder("accounts.bulkhead.rejected")
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.dfragar.accounts.bulkhead;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits the requests in flight of every Feign client with a semaphore bulkhead named after the client, such as
+ * {@code cards} or {@code loans}, so a slow dependency holds at most that many request threads. A request over the
+ * limit fails at once with a {@link io.github.resilience4j.bulkhead.BulkheadFullException}, which the circuit
+ * breaker hands to the client's fallback. Applied to every client as a Feign capability.
+ */
+@Component
+public class FeignClientBulkhead implements Capability {
+
+    static final String UNKNOWN_CLIENT = "feign";
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public FeignClientBulkhead(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(clientName(request));
+            bulkhead.acquirePermission();
+            try {
+                return client.execute(request, options);
+            } finally {
+                bulkhead.onComplete();
+            }
+        };
+    }
+
+    /**
+     * @return the name of the Feign client, e.g. cards
+     */
+    private static String clientName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.feignTarget() != null ? template.feignTarget().name() : UNKNOWN_CLIENT;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.dfragar.accounts.coalescing;
+
+import com.dfragar.accounts.dto.CustomerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Single-flight layer of the customer and account lookups by mobile number, so a hot customer is read once however
+ * many requests ask for it at the same time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, CustomerDto> fetchAccountFlight(SingleFlightProperties properties,
+            MeterRegistry meterRegistry) {
+        return new SingleFlight<>("fetchAccount", properties, meterRegistry);
+    }
+
+}
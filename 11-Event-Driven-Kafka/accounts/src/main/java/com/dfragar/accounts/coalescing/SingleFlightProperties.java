@@ -0,0 +1,20 @@
+package com.dfragar.accounts.coalescing;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "accounts.single-flight")
+@Getter
+@Setter
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a caller waits for the load it joined before running the load itself
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+}
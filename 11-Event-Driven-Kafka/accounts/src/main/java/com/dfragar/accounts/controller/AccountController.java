@@ -1,11 +1,15 @@
 package com.dfragar.accounts.controller;
 
+import com.dfragar.accounts.bulk.BulkImportReader;
 import com.dfragar.accounts.constant.AccountConstants;
 import com.dfragar.accounts.dto.AccountsContactInfoDto;
+import com.dfragar.accounts.dto.BulkImportReportDto;
 import com.dfragar.accounts.dto.CustomerDto;
 import com.dfragar.accounts.dto.ErrorResponseDto;
 import com.dfragar.accounts.dto.ResponseDto;
 import com.dfragar.accounts.service.IAccountService;
+import com.dfragar.accounts.service.IBulkImportService;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,9 +20,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import java.io.InputStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +34,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -43,8 +50,11 @@ public class AccountController {
 
     private final IAccountService iAccountService;
 
-    public AccountController(IAccountService iAccountService) {
+    private final IBulkImportService iBulkImportService;
+
+    public AccountController(IAccountService iAccountService, IBulkImportService iBulkImportService) {
         this.iAccountService = iAccountService;
+        this.iBulkImportService = iBulkImportService;
     }
 
     @Value("${build.version}")
@@ -74,6 +84,7 @@ public class AccountController {
             )
     }
     )
+    @Bulkhead(name = "accounts")
     @PostMapping("/create")
     public ResponseEntity<ResponseDto> createAccount(@Valid @RequestBody CustomerDto customerDto) {
         iAccountService.createAccount(customerDto);
@@ -101,6 +112,7 @@ public class AccountController {
             )
     }
     )
+    @Bulkhead(name = "accounts")
     @GetMapping("/fetch")
     public ResponseEntity<CustomerDto> fetchAccountDetails(
             @RequestParam
@@ -135,6 +147,7 @@ public class AccountController {
             )
     }
     )
+    @Bulkhead(name = "accounts")
     @PutMapping("/update")
     public ResponseEntity<ResponseDto> updateAccountDetails(@Valid @RequestBody CustomerDto customerDto) {
         boolean isUpdated = iAccountService.updateAccount(customerDto);
@@ -150,6 +163,34 @@ public class AccountController {
         }
     }
 
+    @Operation(
+            summary = "Bulk Import REST API",
+            description = "REST API to import customers with their savings account from a CSV or NDJSON body streamed row by row"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping(path = "/import", consumes = {BulkImportReader.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportReportDto> importRows(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        BulkImportReportDto bulkImportReportDto = iBulkImportService.importRows(body,
+                MediaType.parseMediaType(contentType));
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(bulkImportReportDto);
+    }
+
     @Operation(
             summary = "Delete Account & Customer Details REST API",
             description = "REST API to delete Customer & Account details based on a mobile number"
@@ -172,6 +213,7 @@ public class AccountController {
             )
     }
     )
+    @Bulkhead(name = "accounts")
     @DeleteMapping("/delete")
     public ResponseEntity<ResponseDto> deleteAccountDetails(
             @RequestParam
@@ -2,14 +2,21 @@ package com.dfragar.accounts.controller;
 
 import com.dfragar.accounts.dto.CustomerDetailsDto;
 import com.dfragar.accounts.dto.ErrorResponseDto;
+import com.dfragar.accounts.service.ICustomerExportService;
 import com.dfragar.accounts.service.ICustomersService;
+import com.dfragar.accounts.service.impl.CustomerExportServiceImpl;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,8 +42,11 @@ public class CustomerController {
 
     private final ICustomersService iCustomersService;
 
-    public CustomerController(ICustomersService iCustomersService) {
+    private final ICustomerExportService iCustomerExportService;
+
+    public CustomerController(ICustomersService iCustomersService, ICustomerExportService iCustomerExportService) {
         this.iCustomersService = iCustomersService;
+        this.iCustomerExportService = iCustomerExportService;
     }
 
     @Operation(
@@ -57,6 +67,7 @@ public class CustomerController {
             )
     }
     )
+    @Bulkhead(name = "customers")
     @GetMapping("/fetchCustomerDetails")
     public ResponseEntity<CustomerDetailsDto> fetchCustomerDetails(@RequestHeader("bank-correlation-id")
             String correlationId,
@@ -71,4 +82,38 @@ public class CustomerController {
 
     }
 
-}
\ No newline at end of file
+    @Operation(
+            summary = "Export Customers REST API",
+            description = "REST API to stream every Customer with its Account as NDJSON or CSV, ordered by customerId. "
+                    + "An interrupted export is resumed by passing the last customerId received as afterCustomerId"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public void exportCustomers(
+            @RequestParam(defaultValue = CustomerExportServiceImpl.FORMAT_NDJSON)
+            @Pattern(regexp = "(ndjson|csv)", message = "Format must be ndjson or csv")
+            String format,
+            @RequestParam(defaultValue = "0")
+            @PositiveOrZero(message = "afterCustomerId can not be negative")
+            long afterCustomerId,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(CustomerExportServiceImpl.FORMAT_CSV.equals(format)
+                ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        iCustomerExportService.exportCustomers(response.getOutputStream(), format, afterCustomerId);
+    }
+
+}
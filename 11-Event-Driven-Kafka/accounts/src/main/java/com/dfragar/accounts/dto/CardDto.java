@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Instant;
 import lombok.Data;
 
 @Schema(name = "Card",
@@ -51,4 +52,15 @@ public class CardDto {
     )
     private int availableAmount;
 
+    @Schema(
+            description = "Whether cards could not be reached and this is the last card known for the customer",
+            example = "false"
+    )
+    private boolean stale;
+
+    @Schema(
+            description = "When a stale card was fetched from cards", example = "2025-01-30T10:15:30Z"
+    )
+    private Instant fetchedAt;
+
 }
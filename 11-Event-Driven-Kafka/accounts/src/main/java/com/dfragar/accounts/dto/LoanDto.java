@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Instant;
 import lombok.Data;
 
 @Schema(name = "Loan",
@@ -51,4 +52,15 @@ public class LoanDto {
     )
     private int outstandingAmount;
 
+    @Schema(
+            description = "Whether loans could not be reached and this is the last loan known for the customer",
+            example = "false"
+    )
+    private boolean stale;
+
+    @Schema(
+            description = "When a stale loan was fetched from loans", example = "2025-01-30T10:15:30Z"
+    )
+    private Instant fetchedAt;
+
 }
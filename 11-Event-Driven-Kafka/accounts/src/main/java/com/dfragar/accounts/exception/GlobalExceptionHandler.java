@@ -1,6 +1,7 @@
 package com.dfragar.accounts.exception;
 
 import com.dfragar.accounts.dto.ErrorResponseDto;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -73,4 +74,17 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponseDto> handleBulkheadFullException(
+            BulkheadFullException exception,
+            WebRequest webRequest) {
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
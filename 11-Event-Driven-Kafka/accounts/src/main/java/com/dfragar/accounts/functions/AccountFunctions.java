@@ -1,11 +1,16 @@
 package com.dfragar.accounts.functions;
 
+import com.dfragar.accounts.jdbc.StatementAccounting;
+import com.dfragar.accounts.refresh.ConfigChange;
+import com.dfragar.accounts.refresh.ConfigSnapshotReconciler;
+import com.dfragar.accounts.refresh.TargetedConfigRefresher;
 import com.dfragar.accounts.service.IAccountService;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
 
 @Configuration
 public class AccountFunctions {
@@ -13,11 +18,29 @@ public class AccountFunctions {
     private static final Logger log = LoggerFactory.getLogger(AccountFunctions.class);
 
     @Bean
-    public Consumer<Long> updateCommunication(IAccountService accountsService) {
-        return accountNumber -> {
-            log.info("Updating Communication status for the account number : " + accountNumber.toString());
-            accountsService.updateCommunicationStatus(accountNumber);
+    public Consumer<Message<Long>> updateCommunication(IAccountService accountsService,
+            StatementAccounting statementAccounting, CommunicationMetrics communicationMetrics) {
+        return message -> {
+            Long accountNumber = message.getPayload();
+            communicationMetrics.recordDwell(message.getHeaders());
+            log.atInfo().setMessage("Updating communication status")
+                    .addKeyValue("accountNumber", accountNumber)
+                    .log();
+            communicationMetrics.accountsUpdate().record(() ->
+                    statementAccounting.record(StatementAccounting.KIND_MESSAGE, "updateCommunication",
+                            () -> accountsService.updateCommunicationStatus(accountNumber)));
+            communicationMetrics.recordLatency(message.getHeaders());
         };
     }
 
+    /**
+     * Bound without a consumer group, so every instance receives every change. Encrypted properties arrive by name
+     * and are read back from the config server before the change is applied.
+     */
+    @Bean
+    public Consumer<ConfigChange> configChanges(TargetedConfigRefresher targetedConfigRefresher,
+            ConfigSnapshotReconciler configSnapshotReconciler) {
+        return change -> targetedConfigRefresher.apply(configSnapshotReconciler.resolveEncrypted(change));
+    }
+
 }
@@ -0,0 +1,99 @@
+package com.dfragar.accounts.functions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency of the account communication pipeline: accounts, send-communication, message (email|sms),
+ * communication-sent and back to accounts.
+ * <p>
+ * The time the communication request was produced travels in the {@value #PRODUCED_AT_HEADER} header through
+ * both topics. {@code communication.hop} times every hop, {@code communication.latency} the whole round trip, as a
+ * histogram to set SLOs on. Broker dwell and the round trip compare clocks of different hosts, skew between them
+ * shows up in those two.
+ */
+@Component
+public class CommunicationMetrics {
+
+    /** epoch milliseconds at which the communication request was produced */
+    public static final String PRODUCED_AT_HEADER = "bank-produced-at";
+
+    private final Timer producerSend;
+    private final Timer communicationSentDwell;
+    private final Timer accountsUpdate;
+    private final Timer latency;
+
+    public CommunicationMetrics(MeterRegistry meterRegistry) {
+        this.producerSend = hop(meterRegistry, "producer-send");
+        this.communicationSentDwell = hop(meterRegistry, "communication-sent-dwell");
+        this.accountsUpdate = hop(meterRegistry, "accounts-update");
+        this.latency = Timer.builder("communication.latency")
+                .description("From the account creation to the communication acknowledged in accounts")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer hop(MeterRegistry meterRegistry, String hop) {
+        return Timer.builder("communication.hop")
+                .description("Latency of one hop of the communication pipeline")
+                .tag("hop", hop)
+                .register(meterRegistry);
+    }
+
+    public Timer producerSend() {
+        return producerSend;
+    }
+
+    public Timer accountsUpdate() {
+        return accountsUpdate;
+    }
+
+    /**
+     * Records how long the communication-sent record waited in the broker, against the clock of this host
+     */
+    public void recordDwell(MessageHeaders headers) {
+        if (headers.get(KafkaHeaders.RECEIVED_TIMESTAMP) instanceof Long timestamp) {
+            communicationSentDwell.record(since(timestamp));
+        }
+    }
+
+    /**
+     * Records the round trip of a communication acknowledged now
+     */
+    public void recordLatency(MessageHeaders headers) {
+        Long producedAt = epochMillis(headers.get(PRODUCED_AT_HEADER));
+        if (producedAt != null) {
+            latency.record(since(producedAt));
+        }
+    }
+
+    private static Duration since(long epochMillis) {
+        return Duration.ofMillis(Math.max(0, System.currentTimeMillis() - epochMillis));
+    }
+
+    /**
+     * Header values arrive as numbers, or as text or bytes when the type information was not carried
+     */
+    static Long epochMillis(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        String text = value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8)
+                : value instanceof String string ? string
+                : null;
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
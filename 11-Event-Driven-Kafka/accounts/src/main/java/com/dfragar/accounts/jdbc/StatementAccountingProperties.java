@@ -0,0 +1,29 @@
+package com.dfragar.accounts.jdbc;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "accounts.jdbc")
+@Getter
+@Setter
+public class StatementAccountingProperties {
+
+    /**
+     * Statements a request or message may issue before it is reported as over budget
+     */
+    private int statementBudget = 20;
+
+    /**
+     * Per endpoint budgets overriding the default, keyed as "GET /api/fetch" or "message updateCommunication"
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    /**
+     * Executions of the same statement within one request that are reported as a likely N+1
+     */
+    private int repeatedStatementThreshold = 10;
+
+}
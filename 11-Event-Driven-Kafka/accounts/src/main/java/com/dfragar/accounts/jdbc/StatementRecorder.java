@@ -0,0 +1,94 @@
+package com.dfragar.accounts.jdbc;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Datasource proxy listener that attributes every statement, and every row read or changed, to the scope open on
+ * the executing thread. Statements run outside any scope, such as scheduled flushes, are not counted.
+ */
+public class StatementRecorder implements QueryExecutionListener, MethodExecutionListener {
+
+    private final ThreadLocal<StatementScope> current = new ThreadLocal<>();
+
+    StatementScope open(int repeatedThreshold) {
+        StatementScope scope = new StatementScope(current.get(), repeatedThreshold);
+        current.set(scope);
+        return scope;
+    }
+
+    StatementStats close(StatementScope scope) {
+        StatementScope parent = scope.parent();
+        if (parent == null) {
+            current.remove();
+        } else {
+            current.set(parent);
+            scope.mergeInto(parent);
+        }
+        return scope.stats();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementScope scope = current.get();
+        if (scope != null) {
+            scope.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementScope scope = current.get();
+        if (scope == null) {
+            return;
+        }
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining(";"));
+        scope.statementFinished(sql, rowsChanged(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        // rows are only known once next() returns
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        Method method = executionContext.getMethod();
+        if (!"next".equals(method.getName()) || !(executionContext.getTarget() instanceof ResultSet)
+                || !Boolean.TRUE.equals(executionContext.getResult())) {
+            return;
+        }
+        StatementScope scope = current.get();
+        if (scope != null) {
+            scope.rowRead();
+        }
+    }
+
+    private static long rowsChanged(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+}
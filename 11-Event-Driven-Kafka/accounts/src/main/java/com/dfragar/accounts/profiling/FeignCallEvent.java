@@ -0,0 +1,32 @@
+package com.dfragar.accounts.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(FeignCallEvent.NAME)
+@Label("Feign Call")
+@Description("HTTP call of a Feign client to another microservice")
+@Category({"Bank", "Accounts"})
+@StackTrace(false)
+public class FeignCallEvent extends Event {
+
+    public static final String NAME = "com.dfragar.accounts.FeignCall";
+
+    @Label("Client Method")
+    String client;
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Status")
+    @Description("Response status, -1 when no response came back")
+    int status;
+
+}
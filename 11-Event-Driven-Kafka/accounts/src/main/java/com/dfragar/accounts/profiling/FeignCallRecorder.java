@@ -0,0 +1,51 @@
+package com.dfragar.accounts.profiling;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records a {@link FeignCallEvent} around every request of the Feign clients, such as the card and loan lookups
+ * of {@link com.dfragar.accounts.service.impl.CustomerServiceImpl}. Applied to every client as a Feign capability.
+ */
+@Component
+public class FeignCallRecorder implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            FeignCallEvent event = new FeignCallEvent();
+            if (!event.isEnabled()) {
+                return client.execute(request, options);
+            }
+            event.begin();
+            int status = -1;
+            try {
+                Response response = client.execute(request, options);
+                status = response.status();
+                return response;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.client = clientMethod(request);
+                    event.method = request.httpMethod().name();
+                    event.url = request.url();
+                    event.status = status;
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the client interface and method, e.g. CardFeignClient#fetchCardDetails(String,String)
+     */
+    private static String clientMethod(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.methodMetadata() != null ? template.methodMetadata().configKey() : null;
+    }
+
+}
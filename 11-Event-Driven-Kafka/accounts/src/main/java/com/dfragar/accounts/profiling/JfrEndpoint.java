@@ -0,0 +1,71 @@
+package com.dfragar.accounts.profiling;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * JDK Flight Recorder on demand at /actuator/jfr: GET lists the recordings, POST starts a time-boxed session,
+ * GET /actuator/jfr/{id} downloads a recording, {@value JfrRecordings#CONTINUOUS} included, and DELETE
+ * /actuator/jfr/{id} stops a session early.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrRecordings jfrRecordings;
+
+    public JfrEndpoint(JfrRecordings jfrRecordings) {
+        this.jfrRecordings = jfrRecordings;
+    }
+
+    @ReadOperation
+    public List<JfrSession> recordings() {
+        return jfrRecordings.list();
+    }
+
+    /**
+     * @param duration - time box, e.g. 30s
+     * @param settings - JFR configuration, "default" or "profile"
+     */
+    @WriteOperation
+    public WebEndpointResponse<JfrSession> start(@Nullable Duration duration, @Nullable String settings)
+            throws IOException {
+        if (!jfrRecordings.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        try {
+            return new WebEndpointResponse<>(jfrRecordings.start(duration, settings));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Selector String id) throws IOException {
+        return jfrRecordings.data(id)
+                .map(file -> new WebEndpointResponse<Resource>(new FileSystemResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<JfrSession> stop(@Selector String id) {
+        return jfrRecordings.stop(id)
+                .map(session -> new WebEndpointResponse<>(session))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+}
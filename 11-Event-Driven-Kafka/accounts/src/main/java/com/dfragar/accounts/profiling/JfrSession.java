@@ -0,0 +1,26 @@
+package com.dfragar.accounts.profiling;
+
+import java.time.Duration;
+import java.time.Instant;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * State of a recording as reported by /actuator/jfr.
+ *
+ * @param id        selector to download or stop the recording with
+ * @param name      recording name
+ * @param state     whether it is still recording
+ * @param startTime when it started
+ * @param duration  time box, none for the continuous recording
+ * @param size      bytes recorded so far
+ */
+public record JfrSession(String id, String name, RecordingState state, Instant startTime, Duration duration,
+        long size) {
+
+    static JfrSession of(String id, Recording recording) {
+        return new JfrSession(id, recording.getName(), recording.getState(), recording.getStartTime(),
+                recording.getDuration(), recording.getSize());
+    }
+
+}
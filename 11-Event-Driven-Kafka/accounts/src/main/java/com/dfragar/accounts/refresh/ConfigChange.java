@@ -0,0 +1,35 @@
+package com.dfragar.accounts.refresh;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration change pushed by the config server on the config-changes topic.
+ *
+ * @param application application name
+ * @param profile     comma separated profiles the change applies to
+ * @param label       label the configuration was read from
+ * @param version     backend version of the new configuration
+ * @param changed     properties added or changed, with their new value
+ * @param encrypted   properties added or changed whose new value is encrypted, to be read from the config server
+ * @param removed     properties no longer present
+ * @param detectedAt  when the config server detected the change
+ */
+public record ConfigChange(
+        String application,
+        String profile,
+        String label,
+        String version,
+        Map<String, Object> changed,
+        List<String> encrypted,
+        List<String> removed,
+        Instant detectedAt
+) {
+
+    public ConfigChange {
+        // absent from the changes of a config server that still publishes every value
+        encrypted = encrypted == null ? List.of() : encrypted;
+    }
+
+}
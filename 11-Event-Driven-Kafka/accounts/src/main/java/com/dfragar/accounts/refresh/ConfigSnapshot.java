@@ -0,0 +1,46 @@
+package com.dfragar.accounts.refresh;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Last configuration received from the config server, as stored in the local snapshot file.
+ *
+ * @param application     application name
+ * @param profile         comma separated profiles
+ * @param label           label the configuration was read from
+ * @param version         backend version of the configuration, when known
+ * @param etag            ETag the config server answered with, when known
+ * @param savedAt         when the snapshot was written
+ * @param propertySources config server property sources, highest precedence first
+ */
+public record ConfigSnapshot(
+        String application,
+        String profile,
+        String label,
+        String version,
+        String etag,
+        Instant savedAt,
+        List<Source> propertySources
+) {
+
+    /**
+     * @param name       property source name, prefixed with {@code configserver:}
+     * @param properties properties of the source
+     */
+    public record Source(String name, Map<String, Object> properties) {
+
+    }
+
+    /**
+     * Flattens the property sources, the first one holding a property wins
+     */
+    public Map<String, Object> properties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        propertySources.forEach(source -> source.properties().forEach(properties::putIfAbsent));
+        return properties;
+    }
+
+}
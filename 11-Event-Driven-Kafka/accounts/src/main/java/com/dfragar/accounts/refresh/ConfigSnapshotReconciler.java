@@ -0,0 +1,198 @@
+package com.dfragar.accounts.refresh;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Brings an application started from the configuration snapshot, or without any remote configuration, up to date
+ * with the config server once it is running.
+ * <p>
+ * The config server is asked in the background until it answers, conditionally on the snapshot's ETag. The
+ * difference to the running configuration is applied through {@link TargetedConfigRefresher}, and the snapshot is
+ * rewritten. The {@code config.source} gauge tells where the running configuration came from.
+ */
+@Component
+public class ConfigSnapshotReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotReconciler.class);
+
+    private static final String CONFIG_SERVER_PREFIX = "configserver:";
+
+    private final ConfigSnapshotState state;
+    private final TargetedConfigRefresher targetedConfigRefresher;
+    private final ConfigServerClient configServerClient;
+    private volatile Thread worker;
+
+    @Autowired
+    public ConfigSnapshotReconciler(ObjectProvider<ConfigSnapshotState> state,
+            TargetedConfigRefresher targetedConfigRefresher, RestClient.Builder restClientBuilder,
+            MeterRegistry meterRegistry) {
+        this(state.getIfAvailable(), targetedConfigRefresher, restClientBuilder, meterRegistry);
+    }
+
+    ConfigSnapshotReconciler(ConfigSnapshotState state, TargetedConfigRefresher targetedConfigRefresher,
+            RestClient.Builder restClientBuilder, MeterRegistry meterRegistry) {
+        this.state = state;
+        this.targetedConfigRefresher = targetedConfigRefresher;
+        this.configServerClient = new ConfigServerClient(restClientBuilder);
+        for (ConfigSource source : ConfigSource.values()) {
+            Gauge.builder("config.source", () -> source() == source ? 1 : 0)
+                    .description("Where the running configuration came from")
+                    .tag("source", source.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return where the running configuration came from
+     */
+    public ConfigSource source() {
+        return state == null ? ConfigSource.LOCAL : state.getSource();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (state == null || state.getSource() == ConfigSource.CONFIG_SERVER) {
+            return;
+        }
+        worker = Thread.ofVirtual().name("config-snapshot-reconciler").start(() -> {
+            try {
+                while (!reconcile()) {
+                    Thread.sleep(state.getRetryInterval());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Asks the config server for the configuration and applies the difference to the running one
+     *
+     * @return true when a config server answered
+     */
+    boolean reconcile() {
+        ConfigSnapshot current = state.getSnapshot();
+        for (String uri : state.getUris()) {
+            try {
+                ResponseEntity<Environment> response = configServerClient.environment(state, uri,
+                        current == null ? null : current.etag());
+                if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                    state.update(ConfigSource.CONFIG_SERVER, current);
+                    logger.info("Configuration snapshot is up to date with {}", uri);
+                } else {
+                    apply(current, response.getBody(), response.getHeaders().getETag());
+                }
+                return true;
+            } catch (RestClientException e) {
+                logger.debug("Config server {} unavailable: {}", uri, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads back from the config server the encrypted properties of a pushed change, which carries their names only so
+     * secrets never travel decrypted over the broker
+     *
+     * @param change - change pushed by the config server
+     * @return the change with their decrypted values, or as pushed when no config server answers, in which case they
+     * are only picked up on restart
+     */
+    public ConfigChange resolveEncrypted(ConfigChange change) {
+        if (change.encrypted().isEmpty() || state == null
+                || !Objects.equals(change.application(), state.getApplication())) {
+            return change;
+        }
+        for (String uri : state.getUris()) {
+            try {
+                Environment environment = configServerClient.environment(state, uri, null).getBody();
+                Map<String, Object> properties = new LinkedHashMap<>();
+                environment.getPropertySources().forEach(propertySource -> propertySource.getSource()
+                        .forEach((name, value) -> properties.putIfAbsent(name.toString(), value)));
+                Map<String, Object> changed = new LinkedHashMap<>(change.changed());
+                List<String> removed = new ArrayList<>(change.removed());
+                change.encrypted().forEach(name -> {
+                    if (properties.containsKey(name)) {
+                        changed.put(name, properties.get(name));
+                    } else {
+                        removed.add(name);
+                    }
+                });
+                return new ConfigChange(change.application(), change.profile(), change.label(), change.version(),
+                        changed, List.of(), removed, change.detectedAt());
+            } catch (RestClientException e) {
+                logger.debug("Config server {} unavailable: {}", uri, e.getMessage());
+            }
+        }
+        logger.warn("Could not read the encrypted properties {} from the config server, they keep their value",
+                change.encrypted());
+        return change;
+    }
+
+    private void apply(ConfigSnapshot current, Environment environment, String etag) {
+        List<ConfigSnapshot.Source> sources = new ArrayList<>();
+        environment.getPropertySources().forEach(propertySource -> {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            propertySource.getSource().forEach((name, value) -> properties.put(name.toString(), value));
+            sources.add(new ConfigSnapshot.Source(CONFIG_SERVER_PREFIX + propertySource.getName(), properties));
+        });
+        ConfigSnapshot received = new ConfigSnapshot(state.getApplication(), state.getProfile(), state.getLabel(),
+                environment.getVersion(), etag, Instant.now(), sources);
+
+        Map<String, Object> before = current == null ? Map.of() : current.properties();
+        Map<String, Object> after = received.properties();
+        Map<String, Object> changed = new LinkedHashMap<>();
+        after.forEach((name, value) -> {
+            if (!Objects.equals(before.get(name), value)) {
+                changed.put(name, value);
+            }
+        });
+        List<String> removed = before.keySet().stream()
+                .filter(name -> !after.containsKey(name))
+                .toList();
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            targetedConfigRefresher.apply(new ConfigChange(state.getApplication(), state.getProfile(),
+                    state.getLabel(), environment.getVersion(), changed, List.of(), removed, received.savedAt()));
+        }
+        state.update(ConfigSource.CONFIG_SERVER, received);
+        logger.info("Reconciled with the config server, {} properties changed and {} removed", changed.size(),
+                removed.size());
+        if (state.isSnapshotEnabled()) {
+            try {
+                ConfigSnapshotStore.write(state.getSnapshotFile(), received, state.getSnapshotKey());
+            } catch (IOException e) {
+                logger.warn("Could not write the configuration snapshot {}", state.getSnapshotFile(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.dfragar.accounts.refresh;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Where the running configuration came from, shared by the config data loader and the application context.
+ */
+public class ConfigSnapshotState {
+
+    private final String application;
+    private final String profile;
+    private final String label;
+    private final String[] uris;
+    private final boolean snapshotEnabled;
+    private final Path snapshotFile;
+    private final String snapshotKey;
+    private final Duration retryInterval;
+    private volatile ConfigSource source = ConfigSource.LOCAL;
+    private volatile ConfigSnapshot snapshot;
+
+    public ConfigSnapshotState(String application, String profile, String label, String[] uris,
+            boolean snapshotEnabled, Path snapshotFile, String snapshotKey, Duration retryInterval) {
+        this.application = application;
+        this.profile = profile;
+        this.label = label;
+        this.uris = uris;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotFile = snapshotFile;
+        this.snapshotKey = snapshotKey;
+        this.retryInterval = retryInterval;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String[] getUris() {
+        return uris.clone();
+    }
+
+    public boolean isSnapshotEnabled() {
+        return snapshotEnabled;
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    String getSnapshotKey() {
+        return snapshotKey;
+    }
+
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    public ConfigSource getSource() {
+        return source;
+    }
+
+    /**
+     * @return the configuration last loaded from the config server or the snapshot, null when there is none
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    synchronized void update(ConfigSource source, ConfigSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.source = source;
+    }
+
+}
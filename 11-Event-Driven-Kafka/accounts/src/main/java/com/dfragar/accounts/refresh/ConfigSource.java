@@ -0,0 +1,21 @@
+package com.dfragar.accounts.refresh;
+
+import java.util.Locale;
+
+/**
+ * Where the configuration the application is running with came from.
+ */
+public enum ConfigSource {
+
+    /** received from the config server */
+    CONFIG_SERVER,
+    /** read from the local snapshot, not yet reconciled with the config server */
+    SNAPSHOT,
+    /** neither the config server nor a snapshot were available, only the packaged configuration applies */
+    LOCAL;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.dfragar.accounts.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ICustomerExportService {
+
+    /**
+     *
+     * @param outputStream - Stream the rows are written to as they are read
+     * @param format - ndjson or csv
+     * @param afterCustomerId - Only customers with a greater id are exported, 0 for all of them
+     */
+    void exportCustomers(OutputStream outputStream, String format, long afterCustomerId) throws IOException;
+
+}
@@ -1,15 +1,29 @@
 package com.dfragar.accounts.service.client;
 
-import com.dfragar.accounts.dto.CardDto;
-import org.springframework.http.ResponseEntity;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Serves the last card known for the customer, flagged as stale, while cards is unavailable. A not found from cards
+ * means there is no card any longer, so the last one is forgotten instead.
+ */
 @Component
-public class CardFallback implements CardFeignClient {
+@RequiredArgsConstructor
+public class CardFallback implements FallbackFactory<CardFeignClient> {
+
+    private final LastKnownGoodCache lastKnownGood;
 
     @Override
-    public ResponseEntity<CardDto> fetchCardDetails(String correlationId, String mobileNumber) {
-        return null;
+    public CardFeignClient create(Throwable cause) {
+        return (correlationId, mobileNumber) -> {
+            if (cause instanceof FeignException.NotFound) {
+                lastKnownGood.cards().evict(mobileNumber);
+                return null;
+            }
+            return lastKnownGood.staleCard(mobileNumber);
+        };
     }
 
 }
@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "cards", fallback = CardFallback.class)
+@FeignClient(name = "cards", fallbackFactory = CardFallback.class)
 public interface CardFeignClient {
 
     @GetMapping(value = "/api/fetch", consumes = "application/json")
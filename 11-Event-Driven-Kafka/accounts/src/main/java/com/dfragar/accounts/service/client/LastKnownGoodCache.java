@@ -0,0 +1,100 @@
+package com.dfragar.accounts.service.client;
+
+import com.dfragar.accounts.dto.CardDto;
+import com.dfragar.accounts.dto.LoanDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last successful card and loan responses, recorded by {@link LastKnownGoodRecorder} and served by the fallbacks as a
+ * copy flagged as stale, so an open circuit degrades customer details to slightly old data instead of none.
+ */
+@Component
+public class LastKnownGoodCache {
+
+    private final LastKnownGoodProperties properties;
+    private final LastKnownGoodStore<CardDto> cards;
+    private final LastKnownGoodStore<LoanDto> loans;
+    private final Counter staleCards;
+    private final Counter staleLoans;
+
+    public LastKnownGoodCache(LastKnownGoodProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cards = new LastKnownGoodStore<>(properties.getMaxEntries(), properties.getMaxAge(), Clock.systemUTC());
+        this.loans = new LastKnownGoodStore<>(properties.getMaxEntries(), properties.getMaxAge(), Clock.systemUTC());
+        Gauge.builder("accounts.last.known.good.size", cards, LastKnownGoodStore::size)
+                .tag("client", "cards").register(meterRegistry);
+        Gauge.builder("accounts.last.known.good.size", loans, LastKnownGoodStore::size)
+                .tag("client", "loans").register(meterRegistry);
+        this.staleCards = Counter.builder("accounts.last.known.good.served")
+                .tag("client", "cards").register(meterRegistry);
+        this.staleLoans = Counter.builder("accounts.last.known.good.served")
+                .tag("client", "loans").register(meterRegistry);
+    }
+
+    /**
+     * Keeps a fresh card or loan response, anything else is ignored
+     */
+    public void record(Object body) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (body instanceof CardDto card && !card.isStale() && card.getMobileNumber() != null) {
+            cards.put(card.getMobileNumber(), card);
+        } else if (body instanceof LoanDto loan && !loan.isStale() && loan.getMobileNumber() != null) {
+            loans.put(loan.getMobileNumber(), loan);
+        }
+    }
+
+    /**
+     * @param mobileNumber - mobile number of the customer
+     * @return the last card flagged as stale and marked to be fetched again, or null when there is none
+     */
+    public ResponseEntity<CardDto> staleCard(String mobileNumber) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return cards.get(mobileNumber).map(entry -> {
+            CardDto card = new CardDto();
+            BeanUtils.copyProperties(entry.value(), card);
+            card.setStale(true);
+            card.setFetchedAt(entry.fetchedAt());
+            cards.refreshLater(mobileNumber);
+            staleCards.increment();
+            return ResponseEntity.ok(card);
+        }).orElse(null);
+    }
+
+    /**
+     * @param mobileNumber - mobile number of the customer
+     * @return the last loan flagged as stale and marked to be fetched again, or null when there is none
+     */
+    public ResponseEntity<LoanDto> staleLoan(String mobileNumber) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return loans.get(mobileNumber).map(entry -> {
+            LoanDto loan = new LoanDto();
+            BeanUtils.copyProperties(entry.value(), loan);
+            loan.setStale(true);
+            loan.setFetchedAt(entry.fetchedAt());
+            loans.refreshLater(mobileNumber);
+            staleLoans.increment();
+            return ResponseEntity.ok(loan);
+        }).orElse(null);
+    }
+
+    public LastKnownGoodStore<CardDto> cards() {
+        return cards;
+    }
+
+    public LastKnownGoodStore<LoanDto> loans() {
+        return loans;
+    }
+
+}
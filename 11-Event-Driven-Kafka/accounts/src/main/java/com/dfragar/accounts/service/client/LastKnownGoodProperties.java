@@ -0,0 +1,43 @@
+package com.dfragar.accounts.service.client;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Card and loan responses kept per mobile number, served flagged as stale while cards or loans are unavailable.
+ */
+@ConfigurationProperties(prefix = "accounts.last-known-good")
+@Getter
+@Setter
+public class LastKnownGoodProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Responses kept per client, the least recently used is dropped beyond it
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Age beyond which a response is no longer served
+     */
+    private Duration maxAge = Duration.ofHours(1);
+
+    /**
+     * How often stale responses are fetched again in the background
+     */
+    private Duration refreshInterval = Duration.ofSeconds(5);
+
+    /**
+     * Stale responses fetched again per client and round
+     */
+    private int refreshBatchSize = 100;
+
+    /**
+     * Background fetches of a stale response before it is no longer fetched again until served stale once more
+     */
+    private int maxRefreshAttempts = 10;
+
+}
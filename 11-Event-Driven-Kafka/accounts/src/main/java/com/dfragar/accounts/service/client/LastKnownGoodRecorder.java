@@ -0,0 +1,30 @@
+package com.dfragar.accounts.service.client;
+
+import feign.Capability;
+import feign.codec.Decoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feign capability handing every successfully decoded response to the {@link LastKnownGoodCache}, picked up by all
+ * Feign clients as a bean.
+ */
+@Component
+@RequiredArgsConstructor
+public class LastKnownGoodRecorder implements Capability {
+
+    private final LastKnownGoodCache lastKnownGood;
+
+    @Override
+    public Decoder enrich(Decoder decoder) {
+        return (response, type) -> {
+            Object decoded = decoder.decode(response, type);
+            if (decoded instanceof ResponseEntity<?> entity && entity.getStatusCode().is2xxSuccessful()) {
+                lastKnownGood.record(entity.getBody());
+            }
+            return decoded;
+        };
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.dfragar.accounts.service.client;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fetches again, in the background and through the circuit breakers, the cards and loans served stale, so the
+ * last-known-good data is brought up to date as soon as cards or loans recover instead of on the next request.
+ * <p>
+ * A round stops at the first response still served stale: the dependency is down and the rest would be too. A
+ * mobile number is given up after a bounded number of attempts, so one that is never brought up to date cannot stop
+ * every round.
+ */
+@Component
+public class LastKnownGoodRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastKnownGoodRefresher.class);
+
+    static final String CORRELATION_ID_PREFIX = "last-known-good-";
+
+    private final CardFeignClient cardFeignClient;
+    private final LoanFeignClient loanFeignClient;
+    private final LastKnownGoodCache lastKnownGood;
+    private final LastKnownGoodProperties properties;
+    private final Thread worker;
+
+    public LastKnownGoodRefresher(CardFeignClient cardFeignClient, LoanFeignClient loanFeignClient,
+            LastKnownGoodCache lastKnownGood, LastKnownGoodProperties properties) {
+        this.cardFeignClient = cardFeignClient;
+        this.loanFeignClient = loanFeignClient;
+        this.lastKnownGood = lastKnownGood;
+        this.properties = properties;
+        this.worker = Thread.ofPlatform().name("last-known-good-refresher").daemon().unstarted(this::run);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled()) {
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(properties.getRefreshInterval());
+                refresh();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("Refreshing last-known-good responses failed", e);
+            }
+        }
+    }
+
+    void refresh() {
+        refresh(lastKnownGood.cards(), cardFeignClient::fetchCardDetails);
+        refresh(lastKnownGood.loans(), loanFeignClient::fetchLoanDetails);
+    }
+
+    private void refresh(LastKnownGoodStore<?> store, BiConsumer<String, String> fetch) {
+        for (String mobileNumber : store.pendingRefresh(properties.getRefreshBatchSize())) {
+            if (!store.tryRefresh(mobileNumber, properties.getMaxRefreshAttempts())) {
+                continue;
+            }
+            fetch.accept(CORRELATION_ID_PREFIX + UUID.randomUUID(), mobileNumber);
+            if (store.isPendingRefresh(mobileNumber)) {
+                return;
+            }
+        }
+    }
+
+}
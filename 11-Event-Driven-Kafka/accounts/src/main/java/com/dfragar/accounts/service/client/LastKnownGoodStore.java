@@ -0,0 +1,123 @@
+package com.dfragar.accounts.service.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last successful response per mobile number, bounded to the most recently used entries, and the mobile numbers
+ * whose response was served stale and is due to be fetched again.
+ *
+ * @param <T> response body type
+ */
+public class LastKnownGoodStore<T> {
+
+    /**
+     * @param value     response body
+     * @param fetchedAt when it was received
+     */
+    public record Entry<T>(T value, Instant fetchedAt) {
+
+    }
+
+    private final int maxEntries;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final Map<String, Entry<T>> entries;
+    /**
+     * Mobile numbers due to be fetched again, with the attempts made so far
+     */
+    private final Map<String, Integer> pendingRefresh = new ConcurrentHashMap<>();
+
+    public LastKnownGoodStore(int maxEntries, Duration maxAge, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                pendingRefresh.remove(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public void put(String mobileNumber, T value) {
+        synchronized (entries) {
+            entries.put(mobileNumber, new Entry<>(value, clock.instant()));
+        }
+        pendingRefresh.remove(mobileNumber);
+    }
+
+    /**
+     * @param mobileNumber - mobile number of the customer
+     * @return the last response, empty when there is none or it is older than the maximum age
+     */
+    public Optional<Entry<T>> get(String mobileNumber) {
+        synchronized (entries) {
+            Entry<T> entry = entries.get(mobileNumber);
+            if (entry != null && entry.fetchedAt().plus(maxAge).isBefore(clock.instant())) {
+                entries.remove(mobileNumber);
+                pendingRefresh.remove(mobileNumber);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(entry);
+        }
+    }
+
+    public void evict(String mobileNumber) {
+        synchronized (entries) {
+            entries.remove(mobileNumber);
+        }
+        pendingRefresh.remove(mobileNumber);
+    }
+
+    /**
+     * Marks a response served stale to be fetched again, up to as many mobile numbers as entries are kept
+     */
+    public void refreshLater(String mobileNumber) {
+        if (pendingRefresh.size() < maxEntries) {
+            pendingRefresh.putIfAbsent(mobileNumber, 0);
+        }
+    }
+
+    public boolean isPendingRefresh(String mobileNumber) {
+        return pendingRefresh.containsKey(mobileNumber);
+    }
+
+    /**
+     * Counts an attempt to fetch a response again, giving up on it once it has had the given number of attempts
+     *
+     * @return whether the mobile number is still due to be fetched again
+     */
+    public boolean tryRefresh(String mobileNumber, int maxAttempts) {
+        return pendingRefresh.computeIfPresent(mobileNumber,
+                (key, attempts) -> attempts < maxAttempts ? attempts + 1 : null) != null;
+    }
+
+    /**
+     * @param max - mobile numbers returned at most
+     * @return mobile numbers due to be fetched again, leaving out the ones without a response left to bring up to date
+     */
+    public List<String> pendingRefresh(int max) {
+        synchronized (entries) {
+            pendingRefresh.keySet().removeIf(mobileNumber -> !entries.containsKey(mobileNumber));
+        }
+        return pendingRefresh.keySet().stream().limit(max).toList();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+}
@@ -1,15 +1,29 @@
 package com.dfragar.accounts.service.client;
 
-import com.dfragar.accounts.dto.LoanDto;
-import org.springframework.http.ResponseEntity;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Serves the last loan known for the customer, flagged as stale, while loans is unavailable. A not found from loans
+ * means there is no loan any longer, so the last one is forgotten instead.
+ */
 @Component
-public class LoanFallback implements LoanFeignClient {
+@RequiredArgsConstructor
+public class LoanFallback implements FallbackFactory<LoanFeignClient> {
+
+    private final LastKnownGoodCache lastKnownGood;
 
     @Override
-    public ResponseEntity<LoanDto> fetchLoanDetails(String correlationId, String mobileNumber) {
-        return null;
+    public LoanFeignClient create(Throwable cause) {
+        return (correlationId, mobileNumber) -> {
+            if (cause instanceof FeignException.NotFound) {
+                lastKnownGood.loans().evict(mobileNumber);
+                return null;
+            }
+            return lastKnownGood.staleLoan(mobileNumber);
+        };
     }
 
 }
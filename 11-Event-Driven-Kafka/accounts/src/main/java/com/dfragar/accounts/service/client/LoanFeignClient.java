@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "loans", fallback = LoanFallback.class)
+@FeignClient(name = "loans", fallbackFactory = LoanFallback.class)
 public interface LoanFeignClient {
 
     @GetMapping(value = "/api/fetch", consumes = "application/json")
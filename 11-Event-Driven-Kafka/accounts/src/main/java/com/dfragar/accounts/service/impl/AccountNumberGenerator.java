@@ -0,0 +1,20 @@
+package com.dfragar.accounts.service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws the random 10 digit numbers given to new accounts.
+ */
+public final class AccountNumberGenerator {
+
+    private AccountNumberGenerator() {
+    }
+
+    /**
+     * @return a random account number, not checked for uniqueness
+     */
+    public static long nextAccountNumber() {
+        return 1000000000L + ThreadLocalRandom.current().nextInt(900000000);
+    }
+
+}
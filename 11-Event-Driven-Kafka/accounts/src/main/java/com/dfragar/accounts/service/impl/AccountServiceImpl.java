@@ -1,5 +1,6 @@
 package com.dfragar.accounts.service.impl;
 
+import com.dfragar.accounts.coalescing.SingleFlight;
 import com.dfragar.accounts.constant.AccountConstants;
 import com.dfragar.accounts.dto.AccountDto;
 import com.dfragar.accounts.dto.AccountMsgDto;
@@ -8,17 +9,21 @@ import com.dfragar.accounts.entity.Account;
 import com.dfragar.accounts.entity.Customer;
 import com.dfragar.accounts.exception.CustomerAlreadyExistsException;
 import com.dfragar.accounts.exception.ResourceNotFoundException;
+import com.dfragar.accounts.functions.CommunicationMetrics;
 import com.dfragar.accounts.mapper.AccountMapper;
 import com.dfragar.accounts.mapper.CustomerMapper;
+import com.dfragar.accounts.membership.MobileNumberFilter;
+import com.dfragar.accounts.profiling.MessageSendEvent;
 import com.dfragar.accounts.repository.AccountRepository;
 import com.dfragar.accounts.repository.CustomerRepository;
 import com.dfragar.accounts.service.IAccountService;
 import java.util.Optional;
-import java.util.Random;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -27,9 +32,14 @@ public class AccountServiceImpl implements IAccountService {
 
     private static final Logger log = LoggerFactory.getLogger(AccountServiceImpl.class);
 
+    private static final String SEND_COMMUNICATION_BINDING = "sendCommunication-out-0";
+
     private AccountRepository accountRepository;
     private CustomerRepository customerRepository;
     private final StreamBridge streamBridge;
+    private final CommunicationMetrics communicationMetrics;
+    private final SingleFlight<String, CustomerDto> fetchAccountFlight;
+    private final MobileNumberFilter mobileNumberFilter;
 
     /**
      *
@@ -45,17 +55,33 @@ public class AccountServiceImpl implements IAccountService {
                     "Customer already registered with given mobile number " + customerDto.getMobileNumber());
         }
 
-        Customer savedCustomer = customerRepository.save(customer);
+        mobileNumberFilter.add(customerDto.getMobileNumber());
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.save(customer);
+        } catch (DataIntegrityViolationException ex) {
+            // registered concurrently after the check above, caught by the unique index on the mobile number
+            throw new CustomerAlreadyExistsException(
+                    "Customer already registered with given mobile number " + customerDto.getMobileNumber());
+        }
         Account savedAccount = accountRepository.save(createNewAccount(savedCustomer));
+        fetchAccountFlight.forget(customerDto.getMobileNumber());
         sendCommunication(savedAccount, savedCustomer);
     }
 
     private void sendCommunication(Account account, Customer customer) {
         var accountsMsgDto = new AccountMsgDto(account.getAccountNumber(), customer.getName(),
                 customer.getEmail(), customer.getMobileNumber());
-        log.info("Sending Communication request for the details: {}", accountsMsgDto);
-        var result = streamBridge.send("sendCommunication-out-0", accountsMsgDto);
-        log.info("Is the Communication request successfully triggered ? : {}", result);
+        var message = MessageBuilder.withPayload(accountsMsgDto)
+                .setHeader(CommunicationMetrics.PRODUCED_AT_HEADER, System.currentTimeMillis())
+                .build();
+        var result = communicationMetrics.producerSend()
+                .record(() -> MessageSendEvent.record(SEND_COMMUNICATION_BINDING,
+                        () -> streamBridge.send(SEND_COMMUNICATION_BINDING, message)));
+        log.atInfo().setMessage("Communication request sent")
+                .addKeyValue("accountNumber", account.getAccountNumber())
+                .addKeyValue("triggered", result)
+                .log();
     }
 
     /**
@@ -65,9 +91,7 @@ public class AccountServiceImpl implements IAccountService {
     private Account createNewAccount(Customer customer) {
         Account newAccount = new Account();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(AccountNumberGenerator.nextAccountNumber());
         newAccount.setAccountType(AccountConstants.SAVINGS);
         newAccount.setBranchAddress(AccountConstants.ADDRESS);
 
@@ -81,6 +105,13 @@ public class AccountServiceImpl implements IAccountService {
      */
     @Override
     public CustomerDto fetchAccount(String mobileNumber) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            throw new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber);
+        }
+        return fetchAccountFlight.execute(mobileNumber, () -> loadAccount(mobileNumber));
+    }
+
+    private CustomerDto loadAccount(String mobileNumber) {
         Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)
         );
@@ -116,8 +147,17 @@ public class AccountServiceImpl implements IAccountService {
             Customer customer = customerRepository.findById(customerId).orElseThrow(
                     () -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString())
             );
+            String previousMobileNumber = customer.getMobileNumber();
             CustomerMapper.mapToCustomer(customerDto, customer);
+            boolean mobileNumberChanged = !previousMobileNumber.equals(customer.getMobileNumber());
+            if (mobileNumberChanged) {
+                mobileNumberFilter.add(customer.getMobileNumber());
+            }
             customerRepository.save(customer);
+            if (mobileNumberChanged) {
+                mobileNumberFilter.remove(previousMobileNumber);
+            }
+            fetchAccountFlight.forgetAll();
             isUpdated = true;
         }
         return isUpdated;
@@ -134,6 +174,8 @@ public class AccountServiceImpl implements IAccountService {
         );
         accountRepository.deleteByCustomerId(customer.getCustomerId());
         customerRepository.deleteById(customer.getCustomerId());
+        fetchAccountFlight.forget(mobileNumber);
+        mobileNumberFilter.remove(mobileNumber);
         return true;
     }
 
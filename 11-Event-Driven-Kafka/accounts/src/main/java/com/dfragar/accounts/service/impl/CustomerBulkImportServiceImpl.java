@@ -0,0 +1,323 @@
+package com.dfragar.accounts.service.impl;
+
+import com.dfragar.accounts.audit.AuditRecord;
+import com.dfragar.accounts.audit.AuditTrailListener;
+import com.dfragar.accounts.bulk.BulkImportProperties;
+import com.dfragar.accounts.bulk.BulkImportReader;
+import com.dfragar.accounts.bulk.BulkImportReport;
+import com.dfragar.accounts.bulk.BulkImportRunner;
+import com.dfragar.accounts.bulk.ImportRow;
+import com.dfragar.accounts.constant.AccountConstants;
+import com.dfragar.accounts.dto.AccountMsgDto;
+import com.dfragar.accounts.dto.BulkImportReportDto;
+import com.dfragar.accounts.dto.CustomerDto;
+import com.dfragar.accounts.entity.Account;
+import com.dfragar.accounts.entity.Customer;
+import com.dfragar.accounts.membership.MobileNumberFilter;
+import com.dfragar.accounts.profiling.MessageSendEvent;
+import com.dfragar.accounts.service.IBulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk onboarding of customers with their savings account.
+ * <p>
+ * Customer ids are identity columns, which makes Hibernate give up insert batching, so the rows are written with
+ * JDBC batches instead: the customers first, then their accounts with an INSERT ... SELECT that resolves the new
+ * customer id by mobile number. Chunks are validated and written in parallel, each one in its own transaction.
+ * <p>
+ * A customer is only inserted when its mobile number is not registered yet, and only the inserted ones get an
+ * account. The unique index on the mobile number catches a concurrent writer registering the same number in between,
+ * in which case the chunk is written again row by row so only the clashing rows are rejected. The inserted customers
+ * and accounts are captured for the audit trail in the writing transaction, as JDBC writes never reach the entity
+ * callbacks.
+ */
+@Service
+public class CustomerBulkImportServiceImpl implements IBulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerBulkImportServiceImpl.class);
+
+    private static final String INSERT_CUSTOMER_SQL = "INSERT INTO customers "
+            + "(name, email, mobile_number, created_at, created_by) "
+            + "SELECT :name, :email, :mobileNumber, :createdAt, :createdBy FROM DUAL "
+            + "WHERE NOT EXISTS (SELECT 1 FROM customers c WHERE c.mobile_number = :mobileNumber)";
+    private static final String INSERT_ACCOUNT_SQL = "INSERT INTO accounts "
+            + "(customer_id, account_number, account_type, branch_address, created_at, created_by) "
+            + "SELECT c.customer_id, :accountNumber, :accountType, :branchAddress, :createdAt, :createdBy "
+            + "FROM customers c WHERE c.mobile_number = :mobileNumber";
+    private static final String SELECT_CUSTOMER_IDS_SQL = "SELECT mobile_number, customer_id FROM customers "
+            + "WHERE mobile_number IN (:mobileNumbers)";
+    private static final String SELECT_TAKEN_ACCOUNTS_SQL = "SELECT account_number FROM accounts "
+            + "WHERE account_number IN (:accountNumbers)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final StreamBridge streamBridge;
+    private final BulkImportProperties properties;
+    private final MobileNumberFilter mobileNumberFilter;
+    private final AuditTrailListener auditTrailListener;
+
+    public CustomerBulkImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, Validator validator, ObjectMapper objectMapper,
+            AuditorAware<String> auditorAware, StreamBridge streamBridge, BulkImportProperties properties,
+            MobileNumberFilter mobileNumberFilter, AuditTrailListener auditTrailListener) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.streamBridge = streamBridge;
+        this.properties = properties;
+        this.mobileNumberFilter = mobileNumberFilter;
+        this.auditTrailListener = auditTrailListener;
+    }
+
+    /**
+     * @param body - CSV with a header line or NDJSON body with name, email and mobileNumber
+     * @param format - Media type of the body
+     * @return the number of imported rows and the rejected ones
+     */
+    @Override
+    public BulkImportReportDto importRows(InputStream body, MediaType format) {
+        long startNanos = System.nanoTime();
+        BulkImportReport report = new BulkImportReport(properties.getMaxReportedFailures());
+        Set<String> mobileNumbers = ConcurrentHashMap.newKeySet();
+        Set<Long> accountNumbers = ConcurrentHashMap.newKeySet();
+        try (BulkImportReader reader = new BulkImportReader(body, format, objectMapper)) {
+            BulkImportRunner.run(reader, properties, report,
+                    chunk -> importChunk(chunk, report, mobileNumbers, accountNumbers));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read the import body", ex);
+        }
+        BulkImportReportDto reportDto = report.toDto();
+        log.info("Bulk import of {} customers finished in {} ms: {} imported, {} rejected", reportDto.getTotalRows(),
+                (System.nanoTime() - startNanos) / 1_000_000, reportDto.getImportedRows(), reportDto.getFailedRows());
+        return reportDto;
+    }
+
+    private void importChunk(List<ImportRow> chunk, BulkImportReport report, Set<String> mobileNumbers,
+            Set<Long> accountNumbers) {
+        Map<ImportRow, CustomerDto> valid = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                report.failed(row, null, row.error());
+                continue;
+            }
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName(row.field("name"));
+            customerDto.setEmail(row.field("email"));
+            customerDto.setMobileNumber(row.field("mobileNumber"));
+            String error = validate(customerDto);
+            if (error == null && !mobileNumbers.add(customerDto.getMobileNumber())) {
+                error = "Duplicate mobile number in the import";
+            }
+            if (error != null) {
+                report.failed(row, customerDto.getMobileNumber(), error);
+            } else {
+                valid.put(row, customerDto);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            List<ImportRow> rows = new ArrayList<>(valid.keySet());
+            List<CustomerDto> customers = new ArrayList<>(valid.values());
+            List<Long> newAccountNumbers = reserveAccountNumbers(customers.size(), accountNumbers);
+            boolean[] inserted;
+            try {
+                inserted = insert(customers, newAccountNumbers);
+            } catch (DuplicateKeyException ex) {
+                inserted = insertRowByRow(customers, newAccountNumbers);
+            }
+            int importedRows = 0;
+            for (int i = 0; i < customers.size(); i++) {
+                CustomerDto customer = customers.get(i);
+                if (!inserted[i]) {
+                    report.failed(rows.get(i), customer.getMobileNumber(),
+                            "Customer already registered with given mobile number " + customer.getMobileNumber());
+                    continue;
+                }
+                importedRows++;
+                AccountMsgDto message = new AccountMsgDto(newAccountNumbers.get(i), customer.getName(),
+                        customer.getEmail(), customer.getMobileNumber());
+                MessageSendEvent.record("sendCommunication-out-0",
+                        () -> streamBridge.send("sendCommunication-out-0", message));
+            }
+            report.imported(importedRows);
+        } catch (RuntimeException ex) {
+            String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            log.warn("Bulk import chunk of {} customers failed: {}", valid.size(), message);
+            valid.forEach((row, customerDto) -> report.failed(row, customerDto.getMobileNumber(), message));
+        }
+    }
+
+    /**
+     * @return for every customer, whether it was inserted or its mobile number was already registered
+     */
+    private boolean[] insert(List<CustomerDto> customers, List<Long> newAccountNumbers) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        String createdBy = auditorAware.getCurrentAuditor().orElse(null);
+        SqlParameterSource[] customerParams = new SqlParameterSource[customers.size()];
+        SqlParameterSource[] accountParams = new SqlParameterSource[customers.size()];
+        for (int i = 0; i < customers.size(); i++) {
+            CustomerDto customer = customers.get(i);
+            customerParams[i] = new MapSqlParameterSource()
+                    .addValue("name", customer.getName())
+                    .addValue("email", customer.getEmail())
+                    .addValue("mobileNumber", customer.getMobileNumber())
+                    .addValue("createdAt", createdAt)
+                    .addValue("createdBy", createdBy);
+            accountParams[i] = new MapSqlParameterSource()
+                    .addValue("accountNumber", newAccountNumbers.get(i))
+                    .addValue("accountType", AccountConstants.SAVINGS)
+                    .addValue("branchAddress", AccountConstants.ADDRESS)
+                    .addValue("mobileNumber", customer.getMobileNumber())
+                    .addValue("createdAt", createdAt)
+                    .addValue("createdBy", createdBy);
+        }
+        customers.forEach(customer -> mobileNumberFilter.add(customer.getMobileNumber()));
+        return transactionTemplate.execute(status -> {
+            int[] insertedCustomers = jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, customerParams);
+            boolean[] inserted = new boolean[customers.size()];
+            List<SqlParameterSource> insertedAccounts = new ArrayList<>(customers.size());
+            for (int i = 0; i < inserted.length; i++) {
+                // drivers that do not report counts per statement return SUCCESS_NO_INFO, never 0
+                inserted[i] = insertedCustomers[i] != 0;
+                if (inserted[i]) {
+                    insertedAccounts.add(accountParams[i]);
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ACCOUNT_SQL, insertedAccounts.toArray(SqlParameterSource[]::new));
+            audit(customers, newAccountNumbers, inserted, createdAt.toLocalDateTime(), createdBy);
+            return inserted;
+        });
+    }
+
+    /**
+     * Captures the inserted customers and their accounts, reading back the customer ids the database generated
+     */
+    private void audit(List<CustomerDto> customers, List<Long> newAccountNumbers, boolean[] inserted,
+            LocalDateTime createdAt, String createdBy) {
+        if (!auditTrailListener.isEnabled()) {
+            return;
+        }
+        List<String> insertedMobileNumbers = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                insertedMobileNumbers.add(customers.get(i).getMobileNumber());
+            }
+        }
+        if (insertedMobileNumbers.isEmpty()) {
+            return;
+        }
+        Map<String, Long> customerIds = jdbcTemplate.query(SELECT_CUSTOMER_IDS_SQL,
+                        Map.of("mobileNumbers", insertedMobileNumbers),
+                        (rs, rowNum) -> Map.entry(rs.getString(1), rs.getLong(2))).stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        for (int i = 0; i < inserted.length; i++) {
+            if (!inserted[i]) {
+                continue;
+            }
+            CustomerDto customer = customers.get(i);
+            Long customerId = customerIds.get(customer.getMobileNumber());
+            Map<String, Object> customerState = new LinkedHashMap<>();
+            customerState.put("name", customer.getName());
+            customerState.put("email", customer.getEmail());
+            customerState.put("mobileNumber", customer.getMobileNumber());
+            customerState.put("createdAt", createdAt);
+            customerState.put("createdBy", createdBy);
+            auditTrailListener.captureWritten(Customer.class.getSimpleName(), customerId, AuditRecord.Action.CREATE,
+                    customerState);
+            Map<String, Object> accountState = new LinkedHashMap<>();
+            accountState.put("customerId", customerId);
+            accountState.put("accountNumber", newAccountNumbers.get(i));
+            accountState.put("accountType", AccountConstants.SAVINGS);
+            accountState.put("branchAddress", AccountConstants.ADDRESS);
+            accountState.put("createdAt", createdAt);
+            accountState.put("createdBy", createdBy);
+            auditTrailListener.captureWritten(Account.class.getSimpleName(), newAccountNumbers.get(i),
+                    AuditRecord.Action.CREATE, accountState);
+        }
+    }
+
+    /**
+     * Writes every row in its own transaction, so a mobile number registered concurrently only rejects its own row.
+     */
+    private boolean[] insertRowByRow(List<CustomerDto> customers, List<Long> newAccountNumbers) {
+        boolean[] inserted = new boolean[customers.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            try {
+                inserted[i] = insert(List.of(customers.get(i)), List.of(newAccountNumbers.get(i)))[0];
+            } catch (DuplicateKeyException ex) {
+                inserted[i] = false;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Draws random account numbers the way single account creation does, discarding the ones already taken by
+     * this import or by an existing account.
+     */
+    private List<Long> reserveAccountNumbers(int count, Set<Long> accountNumbers) {
+        List<Long> reserved = new ArrayList<>(count);
+        while (reserved.size() < count) {
+            List<Long> candidates = new ArrayList<>();
+            while (candidates.size() < count - reserved.size()) {
+                long candidate = AccountNumberGenerator.nextAccountNumber();
+                if (accountNumbers.add(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            Set<Long> taken = new HashSet<>(jdbcTemplate.queryForList(SELECT_TAKEN_ACCOUNTS_SQL,
+                    Map.of("accountNumbers", candidates), Long.class));
+            candidates.stream().filter(candidate -> !taken.contains(candidate)).forEach(reserved::add);
+        }
+        return reserved;
+    }
+
+    private String validate(CustomerDto customerDto) {
+        if (customerDto.getMobileNumber() == null || customerDto.getMobileNumber().isEmpty()) {
+            return "Mobile number can not be a null or empty";
+        }
+        Set<ConstraintViolation<CustomerDto>> violations = validator.validate(customerDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+}
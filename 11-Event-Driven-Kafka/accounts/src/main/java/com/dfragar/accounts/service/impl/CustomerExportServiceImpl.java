@@ -0,0 +1,217 @@
+package com.dfragar.accounts.service.impl;
+
+import com.dfragar.accounts.service.ICustomerExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams every customer with its account, page by page with keyset pagination on the customer id.
+ * <p>
+ * Each page is a short query whose rows are written to the output as they are read, so neither a long-lived cursor
+ * nor the page itself is kept in memory. Every row carries its customerId, which a client passes back as
+ * afterCustomerId to resume an interrupted export.
+ */
+@Service
+public class CustomerExportServiceImpl implements ICustomerExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerExportServiceImpl.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * The page is cut on customers before joining, so a customer is never split across two pages.
+     */
+    private static final String SELECT_PAGE_SQL = "SELECT c.customer_id, c.name, c.email, c.mobile_number, "
+            + "a.account_number, a.account_type, a.branch_address, a.communication_sw "
+            + "FROM (SELECT customer_id, name, email, mobile_number FROM customers WHERE customer_id > ? "
+            + "ORDER BY customer_id LIMIT ?) c "
+            + "LEFT JOIN accounts a ON a.customer_id = c.customer_id "
+            + "ORDER BY c.customer_id, a.account_number";
+    private static final String CSV_HEADER = "customerId,name,email,mobileNumber,accountNumber,accountType,"
+            + "branchAddress,communicationSw\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Counter exportedRows;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeExports;
+
+    public CustomerExportServiceImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry, @Value("${accounts.export.page-size:1000}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.meterRegistry = meterRegistry;
+        this.exportedRows = Counter.builder("accounts.export.rows").register(meterRegistry);
+        this.activeExports = meterRegistry.gauge("accounts.export.active", new AtomicInteger());
+    }
+
+    /**
+     * @param outputStream - Stream the rows are written to as they are read
+     * @param format - ndjson or csv
+     * @param afterCustomerId - Only customers with a greater id are exported, 0 for all of them
+     */
+    @Override
+    public void exportCustomers(OutputStream outputStream, String format, long afterCustomerId) throws IOException {
+        boolean csv = FORMAT_CSV.equals(format);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        activeExports.incrementAndGet();
+        long rows = 0;
+        long lastCustomerId = afterCustomerId;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                64 * 1024)) {
+            RowWriter rowWriter = csv ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            PageCursor cursor = new PageCursor(rowWriter);
+            do {
+                cursor.customers = 0;
+                jdbcTemplate.query(SELECT_PAGE_SQL, (RowCallbackHandler) cursor::write, lastCustomerId, pageSize);
+                rows += cursor.rows;
+                exportedRows.increment(cursor.rows);
+                cursor.rows = 0;
+                lastCustomerId = cursor.lastCustomerId;
+                writer.flush();
+            } while (cursor.customers == pageSize);
+        } catch (UncheckedIOException ex) {
+            log.debug("Customer export interrupted after customer {}: {}", lastCustomerId, ex.getMessage());
+            throw ex.getCause();
+        } finally {
+            activeExports.decrementAndGet();
+            sample.stop(Timer.builder("accounts.export").tag("format", csv ? FORMAT_CSV : FORMAT_NDJSON)
+                    .register(meterRegistry));
+        }
+        log.info("Exported {} customer rows after customer {} as {}", rows, afterCustomerId, format);
+    }
+
+    /**
+     * Tracks the keyset position while the rows of a page are written.
+     */
+    private static final class PageCursor {
+
+        private final RowWriter rowWriter;
+        private long lastCustomerId;
+        private int customers;
+        private int rows;
+
+        private PageCursor(RowWriter rowWriter) {
+            this.rowWriter = rowWriter;
+        }
+
+        private void write(ResultSet rs) throws SQLException {
+            long customerId = rs.getLong(1);
+            if (customerId != lastCustomerId) {
+                lastCustomerId = customerId;
+                customers++;
+            }
+            try {
+                rowWriter.write(rs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows++;
+        }
+
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+    }
+
+    private final class JsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private JsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("customerId", rs.getLong(1));
+            generator.writeStringField("name", rs.getString(2));
+            generator.writeStringField("email", rs.getString(3));
+            generator.writeStringField("mobileNumber", rs.getString(4));
+            long accountNumber = rs.getLong(5);
+            if (rs.wasNull()) {
+                generator.writeNullField("accountNumber");
+            } else {
+                generator.writeNumberField("accountNumber", accountNumber);
+            }
+            generator.writeStringField("accountType", rs.getString(6));
+            generator.writeStringField("branchAddress", rs.getString(7));
+            boolean communicationSw = rs.getBoolean(8);
+            if (rs.wasNull()) {
+                generator.writeNullField("communicationSw");
+            } else {
+                generator.writeBooleanField("communicationSw", communicationSw);
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int column = 1; column <= 8; column++) {
+                if (column > 1) {
+                    writer.write(',');
+                }
+                String value = rs.getString(column);
+                if (value != null) {
+                    writer.write(escape(value));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+    }
+
+}
@@ -9,6 +9,7 @@ import com.dfragar.accounts.entity.Customer;
 import com.dfragar.accounts.exception.ResourceNotFoundException;
 import com.dfragar.accounts.mapper.AccountMapper;
 import com.dfragar.accounts.mapper.CustomerMapper;
+import com.dfragar.accounts.membership.MobileNumberFilter;
 import com.dfragar.accounts.repository.AccountRepository;
 import com.dfragar.accounts.repository.CustomerRepository;
 import com.dfragar.accounts.service.ICustomersService;
@@ -26,6 +27,7 @@ public class CustomerServiceImpl implements ICustomersService {
     private CustomerRepository customerRepository;
     private CardFeignClient cardFeignClient;
     private LoanFeignClient loanFeignClient;
+    private MobileNumberFilter mobileNumberFilter;
 
     /**
      * @param mobileNumber - Input Mobile Number
@@ -34,6 +36,9 @@ public class CustomerServiceImpl implements ICustomersService {
      */
     @Override
     public CustomerDetailsDto fetchCustomerDetails(String mobileNumber, String correlationId) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            throw new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber);
+        }
         Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)
         );
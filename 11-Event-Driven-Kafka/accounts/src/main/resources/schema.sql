@@ -19,4 +19,7 @@ CREATE TABLE IF NOT EXISTS `accounts` (
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL
-);
\ No newline at end of file
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS `idx_customers_mobile_number` ON `customers` (`mobile_number`);
+CREATE INDEX IF NOT EXISTS `idx_accounts_customer_id` ON `accounts` (`customer_id`);
@@ -0,0 +1,105 @@
+package com.dfragar.accounts.bulkhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * A saturated client is rejected at once without taking permits from the other clients, and the limits follow the
+ * configuration.
+ */
+class BulkheadIsolationTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build(), new BulkheadMetrics(meterRegistry));
+    private final FeignClientBulkhead feignClientBulkhead = new FeignClientBulkhead(bulkheadRegistry);
+
+    @Test
+    void rejectsTheSaturatedClientOnly() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Client client = feignClientBulkhead.enrich((request, options) -> {
+            if (request.url().startsWith("http://loans")) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Response.builder().status(200).request(request).build();
+        });
+        CompletableFuture<Response> slowLoan = CompletableFuture.supplyAsync(() -> execute(client, "loans"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> client.execute(request("loans"), new Request.Options()))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(execute(client, "cards").status()).isEqualTo(200);
+
+        release.countDown();
+        assertThat(slowLoan.get(5, TimeUnit.SECONDS).status()).isEqualTo(200);
+        assertThat(execute(client, "loans").status()).isEqualTo(200);
+        assertThat(meterRegistry.get("accounts.bulkhead.rejected").tag("name", "loans").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void appliesChangedLimitsToExistingBulkheads() {
+        bulkheadRegistry.bulkhead("loans");
+        bulkheadRegistry.bulkhead("cards");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("configserver:accounts.yml", Map.of(
+                "resilience4j.bulkhead.configs.default.maxWaitDuration", "50ms",
+                "resilience4j.bulkhead.instances.loans.maxConcurrentCalls", "5")));
+        BulkheadLimits bulkheadLimits = new BulkheadLimits(bulkheadRegistry, environment);
+
+        bulkheadLimits.apply(List.of("accounts.message"));
+        assertThat(bulkheadRegistry.bulkhead("loans").getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(1);
+
+        bulkheadLimits.apply(List.of("resilience4j.bulkhead.instances.loans.maxConcurrentCalls"));
+        assertThat(bulkheadRegistry.bulkhead("loans").getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(5);
+        assertThat(bulkheadRegistry.bulkhead("loans").getMetrics().getAvailableConcurrentCalls()).isEqualTo(5);
+        assertThat(bulkheadRegistry.bulkhead("cards").getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(1);
+        assertThat(bulkheadRegistry.bulkhead("cards").getBulkheadConfig().getMaxWaitDuration())
+                .isEqualTo(Duration.ofMillis(50));
+    }
+
+    private static Response execute(Client client, String name) {
+        try {
+            return client.execute(request(name), new Request.Options());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Request request(String name) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Object.class, name, "http://" + name));
+        return Request.create(Request.HttpMethod.GET, "http://" + name + "/api/fetch", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+
+}
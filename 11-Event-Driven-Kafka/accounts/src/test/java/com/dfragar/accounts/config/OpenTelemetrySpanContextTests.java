@@ -0,0 +1,44 @@
+package com.dfragar.accounts.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Scope;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class OpenTelemetrySpanContextTests {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+
+    private final OpenTelemetrySpanContext spanContext = new OpenTelemetrySpanContext();
+
+    @Test
+    void histogramBucketsCarryTheTraceOfTheCurrentSpan() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT,
+                new PrometheusRegistry(), Clock.SYSTEM, spanContext);
+        Timer timer = Timer.builder("http.server.requests").publishPercentileHistogram().register(registry);
+
+        Span span = Span.wrap(SpanContext.create(TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault()));
+        try (Scope ignored = span.makeCurrent()) {
+            assertThat(spanContext.getCurrentTraceId()).isEqualTo(TRACE_ID);
+            assertThat(spanContext.isCurrentSpanSampled()).isTrue();
+            timer.record(Duration.ofMillis(42));
+        }
+
+        assertThat(spanContext.getCurrentTraceId()).isNull();
+        assertThat(registry.scrape("application/openmetrics-text"))
+                .contains("trace_id=\"" + TRACE_ID + "\"")
+                .contains("span_id=\"" + SPAN_ID + "\"");
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.dfragar.accounts.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AsyncLoggingTests {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @Test
+    void samplesHotPathLoggersBelowWarn() {
+        RateSamplingFilter filter = new RateSamplingFilter();
+        filter.addLogger("com.dfragar.accounts.functions");
+        filter.setEventsPerSecond(2);
+
+        String hot = "com.dfragar.accounts.functions.AccountFunctions";
+        assertThat(filter.decide(event(hot, Level.INFO, 1_000))).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(event(hot, Level.INFO, 1_100))).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(event(hot, Level.INFO, 1_200))).isEqualTo(FilterReply.DENY);
+        assertThat(filter.decide(event(hot, Level.WARN, 1_300))).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(event("com.dfragar.accounts.functionsx.Other", Level.INFO, 1_400)))
+                .isEqualTo(FilterReply.NEUTRAL);
+        // next second
+        assertThat(filter.decide(event(hot, Level.INFO, 2_000))).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.getSampledOut()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsInsteadOfBlockingWhenTheQueueIsFull() throws InterruptedException {
+        BlockingAppender console = new BlockingAppender();
+        console.setContext(loggerContext);
+        console.start();
+        MeteredAsyncAppender appender = new MeteredAsyncAppender();
+        appender.setContext(loggerContext);
+        appender.setQueueSize(1);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.addAppender(console);
+        appender.start();
+        try {
+            appender.doAppend(event("test", Level.INFO, 1_000));
+            assertThat(console.received.await(5, TimeUnit.SECONDS)).isTrue();
+
+            appender.doAppend(event("test", Level.INFO, 1_001));
+            appender.doAppend(event("test", Level.ERROR, 1_002));
+
+            assertThat(appender.getNumberOfElementsInQueue()).isEqualTo(1);
+            assertThat(appender.getDropped()).isEqualTo(1);
+            assertThat(appender.getDiscarded()).isZero();
+        } finally {
+            console.release.countDown();
+            appender.stop();
+        }
+    }
+
+    private LoggingEvent event(String loggerName, Level level, long timestamp) {
+        Logger logger = loggerContext.getLogger(loggerName);
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, level, "message", null, null);
+        event.setTimeStamp(timestamp);
+        return event;
+    }
+
+    /**
+     * Holds the first event until released, as a console that stopped draining
+     */
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            received.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.dfragar.accounts.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * The filter never rejects a number it holds, rejects most of the others, and is loaded from the customers table
+ * page by page before it rejects anything.
+ */
+class MobileNumberFilterTests {
+
+    private static final int KEYS = 10_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmbeddedDatabase database;
+
+    @AfterEach
+    void tearDown() {
+        if (database != null) {
+            database.shutdown();
+        }
+    }
+
+    @Test
+    void neverRejectsAnAddedKeyAndKeepsFalsePositivesNearTheRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(KEYS, 0.01);
+        List<String> added = mobileNumbers(0, KEYS);
+        added.forEach(filter::add);
+
+        assertThat(added).allMatch(filter::mightContain);
+        long falsePositives = mobileNumbers(KEYS, 2 * KEYS).stream().filter(filter::mightContain).count();
+        assertThat(falsePositives).isLessThan(KEYS * 2 / 100);
+    }
+
+    @Test
+    void removedKeysAreRejectedAndTheOthersKept() {
+        CountingBloomFilter filter = new CountingBloomFilter(KEYS, 0.01);
+        List<String> added = mobileNumbers(0, KEYS);
+        added.forEach(filter::add);
+
+        added.subList(0, KEYS / 2).forEach(filter::remove);
+
+        assertThat(added.subList(KEYS / 2, KEYS)).allMatch(filter::mightContain);
+        assertThat(added.subList(0, KEYS / 2).stream().filter(filter::mightContain).count())
+                .isLessThan(KEYS / 100);
+    }
+
+    @Test
+    void saturatedCountersKeepTheirKeys() {
+        CountingBloomFilter filter = new CountingBloomFilter(1, 0.5);
+        IntStream.range(0, 20).forEach(i -> filter.add("4354437687"));
+
+        IntStream.range(0, 20).forEach(i -> filter.remove("4354437687"));
+
+        assertThat(filter.mightContain("4354437687")).isTrue();
+    }
+
+    @Test
+    void letsEverythingThroughUntilLoadedFromTheDatabase() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE customers (customer_id BIGINT PRIMARY KEY, mobile_number VARCHAR(20))");
+        List<String> loaded = mobileNumbers(0, 250);
+        IntStream.range(0, loaded.size()).forEach(i -> jdbcTemplate.update(
+                "INSERT INTO customers (customer_id, mobile_number) VALUES (?, ?)", i + 1, loaded.get(i)));
+        MobileNumberFilterProperties properties = new MobileNumberFilterProperties();
+        properties.setEnabled(true);
+        properties.setExpectedEntries(KEYS);
+        properties.setLoadPageSize(100);
+        MobileNumberFilter mobileNumberFilter = new MobileNumberFilter(properties, jdbcTemplate, meterRegistry);
+
+        assertThat(mobileNumberFilter.mightExist("9999999999")).isTrue();
+
+        mobileNumberFilter.load();
+        assertThat(mobileNumberFilter.isReady()).isTrue();
+
+        assertThat(loaded).allMatch(mobileNumberFilter::mightExist);
+        mobileNumberFilter.add("9999999999");
+        assertThat(mobileNumberFilter.mightExist("9999999999")).isTrue();
+        mobileNumberFilter.remove("9999999999");
+        assertThat(mobileNumberFilter.mightExist("9999999999")).isFalse();
+        assertThat(meterRegistry.get("mobile.number.filter.lookups").tag("result", "rejected").counter().count())
+                .isEqualTo(1);
+    }
+
+    private static List<String> mobileNumbers(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> String.format("6%09d", i)).toList();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.dfragar.accounts.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.accounts.repository.CustomerRepository;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+
+/**
+ * A session started through the endpoint records the custom events and can be stopped and downloaded, next to the
+ * continuous recording, and only the configured number of sessions record at once.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:jfr",
+        "accounts.jfr.directory=target/jfr-test"
+})
+class JfrEndpointTests {
+
+    @Autowired
+    private JfrEndpoint jfrEndpoint;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void recordsRepositoryCallsInATimeBoxedSession() throws Exception {
+        WebEndpointResponse<JfrSession> started = jfrEndpoint.start(Duration.ofMinutes(1), null);
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        String id = started.getBody().id();
+        assertThat(jfrEndpoint.start(Duration.ofMinutes(1), null).getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+
+        customerRepository.findByMobileNumber("9999999999");
+
+        assertThat(jfrEndpoint.stop(id).getBody().state()).isEqualTo(RecordingState.STOPPED);
+        Resource recording = jfrEndpoint.recording(id).getBody();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recording.getFile().toPath());
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals(RepositoryCallEvent.NAME))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("repository")).isEqualTo("CustomerRepository");
+                    assertThat(event.getString("method")).isEqualTo("findByMobileNumber");
+                    assertThat(event.getBoolean("failed")).isFalse();
+                });
+
+        assertThat(jfrEndpoint.recordings()).extracting(JfrSession::id).contains(JfrRecordings.CONTINUOUS, id);
+        assertThat(jfrEndpoint.recording(JfrRecordings.CONTINUOUS).getBody().contentLength()).isPositive();
+        assertThat(jfrEndpoint.recording("unknown").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+}
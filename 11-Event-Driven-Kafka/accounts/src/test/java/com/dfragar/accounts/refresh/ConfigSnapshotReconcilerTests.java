@@ -0,0 +1,142 @@
+package com.dfragar.accounts.refresh;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.client.RestClient;
+
+class ConfigSnapshotReconcilerTests {
+
+    private static final String ETAG = "\"v2\"";
+    private static final String SNAPSHOT_KEY = "snapshot-key";
+    private static final String ENVIRONMENT = """
+            {"name":"accounts","profiles":["default"],"label":null,"version":"v2","state":null,
+             "propertySources":[{"name":"file:accounts.yml",
+                                 "source":{"accounts.message":"new","accounts.added":"y"}}]}
+            """;
+
+    @TempDir
+    private Path directory;
+
+    private HttpServer configServer;
+    private final TargetedConfigRefresher targetedConfigRefresher = mock(TargetedConfigRefresher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startConfigServer() throws IOException {
+        configServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        configServer.createContext("/accounts/default", exchange -> {
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = ENVIRONMENT.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        configServer.start();
+    }
+
+    @AfterEach
+    void stopConfigServer() {
+        configServer.stop(0);
+    }
+
+    @Test
+    void appliesTheDifferenceToTheSnapshotAndRewritesIt() throws IOException {
+        Path file = ConfigSnapshotStore.file(directory, "accounts", "default", null);
+        ConfigSnapshotState state = snapshotState(file, "http://localhost:" + configServer.getAddress().getPort());
+        ConfigSnapshotReconciler reconciler = new ConfigSnapshotReconciler(state, targetedConfigRefresher,
+                RestClient.builder(), meterRegistry);
+        assertThat(reconciler.source()).isEqualTo(ConfigSource.SNAPSHOT);
+
+        assertThat(reconciler.reconcile()).isTrue();
+
+        ArgumentCaptor<ConfigChange> change = ArgumentCaptor.forClass(ConfigChange.class);
+        verify(targetedConfigRefresher).apply(change.capture());
+        assertThat(change.getValue().changed())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("accounts.message", "new", "accounts.added", "y"));
+        assertThat(change.getValue().removed()).containsExactly("accounts.removed");
+        assertThat(state.getSource()).isEqualTo(ConfigSource.CONFIG_SERVER);
+        assertThat(meterRegistry.get("config.source").tag("source", "config-server").gauge().value()).isEqualTo(1);
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1))
+                .doesNotContain("accounts.message");
+        assertThat(ConfigSnapshotStore.read(file, "another-key")).isEmpty();
+        assertThat(ConfigSnapshotStore.read(file, SNAPSHOT_KEY)).hasValueSatisfying(snapshot -> {
+            assertThat(snapshot.etag()).isEqualTo(ETAG);
+            assertThat(snapshot.propertySources()).extracting(ConfigSnapshot.Source::name)
+                    .containsExactly("configserver:file:accounts.yml");
+        });
+
+        // unchanged since, the config server answers 304
+        assertThat(reconciler.reconcile()).isTrue();
+        verify(targetedConfigRefresher, times(1)).apply(any());
+    }
+
+    @Test
+    void readsThePushedEncryptedPropertiesFromTheConfigServer() {
+        Path file = ConfigSnapshotStore.file(directory, "accounts", "default", null);
+        ConfigSnapshotState state = snapshotState(file, "http://localhost:" + configServer.getAddress().getPort());
+        ConfigSnapshotReconciler reconciler = new ConfigSnapshotReconciler(state, targetedConfigRefresher,
+                RestClient.builder(), meterRegistry);
+        ConfigChange pushed = new ConfigChange("accounts", "default", null, "v2", Map.of("build.version", "3.1"),
+                List.of("accounts.message", "accounts.secret"), List.of(), Instant.now());
+
+        ConfigChange resolved = reconciler.resolveEncrypted(pushed);
+
+        assertThat(resolved.changed())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("build.version", "3.1", "accounts.message", "new"));
+        assertThat(resolved.encrypted()).isEmpty();
+        assertThat(resolved.removed()).containsExactly("accounts.secret");
+    }
+
+    @Test
+    void keepsTheSnapshotWhileTheConfigServerIsUnavailable() throws IOException {
+        Path file = ConfigSnapshotStore.file(directory, "accounts", "default", null);
+        int port = configServer.getAddress().getPort();
+        configServer.stop(0);
+        ConfigSnapshotState state = snapshotState(file, "http://localhost:" + port);
+        ConfigSnapshotReconciler reconciler = new ConfigSnapshotReconciler(state, targetedConfigRefresher,
+                RestClient.builder(), meterRegistry);
+
+        assertThat(reconciler.reconcile()).isFalse();
+        assertThat(state.getSource()).isEqualTo(ConfigSource.SNAPSHOT);
+        assertThat(meterRegistry.get("config.source").tag("source", "snapshot").gauge().value()).isEqualTo(1);
+
+        Files.writeString(file, "{ not json");
+        assertThat(ConfigSnapshotStore.read(file, SNAPSHOT_KEY)).isEmpty();
+    }
+
+    private static ConfigSnapshotState snapshotState(Path file, String uri) {
+        ConfigSnapshot snapshot = new ConfigSnapshot("accounts", "default", null, "v1", null, Instant.now(),
+                List.of(new ConfigSnapshot.Source("configserver:file:accounts.yml",
+                        Map.of("accounts.message", "old", "accounts.removed", "x"))));
+        ConfigSnapshotState state = new ConfigSnapshotState("accounts", "default", null, new String[] {uri}, true,
+                file, SNAPSHOT_KEY, Duration.ofSeconds(1));
+        state.update(ConfigSource.SNAPSHOT, snapshot);
+        return state;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.dfragar.accounts.refresh;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.accounts.bulk.BulkImportProperties;
+import com.dfragar.accounts.dto.AccountsContactInfoDto;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:configpush"
+})
+class TargetedConfigRefresherTests {
+
+    @Autowired
+    private TargetedConfigRefresher targetedConfigRefresher;
+
+    @Autowired
+    private AccountsContactInfoDto accountsContactInfoDto;
+
+    @Autowired
+    private BulkImportProperties bulkImportProperties;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Test
+    void rebindsOnlyTheBeansUnderChangedProperties() {
+        environment.getPropertySources().addAfter(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME,
+                new MapPropertySource("configserver:accounts-prod.yml", Map.of(
+                        "accounts.message", "Welcome",
+                        "accounts.onCallSupport[0]", "(555) 555-1234",
+                        "logging.level.com.dfragar.accounts.refresh", "INFO")));
+        // a rebind would reset it to the configured value
+        bulkImportProperties.setChunkSize(7);
+
+        assertThat(targetedConfigRefresher.apply(change("accounts", "prod",
+                Map.of("accounts.message", "Pushed", "logging.level.com.dfragar.accounts.refresh", "DEBUG"),
+                List.of("accounts.onCallSupport[0]"))))
+                .singleElement().asString().contains(AccountsContactInfoDto.class.getName());
+
+        assertThat(accountsContactInfoDto.getMessage()).isEqualTo("Pushed");
+        assertThat(environment.getProperty("accounts.onCallSupport[0]")).isNull();
+        assertThat(bulkImportProperties.getChunkSize()).isEqualTo(7);
+        assertThat(environment.getPropertySources().contains("configserver:accounts-prod.yml")).isFalse();
+        assertThat(environment.getProperty("accounts.message")).isEqualTo("Pushed");
+        assertThat(LoggerFactory.getLogger(TargetedConfigRefresher.class).isDebugEnabled()).isTrue();
+    }
+
+    @Test
+    void ignoresChangesForOtherApplicationsAndProfiles() {
+        assertThat(targetedConfigRefresher.apply(change("cards", "prod", Map.of("accounts.message", "Cards"),
+                List.of()))).isEmpty();
+        assertThat(targetedConfigRefresher.apply(change("accounts", "qa", Map.of("accounts.message", "QA"),
+                List.of()))).isEmpty();
+        assertThat(accountsContactInfoDto.getMessage()).isNotIn("Cards", "QA");
+    }
+
+    private static ConfigChange change(String application, String profile, Map<String, Object> changed,
+            List<String> removed) {
+        return new ConfigChange(application, profile, "main", "abc123", changed, List.of(), removed,
+                Instant.now());
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.dfragar.accounts.service.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.dfragar.accounts.dto.CardDto;
+import com.dfragar.accounts.dto.LoanDto;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Card and loan fallbacks serve the last response known, flagged as stale, and the refresher brings it up to date
+ * once the dependency answers again.
+ */
+class LastKnownGoodTests {
+
+    private static final String MOBILE_NUMBER = "4354437687";
+    private static final String OTHER_MOBILE_NUMBER = "4354437688";
+
+    private final LastKnownGoodProperties properties = new LastKnownGoodProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LastKnownGoodCache lastKnownGood = new LastKnownGoodCache(properties, meterRegistry);
+    private final CardFeignClient cardFeignClient = mock(CardFeignClient.class);
+    private final LoanFeignClient loanFeignClient = mock(LoanFeignClient.class);
+    private final LastKnownGoodRefresher refresher =
+            new LastKnownGoodRefresher(cardFeignClient, loanFeignClient, lastKnownGood, properties);
+
+    @Test
+    void servesTheLastCardFlaggedAsStaleWhileCardsIsDown() {
+        lastKnownGood.record(card(5000));
+
+        ResponseEntity<CardDto> response = new CardFallback(lastKnownGood).create(new TimeoutException())
+                .fetchCardDetails("correlation-id", MOBILE_NUMBER);
+
+        assertThat(response.getBody().getAmountUsed()).isEqualTo(5000);
+        assertThat(response.getBody().isStale()).isTrue();
+        assertThat(response.getBody().getFetchedAt()).isNotNull();
+        assertThat(lastKnownGood.cards().isPendingRefresh(MOBILE_NUMBER)).isTrue();
+        assertThat(meterRegistry.get("accounts.last.known.good.served").tag("client", "cards").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void servesNothingWithoutALastLoanOrOnceTheLoanIsGone() {
+        LoanFallback fallback = new LoanFallback(lastKnownGood);
+        assertThat(fallback.create(new TimeoutException()).fetchLoanDetails("correlation-id", MOBILE_NUMBER)).isNull();
+
+        lastKnownGood.record(loan());
+        FeignException notFound = new FeignException.NotFound("Not Found", request(), null, Map.of());
+        assertThat(fallback.create(notFound).fetchLoanDetails("correlation-id", MOBILE_NUMBER)).isNull();
+        assertThat(lastKnownGood.loans().get(MOBILE_NUMBER)).isEmpty();
+    }
+
+    @Test
+    void refreshesStaleCardsOnceCardsRecovers() {
+        lastKnownGood.record(card(5000));
+        lastKnownGood.staleCard(MOBILE_NUMBER);
+        when(cardFeignClient.fetchCardDetails(anyString(), eq(MOBILE_NUMBER)))
+                .thenAnswer(invocation -> lastKnownGood.staleCard(MOBILE_NUMBER))
+                .thenAnswer(invocation -> {
+                    lastKnownGood.record(card(7000));
+                    return ResponseEntity.ok(card(7000));
+                });
+
+        refresher.refresh();
+        assertThat(lastKnownGood.cards().isPendingRefresh(MOBILE_NUMBER)).isTrue();
+
+        refresher.refresh();
+        assertThat(lastKnownGood.cards().isPendingRefresh(MOBILE_NUMBER)).isFalse();
+        assertThat(lastKnownGood.cards().get(MOBILE_NUMBER)).get()
+                .satisfies(entry -> assertThat(entry.value().getAmountUsed()).isEqualTo(7000));
+        verify(loanFeignClient, never()).fetchLoanDetails(anyString(), anyString());
+    }
+
+    @Test
+    void keepsTheMostRecentlyUsedEntriesForAtMostTheirMaximumAge() {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.parse("2025-01-30T10:00:00Z"));
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        LastKnownGoodStore<String> store = new LastKnownGoodStore<>(2, Duration.ofMinutes(10), clock);
+
+        store.put("1", "one");
+        store.put("2", "two");
+        store.get("1");
+        store.put("3", "three");
+        assertThat(store.get("2")).isEmpty();
+        assertThat(store.size()).isEqualTo(2);
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-01-30T10:11:00Z"));
+        assertThat(store.get("1")).isEmpty();
+    }
+
+    @Test
+    void dropsThePendingRefreshOfResponsesAgedOutOrEvicted() {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(Instant.parse("2025-01-30T10:00:00Z"));
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        LastKnownGoodStore<String> store = new LastKnownGoodStore<>(2, Duration.ofMinutes(10), clock);
+        store.put("1", "one");
+        store.put("2", "two");
+        store.refreshLater("1");
+        store.refreshLater("2");
+
+        store.put("3", "three");
+        assertThat(store.isPendingRefresh("1")).isFalse();
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-01-30T10:11:00Z"));
+        assertThat(store.get("2")).isEmpty();
+        assertThat(store.isPendingRefresh("2")).isFalse();
+        assertThat(store.pendingRefresh(10)).isEmpty();
+    }
+
+    @Test
+    void givesUpOnACardNeverBroughtUpToDateWithoutStoppingTheOthers() {
+        properties.setMaxRefreshAttempts(2);
+        CardDto other = card(1000);
+        other.setMobileNumber(OTHER_MOBILE_NUMBER);
+        lastKnownGood.record(card(5000));
+        lastKnownGood.record(other);
+        lastKnownGood.staleCard(MOBILE_NUMBER);
+        lastKnownGood.staleCard(OTHER_MOBILE_NUMBER);
+        when(cardFeignClient.fetchCardDetails(anyString(), eq(OTHER_MOBILE_NUMBER))).thenAnswer(invocation -> {
+            CardDto refreshed = card(2000);
+            refreshed.setMobileNumber(OTHER_MOBILE_NUMBER);
+            lastKnownGood.record(refreshed);
+            return ResponseEntity.ok(refreshed);
+        });
+
+        for (int round = 0; round <= properties.getMaxRefreshAttempts(); round++) {
+            refresher.refresh();
+        }
+
+        assertThat(lastKnownGood.cards().isPendingRefresh(MOBILE_NUMBER)).isFalse();
+        assertThat(lastKnownGood.cards().isPendingRefresh(OTHER_MOBILE_NUMBER)).isFalse();
+        assertThat(lastKnownGood.cards().get(OTHER_MOBILE_NUMBER)).get()
+                .satisfies(entry -> assertThat(entry.value().getAmountUsed()).isEqualTo(2000));
+        verify(cardFeignClient, times(2)).fetchCardDetails(anyString(), eq(MOBILE_NUMBER));
+    }
+
+    private static CardDto card(int amountUsed) {
+        CardDto card = new CardDto();
+        card.setMobileNumber(MOBILE_NUMBER);
+        card.setCardNumber("100646930341");
+        card.setCardType("Credit Card");
+        card.setTotalLimit(100000);
+        card.setAmountUsed(amountUsed);
+        card.setAvailableAmount(100000 - amountUsed);
+        return card;
+    }
+
+    private static LoanDto loan() {
+        LoanDto loan = new LoanDto();
+        loan.setMobileNumber(MOBILE_NUMBER);
+        loan.setLoanNumber("548732457654");
+        loan.setLoanType("Home Loan");
+        loan.setTotalLoan(100000);
+        return loan;
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "http://loans/api/fetch", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+    }
+
+}
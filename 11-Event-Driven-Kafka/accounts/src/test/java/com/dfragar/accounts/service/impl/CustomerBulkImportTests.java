@@ -0,0 +1,112 @@
+package com.dfragar.accounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.accounts.bulk.BulkImportReader;
+import com.dfragar.accounts.dto.BulkImportFailureDto;
+import com.dfragar.accounts.dto.BulkImportReportDto;
+import com.dfragar.accounts.dto.CustomerDto;
+import com.dfragar.accounts.service.IAccountService;
+import com.dfragar.accounts.service.IBulkImportService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Bulk import of customers: every imported customer gets exactly one account, numbers already registered are
+ * rejected row by row, and two imports racing on the same numbers register each of them once.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:customerimport",
+        "accounts.import.chunk-size=100"
+})
+class CustomerBulkImportTests {
+
+    private static final int ROWS = 2_000;
+    private static final String COUNT_CUSTOMERS_SQL = "SELECT COUNT(*) FROM customers "
+            + "WHERE mobile_number BETWEEN ? AND ?";
+    private static final String COUNT_CUSTOMERS_WITHOUT_ONE_ACCOUNT_SQL = "SELECT COUNT(*) FROM customers c "
+            + "WHERE c.mobile_number BETWEEN ? AND ? "
+            + "AND (SELECT COUNT(*) FROM accounts a WHERE a.customer_id = c.customer_id) <> 1";
+
+    @Autowired
+    private IBulkImportService iBulkImportService;
+
+    @Autowired
+    private IAccountService iAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsValidRowsWithOneAccountEachAndReportsRejectedOnes() {
+        CustomerDto registered = new CustomerDto();
+        registered.setName("Registered customer");
+        registered.setEmail("registered@example.com");
+        registered.setMobileNumber("8000000000");
+        iAccountService.createAccount(registered);
+        StringBuilder csv = csv(8_000_000_000L, ROWS);
+        csv.append("Short number,short@example.com,12345\n");
+        csv.append("Repeated customer,repeated@example.com,8100000000\n");
+        csv.append("Repeated customer,repeated@example.com,8100000000\n");
+
+        BulkImportReportDto report = importCsv(csv);
+
+        assertThat(report.getTotalRows()).isEqualTo(ROWS + 3);
+        assertThat(report.getImportedRows()).isEqualTo(ROWS);
+        assertThat(report.getFailures()).extracting(BulkImportFailureDto::getLine)
+                .containsExactly(2L, ROWS + 2L, ROWS + 4L);
+        assertThat(countCustomers("8000000000", "8100000000")).isEqualTo(ROWS + 1);
+        assertThat(countCustomersWithoutOneAccount("8000000000", "8100000000")).isZero();
+        assertThat(iAccountService.fetchAccount("8000001999").getAccountDto().getAccountNumber()).isPositive();
+    }
+
+    @Test
+    void concurrentImportsOfTheSameRowsRegisterEveryCustomerOnce() throws Exception {
+        StringBuilder csv = csv(8_200_000_000L, ROWS);
+
+        CompletableFuture<BulkImportReportDto> first = CompletableFuture.supplyAsync(() -> importCsv(csv));
+        CompletableFuture<BulkImportReportDto> second = CompletableFuture.supplyAsync(() -> importCsv(csv));
+        BulkImportReportDto firstReport = first.get(60, TimeUnit.SECONDS);
+        BulkImportReportDto secondReport = second.get(60, TimeUnit.SECONDS);
+
+        assertThat(firstReport.getImportedRows() + secondReport.getImportedRows()).isEqualTo(ROWS);
+        assertThat(firstReport.getFailedRows() + secondReport.getFailedRows()).isEqualTo(ROWS);
+        assertThat(countCustomers("8200000000", "8200001999")).isEqualTo(ROWS);
+        assertThat(countCustomersWithoutOneAccount("8200000000", "8200001999")).isZero();
+    }
+
+    private static StringBuilder csv(long firstMobileNumber, int rows) {
+        StringBuilder csv = new StringBuilder("name,email,mobileNumber\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Customer ").append(i).append(",customer").append(i).append("@example.com,")
+                    .append(firstMobileNumber + i).append('\n');
+        }
+        return csv;
+    }
+
+    private BulkImportReportDto importCsv(StringBuilder csv) {
+        return iBulkImportService.importRows(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType(BulkImportReader.TEXT_CSV_VALUE));
+    }
+
+    private long countCustomers(String from, String to) {
+        return jdbcTemplate.queryForObject(COUNT_CUSTOMERS_SQL, Long.class, from, to);
+    }
+
+    private long countCustomersWithoutOneAccount(String from, String to) {
+        return jdbcTemplate.queryForObject(COUNT_CUSTOMERS_WITHOUT_ONE_ACCOUNT_SQL, Long.class, from, to);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.dfragar.accounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The export streams every customer with its account as NDJSON or CSV, pages by customer id without losing or
+ * repeating customers, resumes after a given customer, and quotes CSV values holding separators or line breaks.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:customerexport",
+        "accounts.export.page-size=2"
+})
+@AutoConfigureMockMvc
+class CustomerExportTests {
+
+    private static final String ESCAPED_NAME = "Doe, \"JJ\"\r";
+    private static final String MULTILINE_NAME = "Line\nBreak";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> customerIds = new ArrayList<>();
+
+    @BeforeEach
+    void customers() {
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM customers");
+        customerIds.clear();
+        customerIds.add(insertCustomer("Plain Customer", "plain@example.com", "8300000001", 1_000_000_001L));
+        customerIds.add(insertCustomer(ESCAPED_NAME, "doe@example.com", "8300000002", 1_000_000_002L));
+        customerIds.add(insertCustomer(MULTILINE_NAME, "line@example.com", "8300000003", null));
+    }
+
+    @Test
+    void exportsEveryCustomerAcrossPagesAsNdjson() throws Exception {
+        List<JsonNode> rows = ndjson(export("ndjson", 0));
+
+        assertThat(rows).extracting(row -> row.get("customerId").asLong()).containsExactlyElementsOf(customerIds);
+        assertThat(rows.get(0).get("accountNumber").asLong()).isEqualTo(1_000_000_001L);
+        assertThat(rows.get(1).get("name").asText()).isEqualTo(ESCAPED_NAME);
+        assertThat(rows.get(2).get("name").asText()).isEqualTo(MULTILINE_NAME);
+        assertThat(rows.get(2).get("accountNumber").isNull()).isTrue();
+    }
+
+    @Test
+    void exportsCsvWithQuotedValues() throws Exception {
+        String csv = export("csv", 0);
+
+        assertThat(csv).isEqualTo("customerId,name,email,mobileNumber,accountNumber,accountType,"
+                + "branchAddress,communicationSw\n"
+                + customerIds.get(0) + ",Plain Customer,plain@example.com,8300000001,1000000001,Savings,"
+                + "Main Street 1,\n"
+                + customerIds.get(1) + ",\"Doe, \"\"JJ\"\"\r\",doe@example.com,8300000002,1000000002,Savings,"
+                + "Main Street 1,\n"
+                + customerIds.get(2) + ",\"Line\nBreak\",line@example.com,8300000003,,,,\n");
+    }
+
+    @Test
+    void resumesAfterTheGivenCustomer() throws Exception {
+        List<JsonNode> rows = ndjson(export("ndjson", customerIds.get(0)));
+
+        assertThat(rows).extracting(row -> row.get("customerId").asLong())
+                .containsExactlyElementsOf(customerIds.subList(1, 3));
+    }
+
+    private String export(String format, long afterCustomerId) throws Exception {
+        return mockMvc.perform(get("/api/export")
+                        .param("format", format)
+                        .param("afterCustomerId", Long.toString(afterCustomerId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<JsonNode> ndjson(String body) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+
+    private long insertCustomer(String name, String email, String mobileNumber, Long accountNumber) {
+        jdbcTemplate.update("INSERT INTO customers (name, email, mobile_number, created_at, created_by) "
+                + "VALUES (?, ?, ?, CURRENT_DATE, 'TEST')", name, email, mobileNumber);
+        long customerId = jdbcTemplate.queryForObject("SELECT customer_id FROM customers WHERE mobile_number = ?",
+                Long.class, mobileNumber);
+        if (accountNumber != null) {
+            jdbcTemplate.update("INSERT INTO accounts (customer_id, account_number, account_type, branch_address, "
+                    + "created_at, created_by) VALUES (?, ?, 'Savings', 'Main Street 1', CURRENT_DATE, 'TEST')",
+                    customerId, accountNumber);
+        }
+        return customerId;
+    }
+
+}
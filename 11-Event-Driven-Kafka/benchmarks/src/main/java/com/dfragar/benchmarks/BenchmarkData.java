@@ -0,0 +1,107 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.accounts.dto.AccountDto;
+import com.dfragar.accounts.dto.AccountMsgDto;
+import com.dfragar.accounts.dto.CardDto;
+import com.dfragar.accounts.dto.CustomerDetailsDto;
+import com.dfragar.accounts.dto.LoanDto;
+import com.dfragar.accounts.entity.Account;
+import com.dfragar.accounts.entity.Customer;
+import com.dfragar.cards.entity.Card;
+import com.dfragar.loans.entity.Loan;
+import java.time.LocalDateTime;
+
+/**
+ * Representative payloads shared by the benchmarks, shaped like the ones the services handle per request.
+ */
+final class BenchmarkData {
+
+    static final String MOBILE_NUMBER = "4354437687";
+    static final String CARD_NUMBER = "100646930341";
+    static final String LOAN_NUMBER = "548732457654";
+
+    private BenchmarkData() {
+    }
+
+    static Customer customer() {
+        Customer customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setName("Madan Reddy");
+        customer.setEmail("tutor@gmail.com");
+        customer.setMobileNumber(MOBILE_NUMBER);
+        customer.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+        customer.setCreatedBy("ACCOUNTS_MS");
+        return customer;
+    }
+
+    static Account account() {
+        Account account = new Account();
+        account.setCustomerId(1L);
+        account.setAccountNumber(1234567890L);
+        account.setAccountType("Savings");
+        account.setBranchAddress("123 Main Street, New York");
+        account.setCommunicationSw(true);
+        return account;
+    }
+
+    static Card card() {
+        Card card = new Card();
+        card.setCardId(1L);
+        card.setMobileNumber(MOBILE_NUMBER);
+        card.setCardNumber(CARD_NUMBER);
+        card.setCardType("Credit Card");
+        card.setTotalLimit(100000);
+        card.setAmountUsed(1000);
+        card.setAvailableAmount(99000);
+        return card;
+    }
+
+    static Loan loan() {
+        Loan loan = new Loan();
+        loan.setLoanId(1L);
+        loan.setMobileNumber(MOBILE_NUMBER);
+        loan.setLoanNumber(LOAN_NUMBER);
+        loan.setLoanType("Home Loan");
+        loan.setTotalLoan(100000);
+        loan.setAmountPaid(1000);
+        loan.setOutstandingAmount(99000);
+        return loan;
+    }
+
+    static CustomerDetailsDto customerDetailsDto() {
+        CustomerDetailsDto customerDetailsDto = new CustomerDetailsDto();
+        customerDetailsDto.setName("Madan Reddy");
+        customerDetailsDto.setEmail("tutor@gmail.com");
+        customerDetailsDto.setMobileNumber(MOBILE_NUMBER);
+
+        AccountDto accountDto = new AccountDto();
+        accountDto.setAccountNumber(1234567890L);
+        accountDto.setAccountType("Savings");
+        accountDto.setBranchAddress("123 Main Street, New York");
+        customerDetailsDto.setAccountDto(accountDto);
+
+        CardDto cardDto = new CardDto();
+        cardDto.setMobileNumber(MOBILE_NUMBER);
+        cardDto.setCardNumber(CARD_NUMBER);
+        cardDto.setCardType("Credit Card");
+        cardDto.setTotalLimit(100000);
+        cardDto.setAmountUsed(1000);
+        cardDto.setAvailableAmount(99000);
+        customerDetailsDto.setCardDto(cardDto);
+
+        LoanDto loanDto = new LoanDto();
+        loanDto.setMobileNumber(MOBILE_NUMBER);
+        loanDto.setLoanNumber(LOAN_NUMBER);
+        loanDto.setLoanType("Home Loan");
+        loanDto.setTotalLoan(100000);
+        loanDto.setAmountPaid(1000);
+        loanDto.setOutstandingAmount(99000);
+        customerDetailsDto.setLoanDto(loanDto);
+        return customerDetailsDto;
+    }
+
+    static AccountMsgDto accountMsgDto() {
+        return new AccountMsgDto(1234567890L, "Madan Reddy", "tutor@gmail.com", MOBILE_NUMBER);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.cards.ledger.AuthorizationJournal;
+import com.dfragar.cards.ledger.CardBalance;
+import com.dfragar.cards.ledger.CardBalanceLedger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Authorizations against the in-memory card ledger from 8 threads, spread over 1,024 cards or all on one hot card,
+ * with and without the journal append and the wait for the group write that makes them durable.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class CardLedgerBenchmarks {
+
+    private static final int CARDS = 1024;
+    private static final long FIRST_CARD = 100_000_000_001L;
+    private static final CardBalanceLedger.BalanceSink NO_JOURNAL = (cardNumber, cardId, used, available) -> {
+    };
+
+    private CardBalanceLedger ledger;
+    private Path journalDir;
+    private AuthorizationJournal journal;
+
+    @Setup
+    public void setUp() throws IOException {
+        ledger = new CardBalanceLedger(64, 1024);
+        for (int i = 0; i < CARDS; i++) {
+            ledger.load(new CardBalance(FIRST_CARD + i, i + 1, 0, Integer.MAX_VALUE));
+        }
+        journalDir = Files.createTempDirectory("ledger-journal-benchmark");
+        journal = new AuthorizationJournal(journalDir, false, 64);
+    }
+
+    /**
+     * Drops what the iteration journaled, as the flush would once the balances are persisted.
+     */
+    @TearDown(Level.Iteration)
+    public void truncateJournal() {
+        Path segment = journal.rotate();
+        if (segment != null) {
+            journal.delete(segment);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(journalDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(journal::delete);
+        }
+    }
+
+    @Benchmark
+    public CardBalanceLedger.Result authorize() {
+        return ledger.authorize(anyCard(), 1, NO_JOURNAL);
+    }
+
+    @Benchmark
+    public CardBalanceLedger.Result authorizeJournaled() {
+        return journaled(ledger.authorize(anyCard(), 1, journal::append));
+    }
+
+    @Benchmark
+    public CardBalanceLedger.Result authorizeHotCardJournaled() {
+        return journaled(ledger.authorize(FIRST_CARD, 1, journal::append));
+    }
+
+    private CardBalanceLedger.Result journaled(CardBalanceLedger.Result result) {
+        journal.sync();
+        return result;
+    }
+
+    private static long anyCard() {
+        return FIRST_CARD + ThreadLocalRandom.current().nextInt(CARDS);
+    }
+
+}
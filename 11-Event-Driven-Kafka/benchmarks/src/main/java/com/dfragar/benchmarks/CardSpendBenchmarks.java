@@ -0,0 +1,64 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.cards.CardsApplication;
+import com.dfragar.cards.service.ICardService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Spends of 1 on one hot card from 8 threads, through the conditional update of the cards service against its
+ * in-memory H2 database. Every iteration starts from a new card, which holds 100,000 spends of 1 before declining.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class CardSpendBenchmarks {
+
+    private final AtomicLong mobileNumbers = new AtomicLong(9_000_000_000L);
+    private ConfigurableApplicationContext context;
+    private ICardService iCardService;
+    private String cardNumber;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start(CardsApplication.class,
+                "cards.ledger.journal-dir=target/ledger-journal-benchmark");
+        iCardService = context.getBean(ICardService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newCard() {
+        String mobileNumber = Long.toString(mobileNumbers.incrementAndGet());
+        iCardService.createCard(mobileNumber);
+        cardNumber = iCardService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean spend() {
+        return iCardService.spendCard(cardNumber, 1);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.gatewayserver.config.KeycloakRoleConverter;
+import com.dfragar.gatewayserver.filters.FilterUtility;
+import com.dfragar.gatewayserver.filters.RequestTraceFilter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Work the gateway does on every routed request: the correlation id handling of {@link RequestTraceFilter} and
+ * the conversion of the Keycloak realm roles of the caller's token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewayBenchmarks {
+
+    private RequestTraceFilter requestTraceFilter;
+    private MockServerHttpRequest requestWithCorrelationId;
+    private MockServerHttpRequest requestWithoutCorrelationId;
+    private KeycloakRoleConverter keycloakRoleConverter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        requestTraceFilter = new RequestTraceFilter();
+        ReflectionTestUtils.setField(requestTraceFilter, "filterUtility", new FilterUtility());
+        requestWithCorrelationId = MockServerHttpRequest.get("/bank/accounts/api/fetchCustomerDetails")
+                .header(FilterUtility.CORRELATION_ID, "5b2d7e1c-4a8f-4f0e-9a57-1f0c2b6de3a1")
+                .queryParam("mobileNumber", BenchmarkData.MOBILE_NUMBER)
+                .build();
+        requestWithoutCorrelationId = MockServerHttpRequest.get("/bank/accounts/api/fetchCustomerDetails")
+                .queryParam("mobileNumber", BenchmarkData.MOBILE_NUMBER)
+                .build();
+
+        keycloakRoleConverter = new KeycloakRoleConverter();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("bank-callcenter-cc")
+                .claim("realm_access", Map.of("roles",
+                        List.of("ACCOUNTS", "CARDS", "LOANS", "offline_access", "uma_authorization")))
+                .build();
+    }
+
+    @Benchmark
+    public void correlationIdPresent(Blackhole blackhole) {
+        filter(MockServerWebExchange.from(requestWithCorrelationId), blackhole);
+    }
+
+    @Benchmark
+    public void correlationIdGenerated(Blackhole blackhole) {
+        filter(MockServerWebExchange.from(requestWithoutCorrelationId), blackhole);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> keycloakRoles() {
+        return keycloakRoleConverter.convert(jwt);
+    }
+
+    private void filter(MockServerWebExchange exchange, Blackhole blackhole) {
+        GatewayFilterChain chain = filtered -> {
+            blackhole.consume(filtered.getRequest().getHeaders());
+            return Mono.empty();
+        };
+        requestTraceFilter.filter(exchange, chain).block();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.accounts.dto.AccountMsgDto;
+import com.dfragar.accounts.dto.CustomerDetailsDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of the customer details response and of the account message sent to Kafka, with the
+ * ObjectMapper configured the way Spring Boot configures the services' one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmarks {
+
+    private CustomerDetailsDto customerDetailsDto;
+    private AccountMsgDto accountMsgDto;
+    private ObjectWriter customerDetailsWriter;
+    private ObjectWriter accountMsgWriter;
+    private ObjectReader accountMsgReader;
+    private byte[] accountMsgJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        customerDetailsDto = BenchmarkData.customerDetailsDto();
+        accountMsgDto = BenchmarkData.accountMsgDto();
+        customerDetailsWriter = objectMapper.writerFor(CustomerDetailsDto.class);
+        accountMsgWriter = objectMapper.writerFor(AccountMsgDto.class);
+        accountMsgReader = objectMapper.readerFor(AccountMsgDto.class);
+        accountMsgJson = accountMsgWriter.writeValueAsBytes(accountMsgDto);
+    }
+
+    @Benchmark
+    public byte[] writeCustomerDetails() throws JsonProcessingException {
+        return customerDetailsWriter.writeValueAsBytes(customerDetailsDto);
+    }
+
+    @Benchmark
+    public byte[] writeAccountMsg() throws JsonProcessingException {
+        return accountMsgWriter.writeValueAsBytes(accountMsgDto);
+    }
+
+    @Benchmark
+    public AccountMsgDto readAccountMsg() throws IOException {
+        return accountMsgReader.readValue(accountMsgJson);
+    }
+
+}
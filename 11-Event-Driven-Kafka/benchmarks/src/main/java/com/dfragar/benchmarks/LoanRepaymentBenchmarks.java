@@ -0,0 +1,64 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.loans.LoansApplication;
+import com.dfragar.loans.service.ILoanService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Repayments of 1 on one hot loan from 8 threads, appended to the repayment ledger of the loans service without
+ * locking the loan row, against its in-memory H2 database, with the scheduled fold running. Every iteration starts
+ * from a new loan, which takes 100,000 repayments of 1 before rejecting them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoanRepaymentBenchmarks {
+
+    private final AtomicLong mobileNumbers = new AtomicLong(9_000_000_000L);
+    private ConfigurableApplicationContext context;
+    private ILoanService iLoanService;
+    private String loanNumber;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start(LoansApplication.class);
+        iLoanService = context.getBean(ILoanService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newLoan() {
+        String mobileNumber = Long.toString(mobileNumbers.incrementAndGet());
+        iLoanService.createLoan(mobileNumber);
+        loanNumber = iLoanService.fetchLoan(mobileNumber).getLoanNumber();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean repay() {
+        return iLoanService.repayLoan(loanNumber, 1);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.accounts.dto.AccountDto;
+import com.dfragar.accounts.dto.CustomerDetailsDto;
+import com.dfragar.accounts.dto.CustomerDto;
+import com.dfragar.accounts.entity.Account;
+import com.dfragar.accounts.entity.Customer;
+import com.dfragar.accounts.mapper.AccountMapper;
+import com.dfragar.accounts.mapper.CustomerMapper;
+import com.dfragar.cards.dto.CardDto;
+import com.dfragar.cards.entity.Card;
+import com.dfragar.cards.mapper.CardMapper;
+import com.dfragar.loans.dto.LoanDto;
+import com.dfragar.loans.entity.Loan;
+import com.dfragar.loans.mapper.LoanMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Entity to DTO mapping done on every fetch, and DTO to entity mapping done on every create and update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmarks {
+
+    private Customer customer;
+    private Account account;
+    private Card card;
+    private Loan loan;
+    private CustomerDto customerDto;
+    private CardDto cardDto;
+    private LoanDto loanDto;
+
+    @Setup
+    public void setUp() {
+        customer = BenchmarkData.customer();
+        account = BenchmarkData.account();
+        card = BenchmarkData.card();
+        loan = BenchmarkData.loan();
+        customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountDto(AccountMapper.mapToAccountDto(account, new AccountDto()));
+        cardDto = CardMapper.mapToCardDto(card, new CardDto());
+        loanDto = LoanMapper.mapToLoanDto(loan, new LoanDto());
+    }
+
+    @Benchmark
+    public CustomerDto customerToDto() {
+        CustomerDto dto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        dto.setAccountDto(AccountMapper.mapToAccountDto(account, new AccountDto()));
+        return dto;
+    }
+
+    @Benchmark
+    public CustomerDetailsDto customerToDetailsDto() {
+        CustomerDetailsDto dto = CustomerMapper.mapToCustomerDetailsDto(customer, new CustomerDetailsDto());
+        dto.setAccountDto(AccountMapper.mapToAccountDto(account, new AccountDto()));
+        return dto;
+    }
+
+    @Benchmark
+    public Customer customerFromDto() {
+        return CustomerMapper.mapToCustomer(customerDto, new Customer());
+    }
+
+    @Benchmark
+    public Account accountFromDto() {
+        return AccountMapper.mapToAccount(customerDto.getAccountDto(), new Account());
+    }
+
+    @Benchmark
+    public CardDto cardToDto() {
+        return CardMapper.mapToCardDto(card, new CardDto());
+    }
+
+    @Benchmark
+    public Card cardFromDto() {
+        return CardMapper.mapToCard(cardDto, new Card());
+    }
+
+    @Benchmark
+    public LoanDto loanToDto() {
+        return LoanMapper.mapToLoanDto(loan, new LoanDto());
+    }
+
+    @Benchmark
+    public Loan loanFromDto() {
+        return LoanMapper.mapToLoan(loanDto, new Loan());
+    }
+
+}
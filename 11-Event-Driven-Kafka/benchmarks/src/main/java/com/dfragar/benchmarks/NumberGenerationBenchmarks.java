@@ -0,0 +1,49 @@
+package com.dfragar.benchmarks;
+
+import com.dfragar.accounts.service.impl.AccountNumberGenerator;
+import com.dfragar.cards.service.impl.CardNumberGenerator;
+import com.dfragar.loans.service.impl.LoanNumberGenerator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Account, card and loan number generation, run on 4 threads as concurrent creates would. The
+ * {@code newRandomPerCall} baseline is the previous implementation, which built a new {@link Random} per number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class NumberGenerationBenchmarks {
+
+    @Benchmark
+    public long accountNumber() {
+        return AccountNumberGenerator.nextAccountNumber();
+    }
+
+    @Benchmark
+    public String cardNumber() {
+        return CardNumberGenerator.nextCardNumber();
+    }
+
+    @Benchmark
+    public String loanNumber() {
+        return LoanNumberGenerator.nextLoanNumber();
+    }
+
+    @Benchmark
+    public long newRandomPerCall() {
+        return 1000000000L + new Random().nextInt(900000000);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.dfragar.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the context of one service, without web server, config server nor Eureka, for the benchmarks that go through
+ * its database.
+ * <p>
+ * Every service jar ships its own application.yml, schema.sql and logback-spring.xml at the root, so on the merged
+ * classpath of the benchmarks a plain {@code classpath:} location finds the copy of whichever jar comes first. The
+ * locations are pinned to the jar or classes directory of the application class instead.
+ */
+final class ServiceContexts {
+
+    private ServiceContexts() {
+    }
+
+    /**
+     * @param application - Main class of the service
+     * @param properties - Additional properties, as key=value
+     * @return the started context, to be closed by the caller
+     */
+    static ConfigurableApplicationContext start(Class<?> application, String... properties) {
+        return new SpringApplicationBuilder(application)
+                .web(WebApplicationType.NONE)
+                .properties("build.version=benchmark", "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false", "spring.jpa.show-sql=false",
+                        "spring.config.location=" + resource(application, "application.yml"),
+                        "spring.sql.init.schema-locations=" + resource(application, "schema.sql"),
+                        "logging.config=" + resource(application, "logback-spring.xml"))
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * @return the URL of the resource in the jar or classes directory the application class was loaded from
+     */
+    private static String resource(Class<?> application, String name) {
+        String root = application.getProtectionDomain().getCodeSource().getLocation().toExternalForm();
+        return root.endsWith("/") ? root + name : "jar:" + root + "!/" + name;
+    }
+
+}
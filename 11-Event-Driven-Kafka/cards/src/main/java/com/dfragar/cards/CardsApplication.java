@@ -1,6 +1,15 @@
 package com.dfragar.cards;
 
+import com.dfragar.cards.audit.AuditTrailProperties;
+import com.dfragar.cards.bulk.BulkImportProperties;
+import com.dfragar.cards.coalescing.SingleFlightProperties;
+import com.dfragar.cards.config.EntityCacheProperties;
 import com.dfragar.cards.dto.CardContactInfoDto;
+import com.dfragar.cards.jdbc.StatementAccountingProperties;
+import com.dfragar.cards.membership.MobileNumberFilterProperties;
+import com.dfragar.cards.ledger.CardLedgerProperties;
+import com.dfragar.cards.profiling.JfrProperties;
+import com.dfragar.cards.refresh.ConfigSnapshotProperties;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -10,10 +19,15 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {CardContactInfoDto.class})
+@EnableConfigurationProperties(value = {CardContactInfoDto.class, EntityCacheProperties.class,
+        CardLedgerProperties.class, BulkImportProperties.class, AuditTrailProperties.class,
+        StatementAccountingProperties.class, ConfigSnapshotProperties.class, JfrProperties.class,
+        SingleFlightProperties.class, MobileNumberFilterProperties.class})
+@EnableScheduling
 @OpenAPIDefinition(
         info = @Info(
                 title = "Cards microservice REST API Documentation",
@@ -0,0 +1,31 @@
+package com.dfragar.cards.audit;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Change record published to the audit trail for every entity written.
+ *
+ * @param service    application that made the change
+ * @param entityType simple name of the changed entity
+ * @param entityId   identifier of the changed entity
+ * @param action     kind of change
+ * @param auditor    auditor that made the change
+ * @param occurredAt instant the change was written
+ * @param state      entity state after the change, or before it when deleted
+ */
+public record AuditRecord(
+        String service,
+        String entityType,
+        String entityId,
+        Action action,
+        String auditor,
+        Instant occurredAt,
+        Map<String, Object> state
+) {
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.dfragar.cards.audit;
+
+import com.dfragar.cards.profiling.MessageSendEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes captured {@link AuditRecord}s to the audit topic in batches, off the request path.
+ * <p>
+ * Records are buffered in a bounded queue that a single background thread drains into batches of up to
+ * {@code cards.audit.batch-size} records, waiting at most {@code cards.audit.linger} for a batch to fill. A
+ * batch that can not be sent is retried until it is, while new records keep queueing. Capturing never blocks: when
+ * the queue is full the record is dropped and counted.
+ */
+@Component
+public class AuditTrailPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditTrailPublisher.class);
+
+    static final String BINDING = "auditTrail-out-0";
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final StreamBridge streamBridge;
+    private final AuditTrailProperties properties;
+    private final BlockingQueue<AuditRecord> queue;
+    private final Counter captured;
+    private final Counter dropped;
+    private final Counter published;
+    private final Counter publishFailures;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public AuditTrailPublisher(StreamBridge streamBridge, AuditTrailProperties properties,
+            MeterRegistry meterRegistry) {
+        this.streamBridge = streamBridge;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.captured = meterRegistry.counter("cards.audit.captured");
+        this.dropped = meterRegistry.counter("cards.audit.dropped");
+        this.published = meterRegistry.counter("cards.audit.published");
+        this.publishFailures = meterRegistry.counter("cards.audit.publish.failures");
+        Gauge.builder("cards.audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.drainer = Thread.ofPlatform().name("audit-publisher").daemon().unstarted(this::drain);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled()) {
+            drainer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Queues a record for publication without blocking the caller
+     *
+     * @param auditRecord - AuditRecord Object
+     * @return true if the record was queued, false if it was dropped
+     */
+    public boolean capture(AuditRecord auditRecord) {
+        if (queue.offer(auditRecord)) {
+            captured.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        drainer.join(SHUTDOWN_TIMEOUT_MS);
+        if (drainer.isAlive()) {
+            drainer.interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Audit trail stopped with {} unpublished records", queue.size());
+        }
+    }
+
+    private void drain() {
+        List<AuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !batch.isEmpty() || !queue.isEmpty()) {
+                if (batch.isEmpty()) {
+                    fill(batch);
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                if (send(batch)) {
+                    published.increment(batch.size());
+                    batch.clear();
+                } else if (running) {
+                    publishFailures.increment();
+                    Thread.sleep(properties.getRetryBackoff().toMillis());
+                } else {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the first record, then gives the batch up to the linger time to fill
+     */
+    private void fill(List<AuditRecord> batch) throws InterruptedException {
+        AuditRecord first = queue.poll(properties.getLinger().toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private boolean send(List<AuditRecord> batch) {
+        try {
+            return MessageSendEvent.record(BINDING, () -> streamBridge.send(BINDING, List.copyOf(batch)));
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to publish {} audit records: {}", batch.size(), ex.getMessage());
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.dfragar.cards.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.MediaType;
+
+/**
+ * Reads an import body line by line, either CSV with a header line or NDJSON, handing out chunks of rows so the
+ * body is never held in memory as a whole. A line that can not be parsed becomes an invalid row instead of failing
+ * the import.
+ */
+public class BulkImportReader implements Closeable {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final boolean csv;
+    private List<String> header = List.of();
+    private long lineNumber;
+
+    public BulkImportReader(InputStream body, MediaType format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        this.objectMapper = objectMapper;
+        this.csv = !MediaType.APPLICATION_NDJSON.isCompatibleWith(format);
+        if (csv) {
+            String line = reader.readLine();
+            lineNumber++;
+            if (line != null) {
+                header = parseCsv(line.startsWith("\uFEFF") ? line.substring(1) : line).stream()
+                        .map(String::trim)
+                        .toList();
+            }
+        }
+    }
+
+    /**
+     * @return up to size rows, empty once the body is exhausted
+     */
+    public List<ImportRow> nextChunk(int size) throws IOException {
+        List<ImportRow> chunk = new ArrayList<>(size);
+        String line;
+        while (chunk.size() < size && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                chunk.add(csv ? csvRow(line) : jsonRow(line));
+            }
+        }
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ImportRow csvRow(String line) {
+        List<String> values = parseCsv(line);
+        if (values.size() != header.size()) {
+            return ImportRow.invalid(lineNumber,
+                    "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return new ImportRow(lineNumber, fields, null);
+    }
+
+    private ImportRow jsonRow(String line) {
+        try {
+            Map<String, String> fields = new HashMap<>();
+            objectMapper.readValue(line, JSON_OBJECT).forEach((name, value) ->
+                    fields.put(name, value == null ? null : value.toString()));
+            return new ImportRow(lineNumber, fields, null);
+        } catch (JsonProcessingException ex) {
+            return ImportRow.invalid(lineNumber, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Splits a CSV line, honouring double quoted values with "" as an escaped quote.
+     */
+    static List<String> parseCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+}
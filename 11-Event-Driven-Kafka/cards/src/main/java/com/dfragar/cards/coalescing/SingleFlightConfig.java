@@ -0,0 +1,21 @@
+package com.dfragar.cards.coalescing;
+
+import com.dfragar.cards.dto.CardDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Single-flight layer of the card lookups by mobile number, so a hot card is read once however many requests ask
+ * for it at the same time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, CardDto> fetchCardFlight(SingleFlightProperties properties,
+            MeterRegistry meterRegistry) {
+        return new SingleFlight<>("fetchCard", properties, meterRegistry);
+    }
+
+}
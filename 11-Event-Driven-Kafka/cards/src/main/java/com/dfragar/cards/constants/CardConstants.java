@@ -15,6 +15,8 @@ public class CardConstants {
     public static final String STATUS_417 = "417";
     public static final String MESSAGE_417_UPDATE = "Update operation failed. Please try again or contact Dev team";
     public static final String MESSAGE_417_DELETE = "Delete operation failed. Please try again or contact Dev team";
+    public static final String MESSAGE_417_SPEND = "Spend operation declined. Not enough available amount on the card";
+    public static final String MESSAGE_417_AUTHORIZE = "Authorization declined. Not enough available amount on the card";
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 }
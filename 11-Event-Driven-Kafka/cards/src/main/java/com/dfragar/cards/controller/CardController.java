@@ -1,10 +1,14 @@
 package com.dfragar.cards.controller;
 
+import com.dfragar.cards.bulk.BulkImportReader;
 import com.dfragar.cards.constants.CardConstants;
+import com.dfragar.cards.dto.BulkImportReportDto;
 import com.dfragar.cards.dto.CardContactInfoDto;
 import com.dfragar.cards.dto.CardDto;
 import com.dfragar.cards.dto.ErrorResponseDto;
 import com.dfragar.cards.dto.ResponseDto;
+import com.dfragar.cards.service.IBulkImportService;
+import com.dfragar.cards.service.ICardAuthorizationService;
 import com.dfragar.cards.service.ICardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,11 +18,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.io.InputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -46,8 +53,15 @@ public class CardController {
 
     private ICardService iCardService;
 
-    public CardController(ICardService iCardsService) {
+    private ICardAuthorizationService iCardAuthorizationService;
+
+    private IBulkImportService iBulkImportService;
+
+    public CardController(ICardService iCardsService, ICardAuthorizationService iCardAuthorizationService,
+            IBulkImportService iBulkImportService) {
         this.iCardService = iCardsService;
+        this.iCardAuthorizationService = iCardAuthorizationService;
+        this.iBulkImportService = iBulkImportService;
     }
 
     @Value("${build.version}")
@@ -151,6 +165,116 @@ public class CardController {
         }
     }
 
+    @Operation(
+            summary = "Spend Card REST API",
+            description = "REST API to spend an amount against a card, declined when the available amount is not enough"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "417",
+                    description = "Expectation Failed"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PutMapping("/spend")
+    public ResponseEntity<ResponseDto> spendCard(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "CardNumber must be 12 digits")
+            String cardNumber,
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        boolean isSpent = iCardService.spendCard(cardNumber, amount);
+        if (isSpent) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new ResponseDto(CardConstants.STATUS_200, CardConstants.MESSAGE_200));
+        } else {
+            return ResponseEntity
+                    .status(HttpStatus.EXPECTATION_FAILED)
+                    .body(new ResponseDto(CardConstants.STATUS_417, CardConstants.MESSAGE_417_SPEND));
+        }
+    }
+
+    @Operation(
+            summary = "Authorize Card REST API",
+            description = "REST API to authorize an amount against the in-memory balance of a card, declined when the available amount is not enough"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "417",
+                    description = "Expectation Failed"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/authorize")
+    public ResponseEntity<ResponseDto> authorizeCard(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "CardNumber must be 12 digits")
+            String cardNumber,
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        boolean isAuthorized = iCardAuthorizationService.authorize(cardNumber, amount);
+        if (isAuthorized) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new ResponseDto(CardConstants.STATUS_200, CardConstants.MESSAGE_200));
+        } else {
+            return ResponseEntity
+                    .status(HttpStatus.EXPECTATION_FAILED)
+                    .body(new ResponseDto(CardConstants.STATUS_417, CardConstants.MESSAGE_417_AUTHORIZE));
+        }
+    }
+
+    @Operation(
+            summary = "Bulk Import REST API",
+            description = "REST API to import credit cards for a list of mobile numbers from a CSV or NDJSON body streamed row by row"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping(path = "/import", consumes = {BulkImportReader.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportReportDto> importRows(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        BulkImportReportDto bulkImportReportDto = iBulkImportService.importRows(body,
+                MediaType.parseMediaType(contentType));
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(bulkImportReportDto);
+    }
+
     @Operation(
             summary = "Delete Card Details REST API",
             description = "REST API to delete Card details based on a mobile number"
@@ -0,0 +1,30 @@
+package com.dfragar.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(
+        name = "BulkImportFailure",
+        description = "Schema to hold a row rejected by a bulk import"
+)
+public class BulkImportFailureDto {
+
+    @Schema(
+            description = "Line of the row in the imported body", example = "42"
+    )
+    private long line;
+
+    @Schema(
+            description = "Mobile Number of the row, when it could be read", example = "9345432123"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Reason the row was rejected"
+    )
+    private String errorMessage;
+
+}
@@ -0,0 +1,41 @@
+package com.dfragar.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Schema(
+        name = "BulkImportReport",
+        description = "Schema to hold the outcome of a bulk import"
+)
+public class BulkImportReportDto {
+
+    @Schema(
+            description = "Rows read from the imported body"
+    )
+    private long totalRows;
+
+    @Schema(
+            description = "Rows imported successfully"
+    )
+    private long importedRows;
+
+    @Schema(
+            description = "Rows rejected"
+    )
+    private long failedRows;
+
+    @Schema(
+            description = "Whether there were more failures than the ones listed"
+    )
+    private boolean failuresTruncated;
+
+    @Schema(
+            description = "Rejected rows, ordered by line"
+    )
+    private List<BulkImportFailureDto> failures;
+
+}
@@ -1,5 +1,6 @@
 package com.dfragar.cards.entity;
 
+import com.dfragar.cards.audit.AuditTrailListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
@@ -14,7 +15,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, AuditTrailListener.class})
 @Getter
 @Setter
 @ToString
@@ -3,12 +3,16 @@ package com.dfragar.cards.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Thrown for every lookup of an unknown resource, an expected outcome rather than a fault, so it is created without
+ * a stack trace: filling one in is most of its cost, and it is never logged.
+ */
 @ResponseStatus(value = HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String resourceName, String fieldName, String fieldValue) {
         super(String.format("%s not found with the given input data %s : '%s'", resourceName, fieldName,
-                fieldValue));
+                fieldValue), null, false, false);
     }
 
 }
@@ -0,0 +1,42 @@
+package com.dfragar.cards.jdbc;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that reports every statement to the
+ * {@link StatementRecorder}. Result sets are proxied as well so the rows read can be counted.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StatementAccountingConfig {
+
+    @Bean
+    public StatementRecorder statementRecorder() {
+        return new StatementRecorder();
+    }
+
+    @Bean
+    public static BeanPostProcessor statementRecordingDataSourcePostProcessor(
+            ObjectProvider<StatementRecorder> statementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                StatementRecorder recorder = statementRecorder.getObject();
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(recorder)
+                        .methodListener(recorder)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+
+}
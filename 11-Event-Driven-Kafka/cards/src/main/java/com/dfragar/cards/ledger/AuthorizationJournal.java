@@ -0,0 +1,316 @@
+package com.dfragar.cards.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the card balances produced by the authorizations that are not persisted yet.
+ * <p>
+ * Every record holds the absolute state of a card after the change, so replaying the segments in order and keeping
+ * the last record per card rebuilds the balances lost in a crash. A segment is rotated on every flush and deleted
+ * once the balances it covers are in the database.
+ * <p>
+ * Appends only copy the record into a buffer striped by card number, so authorizations on different cards do not
+ * contend. A single writer thread writes the buffers of every stripe in one gathering write per round, forcing the
+ * segment once per round when fsync is on, and {@link #sync()} waits for the round that covers the caller's records:
+ * concurrent authorizations share one write and one force.
+ */
+public class AuthorizationJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_SIZE = 28;
+    private static final int INITIAL_STRIPE_BYTES = 128 * RECORD_SIZE;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> recoveredSegments;
+    private final Stripe[] stripes;
+    /**
+     * Buffers handed back to the stripes on the next round, only touched by the round being written
+     */
+    private final ByteBuffer[] spares;
+    private final Thread writer;
+    private final Object roundMonitor = new Object();
+    private final AtomicLong requestedRound = new AtomicLong();
+    /**
+     * Round being written. Every record appended before it is read is written by the round after it at the latest.
+     */
+    private volatile long currentRound;
+    private volatile long writtenRound;
+    private volatile long failedRound;
+    /**
+     * Failure of the last round, kept until the next segment so nothing is written after a torn record
+     */
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private FileChannel channel;
+    private Path segment;
+    private long sequence;
+    private long written;
+
+    /**
+     * @param directory - Directory of the segments
+     * @param fsync - Whether every round is forced to disk before the authorizations it covers are acknowledged
+     * @param stripeCount - Number of append buffers, rounded up to a power of two
+     */
+    public AuthorizationJournal(Path directory, boolean fsync, int stripeCount) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        this.recoveredSegments = listSegments();
+        this.sequence = recoveredSegments.isEmpty() ? 0 : sequenceOf(recoveredSegments.getLast());
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new Stripe[count];
+        this.spares = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+            spares[i] = ByteBuffer.allocate(INITIAL_STRIPE_BYTES);
+        }
+        openNextSegment();
+        this.writer = Thread.ofPlatform().name("authorization-journal-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Buffers the new state of a card. It is on disk once {@link #sync()} returns.
+     */
+    public void append(long cardNumber, long cardId, int amountUsed, int availableAmount) {
+        IOException lastFailure = failure;
+        if (lastFailure != null) {
+            throw new UncheckedIOException("The authorization journal " + segment + " is failing", lastFailure);
+        }
+        stripes[Long.hashCode(cardNumber) & (stripes.length - 1)]
+                .append(cardNumber, cardId, amountUsed, availableAmount);
+    }
+
+    /**
+     * Waits until every record appended by the calling thread is written, and forced when fsync is on.
+     *
+     * @throws UncheckedIOException when the round covering them failed, in which case the balances they carry are
+     * only in the ledger until the next flush persists them
+     */
+    public void sync() {
+        long round = currentRound + 1;
+        requestedRound.accumulateAndGet(round, Math::max);
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        synchronized (roundMonitor) {
+            while (writtenRound < round && failedRound < round && !closed) {
+                try {
+                    roundMonitor.wait();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (writtenRound < round) {
+            IOException cause = failedRound >= round ? failure : null;
+            throw new UncheckedIOException("Unable to write the authorization journal " + segment,
+                    cause != null ? cause : new IOException("The authorization journal is closed"));
+        }
+    }
+
+    /**
+     * Writes the buffered records, closes the current segment and starts a new one.
+     *
+     * @return the closed segment, or null when nothing was written to it
+     */
+    public synchronized Path rotate() {
+        writeRound();
+        if (written == 0) {
+            return null;
+        }
+        Path closed = segment;
+        try {
+            closeSegment();
+            openNextSegment();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to rotate the authorization journal " + closed, ex);
+        }
+        // the next segment starts clean, the balances of a failed round are still in the ledger for the flush
+        failure = null;
+        return closed;
+    }
+
+    /**
+     * @return the segments left behind by a previous run, oldest first
+     */
+    public List<Path> recoveredSegments() {
+        return recoveredSegments;
+    }
+
+    public void delete(Path closedSegment) {
+        try {
+            Files.deleteIfExists(closedSegment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to delete the authorization journal " + closedSegment, ex);
+        }
+    }
+
+    /**
+     * Reads the segments in order and keeps the last state of every card. A torn or corrupted record ends the replay
+     * of its segment.
+     */
+    public static Map<Long, CardBalance> replay(List<Path> segments) throws IOException {
+        Map<Long, CardBalance> balances = new LinkedHashMap<>();
+        CRC32 checksum = new CRC32();
+        for (Path path : segments) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            while (buffer.remaining() >= RECORD_SIZE) {
+                checksum.reset();
+                checksum.update(buffer.array(), buffer.position(), RECORD_SIZE - Integer.BYTES);
+                CardBalance balance = new CardBalance(buffer.getLong(), buffer.getLong(), buffer.getInt(),
+                        buffer.getInt());
+                if (buffer.getInt() != (int) checksum.getValue()) {
+                    break;
+                }
+                balances.put(balance.cardNumber(), balance);
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            writeRound();
+            closeSegment();
+        }
+    }
+
+    private void writeLoop() {
+        while (!closed) {
+            if (requestedRound.get() > writtenRound) {
+                synchronized (this) {
+                    writeRound();
+                }
+            } else {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Takes the buffer of every stripe and writes them all, then wakes the authorizations waiting for the round. Once a
+     * round failed, the records of the following ones are dropped until the segment is rotated.
+     */
+    private void writeRound() {
+        long round = currentRound + 1;
+        currentRound = round;
+        ByteBuffer[] batch = new ByteBuffer[stripes.length];
+        long bytes = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            batch[i] = stripes[i].swap(spares[i]).flip();
+            spares[i] = batch[i];
+            bytes += batch[i].remaining();
+        }
+        boolean failed = failure != null;
+        try {
+            if (bytes > 0 && !failed) {
+                long remaining = bytes;
+                while (remaining > 0) {
+                    remaining -= channel.write(batch);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                written += bytes;
+            }
+        } catch (IOException ex) {
+            failure = ex;
+            failed = true;
+        }
+        for (ByteBuffer buffer : batch) {
+            buffer.clear();
+        }
+        synchronized (roundMonitor) {
+            if (failed) {
+                failedRound = round;
+            } else {
+                writtenRound = round;
+            }
+            roundMonitor.notifyAll();
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        sequence++;
+        segment = directory.resolve(SEGMENT_PREFIX + String.format("%020d", sequence) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        written = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+        channel.close();
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Records appended to one stripe since the last round, guarded by its own monitor.
+     */
+    private static final class Stripe {
+
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer records = ByteBuffer.allocate(INITIAL_STRIPE_BYTES);
+
+        private synchronized void append(long cardNumber, long cardId, int amountUsed, int availableAmount) {
+            if (records.remaining() < RECORD_SIZE) {
+                records = ByteBuffer.allocate(records.capacity() * 2).put(records.flip());
+            }
+            int start = records.position();
+            records.putLong(cardNumber).putLong(cardId).putInt(amountUsed).putInt(availableAmount);
+            crc.reset();
+            crc.update(records.array(), start, RECORD_SIZE - Integer.BYTES);
+            records.putInt((int) crc.getValue());
+        }
+
+        private synchronized ByteBuffer swap(ByteBuffer empty) {
+            ByteBuffer full = records;
+            records = empty;
+            return full;
+        }
+
+    }
+
+}
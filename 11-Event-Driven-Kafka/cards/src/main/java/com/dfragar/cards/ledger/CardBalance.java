@@ -0,0 +1,16 @@
+package com.dfragar.cards.ledger;
+
+/**
+ * @param cardNumber - Numeric card number used as the ledger key
+ * @param cardId - Primary key of the card row
+ * @param amountUsed - Total amount used by the customer
+ * @param availableAmount - Total available amount against the card
+ */
+public record CardBalance(
+        long cardNumber,
+        long cardId,
+        int amountUsed,
+        int availableAmount
+) {
+
+}
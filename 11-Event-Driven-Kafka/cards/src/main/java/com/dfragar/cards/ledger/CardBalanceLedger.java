@@ -0,0 +1,284 @@
+package com.dfragar.cards.ledger;
+
+/**
+ * In-memory balances of the active cards keyed by the numeric card number.
+ * <p>
+ * The keys are spread over power-of-two stripes, each one an open addressing table of primitive arrays guarded by
+ * its own monitor, so authorizations on different cards rarely contend and nothing is boxed on the hot path.
+ */
+public class CardBalanceLedger {
+
+    private static final long EMPTY = 0L;
+
+    public enum Result {
+        APPROVED, DECLINED, NOT_LOADED
+    }
+
+    /**
+     * Receives the new state of a card. Called under the stripe lock, before the state is applied.
+     */
+    @FunctionalInterface
+    public interface BalanceSink {
+
+        void accept(long cardNumber, long cardId, int amountUsed, int availableAmount);
+
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public CardBalanceLedger(int stripeCount, int stripeCapacity) {
+        int count = powerOfTwo(stripeCount);
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(powerOfTwo(stripeCapacity));
+        }
+    }
+
+    /**
+     * @param cardNumber - Numeric card number
+     * @param amount - Amount to authorize
+     * @param journal - Sink that records the new state before it becomes visible
+     * @return the outcome of the authorization, NOT_LOADED when the card balance is not in memory yet
+     */
+    public Result authorize(long cardNumber, int amount, BalanceSink journal) {
+        long hash = hash(cardNumber);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(cardNumber, hash);
+            if (slot < 0) {
+                return Result.NOT_LOADED;
+            }
+            if (stripe.available[slot] < amount) {
+                return Result.DECLINED;
+            }
+            int amountUsed = stripe.amountUsed[slot] + amount;
+            int availableAmount = stripe.available[slot] - amount;
+            journal.accept(cardNumber, stripe.cardIds[slot], amountUsed, availableAmount);
+            stripe.amountUsed[slot] = amountUsed;
+            stripe.available[slot] = availableAmount;
+            stripe.dirty[slot] = true;
+            return Result.APPROVED;
+        }
+    }
+
+    /**
+     * Gives back the amount of an approved authorization that could not be journaled. The credit is not journaled
+     * either: the journal is failing, and the next flush persists the balance from memory.
+     *
+     * @return false when the card is not held by the ledger any more
+     */
+    public boolean reverse(long cardNumber, int amount) {
+        long hash = hash(cardNumber);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(cardNumber, hash);
+            if (slot < 0) {
+                return false;
+            }
+            stripe.amountUsed[slot] -= amount;
+            stripe.available[slot] += amount;
+            stripe.dirty[slot] = true;
+            return true;
+        }
+    }
+
+    /**
+     * Loads a clean balance unless the card is already present.
+     */
+    public void load(CardBalance balance) {
+        put(balance, false);
+    }
+
+    /**
+     * Puts back a balance that could not be persisted. A balance already present is newer, so it is only marked dirty.
+     */
+    public void restore(CardBalance balance) {
+        put(balance, true);
+    }
+
+    public CardBalance find(long cardNumber) {
+        long hash = hash(cardNumber);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(cardNumber, hash);
+            return slot < 0 ? null : stripe.snapshot(slot);
+        }
+    }
+
+    public void remove(long cardNumber) {
+        long hash = hash(cardNumber);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(cardNumber, hash);
+            if (slot >= 0) {
+                stripe.delete(slot);
+            }
+        }
+    }
+
+    /**
+     * Hands every balance changed since the previous drain to the sink and marks it clean.
+     */
+    public void drainDirty(BalanceSink sink) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int slot = 0; slot < stripe.keys.length; slot++) {
+                    if (stripe.dirty[slot]) {
+                        sink.accept(stripe.keys[slot], stripe.cardIds[slot], stripe.amountUsed[slot],
+                                stripe.available[slot]);
+                        stripe.dirty[slot] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private void put(CardBalance balance, boolean dirty) {
+        long hash = hash(balance.cardNumber());
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(balance.cardNumber(), hash);
+            if (slot >= 0) {
+                stripe.dirty[slot] |= dirty;
+            } else {
+                stripe.insert(balance, hash, dirty);
+            }
+        }
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) hash & stripeMask];
+    }
+
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int powerOfTwo(int value) {
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    private static final class Stripe {
+
+        private long[] keys;
+        private long[] cardIds;
+        private int[] amountUsed;
+        private int[] available;
+        private boolean[] dirty;
+        private int size;
+
+        private Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private int find(long key, long hash) {
+            int mask = keys.length - 1;
+            for (int slot = start(hash, mask); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(CardBalance balance, long hash, boolean isDirty) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = start(hash, mask);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = balance.cardNumber();
+            cardIds[slot] = balance.cardId();
+            amountUsed[slot] = balance.amountUsed();
+            available[slot] = balance.availableAmount();
+            dirty[slot] = isDirty;
+            size++;
+        }
+
+        /**
+         * Backward shift deletion keeps the probe sequences intact without tombstones.
+         */
+        private void delete(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int home = start(hash(keys[next]), mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    move(next, hole);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = EMPTY;
+            dirty[hole] = false;
+            size--;
+        }
+
+        private CardBalance snapshot(int slot) {
+            return new CardBalance(keys[slot], cardIds[slot], amountUsed[slot], available[slot]);
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            cardIds[to] = cardIds[from];
+            amountUsed[to] = amountUsed[from];
+            available[to] = available[from];
+            dirty[to] = dirty[from];
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCardIds = cardIds;
+            int[] oldAmountUsed = amountUsed;
+            int[] oldAvailable = available;
+            boolean[] oldDirty = dirty;
+            allocate(oldKeys.length << 1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    insert(new CardBalance(oldKeys[i], oldCardIds[i], oldAmountUsed[i], oldAvailable[i]),
+                            hash(oldKeys[i]), oldDirty[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            cardIds = new long[capacity];
+            amountUsed = new int[capacity];
+            available = new int[capacity];
+            dirty = new boolean[capacity];
+        }
+
+        private static int start(long hash, int mask) {
+            return (int) (hash >>> 32) & mask;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.dfragar.cards.ledger;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cards.ledger")
+@Getter
+@Setter
+public class CardLedgerProperties {
+
+    private String journalDir = "ledger-journal";
+    /**
+     * An approved authorization is acknowledged once the journal round covering it is written. With fsync off the
+     * round only reaches the OS page cache: the authorization survives a crash of the service, but a crash of the host
+     * loses every authorization acknowledged since the last flush, that is up to flush-interval-ms plus the time the
+     * flush takes. With fsync on every round is forced to disk before it is acknowledged, so nothing acknowledged is
+     * lost, at the cost of one force per round shared by the authorizations that arrived during the previous one.
+     */
+    private boolean journalFsync = false;
+    private int stripes = 64;
+    private int stripeCapacity = 1024;
+    private int batchSize = 500;
+
+}
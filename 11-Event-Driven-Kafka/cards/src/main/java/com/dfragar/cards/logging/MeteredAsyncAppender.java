@@ -0,0 +1,45 @@
+package com.dfragar.cards.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous appender that counts the events it drops.
+ * <p>
+ * Once less than the discarding threshold is left in the queue, TRACE, DEBUG and INFO events are discarded. With
+ * {@code neverBlock} a full queue drops any event instead of blocking the logging thread.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (getRemainingCapacity() < getDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    /**
+     * @return events below WARN discarded because the queue was nearly full
+     */
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    /**
+     * @return events dropped because the queue was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.dfragar.cards.membership;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter of strings, with 4-bit counters packed 16 to a {@code long}, so keys can be
+ * removed as well as added. It never answers that an added key is absent, and answers that a key never added might
+ * be present with about the false positive rate it was sized for.
+ * <p>
+ * A counter reaching 15 sticks there, as it can no longer tell how many keys share it, and the keys behind it stay
+ * present for good. Removing a key that was never added can hide other keys, so callers only remove keys they added.
+ */
+final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final int COUNTER_BITS = 4;
+    private static final long MAX_COUNT = 0xF;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+
+    /**
+     * @param expectedEntries   - keys held at once, beyond which the false positive rate degrades
+     * @param falsePositiveRate - chance that a key never added is reported as present, between 0 and 1
+     */
+    CountingBloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected entries must be positive and the false positive rate "
+                    + "between 0 and 1, got " + expectedEntries + " and " + falsePositiveRate);
+        }
+        long optimalCounters = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        this.counters = Math.max(COUNTERS_PER_WORD, optimalCounters);
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedEntries * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 1; i <= hashes; i++) {
+            if (count(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void add(String key) {
+        long hash = hash(key);
+        for (int i = 1; i <= hashes; i++) {
+            update(index(hash, i), 1);
+        }
+    }
+
+    void remove(String key) {
+        if (!mightContain(key)) {
+            return;
+        }
+        long hash = hash(key);
+        for (int i = 1; i <= hashes; i++) {
+            update(index(hash, i), -1);
+        }
+    }
+
+    /**
+     * @return memory held by the counters, in bytes
+     */
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private long count(long index) {
+        return (words.get((int) (index / COUNTERS_PER_WORD)) >>> shift(index)) & MAX_COUNT;
+    }
+
+    private void update(long index, int delta) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || count == 0 && delta < 0) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current + ((long) delta << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    /**
+     * i-th counter of the key, from the two halves of its hash as in Kirsch and Mitzenmacher's double hashing
+     */
+    private long index(long hash, int i) {
+        long combined = (int) hash + (long) i * (int) (hash >>> 32);
+        return Math.floorMod(combined, counters);
+    }
+
+    /**
+     * 64-bit FNV-1a of the characters, finished with the MurmurHash3 mix so the short, similar keys of mobile
+     * numbers spread over every bit
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
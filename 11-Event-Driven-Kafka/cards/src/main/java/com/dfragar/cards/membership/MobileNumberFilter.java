@@ -0,0 +1,134 @@
+package com.dfragar.cards.membership;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compact set of the mobile numbers of every card, so the lookups of unknown numbers, such as scrapers or retries, are
+ * rejected without querying the database.
+ * <p>
+ * The filter is loaded from the cards table page by page in the background once the application is ready, and lets
+ * every lookup through until then. Creations, and updates changing the number, add it before writing it, so a number
+ * is never missing while its row exists, and deletions and those updates remove the old number once it is written.
+ * Removals made while loading are skipped, as the number may not have been loaded yet: the number then only stays a
+ * false positive. Rows written by other instances after the load are not seen and would be answered as missing, so
+ * the filter is disabled unless this instance is the only writer.
+ * <p>
+ * Published as {@code mobile.number.filter.lookups}, tagged {@code rejected} or {@code passed}, and
+ * {@code mobile.number.filter.size} in bytes.
+ */
+@Component
+public class MobileNumberFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MobileNumberFilter.class);
+
+    static final String SELECT_PAGE_SQL = "SELECT card_id, mobile_number FROM cards "
+            + "WHERE card_id > ? ORDER BY card_id LIMIT ?";
+
+    private final MobileNumberFilterProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final CountingBloomFilter filter;
+    private final Thread loader;
+    private final Counter rejected;
+    private final Counter passed;
+    private volatile boolean ready;
+
+    public MobileNumberFilter(MobileNumberFilterProperties properties, JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.filter = new CountingBloomFilter(properties.getExpectedEntries(), properties.getFalsePositiveRate());
+        this.loader = Thread.ofPlatform().name("mobile-number-filter-loader").daemon().unstarted(this::load);
+        this.rejected = Counter.builder("mobile.number.filter.lookups").tag("result", "rejected")
+                .register(meterRegistry);
+        this.passed = Counter.builder("mobile.number.filter.lookups").tag("result", "passed")
+                .register(meterRegistry);
+        Gauge.builder("mobile.number.filter.size", filter, CountingBloomFilter::sizeInBytes)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled()) {
+            loader.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.interrupt();
+    }
+
+    /**
+     * @param mobileNumber - mobile number looked up
+     * @return false when no card has the number, true when one might have it or the filter is not loaded
+     */
+    public boolean mightExist(String mobileNumber) {
+        if (!ready || !properties.isEnabled()) {
+            return true;
+        }
+        if (filter.mightContain(mobileNumber)) {
+            passed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Adds the number of a card about to be created, or about to be given this number
+     */
+    public void add(String mobileNumber) {
+        filter.add(mobileNumber);
+    }
+
+    /**
+     * Removes the number of a card deleted, or the previous number of a card updated
+     */
+    public void remove(String mobileNumber) {
+        if (ready) {
+            filter.remove(mobileNumber);
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    void load() {
+        long startNanos = System.nanoTime();
+        long lastId = 0;
+        long loaded = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Map.Entry<Long, String>> page = jdbcTemplate.query(SELECT_PAGE_SQL,
+                        (resultSet, rowNum) -> Map.entry(resultSet.getLong(1), resultSet.getString(2)),
+                        lastId, properties.getLoadPageSize());
+                page.forEach(row -> filter.add(row.getValue()));
+                loaded += page.size();
+                if (page.size() < properties.getLoadPageSize()) {
+                    ready = true;
+                    logger.info("Loaded {} mobile numbers into the filter in {} ms, {} KB", loaded,
+                            (System.nanoTime() - startNanos) / 1_000_000, filter.sizeInBytes() / 1024);
+                    return;
+                }
+                lastId = page.getLast().getKey();
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Loading the mobile number filter failed after {} numbers, every lookup goes to the "
+                    + "database", loaded, e);
+        }
+    }
+
+}
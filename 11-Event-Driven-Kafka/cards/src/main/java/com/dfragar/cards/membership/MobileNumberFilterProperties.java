@@ -0,0 +1,33 @@
+package com.dfragar.cards.membership;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cards.mobile-number-filter")
+@Getter
+@Setter
+public class MobileNumberFilterProperties {
+
+    /**
+     * Off by default: the filter only sees the writes of its own instance, so it is only safe when this instance is
+     * the only one writing the table
+     */
+    private boolean enabled = false;
+
+    /**
+     * Mobile numbers the filter is sized for, read at startup
+     */
+    private long expectedEntries = 1_000_000;
+
+    /**
+     * Share of unknown mobile numbers still looked up in the database, read at startup
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Rows read per query while loading the filter at startup
+     */
+    private int loadPageSize = 10_000;
+
+}
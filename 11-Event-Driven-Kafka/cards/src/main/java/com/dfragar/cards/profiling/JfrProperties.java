@@ -0,0 +1,68 @@
+package com.dfragar.cards.profiling;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * JDK Flight Recorder sessions started through /actuator/jfr, and the continuous recording kept in the background.
+ */
+@ConfigurationProperties(prefix = "cards.jfr")
+@Getter
+@Setter
+public class JfrProperties {
+
+    /**
+     * JFR configuration of the sessions, "default" or "profile" as shipped with the JDK
+     */
+    private String settings = "profile";
+
+    private Duration defaultDuration = Duration.ofMinutes(1);
+
+    /**
+     * Upper bound of a session, longer requests are cut to it
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /**
+     * Sessions recording at the same time
+     */
+    private int maxSessions = 1;
+
+    /**
+     * Finished sessions kept for download, the oldest is deleted beyond it
+     */
+    private int retainedSessions = 5;
+
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "jfr");
+
+    private Continuous continuous = new Continuous();
+
+    @Getter
+    @Setter
+    public static class Continuous {
+
+        private boolean enabled = true;
+
+        /**
+         * JFR configuration of the continuous recording, "default" keeps the overhead around 1%
+         */
+        private String settings = "default";
+
+        private Duration maxAge = Duration.ofMinutes(30);
+
+        private DataSize maxSize = DataSize.ofMegabytes(100);
+
+        /**
+         * Minimum duration of the events recorded, by event name, so frequent fast calls are left out
+         */
+        private Map<String, Duration> thresholds = new LinkedHashMap<>();
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.dfragar.cards.refresh;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import org.springframework.boot.context.config.ConfigDataResource;
+import org.springframework.cloud.config.client.ConfigServerConfigDataResource;
+
+/**
+ * Config server resource backed by a local snapshot file.
+ */
+public class ConfigSnapshotConfigDataResource extends ConfigDataResource {
+
+    private final ConfigServerConfigDataResource delegate;
+    private final boolean snapshotEnabled;
+    private final Path snapshotFile;
+    private final String snapshotKey;
+    private final Duration retryInterval;
+
+    public ConfigSnapshotConfigDataResource(ConfigServerConfigDataResource delegate, boolean snapshotEnabled,
+            Path snapshotFile, String snapshotKey, Duration retryInterval) {
+        super(delegate.isOptional());
+        this.delegate = delegate;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotFile = snapshotFile;
+        this.snapshotKey = snapshotKey;
+        this.retryInterval = retryInterval;
+    }
+
+    public ConfigServerConfigDataResource getDelegate() {
+        return delegate;
+    }
+
+    public boolean isSnapshotEnabled() {
+        return snapshotEnabled;
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public String getSnapshotKey() {
+        return snapshotKey;
+    }
+
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConfigSnapshotConfigDataResource other
+                && delegate.equals(other.delegate)
+                && snapshotFile.equals(other.snapshotFile);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(delegate, snapshotFile);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshotConfigDataResource{delegate=" + delegate + ", snapshotFile=" + snapshotFile + "}";
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.dfragar.cards.refresh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Optional;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Reads and writes the configuration snapshots, one file per application, profile and label.
+ * <p>
+ * A snapshot holds the configuration as the config server serves it, with its secrets decrypted, so the file is
+ * encrypted with AES-GCM under a key derived from the snapshot key and a random salt: the JSON never reaches the disk
+ * in plain text, and a tampered file or a wrong key reads as no snapshot at all.
+ * <p>
+ * Used while the configuration is being loaded, before any bean exists, hence the own object mapper.
+ */
+public final class ConfigSnapshotStore {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final String KEY_DERIVATION = "PBKDF2WithHmacSHA256";
+    private static final int KEY_DERIVATION_ITERATIONS = 65_536;
+    private static final int KEY_BITS = 256;
+    private static final int SALT_BYTES = 16;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private ConfigSnapshotStore() {
+    }
+
+    /**
+     * @return the snapshot file of the application, profile and label in the directory
+     */
+    public static Path file(Path directory, String application, String profile, String label) {
+        String name = String.join("-", application, profile, label == null ? "default" : label);
+        return directory.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".snapshot");
+    }
+
+    /**
+     * @param key - Snapshot key the file was written with
+     * @return the snapshot, empty when there is none or it cannot be read or decrypted
+     */
+    public static Optional<ConfigSnapshot> read(Path file, String key) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+            byte[] salt = new byte[SALT_BYTES];
+            byte[] iv = new byte[IV_BYTES];
+            content.get(salt).get(iv);
+            byte[] json = cipher(Cipher.DECRYPT_MODE, key, salt, iv)
+                    .doFinal(content.array(), content.position(), content.remaining());
+            ConfigSnapshot snapshot = OBJECT_MAPPER.readValue(json, ConfigSnapshot.class);
+            return snapshot.propertySources() == null || snapshot.propertySources().isEmpty()
+                    ? Optional.empty()
+                    : Optional.of(snapshot);
+        } catch (IOException | GeneralSecurityException | BufferUnderflowException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the snapshot atomically, a crash while writing leaves the previous one in place
+     *
+     * @param key - Snapshot key the file is encrypted with
+     */
+    public static void write(Path file, ConfigSnapshot snapshot, String key) throws IOException {
+        byte[] salt = new byte[SALT_BYTES];
+        byte[] iv = new byte[IV_BYTES];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(iv);
+        byte[] encrypted;
+        try {
+            encrypted = cipher(Cipher.ENCRYPT_MODE, key, salt, iv).doFinal(OBJECT_MAPPER.writeValueAsBytes(snapshot));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Could not encrypt the configuration snapshot " + file, e);
+        }
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, ByteBuffer.allocate(SALT_BYTES + IV_BYTES + encrypted.length)
+                    .put(salt).put(iv).put(encrypted).array());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static Cipher cipher(int mode, String key, byte[] salt, byte[] iv) throws GeneralSecurityException {
+        byte[] derived = SecretKeyFactory.getInstance(KEY_DERIVATION)
+                .generateSecret(new PBEKeySpec(key.toCharArray(), salt, KEY_DERIVATION_ITERATIONS, KEY_BITS))
+                .getEncoded();
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(mode, new SecretKeySpec(derived, "AES"), new GCMParameterSpec(TAG_BITS, iv));
+        return cipher;
+    }
+
+}
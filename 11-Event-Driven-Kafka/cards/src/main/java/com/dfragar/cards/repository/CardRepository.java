@@ -1,15 +1,42 @@
 package com.dfragar.cards.repository;
 
 import com.dfragar.cards.entity.Card;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Card> findByMobileNumber(String mobileNumber);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Card> findByCardNumber(String cardNumber);
 
+    boolean existsByCardNumber(String cardNumber);
+
+    /**
+     * Applies a spend delta in a single conditional statement, so concurrent spends on the same card
+     * never lose updates and the available amount can never go negative.
+     *
+     * @return number of updated rows, 0 when the card does not exist or has not enough available amount
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Card c SET c.amountUsed = c.amountUsed + :amount, "
+            + "c.availableAmount = c.availableAmount - :amount, "
+            + "c.updatedAt = :updatedAt, c.updatedBy = :updatedBy "
+            + "WHERE c.cardNumber = :cardNumber AND c.availableAmount >= :amount")
+    int spend(@Param("cardNumber") String cardNumber, @Param("amount") int amount,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
 }
@@ -0,0 +1,35 @@
+package com.dfragar.cards.service;
+
+import com.dfragar.cards.ledger.CardBalance;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+public interface ICardAuthorizationService {
+
+    /**
+     *
+     * @param cardNumber - Input Card Number
+     * @param amount - Amount to be authorized against the card
+     * @return boolean indicating if the authorization was approved or declined for insufficient available amount
+     */
+    boolean authorize(String cardNumber, int amount);
+
+    /**
+     *
+     * @param cardNumber - Input Card Number
+     * @return the in-memory balance of the card when it is held by the ledger
+     */
+    Optional<CardBalance> findBalance(String cardNumber);
+
+    /**
+     * Persists every pending balance, drops the card from the ledger and runs a write of its database row while
+     * keeping the card out of the ledger: an authorization arriving meanwhile waits and loads the row once the write
+     * is done, instead of loading the row the write is about to change and flushing it back over the write.
+     *
+     * @param cardNumber - Input Card Number
+     * @param write - Change of the card row, committed before it returns
+     * @return the result of the write
+     */
+    <T> T writeThrough(String cardNumber, Supplier<T> write);
+
+}
@@ -24,6 +24,14 @@ public interface ICardService {
      */
     boolean updateCard(CardDto cardDto);
 
+    /**
+     *
+     * @param cardNumber - Input Card Number
+     * @param amount - Amount to be spent against the card
+     * @return boolean indicating if the spend was applied or declined for insufficient available amount
+     */
+    boolean spendCard(String cardNumber, int amount);
+
     /**
      *
      * @param mobileNumber - Input Mobile Number
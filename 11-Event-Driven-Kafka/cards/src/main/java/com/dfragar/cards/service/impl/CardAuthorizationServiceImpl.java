@@ -0,0 +1,353 @@
+package com.dfragar.cards.service.impl;
+
+import com.dfragar.cards.audit.AuditRecord;
+import com.dfragar.cards.audit.AuditTrailListener;
+import com.dfragar.cards.entity.Card;
+import com.dfragar.cards.exception.ResourceNotFoundException;
+import com.dfragar.cards.ledger.AuthorizationJournal;
+import com.dfragar.cards.ledger.CardBalance;
+import com.dfragar.cards.ledger.CardBalanceLedger;
+import com.dfragar.cards.ledger.CardLedgerProperties;
+import com.dfragar.cards.repository.CardRepository;
+import com.dfragar.cards.service.ICardAuthorizationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Authorizes card spends against the in-memory {@link CardBalanceLedger} and persists the balances behind the
+ * request path.
+ * <p>
+ * An approved authorization is appended to the {@link AuthorizationJournal} before it becomes visible and only
+ * acknowledged once the journal has written it, or given back when the journal fails to. A scheduled flush writes the
+ * changed balances in JDBC batches and then deletes the journal segments they cover. The ledger is the source of truth
+ * for the cards it holds, so requests for a card must always reach the same instance.
+ */
+@Service
+public class CardAuthorizationServiceImpl implements ICardAuthorizationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardAuthorizationServiceImpl.class);
+
+    private static final String UPDATE_BALANCE_SQL = "UPDATE cards SET amount_used = ?, available_amount = ?, "
+            + "updated_at = ?, updated_by = ? WHERE card_id = ?";
+    private static final String REVERSE_SQL = "UPDATE cards SET amount_used = amount_used - ?, "
+            + "available_amount = available_amount + ?, updated_at = ?, updated_by = ? WHERE card_number = ?";
+    private static final String SELECT_BALANCE_SQL = "SELECT card_id, amount_used, available_amount FROM cards "
+            + "WHERE card_number = ?";
+
+    private final CardRepository cardRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache entityCache;
+    private final AuditorAware<String> auditorAware;
+    private final AuditTrailListener auditTrailListener;
+    private final int batchSize;
+    private final CardBalanceLedger ledger;
+    private final AuthorizationJournal journal;
+
+    /**
+     * Authorizations hold the read side, so a rotation under the write side always sees a consistent journal
+     * and set of dirty balances.
+     */
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes the flushes, so a failed one always puts its balances back before the next one drains.
+     */
+    private final Object flushMonitor = new Object();
+
+    /**
+     * Striped by card number, held by a write through from the eviction of the card to the end of its database
+     * write and by the loads of the card, so the ledger never reads a row that is being changed by another path.
+     */
+    private final ReentrantLock[] cardLocks;
+    private final List<Path> unpersistedSegments = new ArrayList<>();
+
+    private final Timer approvedTimer;
+    private final Timer declinedTimer;
+    private final Counter flushFailures;
+
+    @Autowired
+    public CardAuthorizationServiceImpl(CardRepository cardRepository, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+            AuditorAware<String> auditorAware, AuditTrailListener auditTrailListener, CardLedgerProperties properties,
+            MeterRegistry meterRegistry) throws IOException {
+        this(cardRepository, jdbcTemplate, transactionTemplate, entityManagerFactory, auditorAware, auditTrailListener,
+                properties, meterRegistry, new AuthorizationJournal(Path.of(properties.getJournalDir()),
+                        properties.isJournalFsync(), properties.getStripes()));
+    }
+
+    CardAuthorizationServiceImpl(CardRepository cardRepository, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, EntityManagerFactory entityManagerFactory,
+            AuditorAware<String> auditorAware, AuditTrailListener auditTrailListener, CardLedgerProperties properties,
+            MeterRegistry meterRegistry, AuthorizationJournal journal) {
+        this.cardRepository = cardRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCache = entityManagerFactory.getCache();
+        this.auditorAware = auditorAware;
+        this.auditTrailListener = auditTrailListener;
+        this.batchSize = properties.getBatchSize();
+        this.ledger = new CardBalanceLedger(properties.getStripes(), properties.getStripeCapacity());
+        this.cardLocks = new ReentrantLock[properties.getStripes()];
+        Arrays.setAll(cardLocks, i -> new ReentrantLock());
+        this.journal = journal;
+        this.approvedTimer = Timer.builder("cards.authorization").tag("result", "approved").register(meterRegistry);
+        this.declinedTimer = Timer.builder("cards.authorization").tag("result", "declined").register(meterRegistry);
+        this.flushFailures = Counter.builder("cards.ledger.flush.failures").register(meterRegistry);
+        Gauge.builder("cards.ledger.size", ledger, CardBalanceLedger::size).register(meterRegistry);
+    }
+
+    /**
+     * Persists the balances journaled by a previous run that did not reach the database.
+     */
+    @PostConstruct
+    void recover() throws IOException {
+        List<Path> segments = journal.recoveredSegments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        Map<Long, CardBalance> balances = AuthorizationJournal.replay(segments);
+        persist(balances.values());
+        segments.forEach(journal::delete);
+        logger.info("Recovered {} card balances from {} journal segments", balances.size(), segments.size());
+    }
+
+    /**
+     * @param cardNumber - Input Card Number
+     * @param amount - Amount to be authorized against the card
+     * @return boolean indicating if the authorization was approved or declined for insufficient available amount
+     */
+    @Override
+    public boolean authorize(String cardNumber, int amount) {
+        long key = toKey(cardNumber);
+        long start = System.nanoTime();
+        CardBalanceLedger.Result result;
+        while ((result = tryAuthorize(key, amount)) == CardBalanceLedger.Result.NOT_LOADED) {
+            load(cardNumber, key);
+        }
+        boolean approved = result == CardBalanceLedger.Result.APPROVED;
+        if (approved) {
+            sync(cardNumber, key, amount);
+        }
+        (approved ? approvedTimer : declinedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return approved;
+    }
+
+    /**
+     * @param cardNumber - Input Card Number
+     * @return the in-memory balance of the card when it is held by the ledger
+     */
+    @Override
+    public Optional<CardBalance> findBalance(String cardNumber) {
+        return parse(cardNumber).map(ledger::find);
+    }
+
+    /**
+     * @param cardNumber - Input Card Number
+     * @param write - Change of the card row, committed before it returns
+     * @return the result of the write
+     */
+    @Override
+    public <T> T writeThrough(String cardNumber, Supplier<T> write) {
+        Optional<Long> key = parse(cardNumber);
+        if (key.isEmpty()) {
+            // the ledger only holds numeric card numbers
+            return write.get();
+        }
+        ReentrantLock cardLock = cardLock(key.get());
+        cardLock.lock();
+        try {
+            if (ledger.find(key.get()) != null) {
+                flush(key.get(), true);
+            }
+            return write.get();
+        } finally {
+            cardLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cards.ledger.flush-interval-ms:200}")
+    public void flush() {
+        try {
+            flush(0L, false);
+        } catch (RuntimeException ex) {
+            logger.error("Unable to flush the card ledger, the balances stay journaled until the next attempt", ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        flush(0L, false);
+        journal.close();
+    }
+
+    private CardBalanceLedger.Result tryAuthorize(long key, int amount) {
+        rotationLock.readLock().lock();
+        try {
+            return ledger.authorize(key, amount, journal::append);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waits for the journal to write an approved authorization, outside the rotation lock so the flush never waits
+     * for a journal write to rotate. When the write fails the authorization is reported as failed, so its amount is
+     * given back before the next flush can persist it.
+     */
+    private void sync(String cardNumber, long key, int amount) {
+        try {
+            journal.sync();
+        } catch (RuntimeException ex) {
+            ReentrantLock cardLock = cardLock(key);
+            cardLock.lock();
+            try {
+                if (!ledger.reverse(key, amount)) {
+                    // evicted by a write through in between, which persisted the balance with this amount
+                    LocalDateTime updatedAt = LocalDateTime.now();
+                    String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (jdbcTemplate.update(REVERSE_SQL, amount, amount, Timestamp.valueOf(updatedAt), updatedBy,
+                                cardNumber) == 1 && auditTrailListener.isEnabled()) {
+                            // the statement only knows the amount given back, the row holds the resulting balance
+                            CardBalance balance = jdbcTemplate.queryForObject(SELECT_BALANCE_SQL,
+                                    (rs, rowNum) -> new CardBalance(key, rs.getLong(1), rs.getInt(2), rs.getInt(3)),
+                                    cardNumber);
+                            audit(balance, updatedAt, updatedBy);
+                        }
+                    });
+                    entityCache.evict(Card.class);
+                }
+            } finally {
+                cardLock.unlock();
+            }
+            throw ex;
+        }
+    }
+
+    private void load(String cardNumber, long key) {
+        ReentrantLock cardLock = cardLock(key);
+        cardLock.lock();
+        try {
+            Card card = cardRepository.findByCardNumber(cardNumber).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+            ledger.load(new CardBalance(key, card.getCardId(), card.getAmountUsed(), card.getAvailableAmount()));
+        } finally {
+            cardLock.unlock();
+        }
+    }
+
+    private ReentrantLock cardLock(long key) {
+        return cardLocks[Math.floorMod(Long.hashCode(key), cardLocks.length)];
+    }
+
+    /**
+     * @param evictedCard - Card number to drop from the ledger once its balance is persisted
+     * @param evict - Whether a card has to be evicted as part of this flush
+     */
+    private void flush(long evictedCard, boolean evict) {
+        synchronized (flushMonitor) {
+            List<CardBalance> balances = new ArrayList<>();
+            rotationLock.writeLock().lock();
+            try {
+                Path segment = journal.rotate();
+                if (segment != null) {
+                    unpersistedSegments.add(segment);
+                }
+                ledger.drainDirty((cardNumber, cardId, amountUsed, availableAmount) ->
+                        balances.add(new CardBalance(cardNumber, cardId, amountUsed, availableAmount)));
+                if (evict) {
+                    ledger.remove(evictedCard);
+                }
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            try {
+                persist(balances);
+            } catch (RuntimeException ex) {
+                balances.forEach(ledger::restore);
+                flushFailures.increment();
+                throw ex;
+            }
+            unpersistedSegments.forEach(journal::delete);
+            unpersistedSegments.clear();
+        }
+    }
+
+    private void persist(Collection<CardBalance> balances) {
+        if (balances.isEmpty()) {
+            return;
+        }
+        LocalDateTime updatedAt = LocalDateTime.now();
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, balances, batchSize, (ps, balance) -> {
+                ps.setInt(1, balance.amountUsed());
+                ps.setInt(2, balance.availableAmount());
+                ps.setTimestamp(3, Timestamp.valueOf(updatedAt));
+                ps.setString(4, updatedBy);
+                ps.setLong(5, balance.cardId());
+            });
+            balances.forEach(balance -> audit(balance, updatedAt, updatedBy));
+        });
+        // JDBC writes bypass Hibernate, so the second-level cache entries are dropped by hand
+        balances.forEach(balance -> entityCache.evict(Card.class, balance.cardId()));
+        logger.debug("Persisted {} card balances", balances.size());
+    }
+
+    /**
+     * Captures a balance written with JDBC, published once the writing transaction commits
+     */
+    private void audit(CardBalance balance, LocalDateTime updatedAt, String updatedBy) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("amountUsed", balance.amountUsed());
+        state.put("availableAmount", balance.availableAmount());
+        state.put("updatedAt", updatedAt);
+        state.put("updatedBy", updatedBy);
+        auditTrailListener.captureWritten(Card.class.getSimpleName(), balance.cardId(), AuditRecord.Action.UPDATE,
+                state);
+    }
+
+    private static long toKey(String cardNumber) {
+        return parse(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+    }
+
+    private static Optional<Long> parse(String cardNumber) {
+        try {
+            return Optional.of(Long.parseLong(cardNumber)).filter(key -> key > 0);
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+}
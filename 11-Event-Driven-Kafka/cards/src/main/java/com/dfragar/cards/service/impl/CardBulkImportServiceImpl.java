@@ -0,0 +1,269 @@
+package com.dfragar.cards.service.impl;
+
+import com.dfragar.cards.audit.AuditRecord;
+import com.dfragar.cards.audit.AuditTrailListener;
+import com.dfragar.cards.bulk.BulkImportProperties;
+import com.dfragar.cards.bulk.BulkImportReader;
+import com.dfragar.cards.bulk.BulkImportReport;
+import com.dfragar.cards.bulk.BulkImportRunner;
+import com.dfragar.cards.bulk.ImportRow;
+import com.dfragar.cards.constants.CardConstants;
+import com.dfragar.cards.dto.BulkImportReportDto;
+import com.dfragar.cards.entity.Card;
+import com.dfragar.cards.membership.MobileNumberFilter;
+import com.dfragar.cards.service.IBulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk creation of cards for a list of mobile numbers.
+ * <p>
+ * Card ids are identity columns, which makes Hibernate give up insert batching, so the rows are written with JDBC
+ * batches instead. Chunks are validated and written in parallel, each one in its own transaction.
+ * <p>
+ * A card is only inserted when its mobile number has none yet. The unique index on the mobile number catches a
+ * concurrent writer registering the same number in between, in which case the chunk is written again row by row so
+ * only the clashing rows are rejected. The inserted cards are captured for the audit trail in the writing transaction,
+ * as JDBC writes never reach the entity callbacks.
+ */
+@Service
+public class CardBulkImportServiceImpl implements IBulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardBulkImportServiceImpl.class);
+
+    private static final Pattern MOBILE_NUMBER = Pattern.compile("[0-9]{10}");
+    private static final String INSERT_CARD_SQL = "INSERT INTO cards "
+            + "(mobile_number, card_number, card_type, total_limit, amount_used, available_amount, "
+            + "created_at, created_by) "
+            + "SELECT :mobileNumber, :number, :type, :limit, 0, :limit, :createdAt, :createdBy FROM DUAL "
+            + "WHERE NOT EXISTS (SELECT 1 FROM cards c WHERE c.mobile_number = :mobileNumber)";
+    private static final String SELECT_IDS_SQL = "SELECT card_number, card_id FROM cards "
+            + "WHERE card_number IN (:numbers)";
+    private static final String SELECT_TAKEN_NUMBERS_SQL = "SELECT card_number FROM cards "
+            + "WHERE card_number IN (:numbers)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache entityCache;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final BulkImportProperties properties;
+    private final MobileNumberFilter mobileNumberFilter;
+    private final AuditTrailListener auditTrailListener;
+
+    public CardBulkImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper, AuditorAware<String> auditorAware,
+            BulkImportProperties properties, MobileNumberFilter mobileNumberFilter,
+            AuditTrailListener auditTrailListener) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.properties = properties;
+        this.mobileNumberFilter = mobileNumberFilter;
+        this.auditTrailListener = auditTrailListener;
+    }
+
+    /**
+     * @param body - CSV with a header line or NDJSON body with mobileNumber
+     * @param format - Media type of the body
+     * @return the number of imported rows and the rejected ones
+     */
+    @Override
+    public BulkImportReportDto importRows(InputStream body, MediaType format) {
+        long startNanos = System.nanoTime();
+        BulkImportReport report = new BulkImportReport(properties.getMaxReportedFailures());
+        Set<String> mobileNumbers = ConcurrentHashMap.newKeySet();
+        Set<String> cardNumbers = ConcurrentHashMap.newKeySet();
+        try (BulkImportReader reader = new BulkImportReader(body, format, objectMapper)) {
+            BulkImportRunner.run(reader, properties, report,
+                    chunk -> importChunk(chunk, report, mobileNumbers, cardNumbers));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read the import body", ex);
+        }
+        BulkImportReportDto reportDto = report.toDto();
+        logger.info("Bulk import of {} cards finished in {} ms: {} imported, {} rejected", reportDto.getTotalRows(),
+                (System.nanoTime() - startNanos) / 1_000_000, reportDto.getImportedRows(), reportDto.getFailedRows());
+        return reportDto;
+    }
+
+    private void importChunk(List<ImportRow> chunk, BulkImportReport report, Set<String> mobileNumbers,
+            Set<String> cardNumbers) {
+        Map<ImportRow, String> valid = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                report.failed(row, null, row.error());
+                continue;
+            }
+            String mobileNumber = row.field("mobileNumber");
+            if (mobileNumber == null || !MOBILE_NUMBER.matcher(mobileNumber).matches()) {
+                report.failed(row, mobileNumber, "Mobile number must be 10 digits");
+            } else if (!mobileNumbers.add(mobileNumber)) {
+                report.failed(row, mobileNumber, "Duplicate mobile number in the import");
+            } else {
+                valid.put(row, mobileNumber);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            List<ImportRow> rows = new ArrayList<>(valid.keySet());
+            List<String> newMobileNumbers = new ArrayList<>(valid.values());
+            List<String> newCardNumbers = reserveNumbers(newMobileNumbers.size(), cardNumbers);
+            boolean[] inserted;
+            try {
+                inserted = insert(newMobileNumbers, newCardNumbers);
+            } catch (DuplicateKeyException ex) {
+                inserted = insertRowByRow(newMobileNumbers, newCardNumbers);
+            }
+            int importedRows = 0;
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    importedRows++;
+                } else {
+                    report.failed(rows.get(i), newMobileNumbers.get(i),
+                            "Card already registered with given mobileNumber " + newMobileNumbers.get(i));
+                }
+            }
+            report.imported(importedRows);
+        } catch (RuntimeException ex) {
+            String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            logger.warn("Bulk import chunk of {} cards failed: {}", valid.size(), message);
+            valid.forEach((row, mobileNumber) -> report.failed(row, mobileNumber, message));
+        }
+    }
+
+    /**
+     * @return for every mobile number, whether its card was inserted or it already had one
+     */
+    private boolean[] insert(List<String> mobileNumbers, List<String> cardNumbers) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        String createdBy = auditorAware.getCurrentAuditor().orElse(null);
+        SqlParameterSource[] params = new SqlParameterSource[mobileNumbers.size()];
+        for (int i = 0; i < mobileNumbers.size(); i++) {
+            params[i] = new MapSqlParameterSource()
+                    .addValue("mobileNumber", mobileNumbers.get(i))
+                    .addValue("number", cardNumbers.get(i))
+                    .addValue("type", CardConstants.CREDIT_CARD)
+                    .addValue("limit", CardConstants.NEW_CARD_LIMIT)
+                    .addValue("createdAt", createdAt)
+                    .addValue("createdBy", createdBy);
+        }
+        mobileNumbers.forEach(mobileNumberFilter::add);
+        boolean[] inserted = transactionTemplate.execute(status -> {
+            int[] insertedRows = jdbcTemplate.batchUpdate(INSERT_CARD_SQL, params);
+            boolean[] insertedFlags = new boolean[insertedRows.length];
+            for (int i = 0; i < insertedFlags.length; i++) {
+                // drivers that do not report counts per statement return SUCCESS_NO_INFO, never 0
+                insertedFlags[i] = insertedRows[i] != 0;
+            }
+            audit(params, insertedFlags);
+            return insertedFlags;
+        });
+        // cached lookups may remember these mobile numbers as missing, and JDBC inserts do not invalidate them
+        entityCache.evictDefaultQueryRegion();
+        return inserted;
+    }
+
+    /**
+     * Captures the inserted cards, reading back the ids the database generated for them
+     */
+    private void audit(SqlParameterSource[] params, boolean[] inserted) {
+        if (!auditTrailListener.isEnabled()) {
+            return;
+        }
+        List<Object> numbers = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                numbers.add(params[i].getValue("number"));
+            }
+        }
+        if (numbers.isEmpty()) {
+            return;
+        }
+        Map<String, Long> ids = jdbcTemplate.query(SELECT_IDS_SQL, Map.of("numbers", numbers),
+                        (rs, rowNum) -> Map.entry(rs.getString(1), rs.getLong(2))).stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        for (int i = 0; i < inserted.length; i++) {
+            if (!inserted[i]) {
+                continue;
+            }
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("mobileNumber", params[i].getValue("mobileNumber"));
+            state.put("cardNumber", params[i].getValue("number"));
+            state.put("cardType", params[i].getValue("type"));
+            state.put("totalLimit", params[i].getValue("limit"));
+            state.put("amountUsed", 0);
+            state.put("availableAmount", params[i].getValue("limit"));
+            state.put("createdAt", ((Timestamp) params[i].getValue("createdAt")).toLocalDateTime());
+            state.put("createdBy", params[i].getValue("createdBy"));
+            auditTrailListener.captureWritten(Card.class.getSimpleName(), ids.get(params[i].getValue("number")),
+                    AuditRecord.Action.CREATE, state);
+        }
+    }
+
+    /**
+     * Writes every row in its own transaction, so a mobile number registered concurrently only rejects its own row.
+     */
+    private boolean[] insertRowByRow(List<String> mobileNumbers, List<String> cardNumbers) {
+        boolean[] inserted = new boolean[mobileNumbers.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            try {
+                inserted[i] = insert(List.of(mobileNumbers.get(i)), List.of(cardNumbers.get(i)))[0];
+            } catch (DuplicateKeyException ex) {
+                inserted[i] = false;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Draws random card numbers the way single card creation does, discarding the ones already taken by this import
+     * or by an existing card.
+     */
+    private List<String> reserveNumbers(int count, Set<String> cardNumbers) {
+        List<String> reserved = new ArrayList<>(count);
+        while (reserved.size() < count) {
+            List<String> candidates = new ArrayList<>();
+            while (candidates.size() < count - reserved.size()) {
+                String candidate = CardNumberGenerator.nextCardNumber();
+                if (cardNumbers.add(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(SELECT_TAKEN_NUMBERS_SQL,
+                    Map.of("numbers", candidates), String.class));
+            candidates.stream().filter(candidate -> !taken.contains(candidate)).forEach(reserved::add);
+        }
+        return reserved;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.dfragar.cards.service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws the random 12 digit numbers given to new cards.
+ */
+public final class CardNumberGenerator {
+
+    private CardNumberGenerator() {
+    }
+
+    /**
+     * @return a random card number, not checked for uniqueness
+     */
+    public static String nextCardNumber() {
+        return Long.toString(100000000000L + ThreadLocalRandom.current().nextInt(900000000));
+    }
+
+}
@@ -1,16 +1,23 @@
 package com.dfragar.cards.service.impl;
 
+import com.dfragar.cards.audit.AuditRecord;
+import com.dfragar.cards.audit.AuditTrailListener;
+import com.dfragar.cards.coalescing.SingleFlight;
 import com.dfragar.cards.constants.CardConstants;
 import com.dfragar.cards.dto.CardDto;
 import com.dfragar.cards.entity.Card;
 import com.dfragar.cards.exception.CardAlreadyExistsException;
 import com.dfragar.cards.exception.ResourceNotFoundException;
 import com.dfragar.cards.mapper.CardMapper;
+import com.dfragar.cards.membership.MobileNumberFilter;
 import com.dfragar.cards.repository.CardRepository;
+import com.dfragar.cards.service.ICardAuthorizationService;
 import com.dfragar.cards.service.ICardService;
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.Random;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -18,6 +25,11 @@ import org.springframework.stereotype.Service;
 public class CardServiceImpl implements ICardService {
 
     private CardRepository cardRepository;
+    private AuditorAware<String> auditorAware;
+    private ICardAuthorizationService iCardAuthorizationService;
+    private SingleFlight<String, CardDto> fetchCardFlight;
+    private MobileNumberFilter mobileNumberFilter;
+    private AuditTrailListener auditTrailListener;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
@@ -29,7 +41,15 @@ public class CardServiceImpl implements ICardService {
             throw new CardAlreadyExistsException(
                     "Card already registered with given mobileNumber " + mobileNumber);
         }
-        cardRepository.save(createNewCard(mobileNumber));
+        mobileNumberFilter.add(mobileNumber);
+        try {
+            cardRepository.save(createNewCard(mobileNumber));
+        } catch (DataIntegrityViolationException ex) {
+            // registered concurrently after the check above, caught by the unique index on the mobile number
+            throw new CardAlreadyExistsException(
+                    "Card already registered with given mobileNumber " + mobileNumber);
+        }
+        fetchCardFlight.forget(mobileNumber);
     }
 
     /**
@@ -38,8 +58,7 @@ public class CardServiceImpl implements ICardService {
      */
     private Card createNewCard(String mobileNumber) {
         Card newCard = new Card();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(CardNumberGenerator.nextCardNumber());
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardConstants.NEW_CARD_LIMIT);
@@ -55,10 +74,22 @@ public class CardServiceImpl implements ICardService {
      */
     @Override
     public CardDto fetchCard(String mobileNumber) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
+        return fetchCardFlight.execute(mobileNumber, () -> loadCard(mobileNumber));
+    }
+
+    private CardDto loadCard(String mobileNumber) {
         Card cards = cardRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        return CardMapper.mapToCardDto(cards, new CardDto());
+        CardDto cardDto = CardMapper.mapToCardDto(cards, new CardDto());
+        iCardAuthorizationService.findBalance(cards.getCardNumber()).ifPresent(balance -> {
+            cardDto.setAmountUsed(balance.amountUsed());
+            cardDto.setAvailableAmount(balance.availableAmount());
+        });
+        return cardDto;
     }
 
     /**
@@ -68,13 +99,51 @@ public class CardServiceImpl implements ICardService {
      */
     @Override
     public boolean updateCard(CardDto cardDto) {
-        Card card = cardRepository.findByCardNumber(cardDto.getCardNumber()).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "CardNumber", cardDto.getCardNumber()));
-        CardMapper.mapToCard(cardDto, card);
-        cardRepository.save(card);
+        String previousMobileNumber = iCardAuthorizationService.writeThrough(cardDto.getCardNumber(), () -> {
+            Card card = cardRepository.findByCardNumber(cardDto.getCardNumber()).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardDto.getCardNumber()));
+            String mobileNumber = card.getMobileNumber();
+            CardMapper.mapToCard(cardDto, card);
+            if (!mobileNumber.equals(card.getMobileNumber())) {
+                mobileNumberFilter.add(card.getMobileNumber());
+            }
+            cardRepository.save(card);
+            return mobileNumber;
+        });
+        if (!previousMobileNumber.equals(cardDto.getMobileNumber())) {
+            mobileNumberFilter.remove(previousMobileNumber);
+        }
+        fetchCardFlight.forgetAll();
         return true;
     }
 
+    /**
+     * @param cardNumber - Input Card Number
+     * @param amount - Amount to be spent against the card
+     * @return boolean indicating if the spend was applied or declined for insufficient available amount
+     */
+    @Override
+    public boolean spendCard(String cardNumber, int amount) {
+        Optional<Card> spentCard = iCardAuthorizationService.writeThrough(cardNumber, () -> {
+            if (cardRepository.spend(cardNumber, amount, LocalDateTime.now(),
+                    auditorAware.getCurrentAuditor().orElse(null)) == 0) {
+                return Optional.<Card>empty();
+            }
+            // the bulk statement never reaches the entity callbacks, the card lock keeps the row as it wrote it
+            Optional<Card> card = cardRepository.findByCardNumber(cardNumber);
+            if (auditTrailListener.isEnabled()) {
+                card.ifPresent(spent -> auditTrailListener.captureWritten(spent, AuditRecord.Action.UPDATE));
+            }
+            return card;
+        });
+        // a declined spend changes nothing, an applied one only stales the loads of its own card
+        spentCard.ifPresent(card -> fetchCardFlight.forget(card.getMobileNumber()));
+        if (spentCard.isEmpty() && !cardRepository.existsByCardNumber(cardNumber)) {
+            throw new ResourceNotFoundException("Card", "CardNumber", cardNumber);
+        }
+        return spentCard.isPresent();
+    }
+
     /**
      * @param mobileNumber - Input MobileNumber
      * @return boolean indicating if the delete of card details is successful or not
@@ -84,7 +153,12 @@ public class CardServiceImpl implements ICardService {
         Card card = cardRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        cardRepository.deleteById(card.getCardId());
+        iCardAuthorizationService.writeThrough(card.getCardNumber(), () -> {
+            cardRepository.deleteById(card.getCardId());
+            return true;
+        });
+        fetchCardFlight.forget(mobileNumber);
+        mobileNumberFilter.remove(mobileNumber);
         return true;
     }
 
@@ -0,0 +1,133 @@
+package com.dfragar.cards.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.cards.bulk.BulkImportReader;
+import com.dfragar.cards.constants.CardConstants;
+import com.dfragar.cards.service.IBulkImportService;
+import com.dfragar.cards.service.ICardService;
+import com.dfragar.cards.service.impl.CardAuthorizationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes made by JPQL bulk statements and JDBC batches, which never reach the entity callbacks, still reach the
+ * audit trail.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cardaudit",
+        "cards.ledger.journal-dir=target/ledger-journal-audit-test",
+        "cards.ledger.flush-interval-ms=3600000"
+})
+class AuditTrailCaptureTests {
+
+    @Autowired
+    private ICardService iCardService;
+
+    @Autowired
+    private IBulkImportService iBulkImportService;
+
+    @Autowired
+    private CardAuthorizationServiceImpl cardAuthorizationService;
+
+    @Autowired
+    private RecordingAuditTrailPublisher publisher;
+
+    @BeforeEach
+    void clearRecords() {
+        publisher.records.clear();
+    }
+
+    @Test
+    void capturesSpends() {
+        iCardService.createCard("6100000001");
+        String cardNumber = iCardService.fetchCard("6100000001").getCardNumber();
+
+        assertThat(iCardService.spendCard(cardNumber, 1_000)).isTrue();
+
+        assertThat(updates()).singleElement().satisfies(auditRecord -> assertThat(auditRecord.state())
+                .containsEntry("cardNumber", cardNumber)
+                .containsEntry("availableAmount", CardConstants.NEW_CARD_LIMIT - 1_000));
+    }
+
+    @Test
+    void capturesFlushedAuthorizations() {
+        iCardService.createCard("6100000002");
+        String cardNumber = iCardService.fetchCard("6100000002").getCardNumber();
+
+        assertThat(cardAuthorizationService.authorize(cardNumber, 500)).isTrue();
+        cardAuthorizationService.flush();
+
+        assertThat(updates()).singleElement().satisfies(auditRecord -> assertThat(auditRecord.state())
+                .containsEntry("amountUsed", 500)
+                .containsEntry("availableAmount", CardConstants.NEW_CARD_LIMIT - 500));
+    }
+
+    @Test
+    void capturesImportedCardsWithTheirIds() {
+        iBulkImportService.importRows(
+                new ByteArrayInputStream("mobileNumber\n6200000001\n6200000002\n".getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType(BulkImportReader.TEXT_CSV_VALUE));
+
+        assertThat(publisher.records)
+                .filteredOn(auditRecord -> auditRecord.action() == AuditRecord.Action.CREATE)
+                .hasSize(2)
+                .allSatisfy(auditRecord -> {
+                    assertThat(auditRecord.entityType()).isEqualTo("Card");
+                    assertThat(auditRecord.entityId()).isNotEqualTo("null");
+                })
+                .extracting(auditRecord -> auditRecord.state().get("mobileNumber"))
+                .containsExactlyInAnyOrder("6200000001", "6200000002");
+    }
+
+    private List<AuditRecord> updates() {
+        return publisher.records.stream()
+                .filter(auditRecord -> auditRecord.action() == AuditRecord.Action.UPDATE)
+                .toList();
+    }
+
+    @TestConfiguration
+    static class RecordingPublisherConfiguration {
+
+        @Bean
+        @Primary
+        RecordingAuditTrailPublisher recordingAuditTrailPublisher(StreamBridge streamBridge,
+                AuditTrailProperties properties) {
+            return new RecordingAuditTrailPublisher(streamBridge, properties);
+        }
+
+    }
+
+    static class RecordingAuditTrailPublisher extends AuditTrailPublisher {
+
+        private final List<AuditRecord> records = new CopyOnWriteArrayList<>();
+
+        RecordingAuditTrailPublisher(StreamBridge streamBridge, AuditTrailProperties properties) {
+            super(streamBridge, properties, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public boolean capture(AuditRecord auditRecord) {
+            records.add(auditRecord);
+            return true;
+        }
+
+    }
+
+}
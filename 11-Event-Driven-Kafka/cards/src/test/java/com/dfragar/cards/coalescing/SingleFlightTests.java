@@ -0,0 +1,123 @@
+package com.dfragar.cards.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Concurrent callers of a key share one load, its result or its exception, and give up waiting after the timeout.
+ */
+class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlightProperties properties = new SingleFlightProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight =
+            new SingleFlight<>("fetchCard", properties, meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        List<CompletableFuture<String>> results = callConcurrently(() -> {
+            loads.incrementAndGet();
+            await();
+            return "card";
+        });
+        release.countDown();
+
+        assertThat(results).allSatisfy(result -> assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("card"));
+        assertThat(loads).hasValue(1);
+        assertThat(calls("leader")).isEqualTo(1);
+        assertThat(calls("follower")).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.execute("4354437687", () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void followersGetTheExceptionOfTheLoad() throws Exception {
+        List<CompletableFuture<String>> results = callConcurrently(() -> {
+            loads.incrementAndGet();
+            await();
+            throw new IllegalArgumentException("Card not found");
+        });
+        release.countDown();
+
+        for (CompletableFuture<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void followersLoadThemselvesOnceTheTimeoutIsOver() throws Exception {
+        properties.setTimeout(Duration.ofMillis(50));
+        List<CompletableFuture<String>> results = callConcurrently(() -> {
+            if (loads.incrementAndGet() == 1) {
+                await();
+            }
+            return "card";
+        });
+
+        for (CompletableFuture<String> result : results.subList(1, CALLERS)) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("card");
+        }
+        assertThat(calls("timeout")).isEqualTo(CALLERS - 1);
+        release.countDown();
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("card");
+    }
+
+    /**
+     * Starts the leader, waits until it is loading, then starts the followers and waits until they all joined it
+     */
+    private List<CompletableFuture<String>> callConcurrently(Supplier<String> loader) throws InterruptedException {
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute("4354437687", loader), executor);
+        while (loads.get() == 0) {
+            Thread.sleep(1);
+        }
+        List<CompletableFuture<String>> followers = IntStream.range(1, CALLERS)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> singleFlight.execute("4354437687", loader),
+                        executor))
+                .toList();
+        while (calls("follower") < CALLERS - 1) {
+            Thread.sleep(1);
+        }
+        return Stream.concat(Stream.of(leader), followers.stream()).toList();
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("single.flight.calls").tag("role", role).counter().count();
+    }
+
+    private void await() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
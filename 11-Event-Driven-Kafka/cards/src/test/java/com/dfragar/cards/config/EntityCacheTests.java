@@ -0,0 +1,66 @@
+package com.dfragar.cards.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.dfragar.cards.dto.CardDto;
+import com.dfragar.cards.exception.ResourceNotFoundException;
+import com.dfragar.cards.service.ICardAuthorizationService;
+import com.dfragar.cards.service.ICardService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Card lookups served from the second-level and query caches must still see every write, including the
+ * JDBC balance updates of the authorization ledger.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cardcache",
+        "cards.cache.enabled=true",
+        "cards.ledger.journal-dir=target/ledger-journal-cache-test"
+})
+class EntityCacheTests {
+
+    @Autowired
+    private ICardService iCardService;
+
+    @Autowired
+    private ICardAuthorizationService iCardAuthorizationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cachedLookupsAreInvalidatedByWrites() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String mobileNumber = "9876512345";
+        iCardService.createCard(mobileNumber);
+        CardDto card = iCardService.fetchCard(mobileNumber);
+
+        statistics.clear();
+        iCardService.fetchCard(mobileNumber);
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+
+        card.setCardType("Debit Card");
+        iCardService.updateCard(card);
+        assertThat(iCardService.fetchCard(mobileNumber).getCardType()).isEqualTo("Debit Card");
+
+        assertThat(iCardAuthorizationService.authorize(card.getCardNumber(), 100)).isTrue();
+        iCardAuthorizationService.writeThrough(card.getCardNumber(), () -> true);
+        assertThat(iCardService.fetchCard(mobileNumber).getAmountUsed()).isEqualTo(card.getAmountUsed() + 100);
+
+        iCardService.deleteCard(mobileNumber);
+        assertThatThrownBy(() -> iCardService.fetchCard(mobileNumber))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+}
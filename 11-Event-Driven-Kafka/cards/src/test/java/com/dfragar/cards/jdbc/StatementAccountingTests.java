@@ -0,0 +1,90 @@
+package com.dfragar.cards.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.dfragar.cards.service.ICardService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Statement accounting must count what each call really issues, so these assertions double as guards against
+ * queries creeping into the card lookup path.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cardstatements",
+        "cards.ledger.journal-dir=target/ledger-journal-statement-test",
+        "cards.audit.enabled=false",
+        "cards.jdbc.repeated-statement-threshold=5",
+        "cards.jdbc.budgets[GET\\ /api/fetch]=0"
+})
+@AutoConfigureMockMvc
+class StatementAccountingTests {
+
+    private static final String ENDPOINT = "GET /api/fetch";
+
+    @Autowired
+    private StatementAccounting statementAccounting;
+
+    @Autowired
+    private ICardService iCardService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void fetchCardIssuesASingleQuery() {
+        String mobileNumber = "9123400001";
+        iCardService.createCard(mobileNumber);
+
+        StatementStats stats = statementAccounting.measure(() -> iCardService.fetchCard(mobileNumber));
+
+        assertThat(stats.statements()).isEqualTo(1);
+        assertThat(stats.rows()).isEqualTo(1);
+        assertThat(stats.repeatedStatements()).isEmpty();
+    }
+
+    @Test
+    void repeatedLookupsAreReportedAsLikelyNPlusOne() {
+        String mobileNumber = "9123400002";
+        iCardService.createCard(mobileNumber);
+
+        StatementStats stats = statementAccounting.measure(() -> {
+            for (int i = 0; i < 5; i++) {
+                iCardService.fetchCard(mobileNumber);
+            }
+        });
+
+        assertThat(stats.statements()).isEqualTo(5);
+        assertThat(stats.repeatedStatements()).singleElement().asString().containsIgnoringCase("mobile_number");
+    }
+
+    @Test
+    void requestsArePublishedByEndpointAndCheckedAgainstTheirBudget() throws Exception {
+        String mobileNumber = "9123400003";
+        iCardService.createCard(mobileNumber);
+
+        mockMvc.perform(get("/api/fetch")
+                        .header("bank-correlation-id", "statement-test")
+                        .param("mobileNumber", mobileNumber))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("jdbc.request.statements").tags("kind", "http", "endpoint", ENDPOINT)
+                .summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("jdbc.request.budget.exceeded").tags("endpoint", ENDPOINT)
+                .counter().count()).isEqualTo(1);
+    }
+
+}
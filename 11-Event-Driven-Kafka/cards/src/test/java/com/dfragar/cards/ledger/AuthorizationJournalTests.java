@@ -0,0 +1,76 @@
+package com.dfragar.cards.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Records appended from many threads are all on disk once sync returns, each card replays to its last state, and a
+ * rotation closes a segment holding everything appended before it.
+ */
+class AuthorizationJournalTests {
+
+    private static final long FIRST_CARD = 100_000_000_001L;
+
+    @TempDir
+    private Path journalDir;
+
+    @Test
+    void concurrentAppendsAreReplayedToTheLastStateOfEveryCard() throws Exception {
+        List<Path> segments;
+        try (AuthorizationJournal journal = new AuthorizationJournal(journalDir, true, 8);
+                ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> writers = IntStream.range(0, 8).<Future<?>>mapToObj(card -> executor.submit(() -> {
+                for (int used = 1; used <= 500; used++) {
+                    journal.append(FIRST_CARD + card, card + 1, used, 1_000 - used);
+                    journal.sync();
+                }
+            })).toList();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            segments = List.of(journal.rotate());
+        }
+
+        Map<Long, CardBalance> balances = AuthorizationJournal.replay(segments);
+
+        assertThat(balances).hasSize(8);
+        IntStream.range(0, 8).forEach(card -> assertThat(balances.get(FIRST_CARD + card))
+                .isEqualTo(new CardBalance(FIRST_CARD + card, card + 1, 500, 500)));
+    }
+
+    @Test
+    void rotationWritesWhatIsBufferedAndStartsAnEmptySegment() throws Exception {
+        try (AuthorizationJournal journal = new AuthorizationJournal(journalDir, false, 4)) {
+            journal.append(FIRST_CARD, 1, 10, 90);
+
+            Path closed = journal.rotate();
+
+            assertThat(AuthorizationJournal.replay(List.of(closed)))
+                    .containsEntry(FIRST_CARD, new CardBalance(FIRST_CARD, 1, 10, 90));
+            assertThat(journal.rotate()).isNull();
+        }
+    }
+
+    @Test
+    void segmentsLeftBehindAreRecoveredOnTheNextOpen() throws Exception {
+        try (AuthorizationJournal journal = new AuthorizationJournal(journalDir, false, 4)) {
+            journal.append(FIRST_CARD, 1, 10, 90);
+            journal.sync();
+        }
+
+        try (AuthorizationJournal journal = new AuthorizationJournal(journalDir, false, 4)) {
+            assertThat(AuthorizationJournal.replay(journal.recoveredSegments()))
+                    .containsEntry(FIRST_CARD, new CardBalance(FIRST_CARD, 1, 10, 90));
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.dfragar.cards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.dfragar.cards.audit.AuditTrailListener;
+import com.dfragar.cards.constants.CardConstants;
+import com.dfragar.cards.dto.CardDto;
+import com.dfragar.cards.entity.Card;
+import com.dfragar.cards.ledger.AuthorizationJournal;
+import com.dfragar.cards.ledger.CardBalance;
+import com.dfragar.cards.ledger.CardLedgerProperties;
+import com.dfragar.cards.repository.CardRepository;
+import com.dfragar.cards.service.ICardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Authorizations are applied to the in-memory ledger and persisted by the flush, an authorization the journal fails
+ * to write is given back, and an authorization arriving while a spend or an update is writing the card row waits for
+ * it instead of flushing a stale balance over it.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cardauthorization",
+        "cards.ledger.journal-dir=target/ledger-journal-authorization-test",
+        "cards.ledger.flush-interval-ms=3600000"
+})
+class CardAuthorizationTests {
+
+    @Autowired
+    private ICardService iCardService;
+
+    @Autowired
+    private CardAuthorizationServiceImpl cardAuthorizationService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private AuditTrailListener auditTrailListener;
+
+    @Autowired
+    private CardLedgerProperties properties;
+
+    @BeforeEach
+    void pauseableCardWrites() {
+        jdbcTemplate.execute("CREATE TRIGGER IF NOT EXISTS pause_card_write BEFORE UPDATE ON cards FOR EACH ROW "
+                + "CALL \"" + PausingTrigger.class.getName() + "\"");
+    }
+
+    @Test
+    void approvedAuthorizationsArePersistedByTheFlush() {
+        String cardNumber = createCard("9876501234");
+
+        assertThat(cardAuthorizationService.authorize(cardNumber, 60_000)).isTrue();
+        assertThat(cardAuthorizationService.authorize(cardNumber, 50_000)).isFalse();
+        assertThat(cardAuthorizationService.authorize(cardNumber, 40_000)).isTrue();
+        assertThat(iCardService.fetchCard("9876501234").getAvailableAmount()).isZero();
+
+        cardAuthorizationService.flush();
+
+        Card card = cardRepository.findByCardNumber(cardNumber).orElseThrow();
+        assertThat(card.getAmountUsed()).isEqualTo(CardConstants.NEW_CARD_LIMIT);
+        assertThat(card.getAvailableAmount()).isZero();
+    }
+
+    @Test
+    void authorizationWhoseJournalWriteFailsIsGivenBackAndNeverPersisted(@TempDir Path journalDir) throws Exception {
+        String cardNumber = createCard("9876501237");
+        AuthorizationJournal failingJournal = new AuthorizationJournal(journalDir, false, 4) {
+            @Override
+            public void sync() {
+                throw new UncheckedIOException(new IOException("No space left on device"));
+            }
+        };
+        CardAuthorizationServiceImpl failingService = new CardAuthorizationServiceImpl(cardRepository, jdbcTemplate,
+                transactionTemplate, entityManagerFactory, auditorAware, auditTrailListener, properties,
+                new SimpleMeterRegistry(), failingJournal);
+
+        assertThatThrownBy(() -> failingService.authorize(cardNumber, 10_000))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(failingService.findBalance(cardNumber)).get()
+                .isEqualTo(new CardBalance(Long.parseLong(cardNumber), cardRepository.findByCardNumber(cardNumber)
+                        .orElseThrow().getCardId(), 0, CardConstants.NEW_CARD_LIMIT));
+
+        failingService.shutdown();
+
+        Card card = cardRepository.findByCardNumber(cardNumber).orElseThrow();
+        assertThat(card.getAmountUsed()).isZero();
+        assertThat(card.getAvailableAmount()).isEqualTo(CardConstants.NEW_CARD_LIMIT);
+    }
+
+    @Test
+    void authorizationDuringASpendIsAppliedOnTopOfIt() throws Exception {
+        String cardNumber = createLoadedCard("9876501235");
+
+        authorizeDuring(cardNumber, () -> iCardService.spendCard(cardNumber, 20_000));
+
+        assertPersisted(cardNumber, 1_000 + 20_000 + 3_000);
+    }
+
+    @Test
+    void authorizationDuringAnUpdateIsAppliedOnTopOfIt() throws Exception {
+        String cardNumber = createLoadedCard("9876501236");
+        CardDto cardDto = iCardService.fetchCard("9876501236");
+        cardDto.setAmountUsed(50_000);
+        cardDto.setAvailableAmount(CardConstants.NEW_CARD_LIMIT - 50_000);
+
+        authorizeDuring(cardNumber, () -> iCardService.updateCard(cardDto));
+
+        assertPersisted(cardNumber, 50_000 + 3_000);
+    }
+
+    /**
+     * Pauses the write inside its UPDATE statement, authorizes 3,000 from another thread, and lets the write go once
+     * the authorization either finished or is waiting.
+     */
+    private void authorizeDuring(String cardNumber, Supplier<Boolean> write) throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        PausingTrigger.NEXT.set(new PausingTrigger.Pause(entered, released));
+        CompletableFuture<Boolean> written = CompletableFuture.supplyAsync(write);
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        AtomicBoolean approved = new AtomicBoolean();
+        Thread authorization = Thread.ofPlatform().start(
+                () -> approved.set(cardAuthorizationService.authorize(cardNumber, 3_000)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (authorization.getState() != Thread.State.WAITING
+                && authorization.getState() != Thread.State.TERMINATED && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        released.countDown();
+
+        assertThat(written.get(10, TimeUnit.SECONDS)).isTrue();
+        authorization.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(approved).isTrue();
+    }
+
+    private void assertPersisted(String cardNumber, int amountUsed) {
+        cardAuthorizationService.flush();
+        Card card = cardRepository.findByCardNumber(cardNumber).orElseThrow();
+        assertThat(card.getAmountUsed()).isEqualTo(amountUsed);
+        assertThat(card.getAvailableAmount()).isEqualTo(CardConstants.NEW_CARD_LIMIT - amountUsed);
+    }
+
+    private String createCard(String mobileNumber) {
+        iCardService.createCard(mobileNumber);
+        return iCardService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    /**
+     * Creates a card held by the ledger with 1,000 used and nothing left to flush.
+     */
+    private String createLoadedCard(String mobileNumber) {
+        String cardNumber = createCard(mobileNumber);
+        assertThat(cardAuthorizationService.authorize(cardNumber, 1_000)).isTrue();
+        cardAuthorizationService.flush();
+        return cardNumber;
+    }
+
+    /**
+     * Holds the next update of a card row until it is released.
+     */
+    public static class PausingTrigger implements Trigger {
+
+        static final AtomicReference<Pause> NEXT = new AtomicReference<>();
+
+        record Pause(CountDownLatch entered, CountDownLatch released) {
+        }
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) {
+            Pause pause = NEXT.getAndSet(null);
+            if (pause == null) {
+                return;
+            }
+            pause.entered().countDown();
+            try {
+                pause.released().await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+    }
+
+}
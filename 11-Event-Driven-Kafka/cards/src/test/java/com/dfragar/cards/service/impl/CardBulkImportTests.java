@@ -0,0 +1,100 @@
+package com.dfragar.cards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.cards.bulk.BulkImportReader;
+import com.dfragar.cards.dto.BulkImportFailureDto;
+import com.dfragar.cards.dto.BulkImportReportDto;
+import com.dfragar.cards.service.IBulkImportService;
+import com.dfragar.cards.service.ICardService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Bulk import of cards: valid rows are inserted in parallel chunks, every rejected row is reported by line, and two
+ * imports racing on the same numbers register each of them once.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cardimport",
+        "cards.import.chunk-size=500",
+        "cards.ledger.journal-dir=target/ledger-journal-import-test"
+})
+class CardBulkImportTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardBulkImportTests.class);
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private IBulkImportService iBulkImportService;
+
+    @Autowired
+    private ICardService iCardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsValidRowsAndReportsRejectedOnes() {
+        iCardService.createCard("7000000000");
+        StringBuilder csv = new StringBuilder("mobileNumber\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(7_000_000_000L + i).append('\n');
+        }
+        csv.append("12345\n");
+        csv.append("7100000000\n");
+        csv.append("7100000000\n");
+
+        long startNanos = System.nanoTime();
+        BulkImportReportDto report = iBulkImportService.importRows(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType(BulkImportReader.TEXT_CSV_VALUE));
+        logger.info("Imported {} cards in {} ms", report.getImportedRows(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+
+        assertThat(report.getTotalRows()).isEqualTo(ROWS + 3);
+        assertThat(report.getImportedRows()).isEqualTo(ROWS);
+        assertThat(report.getFailedRows()).isEqualTo(3);
+        assertThat(report.getFailures()).extracting(BulkImportFailureDto::getLine)
+                .containsExactly(2L, ROWS + 2L, ROWS + 4L);
+        assertThat(iCardService.fetchCard("7000019999").getCardNumber()).hasSize(12);
+    }
+
+    @Test
+    void concurrentImportsOfTheSameRowsRegisterEveryCardOnce() throws Exception {
+        StringBuilder csv = new StringBuilder("mobileNumber\n");
+        for (int i = 0; i < 2_000; i++) {
+            csv.append(7_200_000_000L + i).append('\n');
+        }
+
+        CompletableFuture<BulkImportReportDto> first = CompletableFuture.supplyAsync(() -> importCsv(csv));
+        CompletableFuture<BulkImportReportDto> second = CompletableFuture.supplyAsync(() -> importCsv(csv));
+        BulkImportReportDto firstReport = first.get(60, TimeUnit.SECONDS);
+        BulkImportReportDto secondReport = second.get(60, TimeUnit.SECONDS);
+
+        assertThat(firstReport.getImportedRows() + secondReport.getImportedRows()).isEqualTo(2_000);
+        assertThat(firstReport.getFailedRows() + secondReport.getFailedRows()).isEqualTo(2_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards WHERE mobile_number "
+                + "BETWEEN '7200000000' AND '7200001999'", Long.class)).isEqualTo(2_000);
+    }
+
+    private BulkImportReportDto importCsv(StringBuilder csv) {
+        return iBulkImportService.importRows(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType(BulkImportReader.TEXT_CSV_VALUE));
+    }
+
+}
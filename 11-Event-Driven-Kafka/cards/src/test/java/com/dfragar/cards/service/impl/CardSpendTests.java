@@ -0,0 +1,87 @@
+package com.dfragar.cards.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.dfragar.cards.constants.CardConstants;
+import com.dfragar.cards.dto.CardDto;
+import com.dfragar.cards.exception.ResourceNotFoundException;
+import com.dfragar.cards.service.ICardService;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Spends are applied as deltas in one conditional statement: concurrent spends never lose an update and never take
+ * the card below zero.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cardspend",
+        "cards.ledger.journal-dir=target/ledger-journal-spend-test"
+})
+class CardSpendTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ICardService iCardService;
+
+    @Test
+    void declinesSpendsAboveTheAvailableAmount() {
+        String cardNumber = createCard("9876543210");
+
+        assertThat(iCardService.spendCard(cardNumber, 60_000)).isTrue();
+        assertThat(iCardService.spendCard(cardNumber, 50_000)).isFalse();
+        assertThat(iCardService.spendCard(cardNumber, 40_000)).isTrue();
+
+        CardDto card = iCardService.fetchCard("9876543210");
+        assertThat(card.getAmountUsed()).isEqualTo(CardConstants.NEW_CARD_LIMIT);
+        assertThat(card.getAvailableAmount()).isZero();
+    }
+
+    @Test
+    void concurrentSpendsOnOneCardAreAllAppliedAndNeverOverdrawIt() throws Exception {
+        String cardNumber = createCard("9876543211");
+        int amount = CardConstants.NEW_CARD_LIMIT / 100;
+        Callable<Boolean> spend = () -> iCardService.spendCard(cardNumber, amount);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results;
+        try {
+            results = executor.invokeAll(Collections.nCopies(150, spend));
+        } finally {
+            executor.shutdown();
+        }
+
+        long accepted = 0;
+        for (Future<Boolean> result : results) {
+            accepted += result.get() ? 1 : 0;
+        }
+        CardDto card = iCardService.fetchCard("9876543211");
+        assertThat(accepted).isEqualTo(100);
+        assertThat(card.getAmountUsed()).isEqualTo(CardConstants.NEW_CARD_LIMIT);
+        assertThat(card.getAvailableAmount()).isZero();
+    }
+
+    @Test
+    void unknownCardIsNotFound() {
+        assertThatThrownBy(() -> iCardService.spendCard("999999999999", 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private String createCard(String mobileNumber) {
+        iCardService.createCard(mobileNumber);
+        return iCardService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+}
@@ -1,11 +1,19 @@
 package com.dfragar.configserver;
 
+import com.dfragar.configserver.cache.EnvironmentCacheProperties;
+import com.dfragar.configserver.profiling.JfrProperties;
+import com.dfragar.configserver.push.ConfigPushProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.config.server.EnableConfigServer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigServer
+@EnableScheduling
+@EnableConfigurationProperties(value = {ConfigPushProperties.class, EnvironmentCacheProperties.class,
+        JfrProperties.class})
 public class ConfigserverApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,106 @@
+package com.dfragar.configserver.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves the environment endpoints, {@code /{application}/{profile}[/{label}]}, from the
+ * {@link EnvironmentSnapshotCache} with strong ETags.
+ * <p>
+ * A miss goes through the config server as usual and its response is kept. A hit is written from the cache without
+ * touching the backend, and a client sending the current ETag in {@code If-None-Match} gets an empty 304. The
+ * alternative formats (.yml, .properties), plain files and every other endpoint are left alone.
+ */
+@Component
+public class EnvironmentCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> RESERVED = Set.of("actuator", "key", "encrypt", "decrypt", "monitor", "error");
+    private static final Pattern FILE_EXTENSION = Pattern.compile(".*\\.(ya?ml|properties|json)$");
+
+    private final EnvironmentSnapshotCache cache;
+    private final ObjectMapper objectMapper;
+
+    public EnvironmentCacheFilter(EnvironmentSnapshotCache cache, ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!cache.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        String[] segments = segments(request);
+        return segments.length < 2 || segments.length > 3 || RESERVED.contains(segments[0])
+                || FILE_EXTENSION.matcher(segments[segments.length - 1]).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getRequestURI() + '?' + Objects.toString(request.getQueryString(), "") + '|'
+                + Objects.toString(request.getHeader(HttpHeaders.ACCEPT), "");
+        EnvironmentSnapshot snapshot = cache.get(key);
+        if (snapshot != null) {
+            write(snapshot, request, response);
+            return;
+        }
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            byte[] body = wrapper.getContentAsByteArray();
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            String[] segments = segments(request);
+            String label = segments.length > 2 ? Environment.normalize(segments[2]) : null;
+            cache.put(key, new EnvironmentSnapshot(Environment.normalize(segments[0]),
+                    Environment.normalize(segments[1]), label, version(body), wrapper.getContentType(), body, etag));
+            wrapper.setHeader(HttpHeaders.ETAG, etag);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void write(EnvironmentSnapshot snapshot, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(HttpHeaders.ETAG, snapshot.etag());
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(snapshot.etag()) || ifNoneMatch.trim().equals("*"))) {
+            cache.recordHit(false);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        cache.recordHit(true);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(snapshot.contentType());
+        response.setContentLength(snapshot.body().length);
+        response.getOutputStream().write(snapshot.body());
+    }
+
+    private String version(byte[] body) {
+        try {
+            return objectMapper.readTree(body).path("version").textValue();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static String[] segments(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.dfragar.configserver.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "configserver.cache")
+public class EnvironmentCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Snapshots kept at most, requests beyond it are served uncached
+     */
+    private int maxEntries = 1_000;
+
+    /**
+     * How often the backend is asked whether its version moved
+     */
+    private long checkIntervalMs = 30_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getCheckIntervalMs() {
+        return checkIntervalMs;
+    }
+
+    public void setCheckIntervalMs(long checkIntervalMs) {
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+}
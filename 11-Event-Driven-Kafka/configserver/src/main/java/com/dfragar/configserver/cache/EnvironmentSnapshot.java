@@ -0,0 +1,24 @@
+package com.dfragar.configserver.cache;
+
+/**
+ * Environment response as the config server rendered it: resolved, decrypted and serialized.
+ *
+ * @param application application requested
+ * @param profile     profiles requested
+ * @param label       label requested, null for the default one
+ * @param version     backend version the response was read at, null when the backend has none
+ * @param contentType content type of the response
+ * @param body        response body
+ * @param etag        strong entity tag of the body
+ */
+public record EnvironmentSnapshot(
+        String application,
+        String profile,
+        String label,
+        String version,
+        String contentType,
+        byte[] body,
+        String etag
+) {
+
+}
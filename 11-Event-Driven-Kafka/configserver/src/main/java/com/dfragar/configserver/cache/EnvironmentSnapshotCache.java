@@ -0,0 +1,113 @@
+package com.dfragar.configserver.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Environment responses kept per request, so repeated requests skip resolving the backend, decrypting and
+ * serializing.
+ * <p>
+ * Every {@code configserver.cache.check-interval-ms} one cached environment per label is read again from the
+ * backend, and the snapshots of that label taken at another version are evicted. A git commit thus costs one read
+ * per label instead of one per request. Backends without versions are evicted at every check. Config change scans
+ * and the {@code /monitor} webhook evict everything at once.
+ */
+@Component
+public class EnvironmentSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentSnapshotCache.class);
+
+    private final EnvironmentRepository environmentRepository;
+    private final EnvironmentCacheProperties properties;
+    private final Map<String, EnvironmentSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+    private final Counter evictions;
+
+    public EnvironmentSnapshotCache(EnvironmentRepository environmentRepository,
+            EnvironmentCacheProperties properties, MeterRegistry meterRegistry) {
+        this.environmentRepository = environmentRepository;
+        this.properties = properties;
+        this.hits = meterRegistry.counter("configserver.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("configserver.cache.requests", "result", "miss");
+        this.notModified = meterRegistry.counter("configserver.cache.requests", "result", "not_modified");
+        this.evictions = meterRegistry.counter("configserver.cache.evictions");
+        Gauge.builder("configserver.cache.size", snapshots, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    EnvironmentSnapshot get(String key) {
+        EnvironmentSnapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            misses.increment();
+        }
+        return snapshot;
+    }
+
+    void recordHit(boolean modified) {
+        (modified ? hits : notModified).increment();
+    }
+
+    void put(String key, EnvironmentSnapshot snapshot) {
+        if (snapshots.size() < properties.getMaxEntries() || snapshots.containsKey(key)) {
+            snapshots.put(key, snapshot);
+        }
+    }
+
+    public void evictAll() {
+        evict(new ArrayList<>(snapshots.keySet()));
+    }
+
+    @Scheduled(fixedDelayString = "${configserver.cache.check-interval-ms:30000}")
+    public void checkVersions() {
+        snapshots.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> Objects.toString(entry.getValue().label(), "")))
+                .forEach(this::checkVersion);
+    }
+
+    private void checkVersion(String label, List<Map.Entry<String, EnvironmentSnapshot>> entries) {
+        EnvironmentSnapshot sample = entries.get(0).getValue();
+        String version;
+        try {
+            version = environmentRepository.findOne(sample.application(), sample.profile(), sample.label())
+                    .getVersion();
+        } catch (RuntimeException ex) {
+            logger.warn("Could not read the version of label '{}', keeping its snapshots: {}", label,
+                    ex.getMessage());
+            return;
+        }
+        List<String> stale = entries.stream()
+                .filter(entry -> version == null || !version.equals(entry.getValue().version()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!stale.isEmpty()) {
+            logger.info("Label '{}' is at version {}, evicting {} snapshots", label, version, stale.size());
+            evict(stale);
+        }
+    }
+
+    private void evict(List<String> keys) {
+        keys.forEach(key -> {
+            if (snapshots.remove(key) != null) {
+                evictions.increment();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.dfragar.configserver.profiling;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * JDK Flight Recorder sessions started through /actuator/jfr, and the continuous recording kept in the background.
+ */
+@ConfigurationProperties(prefix = "configserver.jfr")
+public class JfrProperties {
+
+    /**
+     * JFR configuration of the sessions, "default" or "profile" as shipped with the JDK
+     */
+    private String settings = "profile";
+
+    private Duration defaultDuration = Duration.ofMinutes(1);
+
+    /**
+     * Upper bound of a session, longer requests are cut to it
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    /**
+     * Sessions recording at the same time
+     */
+    private int maxSessions = 1;
+
+    /**
+     * Finished sessions kept for download, the oldest is deleted beyond it
+     */
+    private int retainedSessions = 5;
+
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "jfr");
+
+    private Continuous continuous = new Continuous();
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public Duration getDefaultDuration() {
+        return defaultDuration;
+    }
+
+    public void setDefaultDuration(Duration defaultDuration) {
+        this.defaultDuration = defaultDuration;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public void setMaxSessions(int maxSessions) {
+        this.maxSessions = maxSessions;
+    }
+
+    public int getRetainedSessions() {
+        return retainedSessions;
+    }
+
+    public void setRetainedSessions(int retainedSessions) {
+        this.retainedSessions = retainedSessions;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public Continuous getContinuous() {
+        return continuous;
+    }
+
+    public void setContinuous(Continuous continuous) {
+        this.continuous = continuous;
+    }
+
+    public static class Continuous {
+
+        private boolean enabled = true;
+
+        /**
+         * JFR configuration of the continuous recording, "default" keeps the overhead around 1%
+         */
+        private String settings = "default";
+
+        private Duration maxAge = Duration.ofMinutes(30);
+
+        private DataSize maxSize = DataSize.ofMegabytes(100);
+
+        /**
+         * Minimum duration of the events recorded, by event name, so frequent fast calls are left out
+         */
+        private Map<String, Duration> thresholds = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSettings() {
+            return settings;
+        }
+
+        public void setSettings(String settings) {
+            this.settings = settings;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Map<String, Duration> getThresholds() {
+            return thresholds;
+        }
+
+        public void setThresholds(Map<String, Duration> thresholds) {
+            this.thresholds = thresholds;
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.dfragar.configserver.push;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between two versions of the configuration one application and profile is served.
+ *
+ * @param application application name
+ * @param profile     comma separated profiles, as requested by the clients
+ * @param label       label the configuration was read from
+ * @param version     backend version of the new configuration, the commit id for git
+ * @param changed     properties added or changed, with their new value
+ * @param encrypted   properties added or changed whose new value is encrypted, published without it
+ * @param removed     properties no longer present
+ * @param detectedAt  when the change was detected
+ */
+public record ConfigChange(
+        String application,
+        String profile,
+        String label,
+        String version,
+        Map<String, Object> changed,
+        List<String> encrypted,
+        List<String> removed,
+        Instant detectedAt
+) {
+
+}
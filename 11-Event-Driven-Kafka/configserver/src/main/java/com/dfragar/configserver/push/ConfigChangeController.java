@@ -0,0 +1,32 @@
+package com.dfragar.configserver.push;
+
+import com.dfragar.configserver.cache.EnvironmentSnapshotCache;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Webhook for the git host: a push evicts the cached environments and triggers a scan right away instead of
+ * waiting for the next poll
+ */
+@RestController
+public class ConfigChangeController {
+
+    private final ConfigChangePublisher configChangePublisher;
+    private final EnvironmentSnapshotCache environmentSnapshotCache;
+
+    public ConfigChangeController(ConfigChangePublisher configChangePublisher,
+            EnvironmentSnapshotCache environmentSnapshotCache) {
+        this.configChangePublisher = configChangePublisher;
+        this.environmentSnapshotCache = environmentSnapshotCache;
+    }
+
+    @PostMapping(path = "/monitor", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ConfigChange>> monitor() {
+        environmentSnapshotCache.evictAll();
+        return ResponseEntity.ok(configChangePublisher.scan());
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.dfragar.configserver.push;
+
+import com.dfragar.configserver.cache.EnvironmentSnapshotCache;
+import com.dfragar.configserver.profiling.MessageSendEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the configuration served to each application and profile and pushes what changed to the
+ * config-changes topic, so clients do not have to refetch it or restart.
+ * <p>
+ * Every scan reads the configuration from the backend and flattens it with the same precedence a client request
+ * would. It is then compared with the previous scan. The first scan only records the baseline. Scans run every
+ * {@code configserver.push.poll-interval-ms} and whenever the backend calls the {@code /monitor} webhook.
+ * <p>
+ * Values are compared and published as the backend holds them, never decrypted: a changed {@code {cipher}} value is
+ * published by name only and the clients read it back from this server, which serves it decrypted to them alone.
+ * <p>
+ * Changes are keyed by application, so the changes of one application reach its clients in order.
+ */
+@Component
+public class ConfigChangePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigChangePublisher.class);
+
+    static final String BINDING = "configChanges-out-0";
+    private static final String CIPHER_PREFIX = "{cipher}";
+
+    private final EnvironmentRepository environmentRepository;
+    private final StreamBridge streamBridge;
+    private final ConfigPushProperties properties;
+    private final EnvironmentSnapshotCache environmentSnapshotCache;
+    private final Map<String, Map<String, Object>> snapshots = new HashMap<>();
+    private final Counter published;
+    private final Counter failures;
+
+    public ConfigChangePublisher(EnvironmentRepository environmentRepository, StreamBridge streamBridge,
+            ConfigPushProperties properties, EnvironmentSnapshotCache environmentSnapshotCache,
+            MeterRegistry meterRegistry) {
+        this.environmentRepository = environmentRepository;
+        this.streamBridge = streamBridge;
+        this.properties = properties;
+        this.environmentSnapshotCache = environmentSnapshotCache;
+        this.published = meterRegistry.counter("configserver.push.published");
+        this.failures = meterRegistry.counter("configserver.push.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${configserver.push.poll-interval-ms:30000}")
+    public void poll() {
+        if (properties.isEnabled()) {
+            scan();
+        }
+    }
+
+    /**
+     * Compares the configuration currently served with the previous scan and publishes the differences
+     *
+     * @return the changes published
+     */
+    public synchronized List<ConfigChange> scan() {
+        List<ConfigChange> changes = new ArrayList<>();
+        for (String application : properties.getApplications()) {
+            for (String profile : properties.getProfiles()) {
+                try {
+                    scan(application, profile).ifPresent(changes::add);
+                } catch (RuntimeException ex) {
+                    failures.increment();
+                    logger.warn("Could not scan the configuration of {} ({}): {}", application, profile,
+                            ex.getMessage());
+                }
+            }
+        }
+        if (!changes.isEmpty()) {
+            // clients starting from now on must not be served what the pushed changes replace
+            environmentSnapshotCache.evictAll();
+        }
+        return changes;
+    }
+
+    private Optional<ConfigChange> scan(String application, String profile) {
+        Environment environment = environmentRepository.findOne(application, profile, properties.getLabel());
+        Map<String, Object> current = flatten(environment);
+        Map<String, Object> previous = snapshots.put(application + "/" + profile, current);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        ConfigChange change = diff(application, profile, environment, previous, current);
+        if (change.changed().isEmpty() && change.encrypted().isEmpty() && change.removed().isEmpty()) {
+            return Optional.empty();
+        }
+        var message = MessageBuilder.withPayload(change)
+                .setHeader(KafkaHeaders.KEY, application.getBytes(StandardCharsets.UTF_8))
+                .build();
+        if (!MessageSendEvent.record(BINDING, () -> streamBridge.send(BINDING, message))) {
+            // forget the change so the next scan publishes it again
+            snapshots.put(application + "/" + profile, previous);
+            throw new IllegalStateException("Change not accepted by " + BINDING);
+        }
+        published.increment();
+        logger.info("Published {} changed, {} encrypted and {} removed properties of {} ({}) at version {}",
+                change.changed().size(), change.encrypted().size(), change.removed().size(), application, profile,
+                change.version());
+        return Optional.of(change);
+    }
+
+    /**
+     * Flattens the property sources, the first one holding a property wins as it does on the clients
+     */
+    static Map<String, Object> flatten(Environment environment) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (PropertySource propertySource : environment.getPropertySources()) {
+            propertySource.getSource().forEach((key, value) -> properties.putIfAbsent(key.toString(), value));
+        }
+        return properties;
+    }
+
+    /**
+     * Compares the raw values, so a re-encrypted secret shows as changed even if its plain value did not
+     */
+    static ConfigChange diff(String application, String profile, Environment environment,
+            Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        List<String> encrypted = new ArrayList<>();
+        current.forEach((key, value) -> {
+            if (Objects.equals(previous.get(key), value)) {
+                return;
+            }
+            if (value instanceof String text && text.startsWith(CIPHER_PREFIX)) {
+                encrypted.add(key);
+            } else {
+                changed.put(key, value);
+            }
+        });
+        List<String> removed = previous.keySet().stream().filter(key -> !current.containsKey(key)).toList();
+        return new ConfigChange(application, profile, environment.getLabel(), environment.getVersion(), changed,
+                encrypted, removed, Instant.now());
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.dfragar.configserver.push;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "configserver.push")
+public class ConfigPushProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Applications whose configuration is watched
+     */
+    private List<String> applications = new ArrayList<>(List.of("accounts", "cards", "loans"));
+
+    /**
+     * Profiles, as the clients request them, whose configuration is watched
+     */
+    private List<String> profiles = new ArrayList<>(List.of("default", "qa", "prod"));
+
+    /**
+     * Label watched, the backend's default label when not set
+     */
+    private String label;
+
+    private long pollIntervalMs = 30_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getApplications() {
+        return applications;
+    }
+
+    public void setApplications(List<String> applications) {
+        this.applications = applications;
+    }
+
+    public List<String> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(List<String> profiles) {
+        this.profiles = profiles;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public long getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.dfragar.configserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class EnvironmentCacheFilterTests {
+
+    private final AtomicInteger resolved = new AtomicInteger();
+    private final AtomicReference<String> version = new AtomicReference<>("v1");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EnvironmentSnapshotCache cache = new EnvironmentSnapshotCache((application, profile, label) -> {
+        Environment environment = new Environment(application, profile);
+        environment.setVersion(version.get());
+        return environment;
+    }, new EnvironmentCacheProperties(), meterRegistry);
+    private final EnvironmentCacheFilter filter = new EnvironmentCacheFilter(cache, new ObjectMapper());
+
+    @Test
+    void servesRepeatedRequestsFromTheSnapshotWithAnEtag() throws Exception {
+        MockHttpServletResponse first = get("/accounts/prod", null);
+        assertThat(first.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        MockHttpServletResponse second = get("/accounts/prod", null);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(second.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+
+        MockHttpServletResponse notModified = get("/accounts/prod", etag);
+        assertThat(notModified.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(notModified.getContentAsByteArray()).isEmpty();
+        assertThat(resolved).hasValue(1);
+        assertThat(meterRegistry.get("configserver.cache.requests").tag("result", "not_modified").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void evictsSnapshotsTakenAtAnOlderVersion() throws Exception {
+        get("/accounts/prod", null);
+        get("/cards/prod/main", null);
+
+        cache.checkVersions();
+        get("/accounts/prod", null);
+        assertThat(resolved).hasValue(2);
+
+        version.set("v2");
+        cache.checkVersions();
+        get("/accounts/prod", null);
+        get("/cards/prod/main", null);
+        assertThat(resolved).hasValue(4);
+    }
+
+    @Test
+    void leavesOtherEndpointsAlone() throws Exception {
+        get("/actuator/health", null);
+        get("/accounts-prod.yml", null);
+        get("/main/accounts-prod.properties", null);
+        get("/accounts/prod/main/logback.xml", null);
+        assertThat(resolved).hasValue(4);
+        assertThat(meterRegistry.get("configserver.cache.size").gauge().value()).isZero();
+    }
+
+    private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resolved.incrementAndGet();
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getOutputStream().write(("{\"name\":\"" + req.getRequestURI() + "\",\"version\":\""
+                        + version.get() + "\"}").getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.dfragar.configserver.push;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.dfragar.configserver.cache.EnvironmentSnapshotCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+
+class ConfigChangePublisherTests {
+
+    private final Map<String, Object> profileSource = new LinkedHashMap<>();
+    private final Map<String, Object> applicationSource = new LinkedHashMap<>();
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+    private final EnvironmentSnapshotCache environmentSnapshotCache = mock(EnvironmentSnapshotCache.class);
+    private final ConfigChangePublisher publisher;
+
+    ConfigChangePublisherTests() {
+        ConfigPushProperties properties = new ConfigPushProperties();
+        properties.setApplications(List.of("accounts"));
+        properties.setProfiles(List.of("prod"));
+        publisher = new ConfigChangePublisher((application, profile, label) -> {
+            Environment environment = new Environment(application, profile);
+            environment.setVersion("v" + applicationSource.size());
+            environment.add(new PropertySource("accounts-prod.yml", new LinkedHashMap<>(profileSource)));
+            environment.add(new PropertySource("accounts.yml", new LinkedHashMap<>(applicationSource)));
+            return environment;
+        }, streamBridge, properties, environmentSnapshotCache, new SimpleMeterRegistry());
+        when(streamBridge.send(eq(ConfigChangePublisher.BINDING), any(Message.class))).thenReturn(true);
+    }
+
+    @Test
+    void publishesOnlyTheDifferenceOfTheEffectiveConfiguration() {
+        profileSource.put("accounts.message", "prod");
+        applicationSource.put("accounts.message", "default");
+        applicationSource.put("accounts.onCallSupport[0]", "(555) 555-1234");
+        applicationSource.put("build.version", "3.0");
+        assertThat(publisher.scan()).isEmpty();
+        assertThat(publisher.scan()).isEmpty();
+
+        applicationSource.put("accounts.message", "shadowed by the prod profile");
+        applicationSource.remove("accounts.onCallSupport[0]");
+        applicationSource.put("build.version", "3.1");
+
+        List<ConfigChange> changes = publisher.scan();
+        assertThat(changes).singleElement().satisfies(change -> {
+            assertThat(change.application()).isEqualTo("accounts");
+            assertThat(change.profile()).isEqualTo("prod");
+            assertThat(change.changed()).containsExactly(Map.entry("build.version", "3.1"));
+            assertThat(change.removed()).containsExactly("accounts.onCallSupport[0]");
+        });
+        assertThat(publisher.scan()).isEmpty();
+        verify(streamBridge, times(1)).send(eq(ConfigChangePublisher.BINDING), any(Message.class));
+        verify(environmentSnapshotCache, times(1)).evictAll();
+    }
+
+    @Test
+    void publishesChangedSecretsByNameOnly() {
+        applicationSource.put("spring.datasource.password", "{cipher}AQA1");
+        publisher.scan();
+        applicationSource.put("spring.datasource.password", "{cipher}AQA2");
+        applicationSource.put("build.version", "3.1");
+
+        assertThat(publisher.scan()).singleElement().satisfies(change -> {
+            assertThat(change.changed()).containsExactly(Map.entry("build.version", "3.1"));
+            assertThat(change.encrypted()).containsExactly("spring.datasource.password");
+        });
+    }
+
+    @Test
+    void republishesAChangeTheBinderDidNotAccept() {
+        applicationSource.put("build.version", "3.0");
+        publisher.scan();
+        applicationSource.put("build.version", "3.1");
+        when(streamBridge.send(eq(ConfigChangePublisher.BINDING), any(Message.class))).thenReturn(false);
+        assertThat(publisher.scan()).isEmpty();
+
+        when(streamBridge.send(eq(ConfigChangePublisher.BINDING), any(Message.class))).thenReturn(true);
+        assertThat(publisher.scan()).singleElement()
+                .satisfies(change -> assertThat(change.changed()).containsEntry("build.version", "3.1"));
+    }
+
+}
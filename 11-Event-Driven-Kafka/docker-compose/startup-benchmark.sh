@@ -0,0 +1,107 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-ready of the service images next to a running docker-compose environment.
+#
+# Every run starts a fresh container of the image on the compose network, with the same configuration as in
+# docker-compose.yml, and waits until /actuator/health/readiness answers UP. The OpenTelemetry agent is left out
+# so only the application is measured.
+#
+#   ./startup-benchmark.sh [runs] [tag...]
+#
+#   runs    - starts per service and image, 5 by default
+#   tag     - image tags to compare, s10 and s10-aot by default
+#
+# NETWORK overrides the compose network, SERVICES the services to measure.
+
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+TAGS=("$@")
+[[ ${#TAGS[@]} -eq 0 ]] && TAGS=(s10 s10-aot)
+NETWORK=${NETWORK:-default_bankdemo}
+SERVICES=${SERVICES:-"accounts loans cards gatewayserver message"}
+TIMEOUT_SECONDS=180
+
+port_of() {
+  case $1 in
+    accounts) echo 8080 ;;
+    loans) echo 8090 ;;
+    cards) echo 9000 ;;
+    gatewayserver) echo 8072 ;;
+    message) echo 9010 ;;
+  esac
+}
+
+env_of() {
+  echo "--env SPRING_APPLICATION_NAME=$1"
+  echo "--env SPRING_CLOUD_STREAM_KAFKA_BINDER_BROKERS=kafka:9092"
+  if [[ $1 != message ]]; then
+    echo "--env SPRING_PROFILES_ACTIVE=default"
+    echo "--env SPRING_CONFIG_IMPORT=configserver:http://configserver:8071/"
+    echo "--env EUREKA_CLIENT_SERVICEURL_DEFAULTZONE=http://eurekaserver:8070/eureka/"
+  fi
+  case $1 in
+    cards) echo "--env CARDS_LEDGER_JOURNAL_DIR=/tmp/ledger-journal" ;;
+    message) echo "--env MESSAGE_AUDIT_DIRECTORY=/tmp/audit-trail" ;;
+    gatewayserver)
+      echo "--env SPRING_SECURITY_OAUTH2_RESOURCESERVER_JWT_JWK-SET-URI=http://keycloak:8080/realms/master/protocol/openid-connect/certs" ;;
+  esac
+}
+
+now_millis() {
+  date +%s%3N
+}
+
+is_ready() {
+  local service=$1 container=$2 address
+  address=$(docker port "$container" "$(port_of "$service")/tcp" 2>/dev/null | head -n 1) || return 1
+  [[ -n $address ]] && curl --fail --silent "http://$address/actuator/health/readiness" | grep -q UP
+}
+
+# prints the time-to-ready in milliseconds and the JVM's own "process running for" figure
+measure() {
+  local service=$1 image=$2 container start deadline elapsed jvm
+  start=$(now_millis)
+  # shellcheck disable=SC2046
+  container=$(docker run --detach --network "$NETWORK" --memory 700m \
+    --publish "127.0.0.1::$(port_of "$service")" $(env_of "$service") "$image")
+  deadline=$((start + TIMEOUT_SECONDS * 1000))
+  until is_ready "$service" "$container"; do
+    if (( $(now_millis) > deadline )) || [[ $(docker inspect --format '{{.State.Running}}' "$container") != true ]]; then
+      docker logs --tail 30 "$container" >&2
+      docker rm --force "$container" > /dev/null
+      echo "$image did not become ready" >&2
+      return 1
+    fi
+    sleep 0.1
+  done
+  elapsed=$(( $(now_millis) - start ))
+  jvm=$(docker logs "$container" 2>&1 | grep -o "process running for [0-9.]*" | grep -o "[0-9.]*$" | head -n 1)
+  docker rm --force "$container" > /dev/null
+  echo "$elapsed ${jvm:-?}"
+}
+
+docker network inspect "$NETWORK" > /dev/null
+
+printf "%-14s %-10s %10s %10s %10s %12s\n" service tag "min ms" "median ms" "max ms" "jvm median s"
+for service in $SERVICES; do
+  for tag in "${TAGS[@]}"; do
+    image="dfragar/$service:$tag"
+    docker image inspect "$image" > /dev/null
+    readies=()
+    jvms=()
+    for ((run = 0; run < RUNS; run++)); do
+      result=$(measure "$service" "$image")
+      read -r ready jvm <<< "$result"
+      readies+=("$ready")
+      jvms+=("$jvm")
+    done
+    sorted=$(printf "%s\n" "${readies[@]}" | sort -n)
+    printf "%-14s %-10s %10s %10s %10s %12s\n" "$service" "$tag" \
+      "$(echo "$sorted" | head -n 1)" \
+      "$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")" \
+      "$(echo "$sorted" | tail -n 1)" \
+      "$(printf "%s\n" "${jvms[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")"
+  done
+done
@@ -1,10 +1,13 @@
 package com.dfragar.eurekaserver;
 
+import com.dfragar.eurekaserver.profiling.JfrProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
 
 @SpringBootApplication
+@EnableConfigurationProperties(JfrProperties.class)
 @EnableEurekaServer
 public class EurekaserverApplication {
 
@@ -0,0 +1,37 @@
+package com.dfragar.eurekaserver.config;
+
+import io.opentelemetry.api.trace.Span;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the current span of the OpenTelemetry java agent to the Prometheus registry, which then attaches trace
+ * and span ids as exemplars to the histogram buckets it records. Without the agent there is no valid span and no
+ * exemplar is written.
+ */
+@Component
+public class OpenTelemetrySpanContext implements SpanContext {
+
+    @Override
+    public String getCurrentTraceId() {
+        io.opentelemetry.api.trace.SpanContext spanContext = Span.current().getSpanContext();
+        return spanContext.isValid() ? spanContext.getTraceId() : null;
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        io.opentelemetry.api.trace.SpanContext spanContext = Span.current().getSpanContext();
+        return spanContext.isValid() ? spanContext.getSpanId() : null;
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        return Span.current().getSpanContext().isSampled();
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+        Span.current().setAttribute(EXEMPLAR_ATTRIBUTE_NAME, EXEMPLAR_ATTRIBUTE_VALUE);
+    }
+
+}
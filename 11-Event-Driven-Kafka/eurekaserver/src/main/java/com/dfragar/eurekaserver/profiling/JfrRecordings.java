@@ -0,0 +1,198 @@
+package com.dfragar.eurekaserver.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The JDK Flight Recorder recordings of this JVM: a continuous one, bounded by age and size, started once the
+ * application is ready, and time-boxed sessions started on demand. Every recording can be downloaded while it
+ * runs, as a copy of what it recorded so far, and finished sessions are kept on disk until newer ones replace them.
+ */
+@Component
+public class JfrRecordings implements DisposableBean {
+
+    public static final String CONTINUOUS = "continuous";
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordings.class);
+
+    private static final String SESSION_PREFIX = "session-";
+
+    private final JfrProperties properties;
+    /**
+     * Sessions by id, oldest first
+     */
+    private final Map<String, Recording> sessions = new LinkedHashMap<>();
+    private Recording continuous;
+
+    public JfrRecordings(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startContinuous() {
+        JfrProperties.Continuous config = properties.getContinuous();
+        if (!config.isEnabled() || !isAvailable() || continuous != null) {
+            return;
+        }
+        try {
+            Map<String, String> settings = new HashMap<>(
+                    Configuration.getConfiguration(config.getSettings()).getSettings());
+            config.getThresholds().forEach((event, threshold) ->
+                    settings.put(event + "#threshold", threshold.toMillis() + " ms"));
+            Recording recording = new Recording(settings);
+            recording.setName(CONTINUOUS);
+            recording.setToDisk(true);
+            recording.setMaxAge(config.getMaxAge());
+            recording.setMaxSize(config.getMaxSize().toBytes());
+            recording.start();
+            continuous = recording;
+            logger.info("Continuous JFR recording started with {} settings, keeping {} or {}", config.getSettings(),
+                    config.getMaxAge(), config.getMaxSize());
+        } catch (IOException | ParseException e) {
+            logger.warn("Continuous JFR recording not started", e);
+        }
+    }
+
+    public synchronized List<JfrSession> list() {
+        List<JfrSession> list = new ArrayList<>();
+        if (continuous != null) {
+            list.add(JfrSession.of(CONTINUOUS, continuous));
+        }
+        sessions.forEach((id, recording) -> list.add(JfrSession.of(id, recording)));
+        return list;
+    }
+
+    /**
+     * Starts a session that stops by itself and writes its recording to disk
+     *
+     * @param duration - time box, the default duration when null, cut to the maximum duration
+     * @param settings - JFR configuration, the configured one when null
+     * @return the session started
+     * @throws IllegalArgumentException when the settings are not a known JFR configuration
+     * @throws IllegalStateException    when the maximum of sessions are already recording
+     */
+    public synchronized JfrSession start(Duration duration, String settings) throws IOException {
+        long recording = sessions.values().stream().filter(JfrRecordings::isRunning).count();
+        if (recording >= properties.getMaxSessions()) {
+            throw new IllegalStateException(recording + " JFR sessions already recording");
+        }
+        Duration timeBox = duration == null ? properties.getDefaultDuration() : duration;
+        if (timeBox.compareTo(properties.getMaxDuration()) > 0) {
+            timeBox = properties.getMaxDuration();
+        }
+
+        Recording session = new Recording(configuration(settings == null ? properties.getSettings() : settings));
+        String id = Long.toString(session.getId());
+        session.setName(SESSION_PREFIX + id);
+        session.setToDisk(true);
+        session.setDuration(timeBox);
+        session.setDestination(directory().resolve(session.getName() + ".jfr"));
+        session.start();
+        sessions.put(id, session);
+        logger.info("JFR session {} started for {}", id, timeBox);
+        evictFinished();
+        return JfrSession.of(id, session);
+    }
+
+    /**
+     * Stops a session before its time box ends, which writes its recording to disk
+     *
+     * @param id - session id
+     * @return the session, empty when unknown
+     */
+    public synchronized Optional<JfrSession> stop(String id) {
+        Recording session = sessions.get(id);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (isRunning(session)) {
+            session.stop();
+            logger.info("JFR session {} stopped", id);
+        }
+        return Optional.of(JfrSession.of(id, session));
+    }
+
+    /**
+     * @param id - session id, or {@value #CONTINUOUS}
+     * @return the file of a finished session, or a copy of what a running recording recorded so far, empty when
+     * unknown
+     */
+    public synchronized Optional<Path> data(String id) throws IOException {
+        Recording recording = CONTINUOUS.equals(id) ? continuous : sessions.get(id);
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (isRunning(recording)) {
+            Path snapshot = directory().resolve(recording.getName() + "-snapshot.jfr");
+            recording.dump(snapshot);
+            return Optional.of(snapshot);
+        }
+        return Optional.ofNullable(recording.getDestination()).filter(Files::exists);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        sessions.values().forEach(Recording::close);
+        sessions.clear();
+        if (continuous != null) {
+            continuous.close();
+            continuous = null;
+        }
+    }
+
+    private void evictFinished() throws IOException {
+        List<String> finished = sessions.entrySet().stream()
+                .filter(session -> session.getValue().getState() == RecordingState.STOPPED)
+                .map(Map.Entry::getKey)
+                .toList();
+        for (String id : finished.subList(0, Math.max(0, finished.size() - properties.getRetainedSessions()))) {
+            Recording session = sessions.remove(id);
+            Path destination = session.getDestination();
+            session.close();
+            if (destination != null) {
+                Files.deleteIfExists(destination);
+                Files.deleteIfExists(directory().resolve(session.getName() + "-snapshot.jfr"));
+            }
+        }
+    }
+
+    private Path directory() throws IOException {
+        return Files.createDirectories(properties.getDirectory());
+    }
+
+    private static boolean isRunning(Recording recording) {
+        return recording.getState() == RecordingState.RUNNING;
+    }
+
+    private static Configuration configuration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings " + settings, e);
+        }
+    }
+
+}
@@ -1,11 +1,13 @@
 package com.dfragar.gatewayserver;
 
+import com.dfragar.gatewayserver.profiling.JfrProperties;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
 import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
@@ -18,6 +20,7 @@ import org.springframework.http.HttpMethod;
 import reactor.core.publisher.Mono;
 
 @SpringBootApplication
+@EnableConfigurationProperties(JfrProperties.class)
 public class GatewayserverApplication {
 
     public static void main(String[] args) {
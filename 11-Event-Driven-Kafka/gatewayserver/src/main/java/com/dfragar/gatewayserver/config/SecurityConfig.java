@@ -19,7 +19,10 @@ public class SecurityConfig {
 
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity) {
-        serverHttpSecurity.authorizeExchange(exchanges -> exchanges.pathMatchers(HttpMethod.GET).permitAll()
+        // the export streams every customer, so it is the one read that needs the role
+        serverHttpSecurity.authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.GET, "/bank/accounts/api/export").hasRole("ACCOUNTS")
+                        .pathMatchers(HttpMethod.GET).permitAll()
                         .pathMatchers("/bank/accounts/**").hasRole("ACCOUNTS")
                         .pathMatchers("/bank/cards/**").hasRole("CARDS")
                         .pathMatchers("/bank/loans/**").hasRole("LOANS"))
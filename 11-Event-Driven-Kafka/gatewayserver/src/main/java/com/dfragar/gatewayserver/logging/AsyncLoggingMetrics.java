@@ -0,0 +1,62 @@
+package com.dfragar.gatewayserver.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Queue depth, dropped and sampled out events of the asynchronous appenders configured in logback-spring.xml.
+ */
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME)
+                .iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof MeteredAsyncAppender appender) {
+                bindTo(registry, appender);
+            }
+        }
+    }
+
+    private static void bindTo(MeterRegistry registry, MeteredAsyncAppender appender) {
+        String name = appender.getName();
+        Gauge.builder("logging.async.queue.depth", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                .description("Events waiting to be written")
+                .tag("appender", name)
+                .register(registry);
+        Gauge.builder("logging.async.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+                .tag("appender", name)
+                .register(registry);
+        FunctionCounter.builder("logging.async.dropped", appender, MeteredAsyncAppender::getDiscarded)
+                .description("Events dropped instead of queued")
+                .tags("appender", name, "reason", "discarded")
+                .register(registry);
+        FunctionCounter.builder("logging.async.dropped", appender, MeteredAsyncAppender::getDropped)
+                .description("Events dropped instead of queued")
+                .tags("appender", name, "reason", "queue-full")
+                .register(registry);
+        appender.getCopyOfAttachedFiltersList().forEach(filter -> {
+            if (filter instanceof RateSamplingFilter sampling) {
+                FunctionCounter.builder("logging.sampled", sampling, RateSamplingFilter::getSampledOut)
+                        .description("Events of hot path loggers sampled out")
+                        .tag("appender", name)
+                        .register(registry);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.dfragar.gatewayserver.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets through at most {@code eventsPerSecond} events per second of every logger under the configured hot path
+ * loggers, the rest are sampled out. WARN and ERROR events are never sampled.
+ */
+public class RateSamplingFilter extends Filter<ILoggingEvent> {
+
+    private final List<String> loggers = new ArrayList<>();
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder sampledOut = new LongAdder();
+    private int eventsPerSecond = 100;
+
+    public void addLogger(String logger) {
+        loggers.add(logger.trim());
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN) || !isHotPath(event.getLoggerName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(event.getLoggerName(), name -> new Window());
+        if (window.tryAcquire(event.getTimeStamp() / 1000, eventsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * @return events sampled out since the start
+     */
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    private boolean isHotPath(String loggerName) {
+        for (String logger : loggers) {
+            if (loggerName.startsWith(logger)
+                    && (loggerName.length() == logger.length() || loggerName.charAt(logger.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Events let through in the current second
+     */
+    private static final class Window {
+
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int limit) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.dfragar.gatewayserver.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(GatewayExchangeEvent.NAME)
+@Label("Gateway Exchange")
+@Description("Request through the gateway filter chain, from the first global filter until the response completes")
+@Category({"Bank", "Gateway"})
+@StackTrace(false)
+public class GatewayExchangeEvent extends Event {
+
+    public static final String NAME = "com.dfragar.gatewayserver.GatewayExchange";
+
+    @Label("Route")
+    String route;
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    @Description("Response status, -1 when none was set")
+    int status;
+
+    @Label("Outcome")
+    @Description("Reactor signal the filter chain ended with: onComplete, onError or cancel")
+    String outcome;
+
+}
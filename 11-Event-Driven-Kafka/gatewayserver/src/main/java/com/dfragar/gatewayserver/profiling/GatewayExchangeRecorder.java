@@ -0,0 +1,48 @@
+package com.dfragar.gatewayserver.profiling;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records a {@link GatewayExchangeEvent} around the whole filter chain of every routed request, as the first
+ * global filter. The event begins on the thread that receives the request and is committed on the one that
+ * completes it.
+ */
+@Component
+public class GatewayExchangeRecorder implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayExchangeEvent event = new GatewayExchangeEvent();
+        if (!event.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        event.begin();
+        return chain.filter(exchange).doFinally(signal -> {
+            event.end();
+            if (event.shouldCommit()) {
+                Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                event.route = route != null ? route.getId() : null;
+                event.method = exchange.getRequest().getMethod().name();
+                event.path = exchange.getRequest().getPath().value();
+                event.status = status != null ? status.value() : -1;
+                event.outcome = signal.toString();
+                event.commit();
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+}
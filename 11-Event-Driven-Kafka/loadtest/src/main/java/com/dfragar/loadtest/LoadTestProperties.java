@@ -0,0 +1,94 @@
+package com.dfragar.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "loadtest")
+@Getter
+@Setter
+public class LoadTestProperties {
+
+    /**
+     * Directory holding the service modules, each with its jar built under target/
+     */
+    private Path servicesDir = Path.of("..");
+
+    /**
+     * Directory the service logs and the report are written to
+     */
+    private Path outputDir = Path.of("target", "loadtest");
+
+    /**
+     * JVM options given to every forked service
+     */
+    private List<String> jvmArgs = new ArrayList<>(List.of("-Xms256m", "-Xmx512m"));
+
+    private Duration startupTimeout = Duration.ofMinutes(3);
+
+    /**
+     * Customers created through the gateway, each with a card and a loan, before the workload starts
+     */
+    private int customers = 200;
+
+    private Duration warmup = Duration.ofSeconds(30);
+
+    private Duration duration = Duration.ofMinutes(2);
+
+    private Arrival arrival = Arrival.POISSON;
+
+    /**
+     * Requests in flight across all routes beyond which new arrivals are shed and counted instead of sent
+     */
+    private int maxInFlight = 2_000;
+
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    private List<Route> routes = new ArrayList<>();
+
+    public enum Arrival {
+        /**
+         * Exponentially distributed gaps, like independent users
+         */
+        POISSON,
+        /**
+         * Evenly spaced requests
+         */
+        CONSTANT
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String name;
+
+        private String method = "GET";
+
+        /**
+         * Gateway path, where {mobileNumber} is replaced by a seeded customer and {newMobileNumber} by an unused one
+         */
+        private String path;
+
+        /**
+         * JSON request body, with the same placeholders as the path
+         */
+        private String body;
+
+        /**
+         * Target arrivals per second, independent of how fast responses come back
+         */
+        private double rate;
+
+        /**
+         * Whether to send the bearer token, required by the gateway for everything but GET
+         */
+        private boolean authenticated;
+
+    }
+
+}
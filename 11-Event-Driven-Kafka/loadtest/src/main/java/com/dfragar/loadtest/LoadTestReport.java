@@ -0,0 +1,79 @@
+package com.dfragar.loadtest;
+
+import com.dfragar.loadtest.workload.RouteResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Summary of a measured run: logged as a table and written as report.json to the output directory, so runs can
+ * be compared over time.
+ *
+ * @param startedAt  start of the measured run, after warm-up
+ * @param duration   length of the measured run
+ * @param arrival    arrival process of the offered load
+ * @param customers  customers the workload was spread over
+ * @param routes     outcome of every route
+ * @param cpuSeconds CPU time every service used during the measured run, in seconds
+ */
+public record LoadTestReport(
+        Instant startedAt,
+        Duration duration,
+        LoadTestProperties.Arrival arrival,
+        int customers,
+        List<RouteResult> routes,
+        Map<String, Double> cpuSeconds
+) {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestReport.class);
+
+    private static final String ROW = "%-24s %8s %8s %8s %6s %6s %6s %9s %9s %9s %9s %9s";
+    private static final String CPU_ROW = "%-24s %8s %8s";
+
+    public void log() {
+        StringBuilder table = new StringBuilder(String.format(ROW, "route", "target/s", "done/s", "ok/s", "errors",
+                "failed", "shed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (RouteResult route : routes) {
+            RouteResult.Latency latency = route.latency();
+            table.append(System.lineSeparator()).append(String.format(ROW, route.name(),
+                    rate(route.targetRate()), rate(route.throughput()), rate(route.successfulThroughput()),
+                    route.errors(), route.failures(), route.shed(), millis(latency.p50()), millis(latency.p90()),
+                    millis(latency.p99()), millis(latency.p999()), millis(latency.max())));
+        }
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder cpu = new StringBuilder(String.format(CPU_ROW, "service", "cpu s", "cores"));
+        cpuSeconds.forEach((service, cpuTime) -> cpu.append(System.lineSeparator())
+                .append(String.format(CPU_ROW, service, String.format("%.1f", cpuTime),
+                        String.format("%.2f", cpuTime / seconds))));
+        logger.info("{} arrivals over {}{}{}{}{}", arrival, duration, System.lineSeparator(), table,
+                System.lineSeparator().repeat(2), cpu);
+    }
+
+    public Path write(ObjectMapper objectMapper, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        Path report = outputDir.resolve("report.json");
+        objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(report.toFile(), this);
+        return report;
+    }
+
+    private static String rate(double rate) {
+        return String.format("%.1f", rate);
+    }
+
+    private static String millis(double millis) {
+        return String.format("%.2f", millis);
+    }
+
+}
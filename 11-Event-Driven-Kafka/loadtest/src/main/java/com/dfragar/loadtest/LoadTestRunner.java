@@ -0,0 +1,81 @@
+package com.dfragar.loadtest;
+
+import com.dfragar.loadtest.fleet.ServiceFleet;
+import com.dfragar.loadtest.workload.CustomerSeeder;
+import com.dfragar.loadtest.workload.OpenLoadGenerator;
+import com.dfragar.loadtest.workload.RouteResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the fleet, seeds customers, offers the configured load through the gateway for a warm-up and a measured
+ * run, and reports the measured run. Exits non-zero when the run could not complete.
+ */
+@Component
+public class LoadTestRunner implements CommandLineRunner, ExitCodeGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestProperties properties;
+    private final ObjectMapper objectMapper;
+    private int exitCode;
+
+    public LoadTestRunner(LoadTestProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        exitCode = 1;
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getRequestTimeout())
+                .build();
+        try (ServiceFleet fleet = new ServiceFleet(properties)) {
+            fleet.start();
+            Duration tokenValidity = properties.getWarmup().plus(properties.getDuration()).plusMinutes(10);
+            String token = fleet.getJwks().mintToken(tokenValidity);
+            List<String> mobileNumbers = new CustomerSeeder(httpClient, fleet.getGatewayUri(), token)
+                    .seed(properties.getCustomers());
+
+            OpenLoadGenerator generator = new OpenLoadGenerator(httpClient, fleet.getGatewayUri(), token,
+                    mobileNumbers, properties);
+            if (properties.getWarmup().isPositive()) {
+                logger.info("Warming up for {}", properties.getWarmup());
+                generator.run(properties.getWarmup());
+            }
+            logger.info("Measuring for {}", properties.getDuration());
+            Instant startedAt = Instant.now();
+            Map<String, Duration> cpuBefore = fleet.cpuTimes();
+            List<RouteResult> results = generator.run(properties.getDuration());
+            Map<String, Double> cpuSeconds = new LinkedHashMap<>();
+            fleet.cpuTimes().forEach((service, cpuTime) -> cpuSeconds.put(service,
+                    cpuTime.minus(cpuBefore.getOrDefault(service, Duration.ZERO)).toMillis() / 1000.0));
+
+            LoadTestReport report = new LoadTestReport(startedAt, properties.getDuration(), properties.getArrival(),
+                    mobileNumbers.size(), results, cpuSeconds);
+            report.log();
+            logger.info("Report written to {}", report.write(objectMapper, properties.getOutputDir()));
+            exitCode = 0;
+        } finally {
+            httpClient.close();
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.dfragar.loadtest.fleet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One microservice running in its own JVM from the jar its module built, with its output sent to a log file.
+ */
+public class ForkedService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForkedService.class);
+
+    private static final String STARTED_MARKER = "Started ";
+    private static final int LOG_TAIL_LINES = 40;
+
+    private final String name;
+    private final Process process;
+    private final Path logFile;
+
+    private ForkedService(String name, Process process, Path logFile) {
+        this.name = name;
+        this.process = process;
+        this.logFile = logFile;
+    }
+
+    /**
+     * Launches a service jar with the given application properties passed as command line arguments
+     *
+     * @param name       - module name, also the jar's artifactId
+     * @param jar        - executable jar of the service
+     * @param jvmArgs    - JVM options
+     * @param properties - application properties overriding the service's own
+     * @param logDir     - directory the service log is written to
+     * @return the running service
+     */
+    public static ForkedService start(String name, Path jar, List<String> jvmArgs, Map<String, String> properties,
+            Path logDir) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Path logFile = Files.createDirectories(logDir).resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        logger.info("Started {} from {}, logging to {}", name, jar, logFile);
+        return new ForkedService(name, process, logFile);
+    }
+
+    /**
+     * Finds the executable jar a module built, preferring the one attached with the exec classifier
+     *
+     * @param servicesDir - directory holding the modules
+     * @param name        - module name
+     * @return the jar to launch
+     */
+    public static Path findJar(Path servicesDir, String name) throws IOException {
+        Path target = servicesDir.resolve(name).resolve("target");
+        if (!Files.isDirectory(target)) {
+            throw new IllegalStateException("No build found for " + name + ", run mvn package in " + target.getParent());
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            List<Path> jars = files.filter(file -> {
+                String fileName = file.getFileName().toString();
+                return fileName.startsWith(name + "-") && fileName.endsWith(".jar")
+                        && !fileName.endsWith("-plain.jar") && !fileName.endsWith("-sources.jar");
+            }).toList();
+            return jars.stream().filter(jar -> jar.getFileName().toString().endsWith("-exec.jar")).findFirst()
+                    .or(() -> jars.stream().findFirst())
+                    .orElseThrow(() -> new IllegalStateException("No jar found for " + name + " in " + target));
+        }
+    }
+
+    /**
+     * Waits until Spring Boot reports the application as started. The log is read as ISO-8859-1 so no byte of it
+     * can fail decoding.
+     *
+     * @param timeout - how long to wait
+     */
+    public void awaitStarted(Duration timeout) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ":\n" + logTail());
+            }
+            try (Stream<String> lines = Files.lines(logFile, StandardCharsets.ISO_8859_1)) {
+                if (lines.anyMatch(line -> line.contains(STARTED_MARKER) && line.contains("Application"))) {
+                    logger.info("{} is up", name);
+                    return;
+                }
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not start within " + timeout + ":\n" + logTail());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * CPU time the service's JVM has used so far, across all its threads
+     *
+     * @return the CPU time, zero where the platform does not report it
+     */
+    public Duration cpuTime() {
+        return process.info().totalCpuDuration().orElse(Duration.ZERO);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(15, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private String logTail() throws IOException {
+        List<String> lines = Files.readAllLines(logFile, StandardCharsets.ISO_8859_1);
+        return String.join("\n", lines.subList(Math.max(0, lines.size() - LOG_TAIL_LINES), lines.size()));
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.dfragar.loadtest.fleet;
+
+import com.dfragar.loadtest.LoadTestProperties;
+import com.dfragar.loadtest.stub.JwksStub;
+import com.dfragar.loadtest.stub.RedisStub;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+/**
+ * The gateway, accounts, cards, loans and message services forked as JVMs, wired to local stand-ins instead of
+ * their infrastructure: an embedded Kafka broker, the {@link RedisStub}, the {@link JwksStub} in place of
+ * Keycloak, their in-memory H2 databases, and fixed service instances in place of Eureka. The config server is
+ * switched off, so every service runs on its packaged application.yml.
+ */
+public class ServiceFleet implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceFleet.class);
+
+    private static final String[] TOPICS = {"send-communication", "communication-sent", "audit-trail"};
+
+    private final LoadTestProperties properties;
+    private final List<ForkedService> services = new ArrayList<>();
+    private EmbeddedKafkaKraftBroker kafka;
+    private RedisStub redis;
+    private JwksStub jwks;
+    private URI gatewayUri;
+
+    public ServiceFleet(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+
+    public void start() throws IOException, InterruptedException {
+        kafka = new EmbeddedKafkaKraftBroker(1, 1, TOPICS);
+        kafka.afterPropertiesSet();
+        redis = new RedisStub();
+        jwks = new JwksStub();
+        logger.info("Kafka on {}, Redis stub on port {}, JWKS on {}", kafka.getBrokersAsString(), redis.getPort(),
+                jwks.getJwkSetUri());
+
+        int cardsPort = freePort();
+        int loansPort = freePort();
+        int accountsPort = freePort();
+        int gatewayPort = freePort();
+
+        fork("cards", cardsPort, Map.of("cards.ledger.journal-dir", outputPath("ledger-journal")));
+        fork("loans", loansPort, Map.of());
+        fork("message", 0, Map.of("message.audit.directory", outputPath("audit-trail")));
+        Map<String, String> accounts = new LinkedHashMap<>();
+        accounts.putAll(instance("cards", cardsPort));
+        accounts.putAll(instance("loans", loansPort));
+        fork("accounts", accountsPort, accounts);
+        Map<String, String> gateway = new LinkedHashMap<>();
+        gateway.putAll(instance("ACCOUNTS", accountsPort));
+        gateway.putAll(instance("CARDS", cardsPort));
+        gateway.putAll(instance("LOANS", loansPort));
+        gateway.put("spring.data.redis.host", "localhost");
+        gateway.put("spring.data.redis.port", Integer.toString(redis.getPort()));
+        gateway.put("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", jwks.getJwkSetUri());
+        fork("gatewayserver", gatewayPort, gateway);
+
+        for (ForkedService service : services) {
+            service.awaitStarted(properties.getStartupTimeout());
+        }
+        gatewayUri = URI.create("http://localhost:" + gatewayPort);
+    }
+
+    public URI getGatewayUri() {
+        return gatewayUri;
+    }
+
+    public JwksStub getJwks() {
+        return jwks;
+    }
+
+    /**
+     * CPU time used so far by every service, by name
+     */
+    public Map<String, Duration> cpuTimes() {
+        Map<String, Duration> cpuTimes = new LinkedHashMap<>();
+        services.forEach(service -> cpuTimes.put(service.getName(), service.cpuTime()));
+        return cpuTimes;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (int i = services.size() - 1; i >= 0; i--) {
+            services.get(i).close();
+        }
+        if (jwks != null) {
+            jwks.close();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+        if (kafka != null) {
+            kafka.destroy();
+        }
+    }
+
+    private void fork(String name, int port, Map<String, String> overrides) throws IOException {
+        Map<String, String> arguments = new LinkedHashMap<>();
+        if (port > 0) {
+            arguments.put("server.port", Integer.toString(port));
+        }
+        arguments.put("spring.cloud.config.enabled", "false");
+        arguments.put("eureka.client.enabled", "false");
+        arguments.put("build.version", "loadtest");
+        arguments.put("spring.cloud.stream.kafka.binder.brokers", kafka.getBrokersAsString());
+        arguments.put("spring.jpa.show-sql", "false");
+        arguments.put("logging.level.com.dfragar", "INFO");
+        arguments.putAll(overrides);
+        services.add(ForkedService.start(name, ForkedService.findJar(properties.getServicesDir(), name),
+                properties.getJvmArgs(), arguments, properties.getOutputDir().resolve("logs")));
+    }
+
+    private String outputPath(String directory) {
+        return properties.getOutputDir().resolve(directory).toAbsolutePath().toString();
+    }
+
+    /**
+     * Registers a fixed instance with the simple discovery client, which load balancing falls back to without
+     * Eureka. Service ids are looked up as written, so the gateway's upper case ids are given as map keys.
+     */
+    private static Map<String, String> instance(String serviceId, int port) {
+        return Map.of("spring.cloud.discovery.client.simple.instances[" + serviceId + "][0].uri",
+                "http://localhost:" + port);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
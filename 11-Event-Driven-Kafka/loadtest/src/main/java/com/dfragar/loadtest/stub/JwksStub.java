@@ -0,0 +1,88 @@
+package com.dfragar.loadtest.stub;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Stands in for Keycloak: publishes an RSA key at the realm's JWKS path and mints tokens signed with it, carrying
+ * the realm roles the gateway checks.
+ */
+public class JwksStub implements AutoCloseable {
+
+    public static final String JWKS_PATH = "/realms/master/protocol/openid-connect/certs";
+
+    private static final List<String> ROLES = List.of("ACCOUNTS", "CARDS", "LOANS");
+
+    private final RSAKey rsaKey;
+    private final HttpServer server;
+
+    public JwksStub() throws IOException {
+        try {
+            this.rsaKey = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Failed to generate the signing key", ex);
+        }
+        byte[] jwks = new JWKSet(rsaKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(JWKS_PATH, exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwks);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    public String getJwkSetUri() {
+        return "http://localhost:" + server.getAddress().getPort() + JWKS_PATH;
+    }
+
+    /**
+     * @param validity - how long the token stays valid
+     * @return a signed bearer token holding every bank role
+     */
+    public String mintToken(Duration validity) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("loadtest")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(validity)))
+                .claim("realm_access", Map.of("roles", ROLES))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+                claims);
+        try {
+            jwt.sign(new RSASSASigner(rsaKey));
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Failed to sign the token", ex);
+        }
+        return jwt.serialize();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+}
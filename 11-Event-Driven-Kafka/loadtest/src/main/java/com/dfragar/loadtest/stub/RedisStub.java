@@ -0,0 +1,185 @@
+package com.dfragar.loadtest.stub;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal RESP2 server standing in for the Redis behind the gateway's request rate limiter.
+ * <p>
+ * It understands the connection handshake of Lettuce and the script commands of {@code RedisRateLimiter}, and
+ * admits every request: the load test measures the services behind the gateway, not the limiter, whose 1 request
+ * per second replenish rate would otherwise reject nearly all card traffic. HELLO is refused so clients fall back
+ * to RESP2.
+ */
+public class RedisStub implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisStub.class);
+
+    /**
+     * Tokens reported left after every admitted request
+     */
+    static final long TOKENS_LEFT = 1_000;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RedisStub() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().name("redis-stub-accept").start(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.submit(() -> serve(socket));
+            } catch (IOException ex) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Redis stub failed to accept a connection: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            List<String> command;
+            while ((command = readCommand(in)) != null) {
+                boolean quit = reply(command, out);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+                if (quit) {
+                    out.flush();
+                    return;
+                }
+            }
+        } catch (IOException ex) {
+            logger.debug("Redis stub connection closed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * @return true when the client asked to close the connection
+     */
+    private boolean reply(List<String> command, OutputStream out) throws IOException {
+        if (command.isEmpty()) {
+            return false;
+        }
+        String name = command.get(0).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "PING" -> write(out, "+PONG\r\n");
+            case "HELLO" -> write(out, "-ERR unknown command 'HELLO'\r\n");
+            case "AUTH", "SELECT", "CLIENT", "READONLY" -> write(out, "+OK\r\n");
+            case "SCRIPT" -> {
+                if (command.size() > 2 && "LOAD".equalsIgnoreCase(command.get(1))) {
+                    writeBulk(out, sha1(command.get(2)));
+                } else {
+                    write(out, "+OK\r\n");
+                }
+            }
+            case "EVAL", "EVALSHA" -> write(out, "*2\r\n:1\r\n:" + TOKENS_LEFT + "\r\n");
+            case "INFO" -> writeBulk(out, "# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n");
+            case "QUIT" -> {
+                write(out, "+OK\r\n");
+                return true;
+            }
+            default -> write(out, "-ERR unknown command '" + command.get(0) + "'\r\n");
+        }
+        return false;
+    }
+
+    /**
+     * Reads one command sent as a RESP array of bulk strings
+     *
+     * @return the command and its arguments, or null at the end of the stream
+     */
+    static List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        if (header.isEmpty() || header.charAt(0) != '*') {
+            // inline command, as typed in redis-cli or telnet
+            return header.isBlank() ? List.of() : List.of(header.trim().split("\\s+"));
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<String> command = new ArrayList<>(Math.max(count, 0));
+        for (int i = 0; i < count; i++) {
+            String length = readLine(in);
+            if (length == null || length.isEmpty() || length.charAt(0) != '$') {
+                throw new IOException("Expected a bulk string, got " + length);
+            }
+            byte[] data = in.readNBytes(Integer.parseInt(length.substring(1)));
+            if (in.read() != '\r' || in.read() != '\n') {
+                throw new EOFException("Truncated bulk string");
+            }
+            command.add(new String(data, StandardCharsets.UTF_8));
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\r') {
+                in.read();
+                return line.toString();
+            }
+            line.append((char) c);
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+
+    private static void write(OutputStream out, String reply) throws IOException {
+        out.write(reply.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBulk(OutputStream out, String value) throws IOException {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        write(out, "$" + data.length + "\r\n");
+        out.write(data);
+        write(out, "\r\n");
+    }
+
+    private static String sha1(String script) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1")
+                    .digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.dfragar.loadtest.workload;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the customers the workload reads, each with an account, a card and a loan, through the gateway.
+ */
+public class CustomerSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSeeder.class);
+
+    private static final long FIRST_MOBILE_NUMBER = 9_000_000_000L;
+    private static final int CONCURRENCY = 16;
+
+    private final HttpClient httpClient;
+    private final URI gatewayUri;
+    private final String bearerToken;
+
+    public CustomerSeeder(HttpClient httpClient, URI gatewayUri, String bearerToken) {
+        this.httpClient = httpClient;
+        this.gatewayUri = gatewayUri;
+        this.bearerToken = bearerToken;
+    }
+
+    /**
+     * @param customers - number of customers to create
+     * @return the mobile numbers of the customers fully created
+     */
+    public List<String> seed(int customers) throws InterruptedException {
+        List<String> seeded = Collections.synchronizedList(new ArrayList<>(customers));
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < customers; i++) {
+                String mobileNumber = Long.toString(FIRST_MOBILE_NUMBER + i);
+                int customer = i;
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        if (createCustomer(customer, mobileNumber)) {
+                            seeded.add(mobileNumber);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (seeded.isEmpty()) {
+            throw new IllegalStateException("No customer could be created through " + gatewayUri);
+        }
+        logger.info("Seeded {} of {} customers", seeded.size(), customers);
+        return List.copyOf(seeded);
+    }
+
+    private boolean createCustomer(int customer, String mobileNumber) {
+        String account = String.format("{\"name\":\"Load Test %05d\",\"email\":\"loadtest%05d@example.com\","
+                + "\"mobileNumber\":\"%s\"}", customer, customer, mobileNumber);
+        return post("/bank/accounts/api/create", account)
+                && post("/bank/cards/api/create?mobileNumber=" + mobileNumber, null)
+                && post("/bank/loans/api/create?mobileNumber=" + mobileNumber, null);
+    }
+
+    private boolean post(String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(gatewayUri.resolve(path))
+                .header("Authorization", "Bearer " + bearerToken);
+        if (json != null) {
+            builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            builder.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                return true;
+            }
+            logger.warn("POST {} returned {}: {}", path, response.statusCode(), response.body());
+        } catch (IOException ex) {
+            logger.warn("POST {} failed: {}", path, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.dfragar.loadtest.workload;
+
+import com.dfragar.loadtest.LoadTestProperties;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Open-model load: each route gets its own arrival schedule at its configured rate, and a request is sent when it
+ * is due whether or not earlier ones have been answered, the way independent users arrive. A slow system therefore
+ * builds up requests in flight instead of being offered less load. Beyond {@code loadtest.max-in-flight} arrivals
+ * are shed and counted, so the client can not run out of memory.
+ */
+public class OpenLoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoadGenerator.class);
+
+    static final String MOBILE_NUMBER = "{mobileNumber}";
+    static final String NEW_MOBILE_NUMBER = "{newMobileNumber}";
+
+    private final HttpClient httpClient;
+    private final URI gatewayUri;
+    private final String bearerToken;
+    private final List<String> mobileNumbers;
+    private final LoadTestProperties properties;
+    private final AtomicLong newMobileNumbers = new AtomicLong(8_000_000_000L);
+
+    public OpenLoadGenerator(HttpClient httpClient, URI gatewayUri, String bearerToken, List<String> mobileNumbers,
+            LoadTestProperties properties) {
+        this.httpClient = httpClient;
+        this.gatewayUri = gatewayUri;
+        this.bearerToken = bearerToken;
+        this.mobileNumbers = mobileNumbers;
+        this.properties = properties;
+    }
+
+    /**
+     * Offers the configured load for the given duration, then waits for the requests still in flight
+     *
+     * @param duration - how long arrivals are generated
+     * @return the outcome of every route with a positive rate
+     */
+    public List<RouteResult> run(Duration duration) throws InterruptedException {
+        List<LoadTestProperties.Route> routes = properties.getRoutes().stream()
+                .filter(route -> route.getRate() > 0).toList();
+        List<RouteStats> stats = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> arrivals = new ArrayList<>();
+            for (LoadTestProperties.Route route : routes) {
+                RouteStats routeStats = new RouteStats(route.getName(), route.getRate());
+                stats.add(routeStats);
+                arrivals.add(Thread.ofPlatform().name("arrivals-" + route.getName()).start(
+                        () -> arrive(route, routeStats, start, start + duration.toNanos(), inFlight, requests)));
+            }
+            for (Thread thread : arrivals) {
+                thread.join();
+            }
+        }
+        return stats.stream().map(routeStats -> routeStats.result(duration)).toList();
+    }
+
+    private void arrive(LoadTestProperties.Route route, RouteStats stats, long start, long end, Semaphore inFlight,
+            ExecutorService requests) {
+        long due = start;
+        while (true) {
+            due += gapNanos(route.getRate());
+            if (due >= end) {
+                return;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            stats.recordArrival();
+            if (!inFlight.tryAcquire()) {
+                stats.recordShed();
+                continue;
+            }
+            long scheduled = due;
+            requests.submit(() -> {
+                try {
+                    send(route, stats, scheduled);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private long gapNanos(double rate) {
+        double meanGap = 1e9 / rate;
+        if (properties.getArrival() == LoadTestProperties.Arrival.CONSTANT) {
+            return (long) meanGap;
+        }
+        return (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGap);
+    }
+
+    private void send(LoadTestProperties.Route route, RouteStats stats, long scheduled) {
+        HttpRequest request = buildRequest(route);
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            stats.recordResponse(response.statusCode(), System.nanoTime() - scheduled);
+        } catch (IOException ex) {
+            stats.recordFailure(System.nanoTime() - scheduled);
+            logger.debug("{} failed: {}", route.getName(), ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    HttpRequest buildRequest(LoadTestProperties.Route route) {
+        String mobileNumber = mobileNumbers.get(ThreadLocalRandom.current().nextInt(mobileNumbers.size()));
+        String newMobileNumber = Long.toString(newMobileNumbers.getAndIncrement());
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(gatewayUri.resolve(resolve(route.getPath(), mobileNumber, newMobileNumber)))
+                .timeout(properties.getRequestTimeout());
+        if (route.isAuthenticated()) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        if (route.getBody() == null) {
+            return builder.method(route.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(route.getMethod(), HttpRequest.BodyPublishers.ofString(
+                        resolve(route.getBody(), mobileNumber, newMobileNumber)))
+                .build();
+    }
+
+    private static String resolve(String template, String mobileNumber, String newMobileNumber) {
+        return template.replace(MOBILE_NUMBER, mobileNumber).replace(NEW_MOBILE_NUMBER, newMobileNumber);
+    }
+
+}
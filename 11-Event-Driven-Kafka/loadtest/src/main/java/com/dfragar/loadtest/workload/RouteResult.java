@@ -0,0 +1,36 @@
+package com.dfragar.loadtest.workload;
+
+/**
+ * Outcome of one route over a measured run.
+ *
+ * @param name                 route name
+ * @param targetRate           configured arrivals per second
+ * @param sent                 requests sent
+ * @param completed            requests answered or failed
+ * @param succeeded            requests answered with a 2xx status
+ * @param errors               requests answered with any other status
+ * @param failures             requests without a response: timeouts, refused connections
+ * @param shed                 arrivals dropped because too many requests were in flight
+ * @param throughput           completed requests per second
+ * @param successfulThroughput succeeded requests per second
+ * @param latency              latency percentiles in milliseconds
+ */
+public record RouteResult(
+        String name,
+        double targetRate,
+        long sent,
+        long completed,
+        long succeeded,
+        long errors,
+        long failures,
+        long shed,
+        double throughput,
+        double successfulThroughput,
+        Latency latency
+) {
+
+    public record Latency(double p50, double p90, double p99, double p999, double max, double mean) {
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.dfragar.loadtest.workload;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Counters and latency histogram of one route, safe to record into from many request threads.
+ * <p>
+ * Latencies run from the instant a request was due to be sent, not from when it was sent, so requests delayed by
+ * an overloaded client or a saturated connection pool are charged the delay instead of hiding it.
+ */
+class RouteStats {
+
+    private final String name;
+    private final double targetRate;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    RouteStats(String name, double targetRate) {
+        this.name = name;
+        this.targetRate = targetRate;
+    }
+
+    void recordArrival() {
+        sent.increment();
+    }
+
+    void recordShed() {
+        shed.increment();
+    }
+
+    void recordResponse(int status, long latencyNanos) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (status >= 200 && status < 300) {
+            succeeded.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        failures.increment();
+    }
+
+    RouteResult result(Duration elapsed) {
+        long completed = succeeded.sum() + errors.sum() + failures.sum();
+        double seconds = elapsed.toNanos() / 1e9;
+        return new RouteResult(name, targetRate, sent.sum() - shed.sum(), completed, succeeded.sum(), errors.sum(),
+                failures.sum(), shed.sum(), completed / seconds, succeeded.sum() / seconds,
+                new RouteResult.Latency(
+                        millis(latencies.getValueAtPercentile(50)),
+                        millis(latencies.getValueAtPercentile(90)),
+                        millis(latencies.getValueAtPercentile(99)),
+                        millis(latencies.getValueAtPercentile(99.9)),
+                        millis(latencies.getMaxValue()),
+                        latencies.getMean() / 1_000d));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000d;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.dfragar.loadtest.stub;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RedisStubTests {
+
+    @Test
+    void readsCommandsSentAsArraysOfBulkStrings() throws IOException {
+        byte[] commands = (command("PING") + command("EVALSHA", "abc", "2", "key.tokens", "key.timestamp"))
+                .getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(commands);
+
+        assertThat(RedisStub.readCommand(in)).containsExactly("PING");
+        assertThat(RedisStub.readCommand(in)).containsExactly("EVALSHA", "abc", "2", "key.tokens", "key.timestamp");
+        assertThat(RedisStub.readCommand(in)).isNull();
+    }
+
+    @Test
+    void refusesHelloAndAdmitsEveryRateLimiterCall() throws IOException {
+        try (RedisStub redis = new RedisStub();
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), redis.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            out.write(command("HELLO", "3").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            assertThat(in.readLine()).startsWith("-ERR");
+
+            out.write(command("SCRIPT", "LOAD", "return 1").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            assertThat(in.readLine()).isEqualTo("$40");
+            assertThat(in.readLine()).hasSize(40);
+
+            for (int i = 0; i < 3; i++) {
+                out.write(command("EVALSHA", "sha", "2", "tokens", "timestamp", "1", "1", "1", "1")
+                        .getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                assertThat(List.of(in.readLine(), in.readLine(), in.readLine()))
+                        .containsExactly("*2", ":1", ":" + RedisStub.TOKENS_LEFT);
+            }
+        }
+    }
+
+    private static String command(String... arguments) {
+        StringBuilder command = new StringBuilder("*").append(arguments.length).append("\r\n");
+        for (String argument : arguments) {
+            command.append('$').append(argument.getBytes(StandardCharsets.UTF_8).length).append("\r\n")
+                    .append(argument).append("\r\n");
+        }
+        return command.toString();
+    }
+
+}
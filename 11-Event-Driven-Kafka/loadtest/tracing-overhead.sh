@@ -0,0 +1,104 @@
+#!/usr/bin/env bash
+#
+# Measures what tracing costs the services: the load test is run without the OpenTelemetry agent, with the agent
+# sampling everything, and with the agent and the route_ratelimited sampler of the otel-sampler extension, and
+# their CPU time, throughput, latency and exported spans are compared.
+#
+# Build the services, the extension and the load test first:
+#   for ms in accounts cards loans message gatewayserver otel-sampler loadtest; do
+#     (cd ../$ms && ../accounts/mvnw -q package -DskipTests); done
+#
+#   ./tracing-overhead.sh [load test arguments...]
+#
+# e.g. ./tracing-overhead.sh --loadtest.duration=5m. The spans are sent to a throwaway OpenTelemetry collector in
+# docker on port 14318, which only counts them. OTEL_SAMPLER_ROUTE_RATES and OTEL_SAMPLER_ROUTE_DEFAULT_RATE
+# configure the sampler as in docker compose, AGENT overrides the agent jar taken from the local Maven repository.
+
+set -euo pipefail
+
+OTEL_VERSION=2.11.0
+AGENT=${AGENT:-$HOME/.m2/repository/io/opentelemetry/javaagent/opentelemetry-javaagent/$OTEL_VERSION/opentelemetry-javaagent-$OTEL_VERSION.jar}
+EXTENSION=../otel-sampler/target/otel-sampler.jar
+COLLECTOR_IMAGE=${COLLECTOR_IMAGE:-otel/opentelemetry-collector:0.116.1}
+COLLECTOR_CONTAINER=tracing-overhead-collector
+WORK=target/tracing-overhead
+JAR=$(ls target/loadtest-*.jar 2> /dev/null | grep -v plain | head -n 1 || true)
+JVM_ARGS="-Xms256m,-Xmx512m"
+
+export OTEL_EXPORTER_OTLP_ENDPOINT=http://localhost:14318
+export OTEL_METRICS_EXPORTER=none
+export OTEL_LOGS_EXPORTER=none
+export OTEL_SAMPLER_ROUTE_RATES=${OTEL_SAMPLER_ROUTE_RATES:-/actuator=0}
+export OTEL_SAMPLER_ROUTE_DEFAULT_RATE=${OTEL_SAMPLER_ROUTE_DEFAULT_RATE:-10}
+
+[[ -f $JAR ]] || { echo "No jar in target, run ../accounts/mvnw package" >&2; exit 1; }
+[[ -f $AGENT ]] || { echo "No agent at $AGENT, build a service first or set AGENT" >&2; exit 1; }
+[[ -f $EXTENSION ]] || { echo "No $EXTENSION, run ../accounts/mvnw package in ../otel-sampler" >&2; exit 1; }
+
+cleanup() {
+  docker rm --force "$COLLECTOR_CONTAINER" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+start_collector() {
+  mkdir -p "$WORK"
+  cat > "$WORK/collector.yml" <<'YAML'
+receivers:
+  otlp:
+    protocols:
+      http:
+        endpoint: 0.0.0.0:4318
+exporters:
+  nop:
+service:
+  pipelines:
+    traces:
+      receivers: [otlp]
+      exporters: [nop]
+  telemetry:
+    metrics:
+      address: 0.0.0.0:8888
+YAML
+  docker rm --force "$COLLECTOR_CONTAINER" > /dev/null 2>&1 || true
+  docker run --detach --name "$COLLECTOR_CONTAINER" --publish 14318:4318 --publish 18888:8888 \
+    --volume "$PWD/$WORK/collector.yml:/etc/otelcol/config.yaml:ro" "$COLLECTOR_IMAGE" > /dev/null
+  until curl --silent --fail http://localhost:18888/metrics > /dev/null; do
+    sleep 1
+  done
+}
+
+# spans the collector has accepted so far
+spans() {
+  curl --silent http://localhost:18888/metrics \
+    | awk '/^otelcol_receiver_accepted_spans/ { spans += $NF } END { printf "%d\n", spans }'
+}
+
+# runs the load test once and appends to the results: variant, CPU seconds of all services over the measured run,
+# ok/s, p99 of fetch-account, spans exported over the whole run including start-up and warm-up
+measure() {
+  local variant=$1 jvm_args=$2 before report
+  shift 2
+  before=$(spans)
+  java -jar "$JAR" --loadtest.jvm-args="$jvm_args" --loadtest.output-dir="$WORK/$variant" "$@" \
+    > "$WORK/$variant.log" 2>&1 || { tail -n 30 "$WORK/$variant.log" >&2; exit 1; }
+  # gives the agents' batch processors time to flush the last spans before counting
+  sleep 10
+  report="$WORK/$variant/report.json"
+  jq -r --arg variant "$variant" --arg spans "$(( $(spans) - before ))" \
+    '[$variant, ([.cpuSeconds[]] | add), ([.routes[].successfulThroughput] | add),
+      (.routes[] | select(.name == "fetch-account") | .latency.p99), $spans] | join(" ")' \
+    "$report" >> "$WORK/results"
+}
+
+rm -f "$WORK/results"
+start_collector
+AGENT_ARGS="$JVM_ARGS,-javaagent:$AGENT"
+OTEL_TRACES_SAMPLER=always_on measure no-agent "$JVM_ARGS" "$@"
+OTEL_TRACES_SAMPLER=always_on measure always-on "$AGENT_ARGS" "$@"
+OTEL_TRACES_SAMPLER=route_ratelimited measure route-ratelimited \
+  "$AGENT_ARGS,-Dotel.javaagent.extensions=$PWD/$EXTENSION" "$@"
+
+printf "%-18s %10s %10s %18s %10s\n" variant "cpu s" "ok/s" "fetch-account p99" spans
+while read -r variant cpu throughput p99 exported; do
+  printf "%-18s %10.1f %10.1f %18.2f %10s\n" "$variant" "$cpu" "$throughput" "$p99" "$exported"
+done < "$WORK/results"
@@ -1,6 +1,15 @@
 package com.dfragar.loans;
 
+import com.dfragar.loans.audit.AuditTrailProperties;
+import com.dfragar.loans.batch.InterestAccrualProperties;
+import com.dfragar.loans.bulk.BulkImportProperties;
+import com.dfragar.loans.coalescing.SingleFlightProperties;
+import com.dfragar.loans.config.EntityCacheProperties;
 import com.dfragar.loans.dto.LoanContactInfoDto;
+import com.dfragar.loans.jdbc.StatementAccountingProperties;
+import com.dfragar.loans.membership.MobileNumberFilterProperties;
+import com.dfragar.loans.profiling.JfrProperties;
+import com.dfragar.loans.refresh.ConfigSnapshotProperties;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -10,10 +19,15 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
-@EnableConfigurationProperties(value = {LoanContactInfoDto.class})
+@EnableConfigurationProperties(value = {LoanContactInfoDto.class, EntityCacheProperties.class,
+        InterestAccrualProperties.class, BulkImportProperties.class, AuditTrailProperties.class,
+        StatementAccountingProperties.class, ConfigSnapshotProperties.class, JfrProperties.class,
+        SingleFlightProperties.class, MobileNumberFilterProperties.class})
+@EnableScheduling
 @OpenAPIDefinition(
         info = @Info(
                 title = "Loans microservice REST API Documentation",
@@ -0,0 +1,41 @@
+package com.dfragar.loans.batch;
+
+import java.time.LocalDate;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the interest accrual progress at /actuator/interestaccrual and starts a run on POST.
+ */
+@Component
+@Endpoint(id = "interestaccrual")
+public class InterestAccrualEndpoint {
+
+    private final InterestAccrualJob interestAccrualJob;
+    private final InterestAccrualProgress interestAccrualProgress;
+
+    public InterestAccrualEndpoint(InterestAccrualJob interestAccrualJob,
+            InterestAccrualProgress interestAccrualProgress) {
+        this.interestAccrualJob = interestAccrualJob;
+        this.interestAccrualProgress = interestAccrualProgress;
+    }
+
+    @ReadOperation
+    public InterestAccrualStatus status() {
+        return interestAccrualProgress.status();
+    }
+
+    /**
+     * @param accrualDate - ISO date to accrue, today when missing
+     */
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String accrualDate) {
+        LocalDate date = accrualDate == null ? LocalDate.now() : LocalDate.parse(accrualDate);
+        return Map.of("accrualDate", date, "started", interestAccrualJob.start(date));
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.dfragar.loans.batch;
+
+import com.dfragar.loans.audit.AuditRecord;
+import com.dfragar.loans.audit.AuditTrailListener;
+import com.dfragar.loans.entity.Loan;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Daily interest accrual over every loan with an outstanding amount.
+ * <p>
+ * The loan id space is split into fixed keyset ranges processed in parallel on virtual threads, with a semaphore
+ * keeping the number of ranges in flight below the connection pool. Each range is read page by page and written
+ * with JDBC batch updates. A completed range is checkpointed for the accrual date, and every loan records its
+ * last_accrual_date, so a failed or interrupted run is simply started again and never accrues a loan twice. The
+ * accrued loans are captured for the audit trail in the transaction of their page, as JDBC writes never reach the
+ * entity callbacks.
+ */
+@Component
+public class InterestAccrualJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    private static final String SELECT_BOUNDS_SQL = "SELECT COALESCE(MIN(loan_id), 0), COALESCE(MAX(loan_id), 0) "
+            + "FROM loans";
+    private static final String SELECT_PAGE_SQL = "SELECT loan_id, outstanding_amount FROM loans "
+            + "WHERE loan_id > ? AND loan_id <= ? AND outstanding_amount > 0 "
+            + "AND (last_accrual_date IS NULL OR last_accrual_date < ?) ORDER BY loan_id LIMIT ?";
+    private static final String ACCRUE_SQL = "UPDATE loans SET outstanding_amount = outstanding_amount + ?, "
+            + "accrued_interest = accrued_interest + ?, last_accrual_date = ?, updated_at = ?, updated_by = ? "
+            + "WHERE loan_id = ? AND (last_accrual_date IS NULL OR last_accrual_date < ?)";
+    private static final String SELECT_ACCRUED_SQL = "SELECT loan_id, outstanding_amount, accrued_interest FROM loans "
+            + "WHERE loan_id >= ? AND loan_id <= ? AND last_accrual_date = ?";
+    private static final String SELECT_CHECKPOINTS_SQL = "SELECT range_start FROM loan_accrual_checkpoints "
+            + "WHERE accrual_date = ?";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO loan_accrual_checkpoints "
+            + "(accrual_date, range_start, range_end, accrued_rows, elapsed_ms, completed_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache entityCache;
+    private final AuditorAware<String> auditorAware;
+    private final AuditTrailListener auditTrailListener;
+    private final InterestAccrualProperties properties;
+    private final InterestAccrualProgress progress;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public InterestAccrualJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory, AuditorAware<String> auditorAware,
+            AuditTrailListener auditTrailListener, InterestAccrualProperties properties,
+            InterestAccrualProgress progress) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCache = entityManagerFactory.getCache();
+        this.auditorAware = auditorAware;
+        this.auditTrailListener = auditTrailListener;
+        this.properties = properties;
+        this.progress = progress;
+    }
+
+    /**
+     * Starts the run in the background, so the scheduler thread shared with the repayment fold is never held by it.
+     */
+    @Scheduled(cron = "${loans.interest-accrual.cron:0 0 1 * * *}")
+    public void accrueDaily() {
+        if (properties.isEnabled() && !start(LocalDate.now())) {
+            logger.warn("Interest accrual skipped, a previous run is still in progress");
+        }
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return false when a run is already in progress
+     */
+    public boolean start(LocalDate accrualDate) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("interest-accrual").start(() -> {
+            try {
+                execute(accrualDate);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Runs the accrual in the calling thread.
+     *
+     * @return false when a run is already in progress
+     */
+    public boolean run(LocalDate accrualDate) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            execute(accrualDate);
+        } finally {
+            running.set(false);
+        }
+        return true;
+    }
+
+    private void execute(LocalDate accrualDate) {
+        long[] bounds = jdbcTemplate.queryForObject(SELECT_BOUNDS_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        Set<Long> checkpoints = new HashSet<>(
+                jdbcTemplate.queryForList(SELECT_CHECKPOINTS_SQL, Long.class, Date.valueOf(accrualDate)));
+        List<long[]> ranges = new ArrayList<>();
+        int skipped = 0;
+        int partitionSize = properties.getPartitionSize();
+        // ranges are aligned to the partition size so their checkpoints survive inserts and deletes between attempts
+        for (long start = (bounds[0] - 1) / partitionSize * partitionSize; start < bounds[1]; start += partitionSize) {
+            if (checkpoints.contains(start)) {
+                skipped++;
+            } else {
+                ranges.add(new long[]{start, start + partitionSize});
+            }
+        }
+        progress.started(accrualDate, ranges.size() + skipped, skipped);
+        logger.info("Interest accrual for {} started: {} ranges, {} already checkpointed", accrualDate,
+                ranges.size(), skipped);
+
+        Semaphore permits = new Semaphore(properties.getConcurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> partitions = new ArrayList<>(ranges.size());
+            for (long[] range : ranges) {
+                partitions.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        accrueRange(accrualDate, range[0], range[1]);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> partition : partitions) {
+                try {
+                    partition.get();
+                } catch (ExecutionException ex) {
+                    progress.partitionFailed();
+                    logger.error("Interest accrual range failed, it will be retried by the next run", ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    break;
+                }
+            }
+        } finally {
+            progress.finished();
+        }
+        InterestAccrualStatus status = progress.status();
+        logger.info("Interest accrual for {} finished: {} loans in {} ranges, {} rows/s, {} failed ranges",
+                accrualDate, status.accruedRows(), status.completedPartitions(), status.rowsPerSecond(),
+                status.failedPartitions());
+    }
+
+    /**
+     * @param rangeStart - Exclusive lower loan id
+     * @param rangeEnd - Inclusive upper loan id
+     */
+    private void accrueRange(LocalDate accrualDate, long rangeStart, long rangeEnd) {
+        long startNanos = System.nanoTime();
+        Date accrualDay = Date.valueOf(accrualDate);
+        int batchSize = properties.getBatchSize();
+        int rows = 0;
+        long afterLoanId = rangeStart;
+        List<AccrualRow> page;
+        do {
+            page = jdbcTemplate.query(SELECT_PAGE_SQL,
+                    (rs, rowNum) -> new AccrualRow(rs.getLong(1), rs.getInt(2)),
+                    afterLoanId, rangeEnd, accrualDay, batchSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            accrue(page, accrualDay);
+            rows += page.size();
+            progress.rowsAccrued(page.size());
+            afterLoanId = page.getLast().loanId();
+        } while (page.size() == batchSize);
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        jdbcTemplate.update(INSERT_CHECKPOINT_SQL, accrualDay, rangeStart, rangeEnd, rows, elapsedMillis,
+                Timestamp.valueOf(LocalDateTime.now()));
+        progress.partitionCompleted(
+                new InterestAccrualStatus.PartitionTiming(rangeStart, rangeEnd, rows, elapsedMillis));
+    }
+
+    private void accrue(List<AccrualRow> page, Date accrualDay) {
+        LocalDateTime updatedAt = LocalDateTime.now();
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        transactionTemplate.executeWithoutResult(status -> {
+            int[][] accruedRows = jdbcTemplate.batchUpdate(ACCRUE_SQL, page, page.size(), (ps, row) -> {
+                int interest = dailyInterest(row.outstandingAmount());
+                ps.setInt(1, interest);
+                ps.setInt(2, interest);
+                ps.setDate(3, accrualDay);
+                ps.setTimestamp(4, Timestamp.valueOf(updatedAt));
+                ps.setString(5, updatedBy);
+                ps.setLong(6, row.loanId());
+                ps.setDate(7, accrualDay);
+            });
+            audit(page, accruedRows[0], accrualDay, updatedAt, updatedBy);
+        });
+        // JDBC writes bypass Hibernate, so the second-level cache entries are dropped by hand
+        page.forEach(row -> entityCache.evict(Loan.class, row.loanId()));
+    }
+
+    /**
+     * Captures the accrued loans of a page as the statements left them, read back as the statements only know the
+     * interest they added
+     */
+    private void audit(List<AccrualRow> page, int[] accruedRows, Date accrualDay, LocalDateTime updatedAt,
+            String updatedBy) {
+        if (!auditTrailListener.isEnabled()) {
+            return;
+        }
+        Set<Long> accrued = new HashSet<>();
+        for (int i = 0; i < accruedRows.length; i++) {
+            // drivers that do not report counts per statement return SUCCESS_NO_INFO, never 0
+            if (accruedRows[i] != 0) {
+                accrued.add(page.get(i).loanId());
+            }
+        }
+        jdbcTemplate.query(SELECT_ACCRUED_SQL, (rs, rowNum) -> {
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("outstandingAmount", rs.getInt(2));
+            state.put("accruedInterest", rs.getInt(3));
+            state.put("lastAccrualDate", accrualDay.toLocalDate());
+            state.put("updatedAt", updatedAt);
+            state.put("updatedBy", updatedBy);
+            return Map.entry(rs.getLong(1), state);
+        }, page.getFirst().loanId(), page.getLast().loanId(), accrualDay).stream()
+                .filter(loan -> accrued.contains(loan.getKey()))
+                .forEach(loan -> auditTrailListener.captureWritten(Loan.class.getSimpleName(), loan.getKey(),
+                        AuditRecord.Action.UPDATE, loan.getValue()));
+    }
+
+    int dailyInterest(int outstandingAmount) {
+        return (int) Math.round(outstandingAmount * (double) properties.getAnnualRateBasisPoints() / (10_000 * 365));
+    }
+
+    private record AccrualRow(long loanId, int outstandingAmount) {
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.dfragar.loans.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Progress of the interest accrual runs, published as Micrometer meters and read by the actuator endpoint.
+ */
+@Component
+public class InterestAccrualProgress {
+
+    private static final int RECENT_PARTITIONS = 20;
+
+    private final Counter rowsCounter;
+    private final Timer partitionTimer;
+    private final LongAdder accruedRows = new LongAdder();
+    private final AtomicInteger completedPartitions = new AtomicInteger();
+    private final AtomicInteger failedPartitions = new AtomicInteger();
+    private final Deque<InterestAccrualStatus.PartitionTiming> recentPartitions = new ArrayDeque<>();
+    private volatile boolean running;
+    private volatile LocalDate accrualDate;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile int totalPartitions;
+    private volatile int skippedPartitions;
+
+    public InterestAccrualProgress(MeterRegistry meterRegistry) {
+        this.rowsCounter = Counter.builder("loans.accrual.rows").register(meterRegistry);
+        this.partitionTimer = Timer.builder("loans.accrual.partition").register(meterRegistry);
+        Gauge.builder("loans.accrual.progress", this, InterestAccrualProgress::ratio).register(meterRegistry);
+    }
+
+    void started(LocalDate date, int total, int skipped) {
+        accruedRows.reset();
+        completedPartitions.set(0);
+        failedPartitions.set(0);
+        synchronized (recentPartitions) {
+            recentPartitions.clear();
+        }
+        accrualDate = date;
+        totalPartitions = total;
+        skippedPartitions = skipped;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        running = true;
+    }
+
+    void rowsAccrued(int rows) {
+        accruedRows.add(rows);
+        rowsCounter.increment(rows);
+    }
+
+    void partitionCompleted(InterestAccrualStatus.PartitionTiming timing) {
+        completedPartitions.incrementAndGet();
+        partitionTimer.record(Duration.ofMillis(timing.elapsedMillis()));
+        synchronized (recentPartitions) {
+            if (recentPartitions.size() == RECENT_PARTITIONS) {
+                recentPartitions.removeFirst();
+            }
+            recentPartitions.addLast(timing);
+        }
+    }
+
+    void partitionFailed() {
+        failedPartitions.incrementAndGet();
+    }
+
+    void finished() {
+        finishedAt = LocalDateTime.now();
+        running = false;
+    }
+
+    public InterestAccrualStatus status() {
+        long rows = accruedRows.sum();
+        LocalDateTime start = startedAt;
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long elapsedMillis = start == null ? 0 : Duration.between(start, end).toMillis();
+        List<InterestAccrualStatus.PartitionTiming> recent;
+        synchronized (recentPartitions) {
+            recent = List.copyOf(recentPartitions);
+        }
+        return new InterestAccrualStatus(running, accrualDate, startedAt, finishedAt, totalPartitions,
+                skippedPartitions, completedPartitions.get(), failedPartitions.get(), rows,
+                elapsedMillis == 0 ? 0 : rows * 1000 / elapsedMillis, recent);
+    }
+
+    private double ratio() {
+        int total = totalPartitions;
+        return total == 0 ? 0 : (double) (skippedPartitions + completedPartitions.get()) / total;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.dfragar.loans.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "loans.interest-accrual")
+@Getter
+@Setter
+public class InterestAccrualProperties {
+
+    private boolean enabled = true;
+    private int annualRateBasisPoints = 500;
+    private int partitionSize = 10_000;
+    private int batchSize = 1_000;
+    private int concurrency = 8;
+
+}
@@ -0,0 +1,44 @@
+package com.dfragar.loans.batch;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @param running - Whether a run is in progress
+ * @param accrualDate - Date accrued by the current or last run
+ * @param startedAt - Start of the current or last run
+ * @param finishedAt - End of the last run, null while running
+ * @param totalPartitions - Keyset ranges of the run
+ * @param skippedPartitions - Ranges already checkpointed by a previous attempt for the same date
+ * @param completedPartitions - Ranges completed by this run
+ * @param failedPartitions - Ranges that failed and will be retried by the next run
+ * @param accruedRows - Loans accrued by this run
+ * @param rowsPerSecond - Accrued loans per second since the start of the run
+ * @param recentPartitions - Timing of the last completed ranges
+ */
+public record InterestAccrualStatus(
+        boolean running,
+        LocalDate accrualDate,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        int totalPartitions,
+        int skippedPartitions,
+        int completedPartitions,
+        int failedPartitions,
+        long accruedRows,
+        long rowsPerSecond,
+        List<PartitionTiming> recentPartitions
+) {
+
+    /**
+     * @param rangeStart - Exclusive lower loan id of the range
+     * @param rangeEnd - Inclusive upper loan id of the range
+     * @param accruedRows - Loans accrued in the range
+     * @param elapsedMillis - Time spent on the range
+     */
+    public record PartitionTiming(long rangeStart, long rangeEnd, int accruedRows, long elapsedMillis) {
+
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.dfragar.loans.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "loans.import")
+@Getter
+@Setter
+public class BulkImportProperties {
+
+    private int chunkSize = 1_000;
+    private int concurrency = 4;
+    private int maxReportedFailures = 1_000;
+
+}
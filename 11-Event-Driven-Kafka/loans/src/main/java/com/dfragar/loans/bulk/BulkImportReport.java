@@ -0,0 +1,51 @@
+package com.dfragar.loans.bulk;
+
+import com.dfragar.loans.dto.BulkImportFailureDto;
+import com.dfragar.loans.dto.BulkImportReportDto;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome of an import, updated concurrently by the chunk workers. Only the first failures are kept in detail.
+ */
+public class BulkImportReport {
+
+    private final int maxReportedFailures;
+    private final AtomicLong totalRows = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final AtomicInteger reportedFailures = new AtomicInteger();
+    private final Queue<BulkImportFailureDto> failures = new ConcurrentLinkedQueue<>();
+
+    public BulkImportReport(int maxReportedFailures) {
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public void read(int rows) {
+        totalRows.addAndGet(rows);
+    }
+
+    public void imported(int rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    public void failed(ImportRow row, String key, String message) {
+        failedRows.incrementAndGet();
+        if (reportedFailures.incrementAndGet() <= maxReportedFailures) {
+            failures.add(new BulkImportFailureDto(row.line(), key, message));
+        }
+    }
+
+    public BulkImportReportDto toDto() {
+        List<BulkImportFailureDto> sortedFailures = failures.stream()
+                .sorted(Comparator.comparingLong(BulkImportFailureDto::getLine))
+                .toList();
+        return new BulkImportReportDto(totalRows.get(), importedRows.get(), failedRows.get(),
+                failedRows.get() > sortedFailures.size(), sortedFailures);
+    }
+
+}
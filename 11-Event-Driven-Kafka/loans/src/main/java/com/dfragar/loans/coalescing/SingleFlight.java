@@ -0,0 +1,122 @@
+package com.dfragar.loans.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the load on its own thread and every caller
+ * arriving while it runs waits for and shares its result, or its exception, instead of hitting the database again.
+ * <p>
+ * A caller waits at most {@code single-flight.timeout} and then runs the load itself, so a stuck load delays the
+ * others by a bounded time. The shared result is the same instance for every caller and must not be modified.
+ * A caller joining a load sees the data as of when that load started, so writes {@link #forget(Object) forget}
+ * their key to keep the next reads from joining a load that began before them.
+ * <p>
+ * Published as {@code single.flight.calls}, tagged with the name and the role of the caller: {@code leader} for
+ * the loads run, {@code follower} for the callers that shared one, {@code timeout} for the callers that gave up
+ * waiting. The share of followers is the coalescing ratio.
+ *
+ * @param <K> key of the load
+ * @param <V> result of the load
+ */
+public class SingleFlight<K, V> {
+
+    private final SingleFlightProperties properties;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+
+    /**
+     * @param name - name of the load in the metrics, e.g. fetchLoan
+     */
+    public SingleFlight(String name, SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.leaders = counter(meterRegistry, name, "leader");
+        this.followers = counter(meterRegistry, name, "follower");
+        this.timeouts = counter(meterRegistry, name, "timeout");
+        Gauge.builder("single.flight.in.flight", inFlight, Map::size).tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * @param key    - key of the load, equal keys load the same data
+     * @param loader - the load, run at most once for the concurrent callers with the same key
+     * @return the result of the load, shared with the concurrent callers
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running == null) {
+            return lead(key, flight, loader);
+        }
+        followers.increment();
+        try {
+            return running.get(properties.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the load of " + key, e);
+        }
+    }
+
+    /**
+     * Keeps the callers arriving from now on from joining the load of the key in flight, if any
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Same as {@link #forget(Object)} for every key, for writes that do not know the key
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        leaders.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String role) {
+        return Counter.builder("single.flight.calls")
+                .tag("name", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+}
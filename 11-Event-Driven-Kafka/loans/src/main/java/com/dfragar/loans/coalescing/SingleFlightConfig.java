@@ -0,0 +1,21 @@
+package com.dfragar.loans.coalescing;
+
+import com.dfragar.loans.dto.LoanDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Single-flight layer of the loan lookups by mobile number, so a hot loan is read once however many requests ask
+ * for it at the same time.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<String, LoanDto> fetchLoanFlight(SingleFlightProperties properties,
+            MeterRegistry meterRegistry) {
+        return new SingleFlight<>("fetchLoan", properties, meterRegistry);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.dfragar.loans.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "loans.cache")
+@Getter
+@Setter
+public class EntityCacheProperties {
+
+    private boolean enabled = false;
+    private long maxEntries = 10_000;
+    private Duration timeToLive = Duration.ofMinutes(10);
+    private long queryMaxEntries = 1_000;
+
+}
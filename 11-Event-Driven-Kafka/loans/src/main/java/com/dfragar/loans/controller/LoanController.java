@@ -1,10 +1,13 @@
 package com.dfragar.loans.controller;
 
+import com.dfragar.loans.bulk.BulkImportReader;
 import com.dfragar.loans.constants.LoanConstants;
+import com.dfragar.loans.dto.BulkImportReportDto;
 import com.dfragar.loans.dto.ErrorResponseDto;
 import com.dfragar.loans.dto.LoanContactInfoDto;
 import com.dfragar.loans.dto.LoanDto;
 import com.dfragar.loans.dto.ResponseDto;
+import com.dfragar.loans.service.IBulkImportService;
 import com.dfragar.loans.service.ILoanService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,11 +17,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.io.InputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -46,8 +52,11 @@ public class LoanController {
 
     private ILoanService iLoanService;
 
-    public LoanController(ILoanService iLoanService) {
+    private IBulkImportService iBulkImportService;
+
+    public LoanController(ILoanService iLoanService, IBulkImportService iBulkImportService) {
         this.iLoanService = iLoanService;
+        this.iBulkImportService = iBulkImportService;
     }
 
     @Value("${build.version}")
@@ -153,6 +162,76 @@ public class LoanController {
         }
     }
 
+    @Operation(
+            summary = "Repay Loan REST API",
+            description = "REST API to record a repayment against a loan, folded into the loan totals asynchronously"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "417",
+                    description = "Expectation Failed"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/repay")
+    public ResponseEntity<ResponseDto> repayLoan(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "LoanNumber must be 12 digits")
+            String loanNumber,
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        boolean isRepaid = iLoanService.repayLoan(loanNumber, amount);
+        if (isRepaid) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new ResponseDto(LoanConstants.STATUS_200, LoanConstants.MESSAGE_200));
+        } else {
+            return ResponseEntity
+                    .status(HttpStatus.EXPECTATION_FAILED)
+                    .body(new ResponseDto(LoanConstants.STATUS_417, LoanConstants.MESSAGE_417_REPAY));
+        }
+    }
+
+    @Operation(
+            summary = "Bulk Import REST API",
+            description = "REST API to import home loans for a list of mobile numbers from a CSV or NDJSON body streamed row by row"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping(path = "/import", consumes = {BulkImportReader.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportReportDto> importRows(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        BulkImportReportDto bulkImportReportDto = iBulkImportService.importRows(body,
+                MediaType.parseMediaType(contentType));
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(bulkImportReportDto);
+    }
+
     @Operation(
             summary = "Delete Loan Details REST API",
             description = "REST API to delete Loan details based on a mobile number"
@@ -1,18 +1,24 @@
 package com.dfragar.loans.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import java.time.LocalDate;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "loans")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @ToString
@@ -36,4 +42,11 @@ public class Loan extends BaseEntity {
 
     private int outstandingAmount;
 
+    private int accruedInterest;
+
+    /**
+     * Last day accrued by the interest accrual batch, which skips the loan until the next day.
+     */
+    private LocalDate lastAccrualDate;
+
 }
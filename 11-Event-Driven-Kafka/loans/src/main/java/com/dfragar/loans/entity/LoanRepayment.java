@@ -0,0 +1,46 @@
+package com.dfragar.loans.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Repayment event. Rows are inserted pending and the loan totals are folded from them asynchronously; only the fold
+ * state changes afterwards.
+ */
+@Entity
+@Table(name = "loan_repayments")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanRepayment extends BaseEntity {
+
+    public static final int PENDING = 0;
+    public static final int FOLDING = 1;
+    public static final int FOLDED = 2;
+    public static final int REJECTED = 3;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long repaymentId;
+
+    private String loanNumber;
+
+    private int amount;
+
+    /**
+     * PENDING until the amount is in the loan totals. FOLDING is only ever seen inside the fold transaction.
+     * REJECTED when the fold found the loan already repaid by the repayments before it.
+     */
+    private int foldState;
+
+}
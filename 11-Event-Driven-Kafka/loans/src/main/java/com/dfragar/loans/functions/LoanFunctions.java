@@ -0,0 +1,23 @@
+package com.dfragar.loans.functions;
+
+import com.dfragar.loans.refresh.ConfigChange;
+import com.dfragar.loans.refresh.ConfigSnapshotReconciler;
+import com.dfragar.loans.refresh.TargetedConfigRefresher;
+import java.util.function.Consumer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoanFunctions {
+
+    /**
+     * Bound without a consumer group, so every instance receives every change. Encrypted properties arrive by name
+     * and are read back from the config server before the change is applied.
+     */
+    @Bean
+    public Consumer<ConfigChange> configChanges(TargetedConfigRefresher targetedConfigRefresher,
+            ConfigSnapshotReconciler configSnapshotReconciler) {
+        return change -> targetedConfigRefresher.apply(configSnapshotReconciler.resolveEncrypted(change));
+    }
+
+}
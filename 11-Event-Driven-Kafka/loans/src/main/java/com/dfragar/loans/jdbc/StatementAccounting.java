@@ -0,0 +1,102 @@
+package com.dfragar.loans.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the statements, rows and JDBC time of each HTTP request and Kafka message, publishes them as
+ * jdbc.request.* meters tagged by kind and endpoint, and reports the ones over their statement budget or
+ * repeating a statement like an N+1 query does.
+ * <p>
+ * {@link #measure(Runnable)} counts the same figures for a block of code without publishing them, so tests can
+ * assert how many statements a service call issues.
+ */
+@Component
+public class StatementAccounting {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementAccounting.class);
+
+    public static final String KIND_HTTP = "http";
+    public static final String KIND_MESSAGE = "message";
+
+    private final StatementRecorder recorder;
+    private final StatementAccountingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public StatementAccounting(StatementRecorder recorder, StatementAccountingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.recorder = recorder;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs a unit of work, such as the handling of one message, and publishes its statement figures
+     *
+     * @param kind     - KIND_HTTP or KIND_MESSAGE
+     * @param endpoint - endpoint the work is reported under
+     * @param work     - work to account
+     */
+    public void record(String kind, String endpoint, Runnable work) {
+        StatementScope scope = begin();
+        try {
+            work.run();
+        } finally {
+            end(scope, kind, endpoint);
+        }
+    }
+
+    /**
+     * Runs a block of code and returns its statement figures without publishing them
+     *
+     * @param action - code to measure
+     * @return statements issued by the action on the calling thread
+     */
+    public StatementStats measure(Runnable action) {
+        StatementScope scope = begin();
+        try {
+            action.run();
+        } finally {
+            recorder.close(scope);
+        }
+        return scope.stats();
+    }
+
+    StatementScope begin() {
+        return recorder.open(properties.getRepeatedStatementThreshold());
+    }
+
+    StatementStats end(StatementScope scope, String kind, String endpoint) {
+        StatementStats stats = recorder.close(scope);
+        Tags tags = Tags.of("kind", kind, "endpoint", endpoint);
+        DistributionSummary.builder("jdbc.request.statements").baseUnit("statements").tags(tags)
+                .register(meterRegistry).record(stats.statements());
+        DistributionSummary.builder("jdbc.request.rows").baseUnit("rows").tags(tags)
+                .register(meterRegistry).record(stats.rows());
+        Timer.builder("jdbc.request.time").tags(tags).register(meterRegistry).record(stats.jdbcTime());
+
+        int budget = properties.getBudgets().getOrDefault(budgetKey(kind, endpoint), properties.getStatementBudget());
+        if (stats.statements() > budget) {
+            Counter.builder("jdbc.request.budget.exceeded").tags(tags).register(meterRegistry).increment();
+            logger.warn("{} {} issued {} statements, over its budget of {}", kind, endpoint, stats.statements(),
+                    budget);
+        }
+        if (!stats.repeatedStatements().isEmpty()) {
+            Counter.builder("jdbc.request.repeated").tags(tags).register(meterRegistry).increment();
+            logger.warn("{} {} repeated statements at least {} times, likely N+1: {}", kind, endpoint,
+                    properties.getRepeatedStatementThreshold(), stats.repeatedStatements());
+        }
+        return stats;
+    }
+
+    private static String budgetKey(String kind, String endpoint) {
+        return KIND_MESSAGE.equals(kind) ? KIND_MESSAGE + " " + endpoint : endpoint;
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.dfragar.loans.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Accounts the statements of each HTTP request under its method and matched path pattern, e.g. "GET /api/fetch".
+ */
+@Component
+public class StatementAccountingFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED = "UNMAPPED";
+
+    private final StatementAccounting statementAccounting;
+
+    public StatementAccountingFilter(StatementAccounting statementAccounting) {
+        this.statementAccounting = statementAccounting;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementScope scope = statementAccounting.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            statementAccounting.end(scope, StatementAccounting.KIND_HTTP,
+                    request.getMethod() + " " + (pattern != null ? pattern : UNMAPPED));
+        }
+    }
+
+}
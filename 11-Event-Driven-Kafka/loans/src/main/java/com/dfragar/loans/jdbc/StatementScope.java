@@ -0,0 +1,66 @@
+package com.dfragar.loans.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable counters for the statements executed on one thread between {@link StatementRecorder#open} and
+ * {@link StatementRecorder#close}.
+ */
+final class StatementScope {
+
+    private final StatementScope parent;
+    private final int repeatedThreshold;
+    private final Map<String, Integer> executions = new HashMap<>();
+    private final List<String> repeated = new ArrayList<>();
+    private int statements;
+    private long rows;
+    private long nanos;
+    private long statementStart;
+
+    StatementScope(StatementScope parent, int repeatedThreshold) {
+        this.parent = parent;
+        this.repeatedThreshold = repeatedThreshold;
+    }
+
+    StatementScope parent() {
+        return parent;
+    }
+
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void statementFinished(String sql, long rowsChanged) {
+        long elapsed = System.nanoTime() - statementStart;
+        record(sql, 1, rowsChanged, elapsed);
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    void mergeInto(StatementScope target) {
+        target.rows += rows;
+        target.nanos += nanos;
+        executions.forEach((sql, count) -> target.record(sql, count, 0, 0));
+    }
+
+    StatementStats stats() {
+        return new StatementStats(statements, rows, Duration.ofNanos(nanos), List.copyOf(repeated));
+    }
+
+    private void record(String sql, int count, long rowsChanged, long elapsed) {
+        statements += count;
+        rows += rowsChanged;
+        nanos += elapsed;
+        int executed = executions.merge(sql, count, Integer::sum);
+        if (executed >= repeatedThreshold && executed - count < repeatedThreshold) {
+            repeated.add(sql);
+        }
+    }
+
+}
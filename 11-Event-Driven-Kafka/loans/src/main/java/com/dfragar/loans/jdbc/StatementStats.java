@@ -0,0 +1,21 @@
+package com.dfragar.loans.jdbc;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * JDBC work done within one request, message or measured block.
+ *
+ * @param statements         statement executions, a batch counting once
+ * @param rows               rows read plus rows changed
+ * @param jdbcTime           time spent executing statements
+ * @param repeatedStatements statements executed at least the repeated statement threshold times
+ */
+public record StatementStats(
+        int statements,
+        long rows,
+        Duration jdbcTime,
+        List<String> repeatedStatements
+) {
+
+}
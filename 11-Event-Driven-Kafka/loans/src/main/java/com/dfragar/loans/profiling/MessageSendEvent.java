@@ -0,0 +1,53 @@
+package com.dfragar.loans.profiling;
+
+import java.util.function.BooleanSupplier;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(MessageSendEvent.NAME)
+@Label("Message Send")
+@Description("StreamBridge send to an output binding")
+@Category({"Bank", "Loans"})
+@StackTrace(false)
+public class MessageSendEvent extends Event {
+
+    public static final String NAME = "com.dfragar.loans.MessageSend";
+
+    @Label("Binding")
+    String binding;
+
+    @Label("Sent")
+    boolean sent;
+
+    /**
+     * Runs a send and records it
+     *
+     * @param binding - output binding sent to
+     * @param send    - the StreamBridge send
+     * @return whether the message was sent
+     */
+    public static boolean record(String binding, BooleanSupplier send) {
+        MessageSendEvent event = new MessageSendEvent();
+        if (!event.isEnabled()) {
+            return send.getAsBoolean();
+        }
+        event.begin();
+        boolean sent = false;
+        try {
+            sent = send.getAsBoolean();
+            return sent;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.binding = binding;
+                event.sent = sent;
+                event.commit();
+            }
+        }
+    }
+
+}
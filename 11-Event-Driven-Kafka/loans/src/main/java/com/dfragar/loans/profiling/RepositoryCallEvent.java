@@ -0,0 +1,28 @@
+package com.dfragar.loans.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Description("Call of a Spring Data repository method")
+@Category({"Bank", "Loans"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    public static final String NAME = "com.dfragar.loans.RepositoryCall";
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Failed")
+    boolean failed;
+
+}
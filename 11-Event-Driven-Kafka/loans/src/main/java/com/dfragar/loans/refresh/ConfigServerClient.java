@@ -0,0 +1,56 @@
+package com.dfragar.loans.refresh;
+
+import java.time.Duration;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Asks a config server for the environment of the application.
+ * <p>
+ * Shared by the config data loader and {@link ConfigSnapshotReconciler}, so the ETag recorded while the configuration
+ * is loaded belongs to the very request the reconciler later sends conditionally: the config server caches and tags
+ * its answers per {@code Accept} header.
+ */
+final class ConfigServerClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(10);
+
+    private final RestClient restClient;
+
+    ConfigServerClient(RestClient.Builder restClientBuilder) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    /**
+     * @param ifNoneMatch - ETag sent in {@code If-None-Match}, none when null
+     * @return the answer of the config server, 304 without a body when the ETag still matches
+     */
+    ResponseEntity<Environment> environment(ConfigSnapshotState state, String uri, String ifNoneMatch) {
+        return restClient.get()
+                .uri(environmentUri(state, uri))
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(Environment.class);
+    }
+
+    private static String environmentUri(ConfigSnapshotState state, String uri) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(uri)
+                .pathSegment(state.getApplication(), state.getProfile());
+        if (state.getLabel() != null) {
+            builder.pathSegment(Environment.denormalize(state.getLabel()));
+        }
+        return builder.toUriString();
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.dfragar.loans.refresh;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.logging.Log;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.BootstrapRegistry.InstanceSupplier;
+import org.springframework.boot.ConfigurableBootstrapContext;
+import org.springframework.boot.context.config.ConfigData;
+import org.springframework.boot.context.config.ConfigDataLoader;
+import org.springframework.boot.context.config.ConfigDataLoaderContext;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.cloud.config.client.ConfigClientProperties;
+import org.springframework.cloud.config.client.ConfigServerConfigDataLoader;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Loads the configuration of a {@code configsnapshot:} import.
+ * <p>
+ * The first load of the process, at startup, is served from the local snapshot when there is one, so the
+ * application starts without waiting for the config server; {@link ConfigSnapshotReconciler} catches up with the
+ * config server once it is running. Without a snapshot, and on every later load such as a refresh, the config
+ * server is asked and the snapshot is rewritten with its answer. When it does not answer, the snapshot is used
+ * instead of dropping the remote configuration.
+ * <p>
+ * The snapshot written from the config server's answer records the ETag the config server tags that configuration
+ * with, so the reconciliation after the next start from it is a conditional request answered by an empty 304 while
+ * nothing changed.
+ */
+public class ConfigSnapshotConfigDataLoader implements ConfigDataLoader<ConfigSnapshotConfigDataResource> {
+
+    static final String STATE_BEAN_NAME = "configSnapshotState";
+
+    private static final String CONFIG_SERVER_PREFIX = "configserver:";
+    private static final String CONFIG_CLIENT_SOURCE_NAME = "configClient";
+    private static final String VERSION_PROPERTY = "config.client.version";
+
+    private static final ConcurrentMap<Path, ConfigSnapshotState> STATES = new ConcurrentHashMap<>();
+
+    private final Log log;
+    private final ConfigServerConfigDataLoader delegate;
+    private final ConfigServerClient configServerClient;
+
+    public ConfigSnapshotConfigDataLoader(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(getClass());
+        this.delegate = new ConfigServerConfigDataLoader(logFactory);
+        this.configServerClient = new ConfigServerClient(RestClient.builder());
+    }
+
+    @Override
+    public ConfigData load(ConfigDataLoaderContext context, ConfigSnapshotConfigDataResource resource)
+            throws IOException {
+        ConfigClientProperties client = resource.getDelegate().getProperties();
+        Path file = resource.getSnapshotFile();
+        boolean startup = !STATES.containsKey(file);
+        ConfigSnapshotState state = STATES.computeIfAbsent(file, key -> new ConfigSnapshotState(client.getName(),
+                client.getProfile(), client.getLabel(), client.getUri(), resource.isSnapshotEnabled(), file,
+                resource.getSnapshotKey(), resource.getRetryInterval()));
+        register(context.getBootstrapContext(), state);
+
+        Optional<ConfigSnapshot> snapshot = resource.isSnapshotEnabled()
+                ? ConfigSnapshotStore.read(file, resource.getSnapshotKey())
+                : Optional.empty();
+        if (startup && snapshot.isPresent()) {
+            log.info("Starting with the configuration snapshot of " + snapshot.get().savedAt() + " in " + file);
+            state.update(ConfigSource.SNAPSHOT, snapshot.get());
+            return configData(snapshot.get());
+        }
+
+        ConfigData data = delegate.load(context, resource.getDelegate());
+        List<ConfigSnapshot.Source> sources = remoteSources(data);
+        if (!sources.isEmpty()) {
+            ConfigSnapshot received = new ConfigSnapshot(client.getName(), client.getProfile(), client.getLabel(),
+                    version(data), resource.isSnapshotEnabled() ? etag(state) : null, Instant.now(), sources);
+            state.update(ConfigSource.CONFIG_SERVER, received);
+            if (resource.isSnapshotEnabled()) {
+                try {
+                    ConfigSnapshotStore.write(file, received, resource.getSnapshotKey());
+                } catch (IOException e) {
+                    log.warn("Could not write the configuration snapshot " + file, e);
+                }
+            }
+            return data;
+        }
+        if (snapshot.isPresent()) {
+            log.warn("Config server unavailable, using the configuration snapshot of " + snapshot.get().savedAt());
+            state.update(ConfigSource.SNAPSHOT, snapshot.get());
+            return configData(snapshot.get());
+        }
+        if (state.getSnapshot() == null) {
+            state.update(ConfigSource.LOCAL, null);
+        }
+        return data;
+    }
+
+    /**
+     * Asks for the ETag of the configuration just loaded, the way the reconciler asks for it. A config server that has
+     * it cached answers {@code If-None-Match: *} with an empty 304, any other with the configuration.
+     *
+     * @return the ETag, null when no config server tags its answer
+     */
+    private String etag(ConfigSnapshotState state) {
+        for (String uri : state.getUris()) {
+            try {
+                return configServerClient.environment(state, uri, "*").getHeaders().getETag();
+            } catch (RestClientException e) {
+                log.debug("Config server " + uri + " did not tag the configuration: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static void register(ConfigurableBootstrapContext bootstrapContext, ConfigSnapshotState state) {
+        if (bootstrapContext.isRegistered(ConfigSnapshotState.class)) {
+            return;
+        }
+        bootstrapContext.register(ConfigSnapshotState.class, InstanceSupplier.of(state));
+        bootstrapContext.addCloseListener(event -> {
+            ConfigurableListableBeanFactory beanFactory = event.getApplicationContext().getBeanFactory();
+            if (!beanFactory.containsSingleton(STATE_BEAN_NAME)) {
+                beanFactory.registerSingleton(STATE_BEAN_NAME,
+                        event.getBootstrapContext().get(ConfigSnapshotState.class));
+            }
+        });
+    }
+
+    private static ConfigData configData(ConfigSnapshot snapshot) {
+        List<PropertySource<?>> propertySources = new ArrayList<>();
+        snapshot.propertySources().forEach(source ->
+                propertySources.add(new MapPropertySource(source.name(), source.properties())));
+        if (snapshot.version() != null) {
+            propertySources.add(new MapPropertySource(CONFIG_CLIENT_SOURCE_NAME,
+                    Map.of(VERSION_PROPERTY, snapshot.version())));
+        }
+        return new ConfigData(propertySources, ConfigData.Option.IGNORE_IMPORTS, ConfigData.Option.IGNORE_PROFILES,
+                ConfigData.Option.PROFILE_SPECIFIC);
+    }
+
+    private static List<ConfigSnapshot.Source> remoteSources(ConfigData data) {
+        if (data == null) {
+            return List.of();
+        }
+        List<ConfigSnapshot.Source> sources = new ArrayList<>();
+        for (PropertySource<?> propertySource : data.getPropertySources()) {
+            if (propertySource.getName().startsWith(CONFIG_SERVER_PREFIX)
+                    && propertySource instanceof EnumerablePropertySource<?> enumerable) {
+                Map<String, Object> properties = new LinkedHashMap<>();
+                for (String name : enumerable.getPropertyNames()) {
+                    properties.put(name, enumerable.getProperty(name));
+                }
+                sources.add(new ConfigSnapshot.Source(propertySource.getName(), properties));
+            }
+        }
+        return sources;
+    }
+
+    private static String version(ConfigData data) {
+        for (PropertySource<?> propertySource : data.getPropertySources()) {
+            Object version = propertySource.getProperty(VERSION_PROPERTY);
+            if (version != null) {
+                return version.toString();
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.dfragar.loans.refresh;
+
+import java.util.List;
+import org.apache.commons.logging.Log;
+import org.springframework.boot.context.config.ConfigDataLocation;
+import org.springframework.boot.context.config.ConfigDataLocationResolver;
+import org.springframework.boot.context.config.ConfigDataLocationResolverContext;
+import org.springframework.boot.context.config.Profiles;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.cloud.config.client.ConfigClientProperties;
+import org.springframework.cloud.config.client.ConfigServerConfigDataLocationResolver;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves {@code configsnapshot:configserver:<uri>} imports: the wrapped config server location, backed by a
+ * local snapshot of the last configuration received from it.
+ */
+public class ConfigSnapshotConfigDataLocationResolver
+        implements ConfigDataLocationResolver<ConfigSnapshotConfigDataResource> {
+
+    public static final String PREFIX = "configsnapshot:";
+
+    private final Log log;
+    private final ConfigServerConfigDataLocationResolver delegate;
+
+    public ConfigSnapshotConfigDataLocationResolver(DeferredLogFactory logFactory) {
+        this.log = logFactory.getLog(getClass());
+        this.delegate = new ConfigServerConfigDataLocationResolver(logFactory);
+    }
+
+    @Override
+    public boolean isResolvable(ConfigDataLocationResolverContext context, ConfigDataLocation location) {
+        return location.hasPrefix(PREFIX);
+    }
+
+    @Override
+    public List<ConfigSnapshotConfigDataResource> resolve(ConfigDataLocationResolverContext context,
+            ConfigDataLocation location) {
+        return List.of();
+    }
+
+    @Override
+    public List<ConfigSnapshotConfigDataResource> resolveProfileSpecific(ConfigDataLocationResolverContext context,
+            ConfigDataLocation location, Profiles profiles) {
+        ConfigDataLocation configServer = ConfigDataLocation.of(location.getNonPrefixedValue(PREFIX));
+        if (location.isOptional()) {
+            configServer = ConfigDataLocation.of(ConfigDataLocation.OPTIONAL_PREFIX + configServer);
+        }
+        ConfigSnapshotProperties snapshot = context.getBinder()
+                .bind("loans.config-snapshot", ConfigSnapshotProperties.class)
+                .orElseGet(ConfigSnapshotProperties::new);
+        boolean snapshotEnabled = snapshot.isEnabled() && StringUtils.hasText(snapshot.getKey());
+        if (snapshot.isEnabled() && !snapshotEnabled) {
+            log.warn("No loans.config-snapshot.key set, the configuration snapshot is disabled");
+        }
+        return delegate.resolveProfileSpecific(context, configServer, profiles).stream()
+                .map(resource -> {
+                    ConfigClientProperties client = resource.getProperties();
+                    return new ConfigSnapshotConfigDataResource(resource, snapshotEnabled,
+                            ConfigSnapshotStore.file(snapshot.getDirectory(), client.getName(), client.getProfile(),
+                                    client.getLabel()),
+                            snapshot.getKey(), snapshot.getRetryInterval());
+                })
+                .toList();
+    }
+
+}
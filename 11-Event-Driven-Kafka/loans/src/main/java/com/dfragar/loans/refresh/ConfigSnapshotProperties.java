@@ -0,0 +1,27 @@
+package com.dfragar.loans.refresh;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Local snapshot of the configuration received from the config server. Bound while the configuration is being
+ * loaded, so it is only read from the local files, the command line and the environment.
+ */
+@ConfigurationProperties(prefix = "loans.config-snapshot")
+@Getter
+@Setter
+public class ConfigSnapshotProperties {
+
+    private boolean enabled = true;
+    private Path directory = Path.of("config-snapshot");
+    /**
+     * Secret the snapshot file is encrypted with, as it holds the secrets the config server decrypts. Without it no
+     * snapshot is read or written.
+     */
+    private String key;
+    private Duration retryInterval = Duration.ofSeconds(10);
+
+}
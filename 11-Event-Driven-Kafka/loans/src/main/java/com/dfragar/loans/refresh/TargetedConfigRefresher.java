@@ -0,0 +1,186 @@
+package com.dfragar.loans.refresh;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the configuration changes pushed by the config server, without refetching the configuration.
+ * <p>
+ * The pushed difference is merged into the properties received from the config server, which then replace the
+ * config server property sources. Only the {@code @ConfigurationProperties} beans whose prefix covers a changed
+ * property are rebound, and changed logging levels are applied. Unlike {@code /actuator/refresh} no
+ * {@code EnvironmentChangeEvent} is published, so every other bean keeps its state. Values injected with
+ * {@code @Value} are not updated.
+ */
+@Component
+public class TargetedConfigRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TargetedConfigRefresher.class);
+
+    static final String PROPERTY_SOURCE_NAME = "configserver:push";
+
+    private static final String CONFIG_SERVER_PREFIX = "configserver:";
+    private static final String LOGGING_LEVEL_PREFIX = "logging.level.";
+
+    private final ConfigurableApplicationContext applicationContext;
+    private final ObjectProvider<ConfigurationPropertiesRebinder> rebinder;
+    private final ObjectProvider<LoggingSystem> loggingSystem;
+    private final Counter applied;
+    private final Counter ignored;
+    private final Counter rebound;
+
+    public TargetedConfigRefresher(ConfigurableApplicationContext applicationContext,
+            ObjectProvider<ConfigurationPropertiesRebinder> rebinder, ObjectProvider<LoggingSystem> loggingSystem,
+            MeterRegistry meterRegistry) {
+        this.applicationContext = applicationContext;
+        this.rebinder = rebinder;
+        this.loggingSystem = loggingSystem;
+        this.applied = meterRegistry.counter("config.push.applied");
+        this.ignored = meterRegistry.counter("config.push.ignored");
+        this.rebound = meterRegistry.counter("config.push.rebound");
+    }
+
+    /**
+     * Applies a change meant for this application and its profiles, ignores any other
+     *
+     * @param change - change pushed by the config server
+     * @return names of the beans rebound
+     */
+    public synchronized Set<String> apply(ConfigChange change) {
+        ConfigurableEnvironment environment = applicationContext.getEnvironment();
+        if (!isFor(change, environment)) {
+            ignored.increment();
+            return Set.of();
+        }
+        MutablePropertySources propertySources = environment.getPropertySources();
+        Map<String, Object> remote = remoteProperties(propertySources);
+        Set<String> keys = new LinkedHashSet<>();
+        change.changed().forEach((key, value) -> {
+            if (!Objects.equals(remote.put(key, value), value)) {
+                keys.add(key);
+            }
+        });
+        change.removed().forEach(key -> {
+            if (remote.remove(key) != null) {
+                keys.add(key);
+            }
+        });
+        if (keys.isEmpty()) {
+            ignored.increment();
+            return Set.of();
+        }
+        replaceRemoteSources(propertySources, remote);
+        Set<String> beans = rebind(keys);
+        applyLogLevels(keys, environment);
+        applied.increment();
+        logger.info("Applied {} changed properties of version {}, rebound {}", keys.size(), change.version(), beans);
+        return beans;
+    }
+
+    private static boolean isFor(ConfigChange change, ConfigurableEnvironment environment) {
+        String[] activeProfiles = environment.getActiveProfiles();
+        String profile = environment.getProperty("spring.cloud.config.profile",
+                activeProfiles.length == 0 ? "default" : String.join(",", activeProfiles));
+        return change.application().equals(environment.getProperty("spring.application.name"))
+                && change.profile().equals(profile);
+    }
+
+    /**
+     * Flattens the config server property sources, the first one holding a property wins
+     */
+    private static Map<String, Object> remoteProperties(MutablePropertySources propertySources) {
+        Map<String, Object> remote = new LinkedHashMap<>();
+        for (PropertySource<?> propertySource : propertySources) {
+            if (propertySource.getName().startsWith(CONFIG_SERVER_PREFIX)
+                    && propertySource instanceof EnumerablePropertySource<?> enumerable) {
+                for (String name : enumerable.getPropertyNames()) {
+                    remote.putIfAbsent(name, enumerable.getProperty(name));
+                }
+            }
+        }
+        return remote;
+    }
+
+    private static void replaceRemoteSources(MutablePropertySources propertySources, Map<String, Object> remote) {
+        MapPropertySource pushed = new MapPropertySource(PROPERTY_SOURCE_NAME, remote);
+        List<String> names = new ArrayList<>();
+        for (PropertySource<?> propertySource : propertySources) {
+            if (propertySource.getName().startsWith(CONFIG_SERVER_PREFIX)) {
+                names.add(propertySource.getName());
+            }
+        }
+        if (names.isEmpty()) {
+            // the config server was not reachable at startup, its properties rank above the local ones
+            if (propertySources.contains(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME)) {
+                propertySources.addAfter(StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME, pushed);
+            } else {
+                propertySources.addFirst(pushed);
+            }
+            return;
+        }
+        propertySources.replace(names.get(0), pushed);
+        names.subList(1, names.size()).forEach(propertySources::remove);
+    }
+
+    private Set<String> rebind(Set<String> keys) {
+        ConfigurationPropertiesRebinder configurationPropertiesRebinder = rebinder.getIfAvailable();
+        if (configurationPropertiesRebinder == null) {
+            logger.warn("Refresh is disabled, {} apply on the next restart", keys);
+            return Set.of();
+        }
+        List<ConfigurationPropertyName> names = keys.stream()
+                .map(key -> ConfigurationPropertyName.adapt(key, '.'))
+                .toList();
+        Set<String> beans = new TreeSet<>();
+        ConfigurationPropertiesBean.getAll(applicationContext).forEach((beanName, bean) -> {
+            ConfigurationPropertyName prefix = ConfigurationPropertyName.of(bean.getAnnotation().prefix());
+            if (names.stream().anyMatch(name -> prefix.equals(name) || prefix.isAncestorOf(name))
+                    && configurationPropertiesRebinder.rebind(beanName)) {
+                beans.add(beanName);
+            }
+        });
+        rebound.increment(beans.size());
+        return beans;
+    }
+
+    private void applyLogLevels(Set<String> keys, ConfigurableEnvironment environment) {
+        LoggingSystem system = loggingSystem.getIfAvailable();
+        if (system == null) {
+            return;
+        }
+        for (String key : keys) {
+            if (key.startsWith(LOGGING_LEVEL_PREFIX)) {
+                String loggerName = key.substring(LOGGING_LEVEL_PREFIX.length());
+                String level = environment.getProperty(key);
+                system.setLogLevel("root".equalsIgnoreCase(loggerName) ? LoggingSystem.ROOT_LOGGER_NAME : loggerName,
+                        level == null ? null : LogLevel.valueOf(level.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.dfragar.loans.repository;
+
+import com.dfragar.loans.entity.LoanRepayment;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoanRepaymentRepository extends JpaRepository<LoanRepayment, Long> {
+
+    /**
+     * Claims every committed pending repayment for the running fold. Repayments committed afterwards stay pending
+     * for the next one, whatever their id.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanRepayment r SET r.foldState = " + LoanRepayment.FOLDING + " "
+            + "WHERE r.foldState = " + LoanRepayment.PENDING)
+    int claimPending();
+
+    /**
+     * Rejects the claimed repayments that would repay more than their loan owes, taken in the order they were
+     * recorded, and the ones whose loan was deleted. Repayments are checked without locking the loan, so this is
+     * where concurrent repayments racing past that check are settled.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE loan_repayments SET fold_state = " + LoanRepayment.REJECTED + " "
+            + "WHERE repayment_id IN (SELECT t.repayment_id FROM ("
+            + "SELECT r.repayment_id, l.outstanding_amount, SUM(r.amount) OVER ("
+            + "PARTITION BY r.loan_number ORDER BY r.repayment_id) AS repaid "
+            + "FROM loan_repayments r LEFT JOIN loans l ON l.loan_number = r.loan_number "
+            + "WHERE r.fold_state = " + LoanRepayment.FOLDING + ") t "
+            + "WHERE t.outstanding_amount IS NULL OR t.repaid > t.outstanding_amount)", nativeQuery = true)
+    int rejectClaimedOverRepayments();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanRepayment r SET r.foldState = " + LoanRepayment.FOLDED + " "
+            + "WHERE r.foldState = " + LoanRepayment.FOLDING)
+    int markClaimedFolded();
+
+    /**
+     * Marks the repayments of a loan folded without adding them, for an update whose totals replace them.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanRepayment r SET r.foldState = " + LoanRepayment.FOLDED + " "
+            + "WHERE r.loanNumber = :loanNumber AND r.foldState IN (" + LoanRepayment.PENDING + ", "
+            + LoanRepayment.FOLDING + ")")
+    int markFolded(@Param("loanNumber") String loanNumber);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LoanRepayment r WHERE r.loanNumber = :loanNumber")
+    void deleteByLoanNumber(@Param("loanNumber") String loanNumber);
+
+}
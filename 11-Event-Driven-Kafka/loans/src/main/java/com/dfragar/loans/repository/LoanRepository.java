@@ -1,15 +1,71 @@
 package com.dfragar.loans.repository;
 
 import com.dfragar.loans.entity.Loan;
+import com.dfragar.loans.entity.LoanRepayment;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Loan> findByMobileNumber(String mobileNumber);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Loan> findByLoanNumber(String loanNumber);
 
+    /**
+     * Reads the loan snapshot and the repayments not folded into it yet in one statement, so a fold committing in
+     * between can never count a repayment twice or miss it.
+     */
+    @Query("SELECT l.amountPaid + COALESCE(SUM(r.amount), 0) AS amountPaid, "
+            + "l.outstandingAmount - COALESCE(SUM(r.amount), 0) AS outstandingAmount "
+            + "FROM Loan l LEFT JOIN LoanRepayment r ON r.loanNumber = l.loanNumber "
+            + "AND r.foldState IN (" + LoanRepayment.PENDING + ", " + LoanRepayment.FOLDING + ") "
+            + "WHERE l.loanNumber = :loanNumber GROUP BY l.loanId, l.amountPaid, l.outstandingAmount")
+    Optional<LoanTotals> findTotals(@Param("loanNumber") String loanNumber);
+
+    /**
+     * Folds the repayments claimed by the running fold into the loan snapshots in a single statement.
+     *
+     * @return number of loans whose snapshot was advanced
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loans"))
+    @Query(value = "UPDATE loans l SET "
+            + "amount_paid = amount_paid + (SELECT COALESCE(SUM(r.amount), 0) FROM loan_repayments r "
+            + "WHERE r.loan_number = l.loan_number AND r.fold_state = " + LoanRepayment.FOLDING + "), "
+            + "outstanding_amount = outstanding_amount - (SELECT COALESCE(SUM(r.amount), 0) FROM loan_repayments r "
+            + "WHERE r.loan_number = l.loan_number AND r.fold_state = " + LoanRepayment.FOLDING + "), "
+            + "updated_at = :updatedAt, updated_by = :updatedBy "
+            + "WHERE l.loan_number IN (SELECT r.loan_number FROM loan_repayments r "
+            + "WHERE r.fold_state = " + LoanRepayment.FOLDING + ")", nativeQuery = true)
+    int foldRepayments(@Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
+    /**
+     * @return the loans holding repayments claimed by the running fold
+     */
+    @Query("SELECT l FROM Loan l WHERE l.loanNumber IN (SELECT r.loanNumber FROM LoanRepayment r "
+            + "WHERE r.foldState = " + LoanRepayment.FOLDING + ")")
+    List<Loan> findClaimedForFold();
+
+    interface LoanTotals {
+
+        long getAmountPaid();
+
+        long getOutstandingAmount();
+
+    }
+
 }
@@ -0,0 +1,17 @@
+package com.dfragar.loans.service;
+
+import com.dfragar.loans.dto.BulkImportReportDto;
+import java.io.InputStream;
+import org.springframework.http.MediaType;
+
+public interface IBulkImportService {
+
+    /**
+     *
+     * @param body - CSV with a header line or NDJSON body, read as a stream
+     * @param format - Media type of the body
+     * @return the number of imported rows and the rejected ones
+     */
+    BulkImportReportDto importRows(InputStream body, MediaType format);
+
+}
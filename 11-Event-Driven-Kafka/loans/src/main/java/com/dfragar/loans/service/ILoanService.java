@@ -24,6 +24,14 @@ public interface ILoanService {
      */
     boolean updateLoan(LoanDto loansDto);
 
+    /**
+     *
+     * @param loanNumber - Input Loan Number
+     * @param amount - Amount repaid against the loan
+     * @return boolean indicating if the repayment was recorded or rejected for exceeding the outstanding amount
+     */
+    boolean repayLoan(String loanNumber, int amount);
+
     /**
      *
      * @param mobileNumber - Input Mobile Number
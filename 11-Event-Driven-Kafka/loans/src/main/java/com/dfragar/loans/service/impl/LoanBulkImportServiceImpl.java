@@ -0,0 +1,269 @@
+package com.dfragar.loans.service.impl;
+
+import com.dfragar.loans.audit.AuditRecord;
+import com.dfragar.loans.audit.AuditTrailListener;
+import com.dfragar.loans.bulk.BulkImportProperties;
+import com.dfragar.loans.bulk.BulkImportReader;
+import com.dfragar.loans.bulk.BulkImportReport;
+import com.dfragar.loans.bulk.BulkImportRunner;
+import com.dfragar.loans.bulk.ImportRow;
+import com.dfragar.loans.constants.LoanConstants;
+import com.dfragar.loans.dto.BulkImportReportDto;
+import com.dfragar.loans.entity.Loan;
+import com.dfragar.loans.membership.MobileNumberFilter;
+import com.dfragar.loans.service.IBulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk creation of loans for a list of mobile numbers.
+ * <p>
+ * Loan ids are identity columns, which makes Hibernate give up insert batching, so the rows are written with JDBC
+ * batches instead. Chunks are validated and written in parallel, each one in its own transaction.
+ * <p>
+ * A loan is only inserted when its mobile number has none yet. The unique index on the mobile number catches a
+ * concurrent writer registering the same number in between, in which case the chunk is written again row by row so
+ * only the clashing rows are rejected. The inserted loans are captured for the audit trail in the writing transaction,
+ * as JDBC writes never reach the entity callbacks.
+ */
+@Service
+public class LoanBulkImportServiceImpl implements IBulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanBulkImportServiceImpl.class);
+
+    private static final Pattern MOBILE_NUMBER = Pattern.compile("[0-9]{10}");
+    private static final String INSERT_LOAN_SQL = "INSERT INTO loans "
+            + "(mobile_number, loan_number, loan_type, total_loan, amount_paid, outstanding_amount, "
+            + "created_at, created_by) "
+            + "SELECT :mobileNumber, :number, :type, :limit, 0, :limit, :createdAt, :createdBy FROM DUAL "
+            + "WHERE NOT EXISTS (SELECT 1 FROM loans l WHERE l.mobile_number = :mobileNumber)";
+    private static final String SELECT_IDS_SQL = "SELECT loan_number, loan_id FROM loans "
+            + "WHERE loan_number IN (:numbers)";
+    private static final String SELECT_TAKEN_NUMBERS_SQL = "SELECT loan_number FROM loans "
+            + "WHERE loan_number IN (:numbers)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache entityCache;
+    private final ObjectMapper objectMapper;
+    private final AuditorAware<String> auditorAware;
+    private final BulkImportProperties properties;
+    private final MobileNumberFilter mobileNumberFilter;
+    private final AuditTrailListener auditTrailListener;
+
+    public LoanBulkImportServiceImpl(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper, AuditorAware<String> auditorAware,
+            BulkImportProperties properties, MobileNumberFilter mobileNumberFilter,
+            AuditTrailListener auditTrailListener) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityCache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.objectMapper = objectMapper;
+        this.auditorAware = auditorAware;
+        this.properties = properties;
+        this.mobileNumberFilter = mobileNumberFilter;
+        this.auditTrailListener = auditTrailListener;
+    }
+
+    /**
+     * @param body - CSV with a header line or NDJSON body with mobileNumber
+     * @param format - Media type of the body
+     * @return the number of imported rows and the rejected ones
+     */
+    @Override
+    public BulkImportReportDto importRows(InputStream body, MediaType format) {
+        long startNanos = System.nanoTime();
+        BulkImportReport report = new BulkImportReport(properties.getMaxReportedFailures());
+        Set<String> mobileNumbers = ConcurrentHashMap.newKeySet();
+        Set<String> loanNumbers = ConcurrentHashMap.newKeySet();
+        try (BulkImportReader reader = new BulkImportReader(body, format, objectMapper)) {
+            BulkImportRunner.run(reader, properties, report,
+                    chunk -> importChunk(chunk, report, mobileNumbers, loanNumbers));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read the import body", ex);
+        }
+        BulkImportReportDto reportDto = report.toDto();
+        logger.info("Bulk import of {} loans finished in {} ms: {} imported, {} rejected", reportDto.getTotalRows(),
+                (System.nanoTime() - startNanos) / 1_000_000, reportDto.getImportedRows(), reportDto.getFailedRows());
+        return reportDto;
+    }
+
+    private void importChunk(List<ImportRow> chunk, BulkImportReport report, Set<String> mobileNumbers,
+            Set<String> loanNumbers) {
+        Map<ImportRow, String> valid = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                report.failed(row, null, row.error());
+                continue;
+            }
+            String mobileNumber = row.field("mobileNumber");
+            if (mobileNumber == null || !MOBILE_NUMBER.matcher(mobileNumber).matches()) {
+                report.failed(row, mobileNumber, "Mobile number must be 10 digits");
+            } else if (!mobileNumbers.add(mobileNumber)) {
+                report.failed(row, mobileNumber, "Duplicate mobile number in the import");
+            } else {
+                valid.put(row, mobileNumber);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        try {
+            List<ImportRow> rows = new ArrayList<>(valid.keySet());
+            List<String> newMobileNumbers = new ArrayList<>(valid.values());
+            List<String> newLoanNumbers = reserveNumbers(newMobileNumbers.size(), loanNumbers);
+            boolean[] inserted;
+            try {
+                inserted = insert(newMobileNumbers, newLoanNumbers);
+            } catch (DuplicateKeyException ex) {
+                inserted = insertRowByRow(newMobileNumbers, newLoanNumbers);
+            }
+            int importedRows = 0;
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    importedRows++;
+                } else {
+                    report.failed(rows.get(i), newMobileNumbers.get(i),
+                            "Loan already registered with given mobileNumber " + newMobileNumbers.get(i));
+                }
+            }
+            report.imported(importedRows);
+        } catch (RuntimeException ex) {
+            String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            logger.warn("Bulk import chunk of {} loans failed: {}", valid.size(), message);
+            valid.forEach((row, mobileNumber) -> report.failed(row, mobileNumber, message));
+        }
+    }
+
+    /**
+     * @return for every mobile number, whether its loan was inserted or it already had one
+     */
+    private boolean[] insert(List<String> mobileNumbers, List<String> loanNumbers) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        String createdBy = auditorAware.getCurrentAuditor().orElse(null);
+        SqlParameterSource[] params = new SqlParameterSource[mobileNumbers.size()];
+        for (int i = 0; i < mobileNumbers.size(); i++) {
+            params[i] = new MapSqlParameterSource()
+                    .addValue("mobileNumber", mobileNumbers.get(i))
+                    .addValue("number", loanNumbers.get(i))
+                    .addValue("type", LoanConstants.HOME_LOAN)
+                    .addValue("limit", LoanConstants.NEW_LOAN_LIMIT)
+                    .addValue("createdAt", createdAt)
+                    .addValue("createdBy", createdBy);
+        }
+        mobileNumbers.forEach(mobileNumberFilter::add);
+        boolean[] inserted = transactionTemplate.execute(status -> {
+            int[] insertedRows = jdbcTemplate.batchUpdate(INSERT_LOAN_SQL, params);
+            boolean[] insertedFlags = new boolean[insertedRows.length];
+            for (int i = 0; i < insertedFlags.length; i++) {
+                // drivers that do not report counts per statement return SUCCESS_NO_INFO, never 0
+                insertedFlags[i] = insertedRows[i] != 0;
+            }
+            audit(params, insertedFlags);
+            return insertedFlags;
+        });
+        // cached lookups may remember these mobile numbers as missing, and JDBC inserts do not invalidate them
+        entityCache.evictDefaultQueryRegion();
+        return inserted;
+    }
+
+    /**
+     * Captures the inserted loans, reading back the ids the database generated for them
+     */
+    private void audit(SqlParameterSource[] params, boolean[] inserted) {
+        if (!auditTrailListener.isEnabled()) {
+            return;
+        }
+        List<Object> numbers = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                numbers.add(params[i].getValue("number"));
+            }
+        }
+        if (numbers.isEmpty()) {
+            return;
+        }
+        Map<String, Long> ids = jdbcTemplate.query(SELECT_IDS_SQL, Map.of("numbers", numbers),
+                        (rs, rowNum) -> Map.entry(rs.getString(1), rs.getLong(2))).stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        for (int i = 0; i < inserted.length; i++) {
+            if (!inserted[i]) {
+                continue;
+            }
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("mobileNumber", params[i].getValue("mobileNumber"));
+            state.put("loanNumber", params[i].getValue("number"));
+            state.put("loanType", params[i].getValue("type"));
+            state.put("totalLoan", params[i].getValue("limit"));
+            state.put("amountPaid", 0);
+            state.put("outstandingAmount", params[i].getValue("limit"));
+            state.put("createdAt", ((Timestamp) params[i].getValue("createdAt")).toLocalDateTime());
+            state.put("createdBy", params[i].getValue("createdBy"));
+            auditTrailListener.captureWritten(Loan.class.getSimpleName(), ids.get(params[i].getValue("number")),
+                    AuditRecord.Action.CREATE, state);
+        }
+    }
+
+    /**
+     * Writes every row in its own transaction, so a mobile number registered concurrently only rejects its own row.
+     */
+    private boolean[] insertRowByRow(List<String> mobileNumbers, List<String> loanNumbers) {
+        boolean[] inserted = new boolean[mobileNumbers.size()];
+        for (int i = 0; i < inserted.length; i++) {
+            try {
+                inserted[i] = insert(List.of(mobileNumbers.get(i)), List.of(loanNumbers.get(i)))[0];
+            } catch (DuplicateKeyException ex) {
+                inserted[i] = false;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Draws random loan numbers the way single loan creation does, discarding the ones already taken by this import
+     * or by an existing loan.
+     */
+    private List<String> reserveNumbers(int count, Set<String> loanNumbers) {
+        List<String> reserved = new ArrayList<>(count);
+        while (reserved.size() < count) {
+            List<String> candidates = new ArrayList<>();
+            while (candidates.size() < count - reserved.size()) {
+                String candidate = LoanNumberGenerator.nextLoanNumber();
+                if (loanNumbers.add(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+            Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(SELECT_TAKEN_NUMBERS_SQL,
+                    Map.of("numbers", candidates), String.class));
+            candidates.stream().filter(candidate -> !taken.contains(candidate)).forEach(reserved::add);
+        }
+        return reserved;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.dfragar.loans.service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws the random 12 digit numbers given to new loans.
+ */
+public final class LoanNumberGenerator {
+
+    private LoanNumberGenerator() {
+    }
+
+    /**
+     * @return a random loan number, not checked for uniqueness
+     */
+    public static String nextLoanNumber() {
+        return Long.toString(100000000000L + ThreadLocalRandom.current().nextInt(900000000));
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.dfragar.loans.service.impl;
+
+import com.dfragar.loans.audit.AuditRecord;
+import com.dfragar.loans.audit.AuditTrailListener;
+import com.dfragar.loans.repository.LoanRepaymentRepository;
+import com.dfragar.loans.repository.LoanRepository;
+import java.time.LocalDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically folds the repayment ledger into the loan snapshots.
+ * <p>
+ * Every repayment carries its own fold state instead of the loans keeping an id watermark, so a repayment that
+ * commits after a higher one was folded is still picked up by the next fold. Each fold claims the pending repayments,
+ * rejects the ones that would repay more than their loan owes, adds the rest to their loans and marks them folded in
+ * one transaction. The folded loans are captured for the audit trail, as the fold is a bulk statement the entity
+ * callbacks never see.
+ */
+@Component
+public class LoanRepaymentFolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanRepaymentFolder.class);
+
+    private final LoanRepository loanRepository;
+    private final LoanRepaymentRepository loanRepaymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final AuditTrailListener auditTrailListener;
+
+    public LoanRepaymentFolder(LoanRepository loanRepository, LoanRepaymentRepository loanRepaymentRepository,
+            TransactionTemplate transactionTemplate, AuditorAware<String> auditorAware,
+            AuditTrailListener auditTrailListener) {
+        this.loanRepository = loanRepository;
+        this.loanRepaymentRepository = loanRepaymentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.auditorAware = auditorAware;
+        this.auditTrailListener = auditTrailListener;
+    }
+
+    @Scheduled(fixedDelayString = "${loans.repayments.fold-interval-ms:1000}")
+    public synchronized void fold() {
+        LocalDateTime now = LocalDateTime.now();
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        transactionTemplate.executeWithoutResult(status -> {
+            int claimedRepayments = loanRepaymentRepository.claimPending();
+            if (claimedRepayments == 0) {
+                return;
+            }
+            int rejectedRepayments = loanRepaymentRepository.rejectClaimedOverRepayments();
+            int foldedLoans = loanRepository.foldRepayments(now, updatedBy);
+            if (auditTrailListener.isEnabled()) {
+                loanRepository.findClaimedForFold()
+                        .forEach(loan -> auditTrailListener.captureWritten(loan, AuditRecord.Action.UPDATE));
+            }
+            loanRepaymentRepository.markClaimedFolded();
+            logger.debug("Folded {} repayments into {} loans, {} rejected", claimedRepayments - rejectedRepayments,
+                    foldedLoans, rejectedRepayments);
+        });
+    }
+
+}
@@ -1,23 +1,32 @@
 package com.dfragar.loans.service.impl;
 
+import com.dfragar.loans.coalescing.SingleFlight;
 import com.dfragar.loans.constants.LoanConstants;
 import com.dfragar.loans.dto.LoanDto;
 import com.dfragar.loans.entity.Loan;
+import com.dfragar.loans.entity.LoanRepayment;
 import com.dfragar.loans.exception.LoanAlreadyExistsException;
 import com.dfragar.loans.exception.ResourceNotFoundException;
 import com.dfragar.loans.mapper.LoanMapper;
+import com.dfragar.loans.membership.MobileNumberFilter;
+import com.dfragar.loans.repository.LoanRepaymentRepository;
 import com.dfragar.loans.repository.LoanRepository;
 import com.dfragar.loans.service.ILoanService;
 import java.util.Optional;
-import java.util.Random;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @AllArgsConstructor
 public class LoanServiceImpl implements ILoanService {
 
     private LoanRepository loanRepository;
+    private LoanRepaymentRepository loanRepaymentRepository;
+    private SingleFlight<String, LoanDto> fetchLoanFlight;
+    private MobileNumberFilter mobileNumberFilter;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
@@ -29,7 +38,15 @@ public class LoanServiceImpl implements ILoanService {
             throw new LoanAlreadyExistsException(
                     "Loan already registered with given mobileNumber " + mobileNumber);
         }
-        loanRepository.save(createNewLoan(mobileNumber));
+        mobileNumberFilter.add(mobileNumber);
+        try {
+            loanRepository.save(createNewLoan(mobileNumber));
+        } catch (DataIntegrityViolationException ex) {
+            // registered concurrently after the check above, caught by the unique index on the mobile number
+            throw new LoanAlreadyExistsException(
+                    "Loan already registered with given mobileNumber " + mobileNumber);
+        }
+        fetchLoanFlight.forget(mobileNumber);
     }
 
     /**
@@ -38,8 +55,7 @@ public class LoanServiceImpl implements ILoanService {
      */
     private Loan createNewLoan(String mobileNumber) {
         Loan newLoan = new Loan();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(LoanNumberGenerator.nextLoanNumber());
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(LoanConstants.HOME_LOAN);
         newLoan.setTotalLoan(LoanConstants.NEW_LOAN_LIMIT);
@@ -55,10 +71,28 @@ public class LoanServiceImpl implements ILoanService {
      */
     @Override
     public LoanDto fetchLoan(String mobileNumber) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
+        return fetchLoanFlight.execute(mobileNumber, () -> loadLoan(mobileNumber));
+    }
+
+    private LoanDto loadLoan(String mobileNumber) {
         Loan loan = loanRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
-        return LoanMapper.mapToLoanDto(loan, new LoanDto());
+        return withPendingRepayments(loan, LoanMapper.mapToLoanDto(loan, new LoanDto()));
+    }
+
+    /**
+     * Adds the repayments not folded yet to the loan snapshot. The fold keeps them few, so the read stays cheap.
+     */
+    private LoanDto withPendingRepayments(Loan loan, LoanDto loanDto) {
+        LoanRepository.LoanTotals totals = loanRepository.findTotals(loan.getLoanNumber()).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "LoanNumber", loan.getLoanNumber()));
+        loanDto.setAmountPaid((int) totals.getAmountPaid());
+        loanDto.setOutstandingAmount((int) totals.getOutstandingAmount());
+        return loanDto;
     }
 
     /**
@@ -68,10 +102,50 @@ public class LoanServiceImpl implements ILoanService {
      */
     @Override
     public boolean updateLoan(LoanDto loanDto) {
-        Loan loan = loanRepository.findByLoanNumber(loanDto.getLoanNumber()).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "LoanNumber", loanDto.getLoanNumber()));
-        LoanMapper.mapToLoan(loanDto, loan);
-        loanRepository.save(loan);
+        String previousMobileNumber = transactionTemplate.execute(status -> {
+            // the new totals replace every repayment recorded so far; they are marked before the loan row is
+            // written, in the same order as the fold takes its locks. A repayment committing after them stays
+            // pending and is checked by the fold against the new totals
+            loanRepaymentRepository.markFolded(loanDto.getLoanNumber());
+            Loan loan = loanRepository.findByLoanNumber(loanDto.getLoanNumber()).orElseThrow(
+                    () -> new ResourceNotFoundException("Loan", "LoanNumber", loanDto.getLoanNumber()));
+            String mobileNumber = loan.getMobileNumber();
+            LoanMapper.mapToLoan(loanDto, loan);
+            if (!mobileNumber.equals(loan.getMobileNumber())) {
+                mobileNumberFilter.add(loan.getMobileNumber());
+            }
+            loanRepository.save(loan);
+            return mobileNumber;
+        });
+        if (!previousMobileNumber.equals(loanDto.getMobileNumber())) {
+            mobileNumberFilter.remove(previousMobileNumber);
+        }
+        fetchLoanFlight.forgetAll();
+        return true;
+    }
+
+    /**
+     * Appends the repayment to the ledger without updating or locking the loan row, so repayments of a popular loan
+     * never queue on it. The outstanding amount check only sees committed repayments: repayments racing past it
+     * together are settled by the fold, which rejects the ones the loan no longer owes.
+     *
+     * @param loanNumber - Input Loan Number
+     * @param amount - Amount repaid against the loan
+     * @return boolean indicating if the repayment was recorded or rejected for exceeding the outstanding amount
+     */
+    @Override
+    public boolean repayLoan(String loanNumber, int amount) {
+        Loan loan = loanRepository.findByLoanNumber(loanNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "LoanNumber", loanNumber));
+        LoanDto loanDto = withPendingRepayments(loan, LoanMapper.mapToLoanDto(loan, new LoanDto()));
+        if (loanDto.getOutstandingAmount() < amount) {
+            return false;
+        }
+        LoanRepayment repayment = new LoanRepayment();
+        repayment.setLoanNumber(loanNumber);
+        repayment.setAmount(amount);
+        loanRepaymentRepository.save(repayment);
+        fetchLoanFlight.forget(loan.getMobileNumber());
         return true;
     }
 
@@ -81,10 +155,17 @@ public class LoanServiceImpl implements ILoanService {
      */
     @Override
     public boolean deleteLoan(String mobileNumber) {
-        Loan loan = loanRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        loanRepository.deleteById(loan.getLoanId());
+        transactionTemplate.executeWithoutResult(status -> {
+            Loan loan = loanRepository.findByMobileNumber(mobileNumber).orElseThrow(
+                    () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
+            );
+            // repayments before the loan row, in the same order as the fold; one committing afterwards is
+            // rejected by the fold as its loan is gone
+            loanRepaymentRepository.deleteByLoanNumber(loan.getLoanNumber());
+            loanRepository.deleteById(loan.getLoanId());
+        });
+        fetchLoanFlight.forget(mobileNumber);
+        mobileNumberFilter.remove(mobileNumber);
         return true;
     }
 
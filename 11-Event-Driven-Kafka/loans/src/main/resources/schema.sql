@@ -6,9 +6,39 @@ CREATE TABLE IF NOT EXISTS `loans` (
   `total_loan` int NOT NULL,
   `amount_paid` int NOT NULL,
   `outstanding_amount` int NOT NULL,
+  `accrued_interest` int NOT NULL DEFAULT 0,
+  `last_accrual_date` date DEFAULT NULL,
   `created_at` date NOT NULL,
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
   PRIMARY KEY (`loan_id`)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS `loan_repayments` (
+  `repayment_id` bigint NOT NULL AUTO_INCREMENT,
+  `loan_number` varchar(100) NOT NULL,
+  `amount` int NOT NULL,
+  `fold_state` tinyint NOT NULL DEFAULT 0,
+  `created_at` timestamp NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` timestamp DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL,
+  PRIMARY KEY (`repayment_id`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_loan_repayments_loan_number` ON `loan_repayments` (`loan_number`, `fold_state`);
+CREATE INDEX IF NOT EXISTS `idx_loan_repayments_fold_state` ON `loan_repayments` (`fold_state`);
+
+CREATE TABLE IF NOT EXISTS `loan_accrual_checkpoints` (
+  `accrual_date` date NOT NULL,
+  `range_start` bigint NOT NULL,
+  `range_end` bigint NOT NULL,
+  `accrued_rows` int NOT NULL,
+  `elapsed_ms` bigint NOT NULL,
+  `completed_at` timestamp NOT NULL,
+  PRIMARY KEY (`accrual_date`, `range_start`)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS `idx_loans_mobile_number` ON `loans` (`mobile_number`);
+CREATE UNIQUE INDEX IF NOT EXISTS `idx_loans_loan_number` ON `loans` (`loan_number`);
@@ -0,0 +1,68 @@
+package com.dfragar.loans.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.loans.constants.LoanConstants;
+import com.dfragar.loans.entity.Loan;
+import com.dfragar.loans.repository.LoanRepository;
+import com.dfragar.loans.service.ILoanService;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Interest accrual over several keyset ranges: a second run for the same date must be a no-op.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:accrual",
+        "loans.interest-accrual.partition-size=3",
+        "loans.interest-accrual.batch-size=2",
+        "loans.interest-accrual.concurrency=4"
+})
+class InterestAccrualJobTests {
+
+    private static final int LOANS = 10;
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private InterestAccrualProgress interestAccrualProgress;
+
+    @Test
+    void accruesEveryLoanOncePerDay() {
+        for (int i = 0; i < LOANS; i++) {
+            iLoanService.createLoan(Long.toString(9_100_000_000L + i));
+        }
+        int interest = interestAccrualJob.dailyInterest(LoanConstants.NEW_LOAN_LIMIT);
+        LocalDate accrualDate = LocalDate.now();
+
+        assertThat(interestAccrualJob.run(accrualDate)).isTrue();
+        InterestAccrualStatus firstRun = interestAccrualProgress.status();
+        assertThat(firstRun.accruedRows()).isEqualTo(LOANS);
+        assertThat(firstRun.failedPartitions()).isZero();
+
+        assertThat(interestAccrualJob.run(accrualDate)).isTrue();
+        InterestAccrualStatus secondRun = interestAccrualProgress.status();
+        assertThat(secondRun.accruedRows()).isZero();
+        assertThat(secondRun.skippedPartitions()).isEqualTo(firstRun.totalPartitions());
+
+        for (Loan loan : loanRepository.findAll()) {
+            assertThat(loan.getAccruedInterest()).isEqualTo(interest);
+            assertThat(loan.getOutstandingAmount()).isEqualTo(LoanConstants.NEW_LOAN_LIMIT + interest);
+            assertThat(loan.getLastAccrualDate()).isEqualTo(accrualDate);
+        }
+    }
+
+}
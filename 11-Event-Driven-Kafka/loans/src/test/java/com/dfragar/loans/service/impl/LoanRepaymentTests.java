@@ -0,0 +1,203 @@
+package com.dfragar.loans.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.loans.constants.LoanConstants;
+import com.dfragar.loans.dto.LoanDto;
+import com.dfragar.loans.entity.Loan;
+import com.dfragar.loans.entity.LoanRepayment;
+import com.dfragar.loans.repository.LoanRepaymentRepository;
+import com.dfragar.loans.repository.LoanRepository;
+import com.dfragar.loans.service.ILoanService;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repayments never repay more than the loan owes once folded, are visible on read before the fold, and are folded
+ * exactly once, including a repayment that commits after a newer one was already folded. Repayments racing past the
+ * outstanding amount check are rejected by the fold.
+ */
+@SpringBootTest(properties = {
+        "build.version=test",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:loanrepayment",
+        "loans.repayments.fold-interval-ms=3600000"
+})
+class LoanRepaymentTests {
+
+    @Autowired
+    private ILoanService iLoanService;
+
+    @Autowired
+    private LoanRepaymentFolder loanRepaymentFolder;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanRepaymentRepository loanRepaymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentRepaymentsNeverRepayMoreThanTheLoanOwes() throws Exception {
+        String loanNumber = createLoan("9876501234");
+        int amount = LoanConstants.NEW_LOAN_LIMIT / 100;
+        List<Callable<Boolean>> repayments = Collections.nCopies(150,
+                () -> iLoanService.repayLoan(loanNumber, amount));
+
+        List<Future<Boolean>> results;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            results = executor.invokeAll(repayments);
+        }
+
+        long recorded = 0;
+        for (Future<Boolean> result : results) {
+            recorded += result.get() ? 1 : 0;
+        }
+        assertThat(recorded).isGreaterThanOrEqualTo(100);
+        loanRepaymentFolder.fold();
+        assertFolded(loanNumber, LoanConstants.NEW_LOAN_LIMIT);
+        assertTotals("9876501234", LoanConstants.NEW_LOAN_LIMIT);
+        assertThat(countRepayments(loanNumber, LoanRepayment.REJECTED)).isEqualTo(recorded - 100);
+    }
+
+    @Test
+    void repaymentCheckedAgainstTotalsReplacedByAnUpdateIsRejectedByTheFold() {
+        String loanNumber = createLoan("9876501238");
+        LoanDto loanDto = iLoanService.fetchLoan("9876501238");
+        loanDto.setAmountPaid(LoanConstants.NEW_LOAN_LIMIT - 1_000);
+        loanDto.setOutstandingAmount(1_000);
+        assertThat(iLoanService.updateLoan(loanDto)).isTrue();
+        // recorded as a repayment checked against the totals before the update would be
+        LoanRepayment repayment = new LoanRepayment();
+        repayment.setLoanNumber(loanNumber);
+        repayment.setAmount(5_000);
+        loanRepaymentRepository.save(repayment);
+
+        loanRepaymentFolder.fold();
+
+        assertFolded(loanNumber, LoanConstants.NEW_LOAN_LIMIT - 1_000);
+        assertThat(countRepayments(loanNumber, LoanRepayment.REJECTED)).isEqualTo(1);
+    }
+
+    @Test
+    void deletingALoanDeletesItsRepayments() {
+        String loanNumber = createLoan("9876501239");
+        assertThat(iLoanService.repayLoan(loanNumber, 1_000)).isTrue();
+
+        assertThat(iLoanService.deleteLoan("9876501239")).isTrue();
+
+        assertThat(loanRepository.findByLoanNumber(loanNumber)).isEmpty();
+        assertThat(loanRepaymentRepository.findAll()).noneMatch(row -> row.getLoanNumber().equals(loanNumber));
+    }
+
+    @Test
+    void repaymentsAreReadBeforeTheFoldAndFoldedOnce() {
+        String loanNumber = createLoan("9876501235");
+        assertThat(iLoanService.repayLoan(loanNumber, 1_000)).isTrue();
+        assertThat(iLoanService.repayLoan(loanNumber, 2_000)).isTrue();
+        assertThat(iLoanService.repayLoan(loanNumber, LoanConstants.NEW_LOAN_LIMIT)).isFalse();
+
+        assertTotals("9876501235", 3_000);
+        loanRepaymentFolder.fold();
+        loanRepaymentFolder.fold();
+
+        assertFolded(loanNumber, 3_000);
+        assertTotals("9876501235", 3_000);
+    }
+
+    @Test
+    void repaymentCommittedAfterANewerOneWasFoldedIsFoldedByTheNextFold() throws Exception {
+        String loanNumber = createLoan("9876501236");
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> late = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    LoanRepayment repayment = new LoanRepayment();
+                    repayment.setLoanNumber(loanNumber);
+                    repayment.setAmount(1_000);
+                    loanRepaymentRepository.save(repayment);
+                    inserted.countDown();
+                    await(commit);
+                }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(iLoanService.repayLoan(loanNumber, 2_000)).isTrue();
+
+        CompletableFuture<Void> fold = CompletableFuture.runAsync(loanRepaymentFolder::fold);
+        try {
+            fold.get(1, TimeUnit.SECONDS);
+        } catch (TimeoutException ex) {
+            // the fold is waiting on the row still being inserted, it goes on once that one commits
+        }
+        commit.countDown();
+        late.get(10, TimeUnit.SECONDS);
+        fold.get(10, TimeUnit.SECONDS);
+        loanRepaymentFolder.fold();
+
+        assertFolded(loanNumber, 3_000);
+        assertTotals("9876501236", 3_000);
+    }
+
+    @Test
+    void updatedTotalsReplaceTheRepaymentsRecordedBeforeThem() {
+        String loanNumber = createLoan("9876501237");
+        assertThat(iLoanService.repayLoan(loanNumber, 1_000)).isTrue();
+        LoanDto loanDto = iLoanService.fetchLoan("9876501237");
+        loanDto.setAmountPaid(5_000);
+        loanDto.setOutstandingAmount(LoanConstants.NEW_LOAN_LIMIT - 5_000);
+
+        assertThat(iLoanService.updateLoan(loanDto)).isTrue();
+        loanRepaymentFolder.fold();
+
+        assertFolded(loanNumber, 5_000);
+        assertTotals("9876501237", 5_000);
+    }
+
+    private String createLoan(String mobileNumber) {
+        iLoanService.createLoan(mobileNumber);
+        return iLoanService.fetchLoan(mobileNumber).getLoanNumber();
+    }
+
+    private void assertTotals(String mobileNumber, int amountPaid) {
+        LoanDto loanDto = iLoanService.fetchLoan(mobileNumber);
+        assertThat(loanDto.getAmountPaid()).isEqualTo(amountPaid);
+        assertThat(loanDto.getOutstandingAmount()).isEqualTo(LoanConstants.NEW_LOAN_LIMIT - amountPaid);
+    }
+
+    private void assertFolded(String loanNumber, int amountPaid) {
+        Loan loan = loanRepository.findByLoanNumber(loanNumber).orElseThrow();
+        assertThat(loan.getAmountPaid()).isEqualTo(amountPaid);
+        assertThat(loan.getOutstandingAmount()).isEqualTo(LoanConstants.NEW_LOAN_LIMIT - amountPaid);
+    }
+
+    private long countRepayments(String loanNumber, int foldState) {
+        return loanRepaymentRepository.findAll().stream()
+                .filter(row -> row.getLoanNumber().equals(loanNumber) && row.getFoldState() == foldState)
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
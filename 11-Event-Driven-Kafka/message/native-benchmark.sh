@@ -0,0 +1,117 @@
+#!/usr/bin/env bash
+#
+# Compares the JVM and the native build of the message service: time to start, resident memory after start and
+# after the run, and throughput of the email|sms function.
+#
+# Build both first:
+#   ./mvnw -DskipTests package
+#   ./mvnw -Pnative -DskipTests native:compile
+#
+#   ./native-benchmark.sh [messages]
+#
+# A throwaway Kafka broker is started in docker on port 19092. The given number of messages, 100000 by default,
+# is written to send-communication and the service is timed until its consumer group has no lag left.
+
+set -euo pipefail
+
+MESSAGES=${1:-100000}
+KAFKA_IMAGE=${KAFKA_IMAGE:-docker.io/bitnami/kafka:3.9}
+KAFKA_CONTAINER=message-benchmark-kafka
+BROKERS=localhost:19092
+GROUP=message
+TOPIC=send-communication
+WORK=target/native-benchmark
+JAR=$(ls target/message-*.jar 2> /dev/null | grep -v plain | head -n 1 || true)
+NATIVE=target/message
+
+[[ -f $JAR ]] || { echo "No jar in target, run ./mvnw package" >&2; exit 1; }
+[[ -x $NATIVE ]] || { echo "No native executable in target, run ./mvnw -Pnative native:compile" >&2; exit 1; }
+
+kafka() {
+  docker exec -i "$KAFKA_CONTAINER" "$@"
+}
+
+cleanup() {
+  [[ -n ${APP_PID:-} ]] && kill "$APP_PID" 2> /dev/null || true
+  docker rm --force "$KAFKA_CONTAINER" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+start_kafka() {
+  docker rm --force "$KAFKA_CONTAINER" > /dev/null 2>&1 || true
+  docker run --detach --name "$KAFKA_CONTAINER" --publish 19092:19092 \
+    --env KAFKA_CFG_NODE_ID=0 \
+    --env KAFKA_CFG_PROCESS_ROLES=controller,broker \
+    --env KAFKA_CFG_CONTROLLER_QUORUM_VOTERS=0@localhost:9093 \
+    --env KAFKA_CFG_LISTENERS=PLAINTEXT://:9092,EXTERNAL://:19092,CONTROLLER://:9093 \
+    --env KAFKA_CFG_ADVERTISED_LISTENERS=PLAINTEXT://localhost:9092,EXTERNAL://localhost:19092 \
+    --env KAFKA_CFG_LISTENER_SECURITY_PROTOCOL_MAP=CONTROLLER:PLAINTEXT,PLAINTEXT:PLAINTEXT,EXTERNAL:PLAINTEXT \
+    --env KAFKA_CFG_CONTROLLER_LISTENER_NAMES=CONTROLLER \
+    --env KAFKA_CFG_INTER_BROKER_LISTENER_NAME=PLAINTEXT \
+    "$KAFKA_IMAGE" > /dev/null
+  until kafka kafka-topics.sh --bootstrap-server localhost:9092 --list > /dev/null 2>&1; do
+    sleep 1
+  done
+  for topic in send-communication communication-sent audit-trail; do
+    kafka kafka-topics.sh --bootstrap-server localhost:9092 --create --if-not-exists --topic "$topic" \
+      --partitions 1 > /dev/null
+  done
+  echo '{"accountNumber":1234567890,"name":"Benchmark","email":"benchmark@example.com","mobileNumber":"9000000000"}' \
+    | kafka sh -c 'cat > /tmp/payload.json'
+}
+
+lag() {
+  kafka kafka-consumer-groups.sh --bootstrap-server localhost:9092 --describe --group "$GROUP" 2> /dev/null \
+    | awk -v topic="$TOPIC" '$2 == topic { if ($6 == "-") unknown = 1; else lag += $6 }
+                             END { print unknown ? -1 : lag + 0 }'
+}
+
+rss_kb() {
+  ps -o rss= -p "$APP_PID" | tr -d ' '
+}
+
+now_millis() {
+  date +%s%3N
+}
+
+# runs one build and appends to the results: name, startup ms, rss after start, throughput msg/s, rss after the run
+measure() {
+  local name=$1 log="$WORK/$1.log" start started rss_started sent drained
+  shift
+  start=$(now_millis)
+  "$@" --spring.cloud.stream.kafka.binder.brokers="$BROKERS" \
+    --message.audit.directory="$WORK/audit-trail-$name" > "$log" 2>&1 &
+  APP_PID=$!
+  until grep -q "partitions assigned" "$log"; do
+    kill -0 "$APP_PID" 2> /dev/null || { tail -n 30 "$log" >&2; exit 1; }
+    sleep 0.05
+  done
+  started=$(( $(now_millis) - start ))
+  rss_started=$(rss_kb)
+
+  sent=$(now_millis)
+  kafka kafka-producer-perf-test.sh --topic "$TOPIC" --num-records "$MESSAGES" --throughput -1 \
+    --payload-file /tmp/payload.json --producer-props bootstrap.servers=localhost:9092 > /dev/null
+  until [[ $(lag) == 0 ]]; do
+    sleep 0.2
+  done
+  drained=$(( $(now_millis) - sent ))
+
+  echo "$name $started $rss_started $(( MESSAGES * 1000 / drained )) $(rss_kb)" >> "$WORK/results"
+  kill "$APP_PID"
+  wait "$APP_PID" 2> /dev/null || true
+  APP_PID=
+}
+
+mkdir -p "$WORK"
+rm -f "$WORK/results"
+start_kafka
+# both builds share the consumer group, so the native run starts from where the JVM run committed
+measure jvm java -jar "$JAR"
+measure native "$NATIVE"
+
+printf "%-8s %12s %16s %14s %16s\n" build "startup ms" "rss start MiB" "messages/s" "rss end MiB"
+while read -r name started rss_started throughput rss_end; do
+  printf "%-8s %12s %16s %14s %16s\n" "$name" "$started" "$(( rss_started / 1024 ))" "$throughput" \
+    "$(( rss_end / 1024 ))"
+done < "$WORK/results"
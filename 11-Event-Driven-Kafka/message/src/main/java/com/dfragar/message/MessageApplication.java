@@ -1,9 +1,12 @@
 package com.dfragar.message;
 
+import com.dfragar.message.profiling.JfrProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties(JfrProperties.class)
 public class MessageApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,110 @@
+package com.dfragar.message.audit;
+
+import com.dfragar.message.dto.AuditRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends audit records to gzip compressed NDJSON segments.
+ * <p>
+ * Segments are never rewritten: each batch is appended as one line per record and sync flushed, so a segment is
+ * readable up to the last complete batch even if the process dies. A new segment is started on every restart and
+ * whenever the current one holds {@code message.audit.segment-max-bytes} of uncompressed records. Delivery is at
+ * least once, so a redelivered batch may appear twice.
+ */
+@Component
+public class AuditTrailWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrailWriter.class);
+
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+    private OutputStream segment;
+    private long segmentBytes;
+    private int segmentSequence;
+
+    public AuditTrailWriter(ObjectMapper objectMapper,
+            @Value("${message.audit.directory:audit-trail}") Path directory,
+            @Value("${message.audit.segment-max-bytes:67108864}") long segmentMaxBytes) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = Files.createDirectories(directory);
+        this.segmentMaxBytes = segmentMaxBytes;
+    }
+
+    /**
+     * Appends a batch of records to the current segment
+     *
+     * @param records - records to append, in order
+     * @throws IOException if the batch could not be written
+     */
+    public synchronized void append(List<AuditRecordDto> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        buffer.reset();
+        for (AuditRecordDto auditRecord : records) {
+            objectMapper.writeValue(buffer, auditRecord);
+            buffer.write('\n');
+        }
+        if (segment == null || segmentBytes >= segmentMaxBytes) {
+            rotate();
+        }
+        try {
+            buffer.writeTo(segment);
+            segment.flush();
+        } catch (IOException ex) {
+            abandonSegment();
+            throw ex;
+        }
+        segmentBytes += buffer.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (segment != null) {
+            segment.close();
+            segment = null;
+        }
+    }
+
+    /**
+     * Leaves a segment that failed mid-batch behind, so the redelivered batch starts a clean one
+     */
+    private void abandonSegment() {
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            log.warn("Failed to close audit trail segment: {}", ex.getMessage());
+        }
+        segment = null;
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Path path = directory.resolve(String.format("%s%d-%06d%s", SEGMENT_PREFIX, Instant.now().toEpochMilli(),
+                segmentSequence++, SEGMENT_SUFFIX));
+        segment = new GZIPOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE_NEW), 64 * 1024, true);
+        segmentBytes = 0;
+        log.info("Writing audit trail segment {}", path);
+    }
+
+}
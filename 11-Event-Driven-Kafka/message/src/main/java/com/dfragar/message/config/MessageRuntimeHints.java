@@ -0,0 +1,36 @@
+package com.dfragar.message.config;
+
+import java.util.List;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reachability metadata the native image needs beyond what Spring AOT infers.
+ * <p>
+ * The audit trail arrives lz4 compressed. Kafka decompresses it with lz4-java, which picks its implementation by
+ * class name and falls back to the pure Java one when JNI is unavailable, as in a native image. Those classes and
+ * their INSTANCE fields are only reached through reflection.
+ */
+public class MessageRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<String> LZ4_JAVA_SAFE_TYPES = List.of(
+            "net.jpountz.lz4.LZ4JavaSafeCompressor",
+            "net.jpountz.lz4.LZ4HCJavaSafeCompressor",
+            "net.jpountz.lz4.LZ4JavaSafeFastDecompressor",
+            "net.jpountz.lz4.LZ4JavaSafeSafeDecompressor",
+            "net.jpountz.xxhash.XXHash32JavaSafe",
+            "net.jpountz.xxhash.XXHash64JavaSafe",
+            "net.jpountz.xxhash.StreamingXXHash32JavaSafe$Factory",
+            "net.jpountz.xxhash.StreamingXXHash64JavaSafe$Factory");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : LZ4_JAVA_SAFE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.dfragar.message.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * @param service
+ * @param entityType
+ * @param entityId
+ * @param action
+ * @param auditor
+ * @param occurredAt
+ * @param state
+ */
+public record AuditRecordDto(
+        String service,
+        String entityType,
+        String entityId,
+        String action,
+        String auditor,
+        Instant occurredAt,
+        Map<String, Object> state
+) {
+
+}
@@ -0,0 +1,77 @@
+package com.dfragar.message.functions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency of the hops of the account communication pipeline run by this service. The end-to-end latency is
+ * recorded by accounts, once the communication is acknowledged.
+ */
+@Component
+public class CommunicationMetrics {
+
+    /** epoch milliseconds at which accounts produced the communication request, passed on to communication-sent */
+    public static final String PRODUCED_AT_HEADER = "bank-produced-at";
+
+    private final Timer sendCommunicationDwell;
+    private final Timer email;
+    private final Timer sms;
+
+    public CommunicationMetrics(MeterRegistry meterRegistry) {
+        this.sendCommunicationDwell = hop(meterRegistry, "send-communication-dwell");
+        this.email = hop(meterRegistry, "email");
+        this.sms = hop(meterRegistry, "sms");
+    }
+
+    private static Timer hop(MeterRegistry meterRegistry, String hop) {
+        return Timer.builder("communication.hop")
+                .description("Latency of one hop of the communication pipeline")
+                .tag("hop", hop)
+                .register(meterRegistry);
+    }
+
+    public Timer email() {
+        return email;
+    }
+
+    public Timer sms() {
+        return sms;
+    }
+
+    /**
+     * Records how long the send-communication record waited in the broker, against the clock of this host
+     */
+    public void recordDwell(MessageHeaders headers) {
+        if (headers.get(KafkaHeaders.RECEIVED_TIMESTAMP) instanceof Long timestamp) {
+            sendCommunicationDwell.record(
+                    Duration.ofMillis(Math.max(0, System.currentTimeMillis() - timestamp)));
+        }
+    }
+
+    /**
+     * @return the produced-at header as epoch milliseconds, null when absent or unreadable
+     */
+    static Long producedAt(MessageHeaders headers) {
+        Object value = headers.get(PRODUCED_AT_HEADER);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        String text = value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8)
+                : value instanceof String string ? string
+                : null;
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
@@ -1,31 +1,68 @@
 package com.dfragar.message.functions;
 
+import com.dfragar.message.audit.AuditTrailWriter;
+import com.dfragar.message.config.MessageRuntimeHints;
 import com.dfragar.message.dto.AccountMsgDto;
+import com.dfragar.message.dto.AuditRecordDto;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 
 @Configuration
+@ImportRuntimeHints(MessageRuntimeHints.class)
+@RegisterReflectionForBinding({AccountMsgDto.class, AuditRecordDto.class})
 public class MessageFunctions {
 
     private static final Logger log = LoggerFactory.getLogger(MessageFunctions.class);
 
     @Bean
-    public Function<AccountMsgDto, AccountMsgDto> email() {
-        return accountMsgDto -> {
-            log.info("Sending email with the details : " + accountMsgDto.toString());
-            return accountMsgDto;
+    public Function<Message<AccountMsgDto>, Message<AccountMsgDto>> email(CommunicationMetrics communicationMetrics) {
+        return message -> {
+            communicationMetrics.recordDwell(message.getHeaders());
+            return communicationMetrics.email().record(() -> {
+                log.atInfo().setMessage("Sending email")
+                        .addKeyValue("accountNumber", message.getPayload().accountNumber())
+                        .log();
+                return message;
+            });
         };
     }
 
+    /**
+     * Acknowledges on communication-sent, passing on when the request was produced
+     */
     @Bean
-    public Function<AccountMsgDto, Long> sms() {
-        return accountMsgDto -> {
-            log.info("Sending sms with the details : " + accountMsgDto.toString());
-            return accountMsgDto.accountNumber();
+    public Function<Message<AccountMsgDto>, Message<Long>> sms(CommunicationMetrics communicationMetrics) {
+        return message -> communicationMetrics.sms().record(() -> {
+            log.atInfo().setMessage("Sending sms")
+                    .addKeyValue("accountNumber", message.getPayload().accountNumber())
+                    .log();
+            return MessageBuilder.withPayload(message.getPayload().accountNumber())
+                    .setHeader(CommunicationMetrics.PRODUCED_AT_HEADER,
+                            CommunicationMetrics.producedAt(message.getHeaders()))
+                    .build();
+        });
+    }
+
+    @Bean
+    public Consumer<List<AuditRecordDto>> auditTrail(AuditTrailWriter auditTrailWriter) {
+        return auditRecords -> {
+            try {
+                auditTrailWriter.append(auditRecords);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to append " + auditRecords.size() + " audit records", ex);
+            }
         };
     }
 
-}
\ No newline at end of file
+}
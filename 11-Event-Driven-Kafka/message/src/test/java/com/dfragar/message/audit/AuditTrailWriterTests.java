@@ -0,0 +1,92 @@
+package com.dfragar.message.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.dfragar.message.dto.AuditRecordDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditTrailWriterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsBatchesInOrderAcrossSegments() throws IOException {
+        AuditTrailWriter writer = new AuditTrailWriter(objectMapper, directory, 512);
+        for (int batch = 0; batch < 10; batch++) {
+            int first = batch * 5;
+            writer.append(IntStream.range(first, first + 5).mapToObj(this::auditRecord).toList());
+        }
+
+        List<AuditRecordDto> written = readAll();
+        writer.close();
+        List<AuditRecordDto> closed = readAll();
+
+        assertThat(segments()).hasSizeGreaterThan(1);
+        assertThat(written).extracting(AuditRecordDto::entityId)
+                .containsExactlyElementsOf(IntStream.range(0, 50).mapToObj(String::valueOf).toList());
+        assertThat(closed).isEqualTo(written);
+    }
+
+    private AuditRecordDto auditRecord(int id) {
+        return new AuditRecordDto("cards", "Card", String.valueOf(id), "UPDATE", "CARDS_MS",
+                Instant.ofEpochMilli(id), Map.of("cardId", id, "amountUsed", id * 10));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Reads every segment without closing the writer, so only sync flushed batches are visible
+     */
+    private List<AuditRecordDto> readAll() throws IOException {
+        List<AuditRecordDto> records = new ArrayList<>();
+        for (Path segment : segments()) {
+            String content = new String(inflate(segment), StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                if (!line.isEmpty()) {
+                    records.add(objectMapper.readValue(line, AuditRecordDto.class));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * An open segment has no gzip trailer yet, which surfaces as an EOF after its last flushed byte
+     */
+    private static byte[] inflate(Path segment) throws IOException {
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(segment))) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                inflated.write(chunk, 0, read);
+            }
+        } catch (EOFException ex) {
+            // expected for the segment still being written
+        }
+        return inflated.toByteArray();
+    }
+
+}
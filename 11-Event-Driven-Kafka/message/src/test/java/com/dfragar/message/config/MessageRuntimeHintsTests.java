@@ -0,0 +1,24 @@
+package com.dfragar.message.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class MessageRuntimeHintsTests {
+
+    @Test
+    void registersLz4JavaSafeImplementations() {
+        RuntimeHints hints = new RuntimeHints();
+        new MessageRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        for (String type : MessageRuntimeHints.LZ4_JAVA_SAFE_TYPES) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        }
+    }
+
+}
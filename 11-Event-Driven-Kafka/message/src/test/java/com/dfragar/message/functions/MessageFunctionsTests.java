@@ -0,0 +1,54 @@
+package com.dfragar.message.functions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+@SpringBootTest(properties = {
+        "spring.cloud.stream.default-binder=integration",
+        "message.audit.directory=target/audit-trail-functions-test"
+})
+@Import(TestChannelBinderConfiguration.class)
+class MessageFunctionsTests {
+
+    @Autowired
+    private InputDestination input;
+
+    @Autowired
+    private OutputDestination output;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void passesTheProducedAtHeaderOnToCommunicationSent() {
+        long producedAt = System.currentTimeMillis();
+        input.send(MessageBuilder.withPayload("""
+                        {"accountNumber":1234567890,"name":"Test","email":"test@example.com",
+                         "mobileNumber":"9000000000"}""".getBytes(StandardCharsets.UTF_8))
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON_VALUE)
+                .setHeader(CommunicationMetrics.PRODUCED_AT_HEADER, producedAt)
+                .build(), "send-communication");
+
+        Message<byte[]> sent = output.receive(5000, "communication-sent");
+
+        assertThat(sent).isNotNull();
+        assertThat(new String(sent.getPayload(), StandardCharsets.UTF_8)).isEqualTo("1234567890");
+        assertThat(CommunicationMetrics.producedAt(sent.getHeaders())).isEqualTo(producedAt);
+        assertThat(meterRegistry.get("communication.hop").tag("hop", "email").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("communication.hop").tag("hop", "sms").timer().count()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.dfragar.otel.sampler;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Head sampler for root spans that samples every route up to its own rate of traces per second and drops the rest,
+ * so a hot route cannot crowd out the others and the tracing cost stays bounded whatever the load.
+ * <p>
+ * Server spans are matched by {@code url.path} against the configured path prefixes, the longest one winning, and
+ * paths without a configured prefix get a bucket of their own at the default rate. Other root spans, such as
+ * scheduled work or Kafka records without trace headers, are limited by span name. A rate of zero drops the route
+ * entirely. Meant to be wrapped in {@link Sampler#parentBased(Sampler)}, so downstream services follow the decision
+ * of the edge.
+ */
+public final class RouteRateLimitingSampler implements Sampler {
+
+    static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+
+    /**
+     * Buckets created for unconfigured routes before they start sharing one, which bounds memory when paths carry
+     * identifiers
+     */
+    static final int MAX_ROUTES = 256;
+
+    private final Map<String, Double> rates;
+    private final double defaultRate;
+    private final LongSupplier nanoClock;
+    /**
+     * Bucket of every configured prefix, longest prefix first
+     */
+    private final Map<String, TokenBucket> prefixBuckets = new LinkedHashMap<>();
+    private final Map<String, TokenBucket> routeBuckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflowBucket;
+
+    /**
+     * @param rates       - traces per second by path prefix
+     * @param defaultRate - traces per second of every other route
+     */
+    public RouteRateLimitingSampler(Map<String, Double> rates, double defaultRate) {
+        this(rates, defaultRate, System::nanoTime);
+    }
+
+    RouteRateLimitingSampler(Map<String, Double> rates, double defaultRate, LongSupplier nanoClock) {
+        this.rates = new LinkedHashMap<>(rates);
+        this.defaultRate = defaultRate;
+        this.nanoClock = nanoClock;
+        rates.keySet().stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .forEach(prefix -> prefixBuckets.put(prefix, new TokenBucket(rates.get(prefix), nanoClock)));
+        this.overflowBucket = new TokenBucket(defaultRate, nanoClock);
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+            Attributes attributes, List<LinkData> parentLinks) {
+        String path = spanKind == SpanKind.SERVER ? attributes.get(URL_PATH) : null;
+        TokenBucket bucket = path != null ? bucketForPath(path) : routeBucket("span:" + name);
+        return bucket.tryAcquire() ? SamplingResult.recordAndSample() : SamplingResult.drop();
+    }
+
+    @Override
+    public String getDescription() {
+        return "RouteRateLimitingSampler{rates=" + rates + ", defaultRate=" + defaultRate + "}";
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+
+    private TokenBucket bucketForPath(String path) {
+        for (Map.Entry<String, TokenBucket> prefix : prefixBuckets.entrySet()) {
+            if (path.startsWith(prefix.getKey())) {
+                return prefix.getValue();
+            }
+        }
+        return routeBucket(path);
+    }
+
+    private TokenBucket routeBucket(String route) {
+        TokenBucket bucket = routeBuckets.get(route);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (routeBuckets.size() >= MAX_ROUTES) {
+            return overflowBucket;
+        }
+        return routeBuckets.computeIfAbsent(route, ignored -> new TokenBucket(defaultRate, nanoClock));
+    }
+
+}
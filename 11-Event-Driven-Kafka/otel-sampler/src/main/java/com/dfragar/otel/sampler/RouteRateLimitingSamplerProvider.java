@@ -0,0 +1,47 @@
+package com.dfragar.otel.sampler;
+
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigurationException;
+import io.opentelemetry.sdk.autoconfigure.spi.traces.ConfigurableSamplerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Makes the {@link RouteRateLimitingSampler} available to the OpenTelemetry Java agent as
+ * {@code otel.traces.sampler=route_ratelimited}, parent based. Configured with
+ * <ul>
+ *     <li>{@code otel.sampler.route.rates} - traces per second by path prefix, e.g. {@code /actuator=0,/bank=50}</li>
+ *     <li>{@code otel.sampler.route.default-rate} - traces per second of every other route, 10 by default</li>
+ * </ul>
+ * Both can be given as system properties or as environment variables, {@code OTEL_SAMPLER_ROUTE_RATES} and
+ * {@code OTEL_SAMPLER_ROUTE_DEFAULT_RATE}.
+ */
+public class RouteRateLimitingSamplerProvider implements ConfigurableSamplerProvider {
+
+    public static final String NAME = "route_ratelimited";
+
+    static final double DEFAULT_RATE = 10;
+
+    @Override
+    public Sampler createSampler(ConfigProperties config) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        config.getMap("otel.sampler.route.rates").forEach((prefix, rate) -> rates.put(prefix, parseRate(prefix, rate)));
+        double defaultRate = config.getDouble("otel.sampler.route.default-rate", DEFAULT_RATE);
+        return Sampler.parentBased(new RouteRateLimitingSampler(rates, defaultRate));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    private static double parseRate(String prefix, String rate) {
+        try {
+            return Double.parseDouble(rate);
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Invalid rate for " + prefix + " in otel.sampler.route.rates: " + rate, e);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.dfragar.otel.sampler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket refilled at a fixed rate and holding up to one second of tokens, so a burst after a quiet
+ * period is sampled up to the rate and no further.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final LongSupplier nanoClock;
+    /**
+     * Point in time the bucket was last empty: the tokens available are the time elapsed since, in tokens
+     */
+    private final AtomicLong emptyAt;
+
+    /**
+     * @param tokensPerSecond - refill rate, zero or less for a bucket that never grants a token
+     * @param nanoClock       - monotonic clock in nanoseconds
+     */
+    TokenBucket(double tokensPerSecond, LongSupplier nanoClock) {
+        this.nanosPerToken = tokensPerSecond > 0
+                ? Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond))
+                : Long.MAX_VALUE;
+        this.capacityNanos = Math.max(nanosPerToken, TimeUnit.SECONDS.toNanos(1));
+        this.nanoClock = nanoClock;
+        this.emptyAt = new AtomicLong(nanoClock.getAsLong() - capacityNanos);
+    }
+
+    boolean tryAcquire() {
+        if (nanosPerToken == Long.MAX_VALUE) {
+            return false;
+        }
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = emptyAt.get();
+            long effective = Math.max(current, now - capacityNanos);
+            if (now - effective < nanosPerToken) {
+                return false;
+            }
+            if (emptyAt.compareAndSet(current, effective + nanosPerToken)) {
+                return true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.dfragar.otel.sampler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Every route gets its own rate, refilled over time, and a hot route does not use up the others.
+ */
+class RouteRateLimitingSamplerTests {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final RouteRateLimitingSampler sampler = new RouteRateLimitingSampler(
+            Map.of("/actuator", 0.0, "/bank/accounts", 2.0, "/bank/accounts/api/create", 5.0), 1, clock::get);
+
+    @Test
+    void samplesEachRouteUpToItsRate() {
+        assertThat(sampled(SpanKind.SERVER, "/bank/accounts/api/fetch", 10)).isEqualTo(2);
+        assertThat(sampled(SpanKind.SERVER, "/bank/accounts/api/create", 10)).isEqualTo(5);
+        assertThat(sampled(SpanKind.SERVER, "/bank/cards/api/fetch", 10)).isEqualTo(1);
+        assertThat(sampled(SpanKind.SERVER, "/bank/loans/api/fetch", 10)).isEqualTo(1);
+        assertThat(sampled(SpanKind.SERVER, "/actuator/prometheus", 10)).isZero();
+    }
+
+    @Test
+    void refillsOverTimeWithoutExceedingOneSecondOfBurst() {
+        assertThat(sampled(SpanKind.SERVER, "/bank/accounts/api/fetch", 10)).isEqualTo(2);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(sampled(SpanKind.SERVER, "/bank/accounts/api/fetch", 10)).isEqualTo(1);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertThat(sampled(SpanKind.SERVER, "/bank/accounts/api/fetch", 10)).isEqualTo(2);
+    }
+
+    @Test
+    void limitsOtherRootSpansByName() {
+        assertThat(sampled(SpanKind.INTERNAL, "/actuator/prometheus", 10)).isEqualTo(1);
+        assertThat(sampled(SpanKind.CONSUMER, "send-communication process", 10)).isEqualTo(1);
+    }
+
+    @Test
+    void sharesOneBucketOnceTooManyRoutesWereSeen() {
+        IntStream.range(0, RouteRateLimitingSampler.MAX_ROUTES)
+                .forEach(i -> assertThat(sampled(SpanKind.SERVER, "/customers/" + i, 1)).isEqualTo(1));
+
+        assertThat(sampled(SpanKind.SERVER, "/customers/overflow-1", 10)
+                + sampled(SpanKind.SERVER, "/customers/overflow-2", 10)).isEqualTo(1);
+    }
+
+    private long sampled(SpanKind spanKind, String path, int spans) {
+        Attributes attributes = Attributes.of(RouteRateLimitingSampler.URL_PATH, path);
+        return IntStream.range(0, spans)
+                .mapToObj(i -> sampler.shouldSample(Context.root(), TRACE_ID, path, spanKind, attributes, List.of()))
+                .filter(result -> result.getDecision() == SamplingDecision.RECORD_AND_SAMPLE)
+                .count();
+    }
+
+}